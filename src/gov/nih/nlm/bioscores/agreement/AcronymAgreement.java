@@ -16,7 +16,7 @@ import gov.nih.nlm.ling.util.StringUtils;
  */
 // TODO Currently unused and needs work to be useful. 
 // TODO We could also just use an existing acronym recognition tool, like Hearst's.
-public class AcronymAgreement implements Agreement {
+public class AcronymAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
@@ -53,5 +53,9 @@ public class AcronymAgreement implements Agreement {
 		return buf.length() > 1 && acr.equals(buf.toString());
 	}
 	
+	@Override
+	public boolean dependsOnExpressionType() {
+		return true;
+	}
 
 }
@@ -20,7 +20,7 @@ import gov.nih.nlm.ling.sem.ConjunctionDetection;
  * @author Halil Kilicoglu
  *
  */
-public class AdjacencyAgreement implements Agreement {
+public class AdjacencyAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
@@ -0,0 +1,160 @@
+package gov.nih.nlm.bioscores.agreement;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import gov.nih.nlm.bioscores.core.CoreferenceType;
+import gov.nih.nlm.bioscores.core.ExpressionType;
+import gov.nih.nlm.ling.core.Document;
+import gov.nih.nlm.ling.core.SurfaceElement;
+
+/**
+ * A per-document memo table of agreement results, so that the same agreement between a coreferential mention
+ * and a candidate referent is computed once, even if it is used by the scoring functions of several
+ * resolution strategies. <p>
+ *
+ * Only {@link CacheableAgreement} results are memoized. The results are keyed by the mention, the candidate,
+ * the agreement class, and the coreference and mention types, if the agreement declares that it depends on them.
+ * Since agreements can depend on the semantic items of the document, the results are only valid for
+ * the modification stamp of the document they were computed for (see {@link Document#getSemanticsStamp()}). <p>
+ *
+ * The memo is stored with its document (see {@link Document#getCache(Class)}).
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+public class AgreementMemo {
+	private static Logger log = Logger.getLogger(AgreementMemo.class.getName());
+
+	// cacheable agreements are stateless, so a single instance is used for each class
+	private static final ClassValue<CacheableAgreement> sharedInstances = new ClassValue<CacheableAgreement>() {
+		@Override
+		protected CacheableAgreement computeValue(Class<?> clazz) {
+			if (CacheableAgreement.class.isAssignableFrom(clazz) == false) return null;
+			try {
+				return (CacheableAgreement)clazz.getDeclaredConstructor().newInstance();
+			} catch (Exception e) {
+				log.log(Level.SEVERE,"Error creating an instance of the agreement implementing class {0}.", new Object[]{clazz.getName()});
+				return null;
+			}
+		}
+	};
+
+	private final Document document;
+	// the results computed for the document with this stamp and number of semantic items
+	private int documentStamp;
+	private int documentSize;
+	private Map<Key,Boolean> results = new HashMap<>();
+
+	private AgreementMemo(Document document) {
+		this.document = document;
+		this.documentStamp = document.getSemanticsStamp();
+		this.documentSize = document.getAllSemanticItemsView().size();
+	}
+
+	/**
+	 * Gets the memo of a document, creating it if the document does not have one yet.
+	 *
+	 * @param document	the document being processed
+	 * @return  the agreement memo of the document
+	 */
+	public static AgreementMemo getInstance(Document document) {
+		synchronized (document) {
+			AgreementMemo memo = document.getCache(AgreementMemo.class);
+			if (memo == null) {
+				memo = new AgreementMemo(document);
+				document.setCache(AgreementMemo.class, memo);
+			}
+			return memo;
+		}
+	}
+
+	/**
+	 * Gets the shared instance of an agreement class, if its results can be memoized.
+	 *
+	 * @param clazz	the agreement class
+	 * @return  the shared instance, or null if the agreement is not a {@link CacheableAgreement}
+	 */
+	public static CacheableAgreement getCacheableInstance(Class<? extends Agreement> clazz) {
+		return sharedInstances.get(clazz);
+	}
+
+	/**
+	 * Evaluates a cacheable agreement, reusing the result computed earlier for the same inputs, if any.
+	 *
+	 * @param agreement	the agreement
+	 * @param corefType	the coreference type
+	 * @param expType	the mention type
+	 * @param exp		the coreferential mention
+	 * @param referent	the candidate referent
+	 * @return  the result of the agreement
+	 */
+	public boolean agree(CacheableAgreement agreement, CoreferenceType corefType, ExpressionType expType,
+			SurfaceElement exp, SurfaceElement referent) {
+		Key key = new Key(agreement.getClass(),
+				agreement.dependsOnCoreferenceType() ? corefType : null,
+				agreement.dependsOnExpressionType() ? expType : null, exp, referent);
+		Map<Key,Boolean> current = getResults();
+		Boolean result;
+		synchronized (this) {
+			result = current.get(key);
+		}
+		if (result == null) {
+			result = agreement.agree(corefType, expType, exp, referent);
+			synchronized (this) {
+				current.put(key, result);
+			}
+		}
+		return result;
+	}
+
+	// the results for the current state of the document, earlier results are discarded
+	private synchronized Map<Key,Boolean> getResults() {
+		int stamp = document.getSemanticsStamp();
+		int size = document.getAllSemanticItemsView().size();
+		if (stamp != documentStamp || size != documentSize) {
+			results = new HashMap<>();
+			documentStamp = stamp;
+			documentSize = size;
+		}
+		return results;
+	}
+
+	// textual units are compared by identity
+	private static class Key {
+		private final Class<?> agreement;
+		private final CoreferenceType corefType;
+		private final ExpressionType expType;
+		private final SurfaceElement exp;
+		private final SurfaceElement referent;
+
+		private Key(Class<?> agreement, CoreferenceType corefType, ExpressionType expType,
+				SurfaceElement exp, SurfaceElement referent) {
+			this.agreement = agreement;
+			this.corefType = corefType;
+			this.expType = expType;
+			this.exp = exp;
+			this.referent = referent;
+		}
+
+		@Override
+		public int hashCode() {
+			int code = agreement.hashCode();
+			code = 31 * code + (corefType == null ? 0 : corefType.hashCode());
+			code = 31 * code + (expType == null ? 0 : expType.hashCode());
+			code = 31 * code + System.identityHashCode(exp);
+			return 31 * code + System.identityHashCode(referent);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+			if (obj == null || getClass() != obj.getClass()) return false;
+			Key k = (Key)obj;
+			return (agreement == k.agreement && corefType == k.corefType && expType == k.expType &&
+					exp == k.exp && referent == k.referent);
+		}
+	}
+}
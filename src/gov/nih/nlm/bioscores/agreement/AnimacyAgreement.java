@@ -23,7 +23,7 @@ import gov.nih.nlm.ling.sem.SemanticItem;
  * @author Halil Kilicoglu
  *
  */
-public class AnimacyAgreement implements Agreement {
+public class AnimacyAgreement implements CacheableAgreement {
 
 	private static final List<String> POPULATION_SEMTYPES = CoreferenceProperties.SEMTYPES.get("POPL");
 
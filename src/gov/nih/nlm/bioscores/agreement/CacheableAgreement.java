@@ -0,0 +1,39 @@
+package gov.nih.nlm.bioscores.agreement;
+
+import gov.nih.nlm.bioscores.core.CoreferenceType;
+import gov.nih.nlm.bioscores.core.ExpressionType;
+import gov.nih.nlm.ling.core.SurfaceElement;
+
+/**
+ * An agreement constraint whose result is fully determined by the coreferential mention,
+ * the candidate referent, the state of their document, and the coreference/mention types it declares
+ * to depend on. <p>
+ *
+ * The results of such agreements can be reused across resolution strategies within a document
+ * (see {@link AgreementMemo}). An agreement that depends on anything else (e.g., internal state)
+ * should implement {@link Agreement} only. By default, the result is assumed to depend on neither
+ * the coreference type nor the mention type, and agreements override the methods below otherwise.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+public interface CacheableAgreement extends Agreement {
+
+	/**
+	 *
+	 * @return true if the result of {@link #agree(CoreferenceType, ExpressionType, SurfaceElement, SurfaceElement)}
+	 * 			depends on the coreference type
+	 */
+	public default boolean dependsOnCoreferenceType() {
+		return false;
+	}
+
+	/**
+	 *
+	 * @return true if the result of {@link #agree(CoreferenceType, ExpressionType, SurfaceElement, SurfaceElement)}
+	 * 			depends on the mention type
+	 */
+	public default boolean dependsOnExpressionType() {
+		return false;
+	}
+}
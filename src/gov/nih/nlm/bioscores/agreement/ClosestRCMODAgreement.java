@@ -22,7 +22,7 @@ import gov.nih.nlm.ling.sem.ConjunctionDetection;
  * @author Halil Kilicoglu
  *
  */
-public class ClosestRCMODAgreement implements Agreement {
+public class ClosestRCMODAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
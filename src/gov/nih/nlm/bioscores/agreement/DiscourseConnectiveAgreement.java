@@ -29,7 +29,7 @@ import gov.nih.nlm.ling.util.DiscourseUtils;
  * @author Halil Kilicoglu
  *
  */
-public class DiscourseConnectiveAgreement implements Agreement {
+public class DiscourseConnectiveAgreement implements CacheableAgreement {
 
 	public static final List<String> SENTENCE_INITIAL_DISCOURSE_CONNECTIVES = Arrays.asList("because", "although","since");
 
@@ -53,5 +53,15 @@ public class DiscourseConnectiveAgreement implements Agreement {
 		}
 		return false;
 	}
+
+	@Override
+	public boolean dependsOnCoreferenceType() {
+		return true;
+	}
 	
+	@Override
+	public boolean dependsOnExpressionType() {
+		return true;
+	}
+
 }
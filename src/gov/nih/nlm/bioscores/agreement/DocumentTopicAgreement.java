@@ -22,7 +22,7 @@ import gov.nih.nlm.ling.sem.Term;
  *
  */
 // TODO It needs more work to be useful.
-public class DocumentTopicAgreement implements Agreement {
+public class DocumentTopicAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
@@ -61,4 +61,9 @@ public class DocumentTopicAgreement implements Agreement {
 		return false;
 	}
 	
+	@Override
+	public boolean dependsOnExpressionType() {
+		return true;
+	}
+
 }
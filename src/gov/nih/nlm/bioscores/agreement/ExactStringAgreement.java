@@ -11,7 +11,7 @@ import gov.nih.nlm.ling.core.SurfaceElement;
  * @author Halil Kilicoglu
  *
  */
-public class ExactStringAgreement implements Agreement {
+public class ExactStringAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
@@ -20,7 +20,7 @@ import gov.nih.nlm.ling.core.Word;
  * @author Halil Kilicoglu
  *
  */
-public class GenderAgreement implements Agreement {
+public class GenderAgreement implements CacheableAgreement {
 
 	public static enum Gender {
 		Male, Female;
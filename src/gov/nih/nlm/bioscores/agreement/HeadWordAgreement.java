@@ -13,7 +13,7 @@ import gov.nih.nlm.ling.core.SurfaceElement;
  * @author Halil Kilicoglu
  *
  */
-public class HeadWordAgreement implements Agreement {
+public class HeadWordAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
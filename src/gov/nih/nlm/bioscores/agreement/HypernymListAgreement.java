@@ -1,13 +1,14 @@
 package gov.nih.nlm.bioscores.agreement;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 
-import edu.stanford.nlp.util.CollectionUtils;
 import gov.nih.nlm.bioscores.core.CoreferenceProperties;
 import gov.nih.nlm.bioscores.core.CoreferenceType;
 import gov.nih.nlm.bioscores.core.CoreferenceUtils;
+import gov.nih.nlm.bioscores.core.DomainLexicon;
 import gov.nih.nlm.bioscores.core.Expression;
 import gov.nih.nlm.bioscores.core.ExpressionType;
 import gov.nih.nlm.ling.core.SurfaceElement;
@@ -27,7 +28,7 @@ import gov.nih.nlm.ling.sem.SemanticItem;
  * @author Halil Kilicoglu
  *
  */
-public class HypernymListAgreement implements Agreement {
+public class HypernymListAgreement implements CacheableAgreement {
 	
 	public static final List<String> generalAnaphoricHypernyms = Arrays.asList("former","latter");
 	public static final List<String> generalCataphoricHypernyms = Arrays.asList("following");
@@ -41,26 +42,27 @@ public class HypernymListAgreement implements Agreement {
 		if (corefType == CoreferenceType.Cataphora && generalCataphoricHypernyms.contains(exp.getHead().getLemma())) return true;
 		if (corefType == CoreferenceType.Anaphora && generalAnaphoricHypernyms.contains(exp.getHead().getLemma())) return true;
 		LinkedHashSet<SemanticItem> sems = null;
-		if (ConjunctionDetection.filterByConjunctions(candidate).size() > 0) {
-			Conjunction conjPred = (Conjunction)ConjunctionDetection.filterByConjunctions(candidate).iterator().next();
+		LinkedHashSet<SemanticItem> conjs = ConjunctionDetection.filterByConjunctions(candidate);
+		if (conjs.size() > 0) {
+			Conjunction conjPred = (Conjunction)conjs.iterator().next();
 			sems =  new LinkedHashSet<>(conjPred.getArgItems());
 		} 	
 		else sems = candidate.getHeadSemantics();
-		if (sems == null) return false;
-		for (String h: CoreferenceProperties.HYPERNYMS.keySet()) {
-			List<String> hypers = CoreferenceProperties.HYPERNYMS.get(h);
-			List<String> semtypes = CoreferenceProperties.SEMTYPES.get(h);
-			for (String hy: hypers) {
-					if (exp.containsLemma(hy)) {
-						for (SemanticItem sem: sems) {
-							// allowing hypernyms in candidates caused significant decline when using gold terms
-							if (CollectionUtils.containsAny(semtypes,sem.getAllSemtypes()) || hypers.contains(candidate.getHead().getLemma().toLowerCase()))
-//							if (CollectionUtils.containsAny(semtypes,sem.getAllSemtypes()))								
-								return true;
-					}
-				}
-			}
+		if (sems == null || sems.size() == 0) return false;
+		DomainLexicon hypernyms = CoreferenceProperties.HYPERNYM_LEXICON;
+		BitSet groups = hypernyms.getGroups(exp);
+		if (groups.isEmpty()) return false;
+		// allowing hypernyms in candidates caused significant decline when using gold terms
+		if (hypernyms.hasWord(groups, candidate.getHead().getLemma().toLowerCase())) return true;
+		for (SemanticItem sem: sems) {
+			if (hypernyms.hasSemtype(groups, sem)) return true;
 		}
 		return false;
 	}
+
+	@Override
+	public boolean dependsOnCoreferenceType() {
+		return true;
+	}
+
 }
@@ -14,7 +14,7 @@ import gov.nih.nlm.ling.core.Word;
  * @author Halil Kilicoglu
  *
  */
-public class NonPostModifierMatchAgreement implements Agreement {
+public class NonPostModifierMatchAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
@@ -49,5 +49,10 @@ public class NonPostModifierMatchAgreement implements Agreement {
 		String refStr = doc.getText().substring(refNonBeg,refHeadEnd);
 		return refStr.equalsIgnoreCase(expStr);
 	}
+	
+	@Override
+	public boolean dependsOnExpressionType() {
+		return true;
+	}
 
 }
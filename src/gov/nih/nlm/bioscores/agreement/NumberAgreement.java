@@ -26,7 +26,7 @@ import gov.nih.nlm.ling.sem.SemanticItem;
  * @author Halil Kilicoglu
  *
  */
-public class NumberAgreement implements Agreement {
+public class NumberAgreement implements CacheableAgreement {
 	private static Logger log = Logger.getLogger(NumberAgreement.class.getName());
 		
 	public static enum Number {
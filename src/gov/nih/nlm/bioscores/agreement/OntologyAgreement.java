@@ -18,7 +18,7 @@ import gov.nih.nlm.ling.core.SurfaceElement;
  * @author Halil Kilicoglu
  *
  */
-public class OntologyAgreement implements Agreement {
+public class OntologyAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
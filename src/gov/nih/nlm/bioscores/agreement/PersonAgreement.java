@@ -17,7 +17,7 @@ import gov.nih.nlm.ling.core.SurfaceElement;
  * @author Halil Kilicoglu
  *
  */
-public class PersonAgreement implements Agreement {
+public class PersonAgreement implements CacheableAgreement {
 
 	public static enum Person {
 		First, Second, Third;
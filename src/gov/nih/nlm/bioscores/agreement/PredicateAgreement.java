@@ -26,7 +26,7 @@ import gov.nih.nlm.ling.wrappers.WordNetWrapper;
  *
  */
 // TODO Needs more work to be useful.
-public class PredicateAgreement implements Agreement {
+public class PredicateAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
@@ -26,7 +26,7 @@ import gov.nih.nlm.ling.transform.DependencyDirectionReversal;
  *
  */
 //TODO This can be enhanced with copular verbs other than 'be'.
-public class PredicateNominativeAgreement implements Agreement {
+public class PredicateNominativeAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
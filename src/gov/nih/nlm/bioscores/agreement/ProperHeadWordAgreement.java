@@ -22,7 +22,7 @@ import gov.nih.nlm.ling.util.StringUtils;
  * @author Halil Kilicoglu
  *
  */
-public class ProperHeadWordAgreement implements Agreement {
+public class ProperHeadWordAgreement implements CacheableAgreement {
 
 	/**
 	 * @return true if the nominal argument match up to their head.
@@ -21,7 +21,7 @@ import gov.nih.nlm.ling.sem.ConjunctionDetection;
  * @author Halil Kilicoglu
  *
  */
-public class RelativePronDependencyAgreement implements Agreement {
+public class RelativePronDependencyAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
@@ -60,4 +60,10 @@ public class RelativePronDependencyAgreement implements Agreement {
 		}
 		return false;
 	}
+	
+	@Override
+	public boolean dependsOnExpressionType() {
+		return true;
+	}
+
 }
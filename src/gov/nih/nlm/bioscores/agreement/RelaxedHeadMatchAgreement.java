@@ -15,7 +15,7 @@ import gov.nih.nlm.ling.core.Word;
  * @author Halil Kilicoglu
  *
  */
-public class RelaxedHeadMatchAgreement implements Agreement {
+public class RelaxedHeadMatchAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
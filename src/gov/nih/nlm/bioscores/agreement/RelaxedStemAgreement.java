@@ -1,11 +1,13 @@
 package gov.nih.nlm.bioscores.agreement;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
 import gov.nih.nlm.bioscores.core.CoreferenceType;
 import gov.nih.nlm.bioscores.core.ExpressionType;
 import gov.nih.nlm.bioscores.process.PorterStemmer;
+import gov.nih.nlm.ling.core.AbstractSurfaceElement;
 import gov.nih.nlm.ling.core.SurfaceElement;
 import gov.nih.nlm.ling.core.Word;
 import gov.nih.nlm.ling.util.StringUtils;
@@ -15,27 +17,28 @@ import gov.nih.nlm.ling.util.StringUtils;
  * coreference. It is inspired by one of the sieves reported in Rink and Harabagiu (2012). <p>
  * 
  * Agreement is predicted between two nominal mentions if their stem overlap, 
- * based on Porter stemmer, is greater than 50%.
+ * based on Porter stemmer, is greater than 50%. <p>
+ * 
+ * The stem set of a textual unit is stored with the textual unit (see {@link AbstractSurfaceElement#getTextCache(Class)}), 
+ * so that each textual unit is stemmed once rather than once per mention/candidate pair. 
+ * A stored stem set is recomputed if the text of its textual unit changes. 
  * 
  * @author kilicogluh
  *
  */
-public class RelaxedStemAgreement implements Agreement {
+public class RelaxedStemAgreement implements CacheableAgreement {
 
-	private static PorterStemmer stemmer = new PorterStemmer();
-	
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
 		if (ExpressionType.PRONOMINAL_TYPES.contains(expType)) return false;
 		Set<String> expStems = getStems(exp);
 		Set<String> refStems = getStems(referent);
 		if (incompatibleNumbers(expStems,refStems)) return false;
-		Set<String> allStems = new HashSet<>(expStems); allStems.addAll(refStems);
-		int all = allStems.size();
 		int common = 0;
 		for (String st: expStems) {
 			if (refStems.contains(st)) common++;
 		}
+		int all = expStems.size() + refStems.size() - common;
 		double pct = (double) common/all;
 		return (pct >= 0.5);
 	}
@@ -44,20 +47,21 @@ public class RelaxedStemAgreement implements Agreement {
 	 * Gets stems of a textual unit, using Porter stemmer.
 	 * 
 	 * @param surf	the textual unit
-	 * @return	the set of textual unit stems
+	 * @return	the set of textual unit stems, unmodifiable
 	 */
 	public static Set<String> getStems(SurfaceElement surf) {
+		AbstractSurfaceElement owner = (surf instanceof AbstractSurfaceElement ? (AbstractSurfaceElement)surf : null);
+		if (owner != null) {
+			Stems cached = owner.getTextCache(Stems.class);
+			if (cached != null) return cached.stems;
+		}
 		Set<String> stems = new HashSet<>();
 		for (Word w: surf.toWordList()) {
-			if (toStem(w)) {
-				for (int i=0; i <w.getText().length(); i++ ) {
-					char c = w.getText().charAt(i);
-					stemmer.add(c);
-				}
-				stemmer.stem();
-				stems.add(stemmer.toString());
-			}
+			if (toStem(w)) 
+				stems.add(PorterStemmer.stemWord(w.getText()));
 		}
+		stems = Collections.unmodifiableSet(stems);
+		if (owner != null) owner.setTextCache(Stems.class, new Stems(stems));
 		return stems;
 	}
 	
@@ -75,5 +79,18 @@ public class RelaxedStemAgreement implements Agreement {
 		}
 		return false;
 	}
+	
+	private static class Stems {
+		private final Set<String> stems;
+		
+		private Stems(Set<String> stems) {
+			this.stems = stems;
+		}
+	}
+	
+	@Override
+	public boolean dependsOnExpressionType() {
+		return true;
+	}
 
 }
@@ -1,13 +1,11 @@
 package gov.nih.nlm.bioscores.agreement;
 
+import java.util.BitSet;
 import java.util.LinkedHashSet;
-import java.util.List;
-import java.util.Map;
-
-import org.apache.commons.collections15.CollectionUtils;
 
 import gov.nih.nlm.bioscores.core.CoreferenceProperties;
 import gov.nih.nlm.bioscores.core.CoreferenceType;
+import gov.nih.nlm.bioscores.core.DomainLexicon;
 import gov.nih.nlm.bioscores.core.ExpressionType;
 import gov.nih.nlm.ling.core.SurfaceElement;
 import gov.nih.nlm.ling.sem.Conjunction;
@@ -29,35 +27,35 @@ import gov.nih.nlm.ling.sem.SemanticItem;
  *
  */
 // TODO It can be extended to personal pronouns and generalized.
-public class SemanticCoercionAgreement implements Agreement {
+public class SemanticCoercionAgreement implements CacheableAgreement {
 	
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
 		if (expType != ExpressionType.PossessivePronoun) return false;
 		LinkedHashSet<SemanticItem> sems = null;
-		if (ConjunctionDetection.filterByConjunctions(referent).size() > 0) {
-			Conjunction conjPred = (Conjunction)ConjunctionDetection.filterByConjunctions(referent).iterator().next();
+		LinkedHashSet<SemanticItem> conjs = ConjunctionDetection.filterByConjunctions(referent);
+		if (conjs.size() > 0) {
+			Conjunction conjPred = (Conjunction)conjs.iterator().next();
 			sems =  new LinkedHashSet<>(conjPred.getArgItems());
 		} 	
 		else sems = referent.getSemantics();
 		if (sems == null) return false;
-		return (canBeCoerced(CoreferenceProperties.EVENT_TRIGGERS,exp,sems) || 
-				canBeCoerced(CoreferenceProperties.MERONYMS,exp,sems));
+		return (canBeCoerced(CoreferenceProperties.EVENT_TRIGGER_LEXICON,exp,sems) || 
+				canBeCoerced(CoreferenceProperties.MERONYM_LEXICON,exp,sems));
 	}
 	
-	private static boolean canBeCoerced(Map<String,List<String>> wordList, SurfaceElement exp, LinkedHashSet<SemanticItem> sems) {
-		for (String h: wordList.keySet()) {
-			List<String> words = wordList.get(h);
-			List<String> semtypes = CoreferenceProperties.SEMTYPES.get(h);
-			for (String w: words) {
-				if (exp.containsLemma(w)) {
-					for (SemanticItem sem: sems) {
-							if (CollectionUtils.containsAny(semtypes,sem.getAllSemtypes()))								
-								return true;
-					}
-				}
-			}
+	private static boolean canBeCoerced(DomainLexicon lexicon, SurfaceElement exp, LinkedHashSet<SemanticItem> sems) {
+		BitSet groups = lexicon.getGroups(exp);
+		if (groups.isEmpty()) return false;
+		for (SemanticItem sem: sems) {
+			if (lexicon.hasSemtype(groups, sem)) return true;
 		}
 		return false;
 	}
+	
+	@Override
+	public boolean dependsOnExpressionType() {
+		return true;
+	}
+
 }
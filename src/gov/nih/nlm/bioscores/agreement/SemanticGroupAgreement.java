@@ -21,7 +21,7 @@ import gov.nih.nlm.ling.util.SemUtils;
  * @author Halil Kilicoglu
  *
  */
-public class SemanticGroupAgreement implements Agreement {
+public class SemanticGroupAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
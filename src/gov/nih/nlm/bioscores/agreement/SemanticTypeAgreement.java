@@ -21,7 +21,7 @@ import java.util.Set;
  * @author Halil Kilicoglu
  *
  */
-public class SemanticTypeAgreement implements Agreement {
+public class SemanticTypeAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
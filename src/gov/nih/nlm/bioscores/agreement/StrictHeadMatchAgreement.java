@@ -21,7 +21,7 @@ import gov.nih.nlm.ling.core.Word;
  * @author Halil Kilicoglu
  *
  */
-public class StrictHeadMatchAgreement implements Agreement {
+public class StrictHeadMatchAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
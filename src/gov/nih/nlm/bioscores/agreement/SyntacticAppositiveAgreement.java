@@ -24,7 +24,7 @@ import java.util.List;
  * @author Halil Kilicoglu
  *
  */
-public class SyntacticAppositiveAgreement implements Agreement {
+public class SyntacticAppositiveAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement referent) {
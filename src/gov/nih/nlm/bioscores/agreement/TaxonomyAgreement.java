@@ -29,7 +29,7 @@ import gov.nih.nlm.ling.sem.SemanticItem;
  */
 // TODO I simply used drug taxonomic relations from UMLS for experiments, which didn't prove useful. 
 // TODO However, I believe this can be generalized to make it more useful.
-public class TaxonomyAgreement implements Agreement {
+public class TaxonomyAgreement implements CacheableAgreement {
 
 	@Override
 	public boolean agree(CoreferenceType corefType, ExpressionType expType, SurfaceElement exp, SurfaceElement candidate) {
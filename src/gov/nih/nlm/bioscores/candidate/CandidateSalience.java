@@ -17,6 +17,7 @@ import gov.nih.nlm.ling.core.SurfaceElement;
 import gov.nih.nlm.ling.sem.ConjunctionDetection;
 import gov.nih.nlm.ling.sem.Ontology;
 import gov.nih.nlm.ling.sem.SemanticItem;
+import gov.nih.nlm.ling.util.ParseTreeIndex;
 import gov.nih.nlm.ling.util.ParseTreeUtils;
 
 /**
@@ -101,8 +102,6 @@ public class CandidateSalience {
 		if (candidates == null || candidates.size() ==0) return;
 		Document doc = exp.getSentence().getDocument();
 		Map<Ontology,Integer> counts = doc.getOntologyCounts();
-		List<Integer> countList = new ArrayList<>(counts.values());
-		Collections.sort(countList);
 		boolean found = false;
 		for (Ontology o: counts.keySet()) {
 			for (SurfaceElement s: candidates) {
@@ -139,23 +138,23 @@ public class CandidateSalience {
 		Sentence expSent = exp.getSentence();
 		Document doc = expSent.getDocument();
 		Tree expSentTree = expSent.getTree();
-		int expIndex = doc.getSentences().indexOf(expSent);
+		int expIndex = doc.getSentenceIndex(expSent);
 		Tree expTree = ParseTreeUtils.getCorrespondingSubTree(expSentTree, exp);
 		if (expTree == null) return;
-		int distanceFromRoot = expSentTree.pathNodeToNode(expSentTree, expTree).size();
+		ParseTreeIndex expTreeIndex = expSent.getTreeIndex();
+		int distanceFromRoot = expTreeIndex.pathLengthFromRoot(expTree);
  		Map<SurfaceElement,Integer> treeDistances = new HashMap<>();
  		Map<SurfaceElement,Integer> sentRootDistances = new HashMap<>();
  		if (candidates.size() == 0) return;
 		for (SurfaceElement n: candidates) {
 			Sentence candSent = n.getSentence();
-			Tree candSentTree = candSent.getTree();
-			int candIndex = doc.getSentences().indexOf(candSent);
+			int candIndex = doc.getSentenceIndex(candSent);
 			int graphDist = -1;
 			Tree candTree = ParseTreeUtils.getCorrespondingSubTree(candSent.getTree(), n.getHead());
 			if (candTree == null) continue;
-			int antDistanceFromRoot = candSentTree.pathNodeToNode(candSentTree, candTree).size();
+			int antDistanceFromRoot = candSent.getTreeIndex().pathLengthFromRoot(candTree);
 			if (candIndex == expIndex) {
-				graphDist = expSentTree.pathNodeToNode(candTree,expTree).size();
+				graphDist = expTreeIndex.pathLength(candTree,expTree);
 			} else {
 				int sentDist = Math.abs(expIndex-candIndex);
 				graphDist = distanceFromRoot + antDistanceFromRoot + (sentDist*2);
@@ -194,10 +193,9 @@ public class CandidateSalience {
 		// get the best candidates in the closest sentence
 		List<SurfaceElement> temp3 = new ArrayList<>();
 		if (temp2.size() > 1) {
-			List<Sentence> sentences = doc.getSentences();
-			Sentence closest = sentences.get(0);
+			Sentence closest = doc.getSentences().get(0);
 			for (SurfaceElement tt: temp2) {
-				if (sentences.indexOf(tt.getSentence()) > sentences.indexOf(closest)) closest = tt.getSentence();
+				if (doc.getSentenceIndex(tt.getSentence()) > doc.getSentenceIndex(closest)) closest = tt.getSentence();
 			}
 			for (SurfaceElement tt: temp2) {
 				if (tt.getSentence().equals(closest)) temp3.add(tt);
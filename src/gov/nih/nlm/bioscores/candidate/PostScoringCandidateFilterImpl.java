@@ -49,6 +49,10 @@ public class PostScoringCandidateFilterImpl {
 		public ThresholdFilter(int threshold) {
 			this.threshold = threshold;
 		}
+		
+		public int getThreshold() {
+			return threshold;
+		}
 
 		@Override
 		public Map<SurfaceElement,Integer> postFilter(SurfaceElement exp, Map<SurfaceElement, Integer> scoreMap) {
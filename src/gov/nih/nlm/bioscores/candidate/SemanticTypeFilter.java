@@ -1,6 +1,7 @@
 package gov.nih.nlm.bioscores.candidate;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -10,6 +11,7 @@ import gov.nih.nlm.bioscores.core.CoreferenceType;
 import gov.nih.nlm.bioscores.core.ExpressionType;
 import gov.nih.nlm.ling.core.SurfaceElement;
 import gov.nih.nlm.ling.sem.SemanticItem;
+import gov.nih.nlm.ling.sem.SemtypeRegistry;
 
 /**
  * This filter eliminates referents that are not associated with one of the
@@ -24,6 +26,7 @@ import gov.nih.nlm.ling.sem.SemanticItem;
 public class SemanticTypeFilter implements CandidateFilter {
 
 	private Collection<String> semanticTypes;
+	private BitSet semanticTypeBits;
 	
 	/**
 	 * Constructs a {@link SemanticTypeFilter} object with a collection of 
@@ -49,11 +52,12 @@ public class SemanticTypeFilter implements CandidateFilter {
 			filteredCandidates = candidates;
 			return;
 		}
+		if (semanticTypeBits == null) semanticTypeBits = SemtypeRegistry.getBits(semanticTypes);
 		for (SurfaceElement cand: candidates) {
 			Set<SemanticItem> sems = cand.getSemantics();
 			if (sems == null) continue;
 			for (SemanticItem sem: sems) {
-				if (semanticTypes.contains(sem.getType())) {
+				if (SemtypeRegistry.contains(semanticTypeBits, sem.getType())) {
 					filteredCandidates.add(cand);
 					break;
 				}
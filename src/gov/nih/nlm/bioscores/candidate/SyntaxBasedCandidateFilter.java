@@ -9,6 +9,7 @@ import java.util.logging.Logger;
 import gov.nih.nlm.bioscores.core.CoreferenceType;
 import gov.nih.nlm.bioscores.core.ExpressionType;
 import gov.nih.nlm.bioscores.exp.ReflexivePronounOps;
+import gov.nih.nlm.ling.core.DependencyTypeRegistry;
 import gov.nih.nlm.ling.core.Sentence;
 import gov.nih.nlm.ling.core.SurfaceElement;
 import gov.nih.nlm.ling.core.SynDependency;
@@ -81,13 +82,13 @@ public class SyntaxBasedCandidateFilter implements CandidateFilter {
 	private boolean possibleSyntacticPath(List<SynDependency> path) {
 		if (path == null) return false;
 		if (verbalIndicatorPath(path) || nominalIndicatorPath(path)) return true;
-		List<SynDependency> appos = SynDependency.dependenciesWithTypes(path,SynDependency.APPOS_DEPENDENCIES, true);
+		List<SynDependency> appos = SynDependency.dependenciesWithCategory(path,DependencyTypeRegistry.APPOSITIVE);
 		if (path.size() > 2 || (path.size() > 1 && appos.size() == 0)) return false;
 		boolean allValid = true;
 		for (SynDependency p: path) {
 			String t = p.getType();
 			if (appos.contains(p)) continue;
-			if (t.contains("obj") || t.contains("subj") || t.startsWith("prep")
+			if (p.hasCategory(DependencyTypeRegistry.OBJECT | DependencyTypeRegistry.SUBJECT | DependencyTypeRegistry.PREPOSITIONAL)
 					|| t.equals("cc") || Arrays.asList(SynDependency.NP_INTERNAL_DEPENDENCIES).contains(t)) continue;
 			allValid = false;
 			break;
@@ -99,9 +100,8 @@ public class SyntaxBasedCandidateFilter implements CandidateFilter {
 		boolean objDep = false;
 		boolean subjDep = false;
 		for (SynDependency p: path) {
-			String t = p.getType();
-			if (t.contains("obj") || t.contains("prep")) objDep = true;
-			else if (t.contains("subj")) subjDep = true;
+			if (p.hasCategory(DependencyTypeRegistry.OBJECT | DependencyTypeRegistry.PREPOSITIONAL)) objDep = true;
+			else if (p.hasCategory(DependencyTypeRegistry.SUBJECT)) subjDep = true;
 			else return false;
 		}
 		return (path.size() == 2 && objDep && subjDep);
@@ -111,7 +111,7 @@ public class SyntaxBasedCandidateFilter implements CandidateFilter {
 		int count = 0;
 		for (SynDependency p: path) {
 			String t = p.getType();
-			if (t.contains("prep") || Arrays.asList(SynDependency.NP_INTERNAL_DEPENDENCIES).contains(t)) count++;
+			if (p.hasCategory(DependencyTypeRegistry.PREPOSITIONAL) || Arrays.asList(SynDependency.NP_INTERNAL_DEPENDENCIES).contains(t)) count++;
 			else return false;
 		}
 		return (path.size() == 2 && count == 2);
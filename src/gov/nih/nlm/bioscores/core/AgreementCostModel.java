@@ -0,0 +1,139 @@
+package gov.nih.nlm.bioscores.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import gov.nih.nlm.bioscores.agreement.Agreement;
+import gov.nih.nlm.ling.core.Document;
+
+/**
+ * Runtime estimates of the cost and the selectivity of agreement constraints, used to order
+ * the scoring functions of a resolution strategy so that the functions that are most likely
+ * to rule out a candidate referent cheaply are evaluated first (see {@link CoreferenceResolver}). <p>
+ *
+ * The outcome of every evaluation is counted, while the evaluation time is sampled, once every
+ * {@link #SAMPLING_INTERVAL} evaluations of an agreement. The estimates are collected for a single document 
+ * and stored with it (see {@link Document#getCache(Class)}), so that the evaluation order does not depend on 
+ * other documents being processed, concurrently or earlier.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+class AgreementCostModel {
+
+	static final int SAMPLING_INTERVAL = 16;
+
+	private final Map<Class<? extends Agreement>,Statistics> statistics = new HashMap<>();
+
+	private AgreementCostModel() {}
+
+	/**
+	 * Gets the cost model of a document, creating it if the document does not have one yet.
+	 *
+	 * @param document	the document being processed
+	 * @return  the cost model of the document
+	 */
+	static AgreementCostModel getInstance(Document document) {
+		synchronized (document) {
+			AgreementCostModel model = document.getCache(AgreementCostModel.class);
+			if (model == null) {
+				model = new AgreementCostModel();
+				document.setCache(AgreementCostModel.class, model);
+			}
+			return model;
+		}
+	}
+
+	private Statistics getStatistics(Class<? extends Agreement> clazz) {
+		Statistics stats = statistics.get(clazz);
+		if (stats == null) {
+			stats = new Statistics();
+			statistics.put(clazz, stats);
+		}
+		return stats;
+	}
+
+	/**
+	 * Indicates whether the next evaluation of an agreement should be timed.
+	 *
+	 * @param clazz	the agreement class
+	 * @return  true if the evaluation should be timed
+	 */
+	synchronized boolean sample(Class<? extends Agreement> clazz) {
+		return (getStatistics(clazz).evaluations % SAMPLING_INTERVAL == 0);
+	}
+
+	/**
+	 * Records the outcome of an evaluation.
+	 *
+	 * @param clazz		the agreement class
+	 * @param agrees	whether the agreement held
+	 * @param nanos		the evaluation time in nanoseconds, negative if the evaluation was not timed
+	 */
+	synchronized void record(Class<? extends Agreement> clazz, boolean agrees, long nanos) {
+		Statistics stats = getStatistics(clazz);
+		stats.evaluations++;
+		if (agrees) stats.agreements++;
+		if (nanos >= 0) {
+			stats.samples++;
+			stats.nanos += nanos;
+		}
+	}
+
+	/**
+	 * Orders scoring functions by the expected decrease in the best achievable score of a candidate
+	 * per unit of evaluation cost, in descending order. Functions with no estimates yet keep their relative order
+	 * and come first, so that they are sampled.
+	 *
+	 * @param scoringFunctions	the scoring functions to order
+	 * @return  a new list with the scoring functions in evaluation order
+	 */
+	synchronized List<ScoringFunction> order(List<ScoringFunction> scoringFunctions) {
+		List<ScoringFunction> ordered = new ArrayList<>(scoringFunctions);
+		if (ordered.size() < 2) return ordered;
+		final Map<ScoringFunction,Double> ranks = new IdentityHashMap<>();
+		for (ScoringFunction sc: ordered) {
+			ranks.put(sc, rank(sc));
+		}
+		Collections.sort(ordered, new Comparator<ScoringFunction>() {
+			public int compare(ScoringFunction a, ScoringFunction b) {
+				return Double.compare(ranks.get(b), ranks.get(a));
+			}
+		});
+		return ordered;
+	}
+
+	/**
+	 *
+	 * @param sc	a scoring function
+	 * @return  the largest amount the scoring function can add to a salience score
+	 */
+	static int maxContribution(ScoringFunction sc) {
+		return Math.max(0, Math.max(sc.getScore(), -sc.getPenalty()));
+	}
+
+	// the expected decrease in the upper bound of the score per nanosecond
+	private double rank(ScoringFunction sc) {
+		Statistics stats = getStatistics(sc.getImplementingClass());
+		long samples = stats.samples;
+		long evaluations = stats.evaluations;
+		if (samples == 0 || evaluations == 0) return Double.POSITIVE_INFINITY;
+		double agreeRate = (double)stats.agreements / evaluations;
+		int max = maxContribution(sc);
+		double expectedDrop = agreeRate * (max - sc.getScore()) + (1 - agreeRate) * (max + sc.getPenalty());
+		double cost = Math.max(1.0, (double)stats.nanos / samples);
+		return expectedDrop / cost;
+	}
+
+	private static class Statistics {
+		private long evaluations;
+		private long agreements;
+		private long samples;
+		private long nanos;
+	}
+}
@@ -16,6 +16,7 @@ import gov.nih.nlm.ling.composition.ArgumentPropagation;
 import gov.nih.nlm.ling.composition.ArgumentRule;
 import gov.nih.nlm.ling.composition.DependencyClass;
 import gov.nih.nlm.ling.composition.ScalarModalityValueComposition;
+import gov.nih.nlm.ling.composition.ScopeGraph;
 import gov.nih.nlm.ling.composition.SourcePropagation;
 import gov.nih.nlm.ling.core.Document;
 import gov.nih.nlm.ling.core.Lexeme;
@@ -67,6 +68,25 @@ public class ArgumentIdentificationWithCoreference extends ArgumentIdentificatio
 	// TODO Currently, we can only handle anaphora relations
 	public static void argumentIdentification(Node node, DocumentGraph docGraph, List<ArgumentRule> rules, 
 			SemanticGraph semGraph, LinkedHashSet<SemanticItem> allChildSemantics, boolean createGeneric, boolean createIfExists) {
+		argumentIdentification(node,docGraph,rules,semGraph,new ScopeGraph(),allChildSemantics,createGeneric,createIfExists);
+	}
+	
+	/**
+	 * Same as {@link ArgumentIdentification#argumentIdentification(Node, DocumentGraph, List, SemanticGraph, ScopeGraph, LinkedHashSet, boolean, boolean)}
+	 * but incorporates coreference resolution into the processing.
+	 * <var>semGraph</var> parameter is expected to be an instance of {@link CoreferenceSemanticGraph} class.
+	 * 
+	 * @param node				the current node in the <var>docGraph</var> to process
+	 * @param docGraph  		the embedding graph of the document
+	 * @param rules 			the argument identification rules
+	 * @param semGraph  		semantic graph of the document  
+	 * @param scopes			scope graph of the composition run
+	 * @param allChildSemantics all semantic objects associated with the children
+	 * @param createGeneric  	whether creating generic predicates are allowed at this step 
+	 * @param createIfExists  	whether new predications are allowed if there are existing ones associated with the node
+	 */
+	public static void argumentIdentification(Node node, DocumentGraph docGraph, List<ArgumentRule> rules, 
+			SemanticGraph semGraph, ScopeGraph scopes, LinkedHashSet<SemanticItem> allChildSemantics, boolean createGeneric, boolean createIfExists) {
 		log.log(Level.FINE, "Examining node for argument identification: {0}.", new Object[]{node.toString()});
 		if (GraphUtils.isLeaf(docGraph,node) ) {
 			LinkedHashSet<SemanticItem> sems = node.getSemantics();
@@ -141,7 +161,7 @@ public class ArgumentIdentificationWithCoreference extends ArgumentIdentificatio
 				continue;
 			}
 			LinkedHashSet<SemanticItem> childSemantics = new LinkedHashSet<>();	
-			argumentIdentification(eChild,docGraph,rules,semGraph,childSemantics,createGeneric,createIfExists);
+			argumentIdentification(eChild,docGraph,rules,semGraph,scopes,childSemantics,createGeneric,createIfExists);
 			if (childSemantics == null || childSemantics.size() == 0) {
 				log.log(Level.FINE, "No semantics found via edge {0} from node {1}.", new Object[]{eChild.getId(),node.getId()});
 				continue;
@@ -154,7 +174,7 @@ public class ArgumentIdentificationWithCoreference extends ArgumentIdentificatio
 		}
 		// return the most relevant, prominent semantic items from composition
 		LinkedHashSet<SemanticItem> composedItems = new LinkedHashSet<>();
-		compose(node,argStructure,rules,semGraph,composedItems,createGeneric,createIfExists);
+		compose(node,argStructure,rules,semGraph,scopes,composedItems,createGeneric,createIfExists);
 		for (SemanticItem c: composedItems) {
 			log.log(Level.FINE, "Composed semantic object from node {0}: {1}.", new Object[]{node.getId(),c.toString()});
 		}
@@ -163,7 +183,7 @@ public class ArgumentIdentificationWithCoreference extends ArgumentIdentificatio
 	
 	// TODO It's the same as compose method in ArgumentIdentification. With some refactoring, it could be possible t do without it.
 	private static void compose(Node node, Map<Edge,LinkedHashSet<SemanticItem>> argStructure, List<ArgumentRule> rules, SemanticGraph d, 
-			LinkedHashSet<SemanticItem> composedItems, boolean createGeneric, boolean createIfExists) {
+			ScopeGraph scopes, LinkedHashSet<SemanticItem> composedItems, boolean createGeneric, boolean createIfExists) {
 		if (node instanceof SurfaceElement == false) {
 			log.log(Level.FINEST, "Node {0} is not a textual unit. Skipping composition.", new Object[]{node.getId()});
 			return;
@@ -179,7 +199,7 @@ public class ArgumentIdentificationWithCoreference extends ArgumentIdentificatio
 			if (createGeneric) {
 				if (argStructure.size() == 0) return;
 				Predicate pr = sif.newPredicate(doc, surf.getSpan(), surf.getHead().getSpan(), Predicate.GENERIC);
-				LinkedHashSet<Predication> preds = composePredications(surf,pr,sif,argStructure,applyRules,d);
+				LinkedHashSet<Predication> preds = composePredications(surf,pr,sif,argStructure,applyRules,d,scopes);
 				if (preds.size() == 0) return;
 				for (Predication pred: preds) {
 					d.addSemanticNode(null, pred,"");
@@ -196,7 +216,7 @@ public class ArgumentIdentificationWithCoreference extends ArgumentIdentificatio
 					composedItems.add(r);
 					log.log(Level.FINEST, "Node {0} is associated with relation {1}, adding it to the semantic graph.", 
 							new Object[]{node.getId(),r.getId()});
-					LinkedHashSet<Predication> updated = handleNegatedArguments(r,argStructure);
+					LinkedHashSet<Predication> updated = handleNegatedArguments(r,argStructure,scopes);
 					for (Predication u: updated) {
 						log.log(Level.FINEST, "Node {0} is associated with predication {1}, adding it to the semantic graph.", 
 								new Object[]{node.getId(),u.getId()});
@@ -226,7 +246,7 @@ public class ArgumentIdentificationWithCoreference extends ArgumentIdentificatio
 							new Object[]{pr.getId()});
 					continue;
 				}
-				LinkedHashSet<Predication> preds = composePredications(surf, pr,sif,argStructure,applyRules,d);
+				LinkedHashSet<Predication> preds = composePredications(surf, pr,sif,argStructure,applyRules,d,scopes);
 				// may want to add Span to semantic relation here. also may want to remove SR if it is not fulfilled with 
 				if (preds.size() == 0) continue;
 				for (Predication pred: preds) {
@@ -242,7 +262,7 @@ public class ArgumentIdentificationWithCoreference extends ArgumentIdentificatio
 	}
 			
 	private static LinkedHashSet<Predication> composePredications(SurfaceElement surf, Predicate pr, SemanticItemFactory sif, 
-			Map<Edge,LinkedHashSet<SemanticItem>> argStructure, List<ArgumentRule> rules, SemanticGraph d) {
+			Map<Edge,LinkedHashSet<SemanticItem>> argStructure, List<ArgumentRule> rules, SemanticGraph d, ScopeGraph scopes) {
 		Lexeme lex = surf.getHead().getLexeme();
 		String category = surf.getCategory();
 		LinkedHashSet<Predication> predications = new LinkedHashSet<>();
@@ -330,10 +350,10 @@ public class ArgumentIdentificationWithCoreference extends ArgumentIdentificatio
 			if (Predication.coreArgsResolved(arguments,relDef)) {
 				Predication pred = sif.newPredication(doc, pr, arguments, null, null);
 				pred.setSource(true);
-				ScalarModalityValueComposition.propagateScalarModalityValues(pred);
+				ScalarModalityValueComposition.propagateScalarModalityValues(pred,scopes);
 				SourcePropagation.propagateSource(pred);
 				predications.add(pred);
-				predications.addAll(handleNegatedArguments(pred,argStructure));
+				predications.addAll(handleNegatedArguments(pred,argStructure,scopes));
 			}
 		}
 		else { 
@@ -351,10 +371,10 @@ public class ArgumentIdentificationWithCoreference extends ArgumentIdentificatio
 				if (Predication.coreArgsResolved(nperm, relDef)) {
 					Predication pred = sif.newPredication(doc, pr, nperm, null, null);
 					pred.setSource(true);					
-					ScalarModalityValueComposition.propagateScalarModalityValues(pred);
+					ScalarModalityValueComposition.propagateScalarModalityValues(pred,scopes);
 					SourcePropagation.propagateSource(pred);
 					predications.add(pred);
-					predications.addAll(handleNegatedArguments(pred,argStructure));
+					predications.addAll(handleNegatedArguments(pred,argStructure,scopes));
 				}
 			}
 		}
@@ -1,6 +1,7 @@
 package gov.nih.nlm.bioscores.core;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 import gov.nih.nlm.bioscores.agreement.AdjacencyAgreement;
@@ -248,6 +249,19 @@ public class Configuration {
 		return false;
 	} 
 	
+	/**
+	 * Gets the mention types the coreference resolution system is configured to handle.
+	 * 
+	 * @return	the set of mention types with a resolution strategy
+	 */
+	public EnumSet<ExpressionType> getExpTypes() {
+		EnumSet<ExpressionType> types = EnumSet.noneOf(ExpressionType.class);
+		for (Strategy str: strategies){
+			types.add(str.getExpType());
+		}
+		return types;
+	}
+	
 	/**
 	 * Finds the appropriate strategy to apply for a given mention and coreference type.
 	 * 
@@ -13,7 +13,10 @@ import gov.nih.nlm.ling.sem.DomainProperties;
  * collective noun, female/male noun lists. If some of these lists are not defined, methods that rely on them
  * may not work well. For example, if female/male noun lists are not defined, pronominal coreference machinery
  * may not give expected results. See <i>coref.properties</i> file for how these lists were defined for particular
- * coreference resolution pipelines.
+ * coreference resolution pipelines. <p>
+ * 
+ * Hypernym, meronym and event trigger lists are also compiled into {@link DomainLexicon} objects, 
+ * which index them by word and semantic type for fast lookup.
  * 
  * @author Halil Kilicoglu
  *
@@ -25,6 +28,10 @@ public class CoreferenceProperties {
 	public static final Map<String,List<String>> HYPONYMS = DomainProperties.parse2("hyponym");
 	public static final Map<String,List<String>> MERONYMS = DomainProperties.parse2("meronym");
 	public static final Map<String,List<String>> EVENT_TRIGGERS = DomainProperties.parse2("eventTrigger");
+	
+	public static final DomainLexicon HYPERNYM_LEXICON = new DomainLexicon(HYPERNYMS,SEMTYPES);
+	public static final DomainLexicon MERONYM_LEXICON = new DomainLexicon(MERONYMS,SEMTYPES);
+	public static final DomainLexicon EVENT_TRIGGER_LEXICON = new DomainLexicon(EVENT_TRIGGERS,SEMTYPES);
 
 	public static final List<String> COLLECTIVE_NOUNS = DomainProperties.parse1("collectiveNoun");
 	public static final List<String> FEMALE_NOUNS = DomainProperties.parse1("femaleNoun");
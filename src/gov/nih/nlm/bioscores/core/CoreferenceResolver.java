@@ -10,8 +10,11 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import gov.nih.nlm.bioscores.agreement.Agreement;
+import gov.nih.nlm.bioscores.agreement.AgreementMemo;
+import gov.nih.nlm.bioscores.agreement.CacheableAgreement;
 import gov.nih.nlm.bioscores.candidate.CandidateFilter;
 import gov.nih.nlm.bioscores.candidate.PostScoringCandidateFilter;
+import gov.nih.nlm.bioscores.candidate.PostScoringCandidateFilterImpl;
 import gov.nih.nlm.bioscores.exp.ExpressionFilter;
 import gov.nih.nlm.ling.core.Document;
 import gov.nih.nlm.ling.core.Sentence;
@@ -67,7 +70,14 @@ public class CoreferenceResolver {
 	}
 		
 	/**
-	 * Scores a list of candidate referents based on their salience with respect to the coreferential mention.
+	 * Scores a list of candidate referents based on their salience with respect to the coreferential mention. <p>
+	 * 
+	 * The scoring is pruned using the threshold and top score filters at the beginning of the 
+	 * post-scoring filters of the strategy: the scoring of a candidate stops as soon as its best achievable
+	 * score falls below the threshold or below the score of a fully scored candidate, and the candidate is left out of 
+	 * the map, since these filters would eliminate it anyway. The scores of the remaining candidates are exact, so 
+	 * the post-scoring filters yield the same results as with exhaustive scoring. 
+	 * Scoring functions are evaluated in the order estimated by the {@link AgreementCostModel} of the document.
 	 * 
 	 * @param strategy		resolution strategy to use
 	 * @param exp 			the coreferential mention
@@ -84,11 +94,59 @@ public class CoreferenceResolver {
 		CoreferenceType corefType = strategy.getCorefType();
 		ExpressionType type = strategy.getExpType();
 		List<ScoringFunction> scoringFunction = strategy.getScoringFunction();
+		if (scoringFunction == null) {
+			log.warning("No scoring function is provided. Skipping..");
+			for (SurfaceElement cand: candidates) 
+				scoreMap.put(cand,0);
+			return scoreMap;
+		}
+		// bounds from the threshold/top score filters applied first
+		boolean pruneByThreshold = false;
+		boolean pruneByTopScore = false;
+		int threshold = Integer.MIN_VALUE;
+		List<? extends PostScoringCandidateFilter> postFilters = strategy.getPostScoringFilters();
+		if (postFilters != null) {
+			for (PostScoringCandidateFilter filter: postFilters) {
+				if (filter instanceof PostScoringCandidateFilterImpl.ThresholdFilter) {
+					pruneByThreshold = true;
+					threshold = Math.max(threshold, ((PostScoringCandidateFilterImpl.ThresholdFilter)filter).getThreshold());
+				} else if (filter instanceof PostScoringCandidateFilterImpl.TopScoreFilter) {
+					pruneByTopScore = true;
+				} else break;
+			}
+		}
+		Document doc = exp.getSentence().getDocument();
+		AgreementCostModel costs = AgreementCostModel.getInstance(doc);
+		List<ScoringFunction> ordered = costs.order(scoringFunction);
+		int[] remaining = new int[ordered.size()+1];
+		for (int i=ordered.size()-1; i >=0; i--) {
+			remaining[i] = remaining[i+1] + AgreementCostModel.maxContribution(ordered.get(i));
+		}
+		AgreementMemo memo = AgreementMemo.getInstance(doc);
+		boolean scored = false;
+		int top = Integer.MIN_VALUE;
 		log.log(Level.FINE,"Scoring candidates for the mention {0}.", new Object[]{exp.toString()});
 		for (SurfaceElement cand: candidates) {
-			int score = calculateSalienceScore(exp,corefType,type,cand,scoringFunction);
+			log.log(Level.FINEST, "Calculating salience score between the mention {0} and the candidate referent {1}..", 
+					new Object[]{exp.toString(),cand.toString()});
+			int score = 0;
+			boolean pruned = false;
+			for (int i=0; i < ordered.size(); i++) {
+				int bound = score + remaining[i];
+				if ((pruneByThreshold && bound < threshold) || (pruneByTopScore && scored && bound < top)) {
+					pruned = true;
+					break;
+				}
+				score += evaluate(memo,costs,ordered.get(i),exp,corefType,type,cand);
+			}
+			if (pruned) {
+				log.log(Level.FINE,"Salience score for {0} cannot pass the post-scoring filters. Skipping..", new Object[]{cand.toString()});
+				continue;
+			}
 			log.log(Level.FINE,"Salience score for {0}: {1}.", new Object[]{cand.toString(),score});
 			scoreMap.put(cand,score);
+			if (scored == false || score > top) top = score;
+			scored = true;
 		}
 		return scoreMap;
 	}
@@ -114,24 +172,42 @@ public class CoreferenceResolver {
 		}
 		log.log(Level.FINEST, "Calculating salience score between the mention {0} and the candidate referent {1}..", 
 				new Object[]{exp.toString(),candidate.toString()});
+		Document doc = exp.getSentence().getDocument();
+		AgreementMemo memo = AgreementMemo.getInstance(doc);
+		AgreementCostModel costs = AgreementCostModel.getInstance(doc);
 		for (ScoringFunction sc: scoringFunctions) {
-			Class<? extends Agreement> imp = sc.getImplementingClass();
-			try {
+			score += evaluate(memo,costs,sc,exp,corefType,expType,candidate);
+		}
+		return score;
+	}
+	
+	// the contribution of a single scoring function to the salience score
+	private static int evaluate(AgreementMemo memo, AgreementCostModel costs, ScoringFunction sc, SurfaceElement exp, 
+			CoreferenceType corefType, ExpressionType expType, SurfaceElement candidate) {
+		Class<? extends Agreement> imp = sc.getImplementingClass();
+		try {
+			boolean sample = costs.sample(imp);
+			long start = (sample ? System.nanoTime() : 0);
+			CacheableAgreement cached = AgreementMemo.getCacheableInstance(imp);
+			boolean agrees;
+			if (cached != null) 
+				agrees = memo.agree(cached,corefType,expType,exp,candidate);
+			else {
 				Agreement agr = (Agreement)imp.newInstance();
-				if (agr.agree(corefType,expType,exp,candidate)) {
-					score += sc.getScore();
-					log.log(Level.FINEST,"Candidate compatible by measure {0}. New score: {1}.", new Object[]{agr.getClass().getName(), score}) ;
-				}
-				else  {
-					score -= sc.getPenalty();
-					log.log(Level.FINEST,"Candidate not compatible by measure {0}. New score: {1}.", new Object[]{agr.getClass().getName(), score}) ;
-				}
-			} catch (Exception e) {
-				log.log(Level.SEVERE,"Error creating an instance of the agreement implementing class {0}.", new Object[]{imp.getName()});
-				e.printStackTrace();
+				agrees = agr.agree(corefType,expType,exp,candidate);
 			}
+			costs.record(imp, agrees, sample ? System.nanoTime() - start : -1);
+			if (agrees) {
+				log.log(Level.FINEST,"Candidate compatible by measure {0}. Score: {1}.", new Object[]{imp.getName(), sc.getScore()}) ;
+				return sc.getScore();
+			}
+			log.log(Level.FINEST,"Candidate not compatible by measure {0}. Penalty: {1}.", new Object[]{imp.getName(), sc.getPenalty()}) ;
+			return -sc.getPenalty();
+		} catch (Exception e) {
+			log.log(Level.SEVERE,"Error creating an instance of the agreement implementing class {0}.", new Object[]{imp.getName()});
+			e.printStackTrace();
 		}
-		return score;
+		return 0;
 	}
 	
 	/**
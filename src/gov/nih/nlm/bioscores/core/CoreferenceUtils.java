@@ -40,17 +40,13 @@ public class CoreferenceUtils {
 	
 	/**
 	 * Gets semantic content associated with the textual unit other than coreferential mentions.
+	 * The result is cached with the semantics of the textual unit and should not be modified.
 	 * 
 	 * @param surf	the textual unit
 	 * @return a set of non-coreferential semantic objects, or empty set if no such object
 	 */
 	public static LinkedHashSet<SemanticItem> getNonCoreferentialSemantics(SurfaceElement surf) {
-		LinkedHashSet<SemanticItem> nonCoref = new LinkedHashSet<>();
-		if (surf.hasSemantics() == false) return nonCoref;
-		LinkedHashSet<SemanticItem> exps = Expression.filterByExpressions(surf);
-		nonCoref = new LinkedHashSet<>(surf.getSemantics());
-		nonCoref.removeAll(exps);
-		return nonCoref;
+		return surf.filterSemanticsExcludingClass(Expression.class);
 	}
 	
 	/**
@@ -60,7 +56,7 @@ public class CoreferenceUtils {
 	 * @return a set of non-coreferential semantic objects associated with the head, or empty set if no such object
 	 */
 	public static LinkedHashSet<SemanticItem> getNonCoreferentialHeadSemantics(SurfaceElement surf) {
-		LinkedHashSet<SemanticItem> headSem = surf.getHeadSemantics();
+		LinkedHashSet<SemanticItem> headSem = new LinkedHashSet<>(surf.getHeadSemantics());
 		LinkedHashSet<SemanticItem> nonCoref = getNonCoreferentialSemantics(surf);
 		headSem.retainAll(nonCoref);
 		return headSem;
@@ -302,15 +298,10 @@ public class CoreferenceUtils {
 		List<Span> sps = sisp.getSpans();
 		Span last = sps.get(sps.size()-1);
 		String text = t.getText().toLowerCase();
-		List<SurfaceElement> surfs = doc.getSurfaceElementsInSpan(new Span(last.getEnd(),su.getSpan().getBegin()));
-		SurfaceElement closer = null;
-		for (SurfaceElement surf: surfs) {
-			String surfText = surf.getText().toLowerCase();
-			int ind = surfText.indexOf(text);
-			if (ind >= 0)  {
-				closer = surf;
-			}
-		}
+		Span between = new Span(last.getEnd(),su.getSpan().getBegin());
+		if (doc.getSentences() == null) 
+			throw new IllegalStateException("The sentences of the document  " + doc.getId() + " are unknown.");
+		SurfaceElement closer = SurfaceTextIndex.lastContaining(doc, text, between);
 		if (closer == null) return null;
 		LinkedHashSet<SemanticItem> sems = closer.getSemantics();
 		if (sems == null) return null;
@@ -0,0 +1,156 @@
+package gov.nih.nlm.bioscores.core;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import gov.nih.nlm.ling.core.AbstractSurfaceElement;
+import gov.nih.nlm.ling.core.SurfaceElement;
+import gov.nih.nlm.ling.core.Word;
+import gov.nih.nlm.ling.sem.SemanticItem;
+import gov.nih.nlm.ling.sem.SemtypeRegistry;
+
+/**
+ * A compiled form of a domain word list that associates semantic groups with words,
+ * such as hypernym or event trigger lists in {@link CoreferenceProperties}. <p>
+ *
+ * Semantic groups are numbered and represented as bits. The class maintains an inverted
+ * index from words (lower-cased, as lemmas are matched ignoring case) to the groups they are listed under,
+ * and the semantic types of each group as a {@link SemtypeRegistry} bitset. The groups whose words appear in a mention
+ * can then be computed once, and whether a semantic item is compatible with any of them is a
+ * bitset intersection. <p>
+ *
+ * The groups of a mention are stored with the mention itself (see {@link AbstractSurfaceElement#getTextCache(Class)}), 
+ * separately for each lexicon, and recomputed if the mention text changes.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+public class DomainLexicon {
+
+	private static final BitSet NO_GROUPS = new BitSet();
+
+	private final List<String> groups;
+	private final Map<String,BitSet> lemmaGroups;
+	private final Map<String,BitSet> wordGroups;
+	private final BitSet[] groupSemtypes;
+
+	/**
+	 * Compiles a domain word list.
+	 *
+	 * @param words		the words for each semantic group
+	 * @param semtypes	the semantic types for each semantic group
+	 */
+	public DomainLexicon(Map<String,List<String>> words, Map<String,List<String>> semtypes) {
+		groups = new ArrayList<>(words.keySet());
+		Collections.sort(groups);
+		lemmaGroups = new HashMap<>();
+		wordGroups = new HashMap<>();
+		groupSemtypes = new BitSet[groups.size()];
+		for (int i=0; i < groups.size(); i++) {
+			String g = groups.get(i);
+			for (String w: words.get(g)) {
+				addGroup(lemmaGroups,w.toLowerCase(),i);
+				addGroup(wordGroups,w,i);
+			}
+			groupSemtypes[i] = SemtypeRegistry.getBits(semtypes.get(g));
+		}
+	}
+
+	private static void addGroup(Map<String,BitSet> index, String key, int group) {
+		BitSet bits = index.get(key);
+		if (bits == null) {
+			bits = new BitSet();
+			index.put(key, bits);
+		}
+		bits.set(group);
+	}
+
+	/**
+	 *
+	 * @return  the semantic group names, in the order of their bits
+	 */
+	public List<String> getGroups() {
+		return Collections.unmodifiableList(groups);
+	}
+
+	/**
+	 * Finds the semantic groups that have a word matching the lemma of one of the words of <var>surf</var>.
+	 * The returned bitset should not be modified.
+	 *
+	 * @param surf	the textual unit
+	 * @return  the bitset of semantic groups, empty if there is none
+	 */
+	public BitSet getGroups(SurfaceElement surf) {
+		MentionGroups mentionGroups = null;
+		if (surf instanceof AbstractSurfaceElement) {
+			AbstractSurfaceElement owner = (AbstractSurfaceElement)surf;
+			synchronized (owner) {
+				mentionGroups = owner.getTextCache(MentionGroups.class);
+				if (mentionGroups == null) {
+					mentionGroups = new MentionGroups();
+					owner.setTextCache(MentionGroups.class, mentionGroups);
+				}
+			}
+			BitSet cached = mentionGroups.get(this);
+			if (cached != null) return cached;
+		}
+		BitSet bits = null;
+		List<Word> surfWords = surf.toWordList();
+		if (surfWords != null) {
+			for (Word w: surfWords) {
+				BitSet wBits = lemmaGroups.get(w.getLemma().toLowerCase());
+				if (wBits == null) continue;
+				if (bits == null) bits = new BitSet();
+				bits.or(wBits);
+			}
+		}
+		if (bits == null) bits = NO_GROUPS;
+		if (mentionGroups != null) mentionGroups.put(this, bits);
+		return bits;
+	}
+
+	/**
+	 * Checks whether <var>word</var> is listed exactly under one of the given semantic groups.
+	 *
+	 * @param groups	the semantic groups
+	 * @param word		the word to check
+	 * @return  true if the word is listed under one of the groups
+	 */
+	public boolean hasWord(BitSet groups, String word) {
+		BitSet bits = wordGroups.get(word);
+		return (bits != null && bits.intersects(groups));
+	}
+
+	/**
+	 * Checks whether a semantic item has a semantic type belonging to one of the given semantic groups.
+	 *
+	 * @param groups	the semantic groups
+	 * @param sem		the semantic item
+	 * @return  true if the semantic item has a semantic type of one of the groups
+	 */
+	public boolean hasSemtype(BitSet groups, SemanticItem sem) {
+		BitSet semBits = sem.getSemtypeBits();
+		for (int i = groups.nextSetBit(0); i >= 0; i = groups.nextSetBit(i+1)) {
+			if (groupSemtypes[i].intersects(semBits)) return true;
+		}
+		return false;
+	}
+
+	// the groups of a mention for each lexicon, valid for the text of the mention
+	private static class MentionGroups {
+		private final Map<DomainLexicon,BitSet> groups = new IdentityHashMap<>();
+
+		private synchronized BitSet get(DomainLexicon lexicon) {
+			return groups.get(lexicon);
+		}
+
+		private synchronized void put(DomainLexicon lexicon, BitSet bits) {
+			groups.put(lexicon, bits);
+		}
+	}
+}
@@ -1,8 +1,12 @@
 package gov.nih.nlm.bioscores.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -11,6 +15,7 @@ import gov.nih.nlm.bioscores.exp.DemonstrativeNPOps;
 import gov.nih.nlm.bioscores.exp.DemonstrativePronounOps;
 import gov.nih.nlm.bioscores.exp.DistributiveNPOps;
 import gov.nih.nlm.bioscores.exp.DistributivePronounOps;
+import gov.nih.nlm.bioscores.exp.ExpressionOps;
 import gov.nih.nlm.bioscores.exp.IndefiniteNPOps;
 import gov.nih.nlm.bioscores.exp.IndefinitePronounOps;
 import gov.nih.nlm.bioscores.exp.PersonalPronounOps;
@@ -38,51 +43,121 @@ public class ExpressionRecognition {
 	
 	private static Configuration config = Configuration.getInstance();
 	
+	// mention types in the order they are recognized, the order determines the identifiers of the mentions
+	private static final List<ExpressionType> RECOGNITION_ORDER = Arrays.asList(
+			ExpressionType.PersonalPronoun, ExpressionType.PossessivePronoun, ExpressionType.RelativePronoun,
+			ExpressionType.DemonstrativePronoun, ExpressionType.DistributivePronoun, ExpressionType.ReciprocalPronoun,
+			ExpressionType.IndefinitePronoun, ExpressionType.DefiniteNP, ExpressionType.IndefiniteNP,
+			ExpressionType.DemonstrativeNP, ExpressionType.DistributiveNP, ExpressionType.ZeroArticleNP);
+	
+	// mention types whose recognition modifies the textual units and embeddings of the sentence
+	private static final EnumSet<ExpressionType> RESTRUCTURING_TYPES = EnumSet.of(
+			ExpressionType.ReciprocalPronoun, ExpressionType.DefiniteNP, ExpressionType.IndefiniteNP,
+			ExpressionType.DemonstrativeNP, ExpressionType.DistributiveNP, ExpressionType.ZeroArticleNP);
+	
+	private static final Map<ExpressionType,ExpressionOps> OPS = new EnumMap<>(ExpressionType.class);
+	static {
+		OPS.put(ExpressionType.PersonalPronoun, new PersonalPronounOps());
+		OPS.put(ExpressionType.PossessivePronoun, new PossessivePronounOps());
+		OPS.put(ExpressionType.RelativePronoun, new RelativePronounOps());
+		OPS.put(ExpressionType.DemonstrativePronoun, new DemonstrativePronounOps());
+		OPS.put(ExpressionType.DistributivePronoun, new DistributivePronounOps());
+		OPS.put(ExpressionType.ReciprocalPronoun, new ReciprocalPronounOps());
+		OPS.put(ExpressionType.IndefinitePronoun, new IndefinitePronounOps());
+		OPS.put(ExpressionType.DefiniteNP, new DefiniteNPOps());
+		OPS.put(ExpressionType.IndefiniteNP, new IndefiniteNPOps());
+		OPS.put(ExpressionType.DemonstrativeNP, new DemonstrativeNPOps());
+		OPS.put(ExpressionType.DistributiveNP, new DistributiveNPOps());
+		OPS.put(ExpressionType.ZeroArticleNP, new ZeroArticleNPOps());
+	}
+	
 	/** 
 	 * Annotates a <code>Document</code> with coreferential mentions, reads
-	 * the types to consider come from the configuration.
+	 * the types to consider come from the configuration. <p>
+	 * 
+	 * Consecutive pronoun types that do not modify the textual units of a sentence are recognized in a single pass over 
+	 * the textual units. Reciprocal pronouns and NPs are recognized in separate passes, since their recognition 
+	 * depends on the textual units and embeddings updated by the previous types. 
+	 * No global lock is held, so that different documents can be annotated concurrently.
 	 * 
 	 * @param doc  the document to annotate
 	 */
-	public static synchronized void annotate(Document doc) {
+	public static void annotate(Document doc) {
 		List<Sentence> sentences = doc.getSentences();
 		if (sentences == null) return;
+		EnumSet<ExpressionType> configured = config.getExpTypes();
+		List<ExpressionType> types = new ArrayList<>();
+		for (ExpressionType type: RECOGNITION_ORDER) {
+			if (configured.contains(type)) types.add(type);
+		}
 		List<Sentence> modSentences = new ArrayList<>();
 		for (int i=0; i < sentences.size(); i++) {
 			Sentence sent = sentences.get(i);
-			if (config.hasExpType(ExpressionType.PersonalPronoun)) 
-				annotatePersonalPronouns(sent);
-			if (config.hasExpType(ExpressionType.PossessivePronoun)) 
-				annotatePossessivePronouns(sent);
-			if (config.hasExpType(ExpressionType.RelativePronoun))
-				annotateRelativePronouns(sent);			
-			if (config.hasExpType(ExpressionType.DemonstrativePronoun))
-				annotateDemonstrativePronouns(sent);
-			if (config.hasExpType(ExpressionType.DistributivePronoun))
-				annotateDistributivePronouns(sent);
-			if (config.hasExpType(ExpressionType.ReciprocalPronoun)) 
-				annotateReciprocalPronouns(sent);			
-			if (config.hasExpType(ExpressionType.IndefinitePronoun)) 	
-				annotateIndefinitePronouns(sent);		
-			if (config.hasExpType(ExpressionType.DefiniteNP)) 
-				annotateDefiniteNPs(sent);
-			if (config.hasExpType(ExpressionType.IndefiniteNP)) 
-				annotateIndefiniteNPs(sent);			
-			if (config.hasExpType(ExpressionType.DemonstrativeNP)) 	
-				annotateDemonstrativeNPs(sent);
-			if (config.hasExpType(ExpressionType.DistributiveNP)) 
-				annotateDistributiveNPs(sent);
-			if (config.hasExpType(ExpressionType.ZeroArticleNP)) 
-				annotateZeroArticleNPs(sent);			
+			int start = 0;
+			while (start < types.size()) {
+				int end = start;
+				while (end < types.size() && RESTRUCTURING_TYPES.contains(types.get(end)) == false) end++;
+				if (end > start) {
+					annotatePronouns(sent,types.subList(start, end));
+					start = end;
+				} else {
+					annotate(sent,types.get(start));
+					start++;
+				}
+			}
 			modSentences.add(sent);
-			LinkedHashSet<SemanticItem> sentExps = 
-					Document.getSemanticItemsByClassSpan(doc, Expression.class, new SpanList(sent.getSpan()),true);
-			for (SemanticItem exp: sentExps) {
-				log.log(Level.FINE,"Found coreferential mention: {0}.", new String[]{exp.toShortString()});
+			if (log.isLoggable(Level.FINE)) {
+				LinkedHashSet<SemanticItem> sentExps = 
+						Document.getSemanticItemsByClassSpan(doc, Expression.class, new SpanList(sent.getSpan()),true);
+				for (SemanticItem exp: sentExps) {
+					log.log(Level.FINE,"Found coreferential mention: {0}.", new String[]{exp.toShortString()});
+				}
 			}
 		}
 		doc.setSentences(modSentences);
 	}
+	
+	// recognizes pronouns of several types in a single pass, mentions are generated in type order
+	private static void annotatePronouns(Sentence sent, List<ExpressionType> types) {
+		List<SurfaceElement> surfs = sent.getSurfaceElements();
+		Document doc = sent.getDocument();
+		CoreferenceSemanticItemFactory csif = getCoreferenceSemanticItemFactory(doc);
+		if (csif == null) return;
+		List<List<SurfaceElement>> recognized = new ArrayList<>(types.size());
+		for (int i=0; i < types.size(); i++) 
+			recognized.add(new ArrayList<SurfaceElement>());
+		for (SurfaceElement se: surfs) {
+			for (int i=0; i < types.size(); i++) {
+				if (OPS.get(types.get(i)).recognize(se)) recognized.get(i).add(se);
+			}
+		}
+		for (int i=0; i < types.size(); i++) {
+			String type = types.get(i).toString();
+			for (SurfaceElement se: recognized.get(i)) {
+				Expression exp = csif.newExpression(doc,type, se.getSpan(),se.getHead().getSpan(),se.getText());
+				log.log(Level.FINE,"{0} mention: {1}.", new Object[]{type,exp.toShortString()});
+			}
+		}
+	}
+	
+	// recognizes a single mention type in its own pass
+	private static void annotate(Sentence sent, ExpressionType type) {
+		switch (type) {
+			case PersonalPronoun: annotatePersonalPronouns(sent); break;
+			case PossessivePronoun: annotatePossessivePronouns(sent); break;
+			case RelativePronoun: annotateRelativePronouns(sent); break;
+			case DemonstrativePronoun: annotateDemonstrativePronouns(sent); break;
+			case DistributivePronoun: annotateDistributivePronouns(sent); break;
+			case ReciprocalPronoun: annotateReciprocalPronouns(sent); break;
+			case IndefinitePronoun: annotateIndefinitePronouns(sent); break;
+			case DefiniteNP: annotateDefiniteNPs(sent); break;
+			case IndefiniteNP: annotateIndefiniteNPs(sent); break;
+			case DemonstrativeNP: annotateDemonstrativeNPs(sent); break;
+			case DistributiveNP: annotateDistributiveNPs(sent); break;
+			case ZeroArticleNP: annotateZeroArticleNPs(sent); break;
+			default: break;
+		}
+	}
 		
 	/** 
 	 * Annotates a {@link Sentence} object with personal pronouns (e.g., <i>it, they</i>). 
@@ -91,14 +166,14 @@ public class ExpressionRecognition {
 	 * 
 	 * @param sent  the sentence to annotate
 	 */
-	public static synchronized void annotatePersonalPronouns(Sentence sent) {
+	public static void annotatePersonalPronouns(Sentence sent) {
 		List<SurfaceElement> surfs = sent.getSurfaceElements();
 		Document doc = sent.getDocument();
 		CoreferenceSemanticItemFactory csif = getCoreferenceSemanticItemFactory(doc);
 		if (csif == null) return;
 		String type = ExpressionType.PersonalPronoun.toString();
 		for (SurfaceElement se: surfs) {
-			if (new PersonalPronounOps().recognize(se)) {
+			if (OPS.get(ExpressionType.PersonalPronoun).recognize(se)) {
 				Expression exp = csif.newExpression(doc,type, se.getSpan(),se.getHead().getSpan(),se.getText());
 				log.log(Level.FINE,"Personal pronominal mention: {0}.", new Object[]{exp.toShortString()});
 			}
@@ -111,14 +186,14 @@ public class ExpressionRecognition {
 	 * 
 	 * @param sent  the sentence to annotate
 	 */
-	public static synchronized void annotatePossessivePronouns(Sentence sent) {
+	public static void annotatePossessivePronouns(Sentence sent) {
 		List<SurfaceElement> surfs = sent.getSurfaceElements();
 		Document doc = sent.getDocument();
 		CoreferenceSemanticItemFactory csif = getCoreferenceSemanticItemFactory(doc);
 		if (csif == null) return;
 		String type = ExpressionType.PossessivePronoun.toString();
 		for (SurfaceElement se: surfs) {
-			if (new PossessivePronounOps().recognize(se)) {
+			if (OPS.get(ExpressionType.PossessivePronoun).recognize(se)) {
 				Expression exp = csif.newExpression(doc,type, se.getSpan(),se.getHead().getSpan(),se.getText());
 				log.log(Level.FINE,"Possessive pronominal mention: {0}.", new Object[]{exp.toShortString()});
 			}
@@ -130,14 +205,14 @@ public class ExpressionRecognition {
 	 * 
 	 * @param sent  the sentence to annotate
 	 */
-	public static synchronized void annotateRelativePronouns(Sentence sent) {
+	public static void annotateRelativePronouns(Sentence sent) {
 		List<SurfaceElement> surfs = sent.getSurfaceElements();
 		Document doc = sent.getDocument();
 		CoreferenceSemanticItemFactory csif = getCoreferenceSemanticItemFactory(doc);
 		if (csif == null) return;
 		String type = ExpressionType.RelativePronoun.toString();
 		for (SurfaceElement se: surfs) {
-			if (new RelativePronounOps().recognize(se)) {
+			if (OPS.get(ExpressionType.RelativePronoun).recognize(se)) {
 				Expression exp = csif.newExpression(doc,type, se.getSpan(),se.getHead().getSpan(),se.getText());
 				log.log(Level.FINE,"Relative pronominal mention: {0}.", new Object[]{exp.toShortString()});
 			}
@@ -150,14 +225,14 @@ public class ExpressionRecognition {
 	 * 
 	 * @param sent  the sentence to annotate
 	 */
-	public static synchronized void annotateDemonstrativePronouns(Sentence sent) {
+	public static void annotateDemonstrativePronouns(Sentence sent) {
 		List<SurfaceElement> surfs = sent.getSurfaceElements();
 		Document doc = sent.getDocument();
 		CoreferenceSemanticItemFactory csif = getCoreferenceSemanticItemFactory(doc);
 		if (csif == null) return;
 		String type = ExpressionType.DemonstrativePronoun.toString();
 		for (SurfaceElement se: surfs) {
-			if (new DemonstrativePronounOps().recognize(se)) {
+			if (OPS.get(ExpressionType.DemonstrativePronoun).recognize(se)) {
 				Expression exp = csif.newExpression(doc,type, se.getSpan(),se.getHead().getSpan(),se.getText());
 				log.log(Level.FINE,"Demonstrative pronominal mention: {0}.", new Object[]{exp.toShortString()});
 			}
@@ -169,14 +244,14 @@ public class ExpressionRecognition {
 	 * 
 	 * @param sent  the sentence to annotate
 	 */
-	public static synchronized void annotateDistributivePronouns(Sentence sent) {
+	public static void annotateDistributivePronouns(Sentence sent) {
 		List<SurfaceElement> surfs = sent.getSurfaceElements();
 		Document doc = sent.getDocument();
 		CoreferenceSemanticItemFactory csif = getCoreferenceSemanticItemFactory(doc);
 		if (csif == null) return;
 		String type = ExpressionType.DistributivePronoun.toString();
 		for (SurfaceElement se: surfs) {
-			if (new DistributivePronounOps().recognize(se)) {
+			if (OPS.get(ExpressionType.DistributivePronoun).recognize(se)) {
 				Expression exp = csif.newExpression(doc,type, se.getSpan(),se.getHead().getSpan(),se.getText());
 				log.log(Level.FINE,"Distributive pronominal mention: {0}.", new Object[]{exp.toShortString()});
 			}
@@ -188,14 +263,14 @@ public class ExpressionRecognition {
 	 * 
 	 * @param sent  the sentence to annotate
 	 */
-	public static synchronized void annotateReciprocalPronouns(Sentence sent) {
+	public static void annotateReciprocalPronouns(Sentence sent) {
 		List<SurfaceElement> surfs = sent.getSurfaceElements();
 		Document doc = sent.getDocument();
 		CoreferenceSemanticItemFactory csif = getCoreferenceSemanticItemFactory(doc);
 		if (csif == null) return;
 		String type = ExpressionType.ReciprocalPronoun.toString();
 		for (SurfaceElement se: surfs) {
-			if (new ReciprocalPronounOps().recognize(se)) {
+			if (OPS.get(ExpressionType.ReciprocalPronoun).recognize(se)) {
 				SpanList sp = ReciprocalPronounOps.getReciprocalSpan(se);
 				Expression exp = csif.newExpression(doc,type, sp,sp,sent.getStringInSpan(sp));
 				sent.synchSurfaceElements(exp.getSurfaceElement());
@@ -210,14 +285,14 @@ public class ExpressionRecognition {
 	 * 
 	 * @param sent  the sentence to annotate
 	 */
-	public static synchronized void annotateIndefinitePronouns(Sentence sent) {
+	public static void annotateIndefinitePronouns(Sentence sent) {
 		List<SurfaceElement> surfs = sent.getSurfaceElements();
 		Document doc = sent.getDocument();
 		CoreferenceSemanticItemFactory csif = getCoreferenceSemanticItemFactory(doc);
 		if (csif == null) return;
 		String type = ExpressionType.IndefinitePronoun.toString();
 		for (SurfaceElement se: surfs) {
-			if (new IndefinitePronounOps().recognize(se)) {
+			if (OPS.get(ExpressionType.IndefinitePronoun).recognize(se)) {
 				Expression exp = csif.newExpression(doc,type, se.getSpan(),se.getHead().getSpan(),se.getText());
 				log.log(Level.FINE,"Indefinite pronominal mention: {0}.", new Object[]{exp.toShortString()});
 			}
@@ -231,7 +306,7 @@ public class ExpressionRecognition {
 	 * 
 	 * @param sent  the sentence to annotate
 	 */
-	public static synchronized void annotateDefiniteNPs(Sentence sent) {
+	public static void annotateDefiniteNPs(Sentence sent) {
 		List<SurfaceElement> surfs = sent.getSurfaceElements();
 		Document doc = sent.getDocument();
 		CoreferenceSemanticItemFactory csif = getCoreferenceSemanticItemFactory(doc);
@@ -239,7 +314,7 @@ public class ExpressionRecognition {
 		String type = ExpressionType.DefiniteNP.toString();
 		for (SurfaceElement se: surfs) {
 			if (Expression.filterByExpressions(se).size() > 0) continue;
-			if (new DefiniteNPOps().recognize(se)) {
+			if (OPS.get(ExpressionType.DefiniteNP).recognize(se)) {
 				SpanList sp = DefiniteNPOps.getDefiniteNPSpan(se);
 				SurfaceElement sortalNP = doc.getSurfaceElementFactory().createSurfaceElementIfNecessary(doc, sp, false);
 				if (sortalNP == null) continue;
@@ -258,7 +333,7 @@ public class ExpressionRecognition {
 	 * 
 	 * @param sent  the sentence to annotate
 	 */
-	public static synchronized void annotateIndefiniteNPs(Sentence sent) {
+	public static void annotateIndefiniteNPs(Sentence sent) {
 		List<SurfaceElement> surfs = sent.getSurfaceElements();
 		Document doc = sent.getDocument();
 		CoreferenceSemanticItemFactory csif = getCoreferenceSemanticItemFactory(doc);
@@ -266,7 +341,7 @@ public class ExpressionRecognition {
 		String type = ExpressionType.IndefiniteNP.toString();
 		for (SurfaceElement se: surfs) {
 			if (Expression.filterByExpressions(se).size() > 0) continue;
-			if (new IndefiniteNPOps().recognize(se)) {
+			if (OPS.get(ExpressionType.IndefiniteNP).recognize(se)) {
 				SpanList sp = IndefiniteNPOps.getIndefiniteNPSpan(se);
 				SurfaceElement sortalNP = doc.getSurfaceElementFactory().createSurfaceElementIfNecessary(doc, sp, false);
 				if (sortalNP == null) continue;
@@ -285,7 +360,7 @@ public class ExpressionRecognition {
 	 * 
 	 * @param sent  the sentence to annotate
 	 */
-	public static synchronized void annotateDemonstrativeNPs(Sentence sent) {
+	public static void annotateDemonstrativeNPs(Sentence sent) {
 		List<SurfaceElement> surfs = sent.getSurfaceElements();
 		Document doc = sent.getDocument();
 		CoreferenceSemanticItemFactory csif = getCoreferenceSemanticItemFactory(doc);
@@ -293,7 +368,7 @@ public class ExpressionRecognition {
 		String type = ExpressionType.DemonstrativeNP.toString();
 		for (SurfaceElement se: surfs) {
 			if (Expression.filterByExpressions(se).size() > 0) continue;
-			if (new DemonstrativeNPOps().recognize(se)) {
+			if (OPS.get(ExpressionType.DemonstrativeNP).recognize(se)) {
 				SpanList sp = DemonstrativeNPOps.getDemonstrativeNPSpan(se);
 				SurfaceElement sortalNP = doc.getSurfaceElementFactory().createSurfaceElementIfNecessary(doc, sp, false);
 				if (sortalNP == null) continue;
@@ -312,7 +387,7 @@ public class ExpressionRecognition {
 	 * 
 	 * @param sent  the sentence to annotate
 	 */
-	public static synchronized void annotateDistributiveNPs(Sentence sent) {
+	public static void annotateDistributiveNPs(Sentence sent) {
 		List<SurfaceElement> surfs = sent.getSurfaceElements();
 		Document doc = sent.getDocument();
 		CoreferenceSemanticItemFactory csif = getCoreferenceSemanticItemFactory(doc);
@@ -320,7 +395,7 @@ public class ExpressionRecognition {
 		String type = ExpressionType.DistributiveNP.toString();
 		for (SurfaceElement se: surfs) {
 			if (Expression.filterByExpressions(se).size() > 0) continue;
-			if (new DistributiveNPOps().recognize(se)) {
+			if (OPS.get(ExpressionType.DistributiveNP).recognize(se)) {
 				SpanList sp = DistributiveNPOps.getDistributiveNPSpan(se);
 				SurfaceElement sortalNP = doc.getSurfaceElementFactory().createSurfaceElementIfNecessary(doc, sp, false);
 				if (sortalNP == null) continue;
@@ -339,7 +414,7 @@ public class ExpressionRecognition {
 	 * 
 	 * @param sent  the sentence to annotate
 	 */
-	public static synchronized void annotateZeroArticleNPs(Sentence sent) {
+	public static void annotateZeroArticleNPs(Sentence sent) {
 		List<SurfaceElement> surfs = sent.getSurfaceElements();
 		Document doc = sent.getDocument();
 		CoreferenceSemanticItemFactory csif = getCoreferenceSemanticItemFactory(doc);
@@ -347,7 +422,7 @@ public class ExpressionRecognition {
 		String type = ExpressionType.ZeroArticleNP.toString();
 		for (SurfaceElement se: surfs) {
 			if (Expression.filterByExpressions(se).size() > 0) continue;
-			if (new ZeroArticleNPOps().recognize(se)) {
+			if (OPS.get(ExpressionType.ZeroArticleNP).recognize(se)) {
 				Expression exp = csif.newExpression(doc, type, se);
 				log.log(Level.FINE,"Zero-article NP mention: {0}.", new Object[]{exp.toShortString()});
 				sent.synchSurfaceElements(se);
@@ -384,17 +459,17 @@ public class ExpressionRecognition {
 	public static ExpressionType getMentionType(SurfaceElement surf) {
 		ExpressionType type = null;
 		Word first = surf.toWordList().get(0);
-		if (new PersonalPronounOps().recognize(surf)) type = ExpressionType.PersonalPronoun;
-		else if (new PossessivePronounOps().recognize(surf)) type = ExpressionType.PossessivePronoun;
-		else if (new RelativePronounOps().recognize(surf)) type = ExpressionType.RelativePronoun;
-		else if (new DemonstrativePronounOps().recognize(surf)) type = ExpressionType.DemonstrativePronoun;
-		else if (new DistributivePronounOps().recognize(surf)) type = ExpressionType.DistributivePronoun;
-		else if (new ReciprocalPronounOps().recognize(surf)) type = ExpressionType.ReciprocalPronoun;
-		else if (new IndefinitePronounOps().recognize(surf)) type = ExpressionType.IndefinitePronoun;
-		else if (new DefiniteNPOps().recognize(surf)) type = ExpressionType.DefiniteNP;
-		else if (new IndefiniteNPOps().recognize(surf)) type = ExpressionType.IndefiniteNP;
-		else if (new DemonstrativeNPOps().recognize(surf)) type = ExpressionType.DemonstrativeNP;
-		else if (new DistributiveNPOps().recognize(surf)) type = ExpressionType.DistributiveNP;
+		if (OPS.get(ExpressionType.PersonalPronoun).recognize(surf)) type = ExpressionType.PersonalPronoun;
+		else if (OPS.get(ExpressionType.PossessivePronoun).recognize(surf)) type = ExpressionType.PossessivePronoun;
+		else if (OPS.get(ExpressionType.RelativePronoun).recognize(surf)) type = ExpressionType.RelativePronoun;
+		else if (OPS.get(ExpressionType.DemonstrativePronoun).recognize(surf)) type = ExpressionType.DemonstrativePronoun;
+		else if (OPS.get(ExpressionType.DistributivePronoun).recognize(surf)) type = ExpressionType.DistributivePronoun;
+		else if (OPS.get(ExpressionType.ReciprocalPronoun).recognize(surf)) type = ExpressionType.ReciprocalPronoun;
+		else if (OPS.get(ExpressionType.IndefinitePronoun).recognize(surf)) type = ExpressionType.IndefinitePronoun;
+		else if (OPS.get(ExpressionType.DefiniteNP).recognize(surf)) type = ExpressionType.DefiniteNP;
+		else if (OPS.get(ExpressionType.IndefiniteNP).recognize(surf)) type = ExpressionType.IndefiniteNP;
+		else if (OPS.get(ExpressionType.DemonstrativeNP).recognize(surf)) type = ExpressionType.DemonstrativeNP;
+		else if (OPS.get(ExpressionType.DistributiveNP).recognize(surf)) type = ExpressionType.DistributiveNP;
 		else if (first.containsAnyLemma(DefiniteNPOps.DEFINITE_DETERMINERS)) type = ExpressionType.DefiniteNP;
 		else if (first.containsAnyLemma(DemonstrativeNPOps.DEMONSTRATIVE_ADJECTIVES))  type = ExpressionType.DemonstrativeNP;
 		else if (first.containsAnyLemma(DemonstrativePronounOps.DEMONSTRATIVE_PRONOUNS))  {
@@ -425,7 +500,7 @@ public class ExpressionRecognition {
 				}
 			}
 		}
-//		else if (new ZeroArticleNPOps().recognize(surf)) type = ExpressionType.ZeroArticleNP;
+//		else if (OPS.get(ExpressionType.ZeroArticleNP).recognize(surf)) type = ExpressionType.ZeroArticleNP;
 		if (type == null) {
 //			log.log(Level.WARNING, "Unable to determine mention type: {0}. Will assign ZeroArticleNP.", new Object[]{surf.toString()});
 			type = ExpressionType.ZeroArticleNP;
@@ -399,8 +399,8 @@ public class GenericCoreferencePipeline {
 		}
 		for (SemanticItem pr: prune) {
 			log.log(Level.FINE,"Pruning coreference chain: {0}.", pr.toString());
-			doc.removeSemanticItem(pr);
 		}
+		doc.removeSemanticItems(prune);
 	}
 	
 	/**
@@ -0,0 +1,155 @@
+package gov.nih.nlm.bioscores.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import gov.nih.nlm.ling.core.Document;
+import gov.nih.nlm.ling.core.Sentence;
+import gov.nih.nlm.ling.core.Span;
+import gov.nih.nlm.ling.core.SpanList;
+import gov.nih.nlm.ling.core.SurfaceElement;
+
+/**
+ * A per-document index of the lower-cased texts of textual units, used to find the closest textual unit
+ * that mentions a given string (see {@link CoreferenceUtils#closerWithSameOntology(Document, SurfaceElement, gov.nih.nlm.ling.sem.SemanticItem)}). <p>
+ *
+ * The textual units are kept in document order, and for each string looked up, the positions of the textual units
+ * that contain it are computed once. A query then only examines these positions, from the last one backwards,
+ * instead of all textual units between two offsets. <p>
+ *
+ * The index is rebuilt if the sentences of the document or their textual units are replaced, added or removed,
+ * or if the text or the span of a textual unit it examines has changed. If the textual units still do not match
+ * the rebuilt index, the textual units in the span are examined directly.
+ * The index is stored with its document (see {@link Document#getCache(Class)}).
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+class SurfaceTextIndex {
+
+	private static final int CHANGED = -2;
+
+	private final Document document;
+	private final List<Sentence> sentences;
+	private final List<List<SurfaceElement>> sentenceSurfaces = new ArrayList<>();
+	private final int[] sentenceSurfaceCounts;
+	private final List<SurfaceElement> surfaces = new ArrayList<>();
+	private final List<String> texts = new ArrayList<>();
+	private final List<SpanList> spans = new ArrayList<>();
+	private final List<String> lowerCaseTexts = new ArrayList<>();
+	private final int[] sentenceIndexes;
+	// positions of the textual units containing a string
+	private final Map<String,int[]> occurrences = new HashMap<>();
+
+	private SurfaceTextIndex(Document document) {
+		this.document = document;
+		this.sentences = document.getSentences();
+		this.sentenceSurfaceCounts = new int[sentences.size()];
+		List<Integer> sentIndexes = new ArrayList<>();
+		for (int i=0; i < sentences.size(); i++) {
+			List<SurfaceElement> surfs = sentences.get(i).getSurfaceElements();
+			sentenceSurfaces.add(surfs);
+			sentenceSurfaceCounts[i] = (surfs == null ? -1 : surfs.size());
+			if (surfs == null) continue;
+			for (SurfaceElement surf: surfs) {
+				String text = surf.getText();
+				surfaces.add(surf);
+				texts.add(text);
+				spans.add(surf.getSpan());
+				lowerCaseTexts.add(text == null ? null : text.toLowerCase());
+				sentIndexes.add(i);
+			}
+		}
+		sentenceIndexes = new int[sentIndexes.size()];
+		for (int i=0; i < sentenceIndexes.length; i++)
+			sentenceIndexes[i] = sentIndexes.get(i);
+	}
+
+	/**
+	 * Finds the last textual unit whose lower-cased text contains a string, among those returned by
+	 * {@link Document#getSurfaceElementsInSpan(Span)} for a given span. The index of the document
+	 * is rebuilt if the textual units of the document have changed.
+	 *
+	 * @param document		the document, with sentences
+	 * @param lowerCaseText	the lower-cased string
+	 * @param sp			the span
+	 * @return  the last textual unit containing the string, null if there is none
+	 */
+	static SurfaceElement lastContaining(Document document, String lowerCaseText, Span sp) {
+		synchronized (document) {
+			SurfaceTextIndex index = document.getCache(SurfaceTextIndex.class);
+			if (index == null || index.isCurrent() == false) {
+				index = new SurfaceTextIndex(document);
+				document.setCache(SurfaceTextIndex.class, index);
+			}
+			int found = index.lastPosition(lowerCaseText, sp);
+			if (found == CHANGED) {
+				index = new SurfaceTextIndex(document);
+				document.setCache(SurfaceTextIndex.class, index);
+				found = index.lastPosition(lowerCaseText, sp);
+			}
+			if (found == CHANGED) return scan(document, lowerCaseText, sp);
+			return (found < 0 ? null : index.surfaces.get(found));
+		}
+	}
+
+	// examines all textual units in the span, without the index
+	private static SurfaceElement scan(Document document, String lowerCaseText, Span sp) {
+		SurfaceElement last = null;
+		for (SurfaceElement surf: document.getSurfaceElementsInSpan(sp)) {
+			if (surf.getText().toLowerCase().indexOf(lowerCaseText) >= 0) last = surf;
+		}
+		return last;
+	}
+
+	private boolean isCurrent() {
+		List<Sentence> sents = document.getSentences();
+		if (sents != sentences || sents.size() != sentenceSurfaceCounts.length) return false;
+		for (int i=0; i < sentenceSurfaceCounts.length; i++) {
+			List<SurfaceElement> surfs = sents.get(i).getSurfaceElements();
+			if (surfs != sentenceSurfaces.get(i) || (surfs == null ? -1 : surfs.size()) != sentenceSurfaceCounts[i]) return false;
+		}
+		return true;
+	}
+
+	// the position of the last textual unit in the span containing the string, -1 if there is none,
+	// CHANGED if one of the textual units examined has changed since the index was built
+	private int lastPosition(String lowerCaseText, Span sp) {
+		int[] positions = occurrences.get(lowerCaseText);
+		if (positions == null) {
+			positions = findOccurrences(lowerCaseText);
+			occurrences.put(lowerCaseText, positions);
+		}
+		for (int i=positions.length-1; i >= 0; i--) {
+			int pos = positions[i];
+			SurfaceElement surf = surfaces.get(pos);
+			// some textual units, such as gapped multi-word units, create their text and span on each call
+			if (equals(surf.getText(),texts.get(pos)) == false || equals(surf.getSpan(),spans.get(pos)) == false) return CHANGED;
+			// same conditions as Document#getSurfaceElementsInSpan(Span) and Sentence#getSurfaceElementsFromSpan(Span)
+			Span sentSpan = sentences.get(sentenceIndexes[pos]).getSpan();
+			if (Span.overlap(sentSpan,sp) == false) continue;
+			Span intersect = Span.intersection(sentSpan,sp);
+			if (Span.invalidSpan(intersect) || Span.overlap(sentSpan,intersect) == false) continue;
+			if (SpanList.overlap(intersect.getBegin(), intersect.getEnd(), surf.getSpan())) return pos;
+		}
+		return -1;
+	}
+
+	private static boolean equals(Object a, Object b) {
+		return (a == null ? b == null : a.equals(b));
+	}
+
+	private int[] findOccurrences(String lowerCaseText) {
+		List<Integer> found = new ArrayList<>();
+		for (int i=0; i < lowerCaseTexts.size(); i++) {
+			String text = lowerCaseTexts.get(i);
+			if (text != null && text.indexOf(lowerCaseText) >= 0) found.add(i);
+		}
+		int[] out = new int[found.size()];
+		for (int i=0; i < out.length; i++)
+			out[i] = found.get(i);
+		return out;
+	}
+}
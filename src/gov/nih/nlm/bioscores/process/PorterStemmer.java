@@ -3,10 +3,16 @@ package gov.nih.nlm.bioscores.process;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
 * Stemmer, implementing the Porter Stemming Algorithm, taken from 
-* <a href="http://www.tartarus.org/~martin/PorterStemmer">http://www.tartarus.org/~martin/PorterStemmer</a>.
+* <a href="http://www.tartarus.org/~martin/PorterStemmer">http://www.tartarus.org/~martin/PorterStemmer</a>.<p>
+*
+* A <code>PorterStemmer</code> instance keeps its state in an internal buffer and cannot be shared between threads.
+* {@link #stemWord(String)} can be used instead from multiple threads: it uses a stemmer per thread and 
+* caches the stems of the words it has seen.
 *
 */
 
@@ -17,6 +23,14 @@ private int i,     /* offset into b */
             j, k;
 private static final int INC = 50;
                   /* unit of size whereby b is increased */
+private static final int MAX_CACHE_SIZE = 100000;
+                  /* stems are no longer cached beyond this many words */
+private static final ThreadLocal<PorterStemmer> threadStemmer = new ThreadLocal<PorterStemmer>() {
+	protected PorterStemmer initialValue() {
+		return new PorterStemmer();
+	}
+};
+private static final Map<String,String> stemCache = new ConcurrentHashMap<>();
 public PorterStemmer()
 {  b = new char[INC];
    i = 0;
@@ -337,6 +351,24 @@ public void stem()
    i_end = k+1; i = 0;
 }
 
+/**
+ * Stems a word with the stemmer of the current thread, or gets its stem from the shared cache,
+ * if the word has been stemmed before. Safe to use from multiple threads.
+ * 
+ * @param word	the word to stem
+ * @return	the stem
+ */
+public static String stemWord(String word)
+{  String stem = stemCache.get(word);
+   if (stem != null) return stem;
+   PorterStemmer s = threadStemmer.get();
+   s.add(word.toCharArray(),word.length());
+   s.stem();
+   stem = s.toString();
+   if (stemCache.size() < MAX_CACHE_SIZE) stemCache.put(word,stem);
+   return stem;
+}
+
 /** Test program for demonstrating the Stemmer.  It reads text from a
  * a list of files, stems each word, and writes the result to standard
  * output. Note that the word stemmed is expected to be in lower case:
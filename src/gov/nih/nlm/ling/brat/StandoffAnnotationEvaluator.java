@@ -13,9 +13,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import gov.nih.nlm.ling.brat.StandoffAnnotationReader.AnnotationType;
 import gov.nih.nlm.ling.util.FileUtils;
 
 /**
@@ -213,6 +219,86 @@ public class StandoffAnnotationEvaluator {
 		return out;
 	}
 
+	/**
+	 * Compares each standoff annotation file in the gold directory with the file with the same name
+	 * in the annotation directory. <p>
+	 * Files are compared in parallel, each with its own result maps. The results are merged
+	 * in file order at the end, so the returned annotations are the same as when files are compared one by one.
+	 * 
+	 * @param annDir 			the directory of annotation files to compare
+	 * @param goldDir 			the directory of gold standard files
+	 * @param prefixMap			a map that defines which prefix corresponds to which annotation type, if null, defaults are used
+	 * @param parseTypes 		the semantic types to compare
+	 * @param ignoreArgTypes  	the relation argument types to ignore in comparison, if any
+	 * @param approximateMatch 	whether to perform approximate span matching  
+	 * @param useReference  	true if the term normalizations (CUIs, etc.) are to be used in matching terms
+	 * @param matchUsedTermsOnly true for only comparing <code>TermAnnotation</code> objects used in higher-level annotations
+	 * @param evaluateSPAN  	true if the unspecific SPAN term annotations can be used for partial term matching
+	 * @param annoTP returned true positive annotations keyed by the annotation type
+	 * @param annoFP returned false positive annotations 
+	 * @param annoFN returned false negative annotations
+	 * 
+	 * @throws IOException	if there is a problem with reading annotation or gold standard files
+	 */
+	public static void compareDirectories(File annDir, File goldDir, final Map<String,AnnotationType> prefixMap, 
+			final List<String> parseTypes, final List<String> ignoreArgTypes,
+			final boolean approximateMatch, final boolean useReference, final boolean matchUsedTermsOnly, final boolean evaluateSPAN,
+			Map<String,List<Annotation>> annoTP, 
+			Map<String,List<Annotation>> annoFP, 
+			Map<String,List<Annotation>> annoFN) throws IOException {
+		List<String> files = FileUtils.listFiles(goldDir.getAbsolutePath(), false, "ann");
+		final int fileCount = files.size();
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		List<Future<List<Map<String,List<Annotation>>>>> results = new ArrayList<>();
+		try {
+			int fileNum = 0;
+			for (String filename: files) {
+				final String id = filename.substring(filename.lastIndexOf(File.separator)+1).replace(".ann", "");
+				final String annFilename = annDir.getAbsolutePath() + File.separator + id + ".ann";
+				final String goldFilename = goldDir.getAbsolutePath() + File.separator + id + ".ann";
+				final int num = ++fileNum;
+				results.add(executor.submit(new Callable<List<Map<String,List<Annotation>>>>() {
+					public List<Map<String,List<Annotation>>> call() throws IOException {
+						log.log(Level.INFO,"Processing {0}: {1}/{2}", new Object[]{id,num,fileCount});
+						Map<String, List<Annotation>> fileTP = new TreeMap<>();
+						Map<String, List<Annotation>> fileFP = new TreeMap<>();
+						Map<String, List<Annotation>> fileFN = new TreeMap<>();
+						StandoffAnnotationFileComparator.compare(id, annFilename, goldFilename, prefixMap, parseTypes, ignoreArgTypes,
+								approximateMatch, useReference, matchUsedTermsOnly, evaluateSPAN, fileTP, fileFP, fileFN);
+						return Arrays.asList(fileTP,fileFP,fileFN);
+					}
+				}));
+			}
+			for (Future<List<Map<String,List<Annotation>>>> result: results) {
+				List<Map<String,List<Annotation>>> fileResults = result.get();
+				merge(fileResults.get(0),annoTP);
+				merge(fileResults.get(1),annoFP);
+				merge(fileResults.get(2),annoFN);
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while comparing annotation files.", ie);
+		} catch (ExecutionException ee) {
+			Throwable cause = ee.getCause();
+			if (cause instanceof IOException) throw (IOException)cause;
+			if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+			throw new IOException(cause);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private static void merge(Map<String,List<Annotation>> from, Map<String,List<Annotation>> to) {
+		for (String type: from.keySet()) {
+			List<Annotation> anns = to.get(type);
+			if (anns == null) {
+				anns = new ArrayList<>();
+				to.put(type, anns);
+			}
+			anns.addAll(from.get(type));
+		}
+	}
+
 	public static void main(String[] args) throws IOException {
 		if (args.length < 2) {
 			System.err.println("Usage: 'java StandoffAnnotationEvaluator annDirectory goldDirectory " +
@@ -288,16 +374,8 @@ public class StandoffAnnotationEvaluator {
 		parseTypes.addAll(map.get(RelationAnnotation.class));
 		if (useReference) parseTypes.add("Reference");
 		
-		int fileNum = 0;
-		List<String> files = FileUtils.listFiles(goldDirName, false, "ann");
-		for (String filename: files) {
-			String id = filename.substring(filename.lastIndexOf(File.separator)+1).replace(".ann", "");
-			log.log(Level.INFO,"Processing {0}: {1}", new Object[]{id,++fileNum});
-			String annFilename = annDir.getAbsolutePath() + File.separator + id + ".ann";
-			String goldFilename = goldDir.getAbsolutePath() + File.separator + id + ".ann";
-			StandoffAnnotationFileComparator.compare(id, annFilename, goldFilename, null, parseTypes, null,
-					approximateMatch, useReference, usedTermMatchOnly, evaluateSPAN, annoTP, annoFP, annoFN);
-		}
+		compareDirectories(annDir, goldDir, null, parseTypes, null,
+				approximateMatch, useReference, usedTermMatchOnly, evaluateSPAN, annoTP, annoFP, annoFN);
 		PrintWriter pw = new PrintWriter(System.out);
 		printResults(pw,map,annoTP,annoFP,annoFN);
 		if (printErrors) printDiffs(pw, map, annoFP, annoFN);
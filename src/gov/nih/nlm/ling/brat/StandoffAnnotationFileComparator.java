@@ -5,13 +5,17 @@ import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,11 +32,13 @@ import gov.nih.nlm.ling.util.CollectionUtils;
 public class StandoffAnnotationFileComparator {
 	private static Logger log = Logger.getLogger(StandoffAnnotationFileComparator.class.getName());	
 	
-	private static Map<Annotation,LinkedHashSet<Annotation>> partialSpanAnnotations = new HashMap<>();
+	private static final List<String> ANAPHOR_ROLES = Arrays.asList("Anaphor","Anaphora");
 	
 	/**
 	 * Compares two annotation files (only items with the types specified in <var>parseTypes</var>)
-	 * and reports true positive, false positive and false negative annotations.
+	 * and reports true positive, false positive and false negative annotations. <p>
+	 * The comparison does not use any shared state, so different file pairs can be compared concurrently, 
+	 * as long as they do not share the result maps.
 	 * 
 	 * @param id 				document id, presumably compared files have the same id
 	 * @param annFilename 		the first file to compare
@@ -60,49 +66,54 @@ public class StandoffAnnotationFileComparator {
 		Map<StandoffAnnotationReader.AnnotationType,List<String>> goldLines = StandoffAnnotationReader.readAnnotationFiles(Arrays.asList(goldFilename),prefixMap,parseTypes);
 		Map<Class,List<Annotation>> anns = StandoffAnnotationReader.parseAnnotations(id,annLines,ignoreArgTypes);
 		Map<Class,List<Annotation>> gold = StandoffAnnotationReader.parseAnnotations(id,goldLines,ignoreArgTypes);
+		Map<Annotation,LinkedHashSet<Annotation>> partialSpanAnnotations = null;
 		if (evaluateSPAN) {
-			partialSpanAnnotations = new HashMap<>();
-			mapSPANTerms(gold.get(TermAnnotation.class));
+			partialSpanAnnotations = mapSPANTerms(gold.get(TermAnnotation.class));
 		}
 		compareTerms(anns, gold, approximateMatch, matchUsedTermsOnly, annoTP, annoFP, annoFN);
-		compareRelations(anns, gold, approximateMatch, useReference, evaluateSPAN, annoTP, annoFP, annoFN);
-		compareEvents(anns, gold, approximateMatch, useReference, evaluateSPAN, annoTP, annoFP, annoFN);	
+		compareRelations(anns, gold, approximateMatch, useReference, evaluateSPAN, partialSpanAnnotations, annoTP, annoFP, annoFN);
+		compareEvents(anns, gold, approximateMatch, useReference, evaluateSPAN, partialSpanAnnotations, annoTP, annoFP, annoFN);	
 		compareModifications(anns, gold, approximateMatch, annoTP, annoFP, annoFN);
 	}
-		
-	private static boolean isUsed(TermAnnotation t, Map<Class,List<Annotation>> anns1, Map<Class,List<Annotation>> anns2) {
-		return (isUsed(t,anns1) || isUsed(t,anns2));
-	}
 	
-	private static boolean isUsed(TermAnnotation t, Map<Class,List<Annotation>> anns) {
+	// A term is used if it is the argument of a relation or an event (the same object), 
+	// or if it matches the predicate of an event exactly.
+	private static void addUsedTerms(Map<?,List<Annotation>> anns, Set<Annotation> usedArgs, Set<List<Object>> usedPredicates) {
 		List<Annotation> relAnns = anns.get(RelationAnnotation.class);
 		if (relAnns != null) {
 			for (Annotation ann: relAnns) {
 				RelationAnnotation rel = (RelationAnnotation)ann;
-				if (rel.getArgumentWithAnnotation(t) != null) return true;
+				if (rel.getArguments() == null) continue;
+				for (AnnotationArgument arg: rel.getArguments()) usedArgs.add(arg.getArg());
 			}
 		}
 		List<Annotation> evAnns = anns.get(EventAnnotation.class);
 		if (evAnns != null) {
 			for (Annotation ann: evAnns) {
 				EventAnnotation rel = (EventAnnotation)ann;
-				if (rel.getPredicate().equals(t)) return true;
-				if (rel.getArgumentWithAnnotation(t) != null) return true;
+				if (rel.getPredicate() != null) usedPredicates.add(exactKey(rel.getPredicate()));
+				if (rel.getArguments() == null) continue;
+				for (AnnotationArgument arg: rel.getArguments()) usedArgs.add(arg.getArg());
 			}
 		}
-		return false;
+	}
+	
+	// The key under which two term annotations are an exact match (see {@link TermAnnotation#exactMatch(Annotation)})
+	private static List<Object> exactKey(TermAnnotation t) {
+		return Arrays.<Object>asList(t.getType(),t.getSpan(),t.getText());
 	}
 	
 	// This is needed because in cases where useMatchedTermsOnly is used,
 	// even though the system might have identified a Term, it may not be taken into account
 	// because it is not used. However, if the Term is in the gold standard, we still want to keep it.
-	private static boolean isUsed(TermAnnotation t, Set<TermAnnotation> anns) {
-		boolean used = false;
-		for (Annotation a: anns) {
-			TermAnnotation ta = (TermAnnotation)a;
-			if (ta.equals(t)) used= true;
+	private static void removeUnused(List<Annotation> anns, Set<List<Object>> usedKeys) {
+		if (anns == null) return;
+		List<Annotation> used = new ArrayList<>(anns.size());
+		for (Annotation ann: anns) {
+			if (usedKeys.contains(exactKey((TermAnnotation)ann))) used.add(ann);
 		}
-		return used;
+		anns.clear();
+		anns.addAll(used);
 	}
 	
 	private static void addEvaluation(boolean evaluateSPAN, Annotation ann, Map<String,List<Annotation>> evals) {
@@ -141,41 +152,20 @@ public class StandoffAnnotationFileComparator {
 		List<Annotation> anns2 = annotations2.get(TermAnnotation.class);
 		// find all the terms used in Relations or Events to ignore the rest
 		if (matchUsedTermsOnly) {
-			Set<TermAnnotation> usedAnnotations = new HashSet<>();
-			if (anns1 != null) {
-				for (Annotation ann: anns1) {
-					TermAnnotation t = (TermAnnotation)ann;
-					if (isUsed(t,annotations1,annotations2)) {
-						usedAnnotations.add(t);
-					}
+			Set<Annotation> usedArgs = Collections.newSetFromMap(new IdentityHashMap<Annotation,Boolean>());
+			Set<List<Object>> usedPredicates = new HashSet<>();
+			addUsedTerms(annotations1,usedArgs,usedPredicates);
+			addUsedTerms(annotations2,usedArgs,usedPredicates);
+			Set<List<Object>> usedKeys = new HashSet<>();
+			for (List<Annotation> anns: Arrays.asList(anns1,anns2)) {
+				if (anns == null) continue;
+				for (Annotation ann: anns) {
+					List<Object> key = exactKey((TermAnnotation)ann);
+					if (usedArgs.contains(ann) || usedPredicates.contains(key)) usedKeys.add(key);
 				}
 			}
-			if (anns2 != null) {
-				for (Annotation ann: anns2) {
-					TermAnnotation t = (TermAnnotation)ann;
-					if (isUsed(t,annotations1,annotations2)) {
-						usedAnnotations.add(t);
-					}
-				}
-			}
-			List<Annotation> unused = new ArrayList<>();
-			if (anns1 != null) {
-				for (Annotation ann: anns1) {
-					TermAnnotation t = (TermAnnotation)ann;
-					if (!(isUsed(t,usedAnnotations)))
-						unused.add(t);
-				}
-				anns1.removeAll(unused);
-			}
-			unused.clear();
-			if (anns2 != null) {
-				for (Annotation ann: anns2) {
-					TermAnnotation t = (TermAnnotation)ann;
-					if (!(isUsed(t,usedAnnotations))) 
-						unused.add(t);
-				}
-				anns2.removeAll(unused);
-			}
+			removeUnused(anns1,usedKeys);
+			removeUnused(anns2,usedKeys);
 		}
 		
 		
@@ -186,28 +176,44 @@ public class StandoffAnnotationFileComparator {
 			for (Annotation a: anns1) addEvaluation(false,a,annoFP);
 		}
 		else  {
-			Set<Annotation> ann1Pairs = new HashSet<>();
-			Set<Annotation> ann2Pairs = new HashSet<>();
-			for (Annotation a : anns1) {
-				TermAnnotation ta = (TermAnnotation)a;
-				for (Annotation b : anns2) {
-					TermAnnotation tb = (TermAnnotation)b;
-					if (!(ann1Pairs.contains(ta)) && !(ann2Pairs.contains(tb))) {
-						if ((!approximateMatch && ta.exactMatch(tb)) ||
-							(approximateMatch && ta.approximateMatch(tb))) {
-							ann1Pairs.add(ta);
-							ann2Pairs.add(tb);
-							addEvaluation(false,a,annoTP);
-							break;
-						}
+			boolean[] ann1Pairs = new boolean[anns1.size()];
+			boolean[] ann2Pairs = new boolean[anns2.size()];
+			// gold terms indexed by exact key and, for approximate match, by span per semantic type
+			Map<List<Object>,List<Integer>> exactIndex = new HashMap<>();
+			Map<String,IntervalIndex> spanIndex = new HashMap<>();
+			for (int j=0; j < anns2.size(); j++) {
+				TermAnnotation tb = (TermAnnotation)anns2.get(j);
+				if (approximateMatch) 
+					getIntervalIndex(spanIndex,tb.getType()).add(tb.getSpan(), j);
+				else 
+					getPositions(exactIndex,exactKey(tb)).add(j);
+			}
+			for (int i=0; i < anns1.size(); i++) {
+				TermAnnotation ta = (TermAnnotation)anns1.get(i);
+				List<Integer> candidates = null;
+				if (approximateMatch) {
+					IntervalIndex index = spanIndex.get(ta.getType());
+					if (index != null) candidates = index.overlapping(ta.getSpan());
+				} else 
+					candidates = exactIndex.get(exactKey(ta));
+				if (candidates == null) continue;
+				for (int j: candidates) {
+					if (ann2Pairs[j]) continue;
+					TermAnnotation tb = (TermAnnotation)anns2.get(j);
+					if ((!approximateMatch && ta.exactMatch(tb)) ||
+						(approximateMatch && ta.approximateMatch(tb))) {
+						ann1Pairs[i] = true;
+						ann2Pairs[j] = true;
+						addEvaluation(false,ta,annoTP);
+						break;
 					}
 				}
 			}
-			for (Annotation a : anns1) {
-				if (ann1Pairs.contains(a) == false) addEvaluation(false,a,annoFP);
+			for (int i=0; i < anns1.size(); i++) {
+				if (ann1Pairs[i] == false) addEvaluation(false,anns1.get(i),annoFP);
 			}
-			for (Annotation b : anns2) {
-				if (ann2Pairs.contains(b) == false) addEvaluation(false,b,annoFN);
+			for (int j=0; j < anns2.size(); j++) {
+				if (ann2Pairs[j] == false) addEvaluation(false,anns2.get(j),annoFN);
 			}
 		}
 	}
@@ -229,6 +235,15 @@ public class StandoffAnnotationFileComparator {
 										boolean approximateMatch,  boolean useReference, boolean evaluateSPAN,
 										Map<String,List<Annotation>> annoTP,  Map<String,List<Annotation>> annoFP, 
 										Map<String,List<Annotation>> annoFN) {
+		compareRelations(annotations1, annotations2, approximateMatch, useReference, evaluateSPAN, 
+				(evaluateSPAN ? mapSPANTerms(annotations2.get(TermAnnotation.class)) : null), annoTP, annoFP, annoFN);
+	}
+	
+	private static void compareRelations(Map<?,List<Annotation>> annotations1, Map<?,List<Annotation>> annotations2, 
+										boolean approximateMatch,  boolean useReference, boolean evaluateSPAN,
+										Map<Annotation,LinkedHashSet<Annotation>> partialSpanAnnotations,
+										Map<String,List<Annotation>> annoTP,  Map<String,List<Annotation>> annoFP, 
+										Map<String,List<Annotation>> annoFN) {
 		List<Annotation> anns1 = annotations1.get(RelationAnnotation.class);
 		List<Annotation> anns2 = annotations2.get(RelationAnnotation.class);
 		if (anns1 == null && anns2 == null) return;
@@ -238,33 +253,80 @@ public class StandoffAnnotationFileComparator {
 			for (Annotation a: anns1) addEvaluation(evaluateSPAN,a,annoFP);
 		}
 		else  {
-			Set<Annotation> ann1Pairs = new HashSet<>();
-			Set<Annotation> ann2Pairs = new HashSet<>();
-			for (Annotation a : anns1) {
-				RelationAnnotation ra = (RelationAnnotation)a;
-				for (Annotation b : anns2) {
-					RelationAnnotation rb = (RelationAnnotation)b;
-					if (!(ann1Pairs.contains(ra)) && !(ann2Pairs.contains(rb))) {
-						if ((!approximateMatch && ra.exactMatch(rb)) || 
-							(approximateMatch && (ra.approximateMatch(rb) || ra.spanMatch(rb))) || 
-							(evaluateSPAN && modifiedSPANMatch(approximateMatch,ra,rb)) ||
-							(useReference && ra.referenceMatch(approximateMatch,rb))) {
-							ann1Pairs.add(ra);
-							ann2Pairs.add(rb);
-							addEvaluation(false,a,annoTP);
-							break;
-						} 
-					}
+			boolean[] ann1Pairs = new boolean[anns1.size()];
+			boolean[] ann2Pairs = new boolean[anns2.size()];
+			// All match types require the same relation type and the same roles, 
+			// and the term arguments with the same role to overlap (except for reference match, 
+			// which only requires that for anaphors). 
+			Map<String,List<Integer>> signatureIndex = new HashMap<>();
+			Map<String,IntervalIndex> argumentIndex = new HashMap<>();
+			for (int j=0; j < anns2.size(); j++) {
+				RelationAnnotation rb = (RelationAnnotation)anns2.get(j);
+				String signature = argumentSignature(rb);
+				if (signature == null) continue;
+				getPositions(signatureIndex,signature).add(j);
+				for (AnnotationArgument arg: rb.getArguments()) {
+					if (arg.getArg() instanceof TermAnnotation == false) continue;
+					getIntervalIndex(argumentIndex,signature + "\t" + arg.getRole()).add(arg.getArg().getSpan(), j);
+				}
+			}
+			for (int i=0; i < anns1.size(); i++) {
+				RelationAnnotation ra = (RelationAnnotation)anns1.get(i);
+				String signature = argumentSignature(ra);
+				if (signature == null) continue;
+				List<Integer> candidates = null;
+				AnnotationArgument keyArg = keyArgument(ra, useReference);
+				if (keyArg == null) candidates = signatureIndex.get(signature);
+				else {
+					IntervalIndex index = argumentIndex.get(signature + "\t" + keyArg.getRole());
+					if (index != null) candidates = index.overlapping(keyArg.getArg().getSpan());
+				}
+				if (candidates == null) continue;
+				for (int j: candidates) {
+					if (ann2Pairs[j]) continue;
+					RelationAnnotation rb = (RelationAnnotation)anns2.get(j);
+					if ((!approximateMatch && ra.exactMatch(rb)) || 
+						(approximateMatch && (ra.approximateMatch(rb) || ra.spanMatch(rb))) || 
+						(evaluateSPAN && modifiedSPANMatch(approximateMatch,ra,rb,partialSpanAnnotations)) ||
+						(useReference && ra.referenceMatch(approximateMatch,rb))) {
+						ann1Pairs[i] = true;
+						ann2Pairs[j] = true;
+						addEvaluation(false,ra,annoTP);
+						break;
+					} 
 				}
 			}
-			for (Annotation a : anns1) {	
-				if (ann1Pairs.contains(a) == false) addEvaluation(evaluateSPAN,a,annoFP);
+			for (int i=0; i < anns1.size(); i++) {	
+				if (ann1Pairs[i] == false) addEvaluation(evaluateSPAN,anns1.get(i),annoFP);
 			}
-			for (Annotation b : anns2) {
-				if (ann2Pairs.contains(b) == false) addEvaluation(evaluateSPAN,b,annoFN);
+			for (int j=0; j < anns2.size(); j++) {
+				if (ann2Pairs[j] == false) addEvaluation(evaluateSPAN,anns2.get(j),annoFN);
 			}
 		}
 	}
+	
+	// Relation type and sorted argument roles, null if the relation has no arguments and cannot match.
+	private static String argumentSignature(RelationAnnotation rel) {
+		List<AnnotationArgument> args = rel.getArguments();
+		if (args == null || args.size() == 0) return null;
+		List<String> roles = new ArrayList<>(args.size());
+		for (AnnotationArgument arg: args) roles.add(arg.getRole());
+		Collections.sort(roles);
+		StringBuffer buf = new StringBuffer(rel.getType());
+		for (String role: roles) buf.append("\t" + role);
+		return buf.toString();
+	}
+	
+	// The term argument used to look up candidate matches, null if all relations with the same signature are candidates. 
+	// With reference match, only anaphors are required to overlap.
+	private static AnnotationArgument keyArgument(RelationAnnotation rel, boolean useReference) {
+		for (AnnotationArgument arg: rel.getArguments()) {
+			if (arg.getArg() instanceof TermAnnotation == false) continue;
+			if (useReference && ANAPHOR_ROLES.contains(arg.getRole()) == false) continue;
+			return arg;
+		}
+		return null;
+	}
 
 	/**
 	 * Compares {@link EventAnnotation} objects
@@ -283,6 +345,15 @@ public class StandoffAnnotationFileComparator {
 			   						 boolean approximateMatch, boolean useReference, boolean evaluateSPAN,
 			   						 Map<String,List<Annotation>> annoTP, Map<String,List<Annotation>> annoFP, 
 			   						 Map<String,List<Annotation>> annoFN) {
+		compareEvents(annotations1, annotations2, approximateMatch, useReference, evaluateSPAN, 
+				(evaluateSPAN ? mapSPANTerms(annotations2.get(TermAnnotation.class)) : null), annoTP, annoFP, annoFN);
+	}
+	
+	private static void compareEvents(Map<?,List<Annotation>> annotations1, Map<?,List<Annotation>> annotations2, 
+			   						 boolean approximateMatch, boolean useReference, boolean evaluateSPAN,
+			   						 Map<Annotation,LinkedHashSet<Annotation>> partialSpanAnnotations,
+			   						 Map<String,List<Annotation>> annoTP, Map<String,List<Annotation>> annoFP, 
+			   						 Map<String,List<Annotation>> annoFN) {
 		List<Annotation> anns1 = annotations1.get(EventAnnotation.class);
 		List<Annotation> anns2 = annotations2.get(EventAnnotation.class);
 		if (anns1 == null && anns2 == null) return;
@@ -292,33 +363,61 @@ public class StandoffAnnotationFileComparator {
 			for (Annotation a: anns1) addEvaluation(evaluateSPAN,a,annoFP);
 		}
 		else  {
-			Set<Annotation> ann1Pairs = new HashSet<>();
-			Set<Annotation> ann2Pairs = new HashSet<>();
-			for (Annotation a : anns1) {
-				EventAnnotation ea = (EventAnnotation)a;
-				for (Annotation b : anns2) {
-					EventAnnotation eb = (EventAnnotation)b;
-					if (!(ann1Pairs.contains(ea)) && !(ann2Pairs.contains(eb))) {
-						if ((!approximateMatch && ea.exactMatch(eb)) ||
-							(approximateMatch && ea.approximateMatch(eb)) ||
-							(evaluateSPAN && modifiedSPANMatch(approximateMatch,ea,eb)) ||
-							(useReference && ea.referenceMatch(approximateMatch,eb))) {
-							ann1Pairs.add(ea);
-							ann2Pairs.add(eb);
-							addEvaluation(evaluateSPAN,a,annoTP);
-							break;
-						} 
+			boolean[] ann1Pairs = new boolean[anns1.size()];
+			boolean[] ann2Pairs = new boolean[anns2.size()];
+			// All match types require the predicates to overlap, except for reference match, 
+			// where normalized predicates can also match by their references.
+			IntervalIndex predicateIndex = new IntervalIndex();
+			Map<Reference,List<Integer>> referenceIndex = new HashMap<>();
+			List<Integer> noPredicate = new ArrayList<>();
+			for (int j=0; j < anns2.size(); j++) {
+				TermAnnotation pb = ((EventAnnotation)anns2.get(j)).getPredicate();
+				if (pb == null) {
+					noPredicate.add(j);
+					continue;
+				}
+				predicateIndex.add(pb.getSpan(), j);
+				if (useReference) {
+					for (Reference r: pb.getReferences()) getPositions(referenceIndex,r).add(j);
+				}
+			}
+			for (int i=0; i < anns1.size(); i++) {
+				EventAnnotation ea = (EventAnnotation)anns1.get(i);
+				Collection<Integer> candidates = null;
+				TermAnnotation pa = ea.getPredicate();
+				if (pa == null) candidates = allPositions(anns2.size());
+				else {
+					candidates = new TreeSet<>(predicateIndex.overlapping(pa.getSpan()));
+					candidates.addAll(noPredicate);
+					if (useReference) {
+						for (Reference r: pa.getReferences()) {
+							List<Integer> refPositions = referenceIndex.get(r);
+							if (refPositions != null) candidates.addAll(refPositions);
+						}
+					}
+				}
+				for (int j: candidates) {
+					if (ann2Pairs[j]) continue;
+					EventAnnotation eb = (EventAnnotation)anns2.get(j);
+					if ((!approximateMatch && ea.exactMatch(eb)) ||
+						(approximateMatch && ea.approximateMatch(eb)) ||
+						(evaluateSPAN && modifiedSPANMatch(approximateMatch,ea,eb,partialSpanAnnotations)) ||
+						(useReference && ea.referenceMatch(approximateMatch,eb))) {
+						ann1Pairs[i] = true;
+						ann2Pairs[j] = true;
+						addEvaluation(evaluateSPAN,ea,annoTP);
+						break;
 					} 
 				}
 			}
-			for (Annotation a : anns1) {
-				if (ann1Pairs.contains(a) == false) addEvaluation(evaluateSPAN,a,annoFP);
+			for (int i=0; i < anns1.size(); i++) {
+				if (ann1Pairs[i] == false) addEvaluation(evaluateSPAN,anns1.get(i),annoFP);
 			}
-			for (Annotation b : anns2) {
-				if (ann2Pairs.contains(b) == false) {
-					EventAnnotation eb = (EventAnnotation)b;
+			for (int j=0; j < anns2.size(); j++) {
+				if (ann2Pairs[j] == false) {
+					EventAnnotation eb = (EventAnnotation)anns2.get(j);
 					if (hasSPANAnnotation(eb.getArguments())) continue;
-					addEvaluation(evaluateSPAN,b,annoFN);
+					addEvaluation(evaluateSPAN,eb,annoFN);
 				}
 			}
 		}
@@ -348,39 +447,109 @@ public class StandoffAnnotationFileComparator {
 			for (Annotation a: anns1) addEvaluation(false,a,annoFP);
 		}
 		else  {
-			Set<Annotation> ann1Pairs = new HashSet<>();
-			Set<Annotation> ann2Pairs = new HashSet<>();
-			for (Annotation a : anns1) {
-				ModificationAnnotation ea = (ModificationAnnotation)a;
-				for (Annotation b : anns2) {
-					ModificationAnnotation eb = (ModificationAnnotation)b;
-					if (!(ann1Pairs.contains(ea)) && !(ann2Pairs.contains(eb))) {
-						if ((!approximateMatch && ea.exactMatch(eb)) ||
-								(approximateMatch && ea.approximateMatch(eb))) {
-							ann1Pairs.add(ea);
-							ann2Pairs.add(eb);
-							addEvaluation(false,a,annoTP);
-							break;
-						}
-					}
+			boolean[] ann1Pairs = new boolean[anns1.size()];
+			boolean[] ann2Pairs = new boolean[anns2.size()];
+			// Modifications match only if their types and values are the same; 
+			// term and event items also need to overlap.
+			Map<List<Object>,List<Integer>> valueIndex = new HashMap<>();
+			Map<List<Object>,IntervalIndex> itemIndex = new HashMap<>();
+			for (int j=0; j < anns2.size(); j++) {
+				ModificationAnnotation eb = (ModificationAnnotation)anns2.get(j);
+				List<Object> key = modificationKey(eb);
+				getPositions(valueIndex,key).add(j);
+				SpanList itemSpan = itemSpan(eb.getSemanticItem());
+				if (itemSpan == null) continue;
+				List<Object> itemKey = new ArrayList<>(key);
+				itemKey.add(eb.getSemanticItem() instanceof TermAnnotation);
+				IntervalIndex index = itemIndex.get(itemKey);
+				if (index == null) {
+					index = new IntervalIndex();
+					itemIndex.put(itemKey, index);
 				}
+				index.add(itemSpan, j);
 			}
-			for (Annotation a : anns1) {
-				if (ann1Pairs.contains(a) == false) {
-					addEvaluation(false,a,annoFP);
+			for (int i=0; i < anns1.size(); i++) {
+				ModificationAnnotation ea = (ModificationAnnotation)anns1.get(i);
+				List<Object> key = modificationKey(ea);
+				List<Integer> candidates = null;
+				SpanList itemSpan = itemSpan(ea.getSemanticItem());
+				if (itemSpan == null) candidates = valueIndex.get(key);
+				else {
+					List<Object> itemKey = new ArrayList<>(key);
+					itemKey.add(ea.getSemanticItem() instanceof TermAnnotation);
+					IntervalIndex index = itemIndex.get(itemKey);
+					if (index != null) candidates = index.overlapping(itemSpan);
 				}
+				if (candidates == null) continue;
+				for (int j: candidates) {
+					if (ann2Pairs[j]) continue;
+					ModificationAnnotation eb = (ModificationAnnotation)anns2.get(j);
+					if ((!approximateMatch && ea.exactMatch(eb)) ||
+							(approximateMatch && ea.approximateMatch(eb))) {
+						ann1Pairs[i] = true;
+						ann2Pairs[j] = true;
+						addEvaluation(false,ea,annoTP);
+						break;
+					}
+				}
+			}
+			for (int i=0; i < anns1.size(); i++) {
+				if (ann1Pairs[i] == false) addEvaluation(false,anns1.get(i),annoFP);
 			}
-			for (Annotation b : anns2) {
-				if (ann2Pairs.contains(b) == false) addEvaluation(false,b,annoFN);
+			for (int j=0; j < anns2.size(); j++) {
+				if (ann2Pairs[j] == false) addEvaluation(false,anns2.get(j),annoFN);
 			}
 		}
 	}	
 	
-	private static void mapSPANTerms(List<Annotation> goldTerms) {
+	private static List<Object> modificationKey(ModificationAnnotation mod) {
+		return Arrays.<Object>asList(mod.getType(),mod.getValue());
+	}
+	
+	// the span that a matching semantic item needs to overlap, null if it cannot be determined without side effects
+	private static SpanList itemSpan(Annotation item) {
+		if (item instanceof TermAnnotation) return item.getSpan();
+		if (item instanceof EventAnnotation && ((EventAnnotation)item).getPredicate() != null) 
+			return ((EventAnnotation)item).getPredicate().getSpan();
+		return null;
+	}
+	
+	private static <K> List<Integer> getPositions(Map<K,List<Integer>> index, K key) {
+		List<Integer> positions = index.get(key);
+		if (positions == null) {
+			positions = new ArrayList<>();
+			index.put(key, positions);
+		}
+		return positions;
+	}
+	
+	private static IntervalIndex getIntervalIndex(Map<String,IntervalIndex> index, String key) {
+		IntervalIndex intervals = index.get(key);
+		if (intervals == null) {
+			intervals = new IntervalIndex();
+			index.put(key, intervals);
+		}
+		return intervals;
+	}
+	
+	private static List<Integer> allPositions(int size) {
+		List<Integer> positions = new ArrayList<>(size);
+		for (int j=0; j < size; j++) positions.add(j);
+		return positions;
+	}
+	
+	private static Map<Annotation,LinkedHashSet<Annotation>> mapSPANTerms(List<Annotation> goldTerms) {
+		Map<Annotation,LinkedHashSet<Annotation>> partialSpanAnnotations = new HashMap<>();
+		if (goldTerms == null) return partialSpanAnnotations;
+		IntervalIndex index = new IntervalIndex();
+		for (int j=0; j < goldTerms.size(); j++) {
+			index.add(goldTerms.get(j).getSpan(), j);
+		}
 		for (Annotation g: goldTerms) {
 			if (isSPANAnnotation(g)) {
 				LinkedHashSet<Annotation> subsumed = new LinkedHashSet<>();
-				for (Annotation o: goldTerms) {
+				for (int j: index.overlapping(g.getSpan())) {
+					Annotation o = goldTerms.get(j);
 					if (o.equals(g)) continue;
 					if (!isSPANAnnotation(o) && SpanList.subsume(g.getSpan(), o.getSpan())) {
 						subsumed.add(o);
@@ -389,6 +558,7 @@ public class StandoffAnnotationFileComparator {
 				partialSpanAnnotations.put(g,subsumed);
 			}
 		}
+		return partialSpanAnnotations;
 	}
 	
 	private static boolean isSPANAnnotation(Annotation ann) {
@@ -403,9 +573,10 @@ public class StandoffAnnotationFileComparator {
 	}
 	
 	
-	private static boolean modifiedSPANMatch(boolean approxMatch, Annotation a, Annotation b){
-		List<Annotation> sra = modifySPAN(a);
-		List<Annotation> srb = modifySPAN(b);
+	private static boolean modifiedSPANMatch(boolean approxMatch, Annotation a, Annotation b, 
+			Map<Annotation,LinkedHashSet<Annotation>> partialSpanAnnotations){
+		List<Annotation> sra = modifySPAN(a,partialSpanAnnotations);
+		List<Annotation> srb = modifySPAN(b,partialSpanAnnotations);
 		for (Annotation aa: sra) {
 			for (Annotation ba: srb) {
 				if ((!approxMatch && aa.exactMatch(ba)) ||
@@ -417,7 +588,7 @@ public class StandoffAnnotationFileComparator {
 		return false;
 	}
 	
-	private static List<Annotation> modifySPAN(Annotation annotation) {
+	private static List<Annotation> modifySPAN(Annotation annotation, Map<Annotation,LinkedHashSet<Annotation>> partialSpanAnnotations) {
 		List<Annotation> out = new ArrayList<>();
 		if (annotation instanceof TermAnnotation) return out;
 		List<AnnotationArgument> args = null;
@@ -459,6 +630,73 @@ public class StandoffAnnotationFileComparator {
 		return out;
 	}
 	
+	/**
+	 * A static interval tree over the spans of annotations, used to find the candidate 
+	 * matches of an annotation without comparing it to every annotation in the other file.
+	 * Spans are indexed by their extent (first to last character offset) and the overlap
+	 * test is inclusive, so that the candidates include all annotations that may
+	 * overlap or share a span with the query.
+	 */
+	private static class IntervalIndex {
+		private List<int[]> entries = new ArrayList<>();
+		private int[] begins;
+		private int[] ends;
+		private int[] positions;
+		private int[] maxEnds;
+		
+		private void add(SpanList span, int position) {
+			entries.add(new int[]{span.getBegin(),span.getEnd(),position});
+			begins = null;
+		}
+		
+		private void build() {
+			Collections.sort(entries, new Comparator<int[]>() {
+				public int compare(int[] a, int[] b) {
+					if (a[0] != b[0]) return Integer.compare(a[0],b[0]);
+					return Integer.compare(a[2],b[2]);
+				}
+			});
+			int n = entries.size();
+			begins = new int[n]; ends = new int[n]; positions = new int[n]; maxEnds = new int[n];
+			for (int i=0; i < n; i++) {
+				int[] e = entries.get(i);
+				begins[i] = e[0]; ends[i] = e[1]; positions[i] = e[2];
+			}
+			computeMaxEnds(0,n);
+		}
+		
+		// the maximum end offset of each implicit subtree [lo,hi) is stored at its root (lo+hi)/2.
+		private int computeMaxEnds(int lo, int hi) {
+			if (lo >= hi) return Integer.MIN_VALUE;
+			int mid = (lo + hi) >>> 1;
+			int max = Math.max(ends[mid], Math.max(computeMaxEnds(lo,mid), computeMaxEnds(mid+1,hi)));
+			maxEnds[mid] = max;
+			return max;
+		}
+		
+		/**
+		 * @param span	the span to search for
+		 * @return	the positions of the indexed annotations that may overlap <var>span</var>, in ascending order
+		 */
+		private List<Integer> overlapping(SpanList span) {
+			if (begins == null) build();
+			List<Integer> out = new ArrayList<>();
+			collect(0, begins.length, span.getBegin(), span.getEnd(), out);
+			Collections.sort(out);
+			return out;
+		}
+		
+		private void collect(int lo, int hi, int begin, int end, List<Integer> out) {
+			if (lo >= hi) return;
+			int mid = (lo + hi) >>> 1;
+			if (maxEnds[mid] < begin) return;
+			collect(lo, mid, begin, end, out);
+			if (begins[mid] > end) return;
+			if (ends[mid] >= begin) out.add(positions[mid]);
+			collect(mid+1, hi, begin, end, out);
+		}
+	}
+	
 	public static void main(String[] args) throws IOException {
 		if (args.length < 2) {
 			System.err.println("Usage: 'java StandoffAnnotationFileComparator annFile goldFile " +
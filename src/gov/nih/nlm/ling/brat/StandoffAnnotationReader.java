@@ -77,7 +77,6 @@ public class StandoffAnnotationReader {
 	protected static Map<String,Term> termSpans;
 	protected static Map<String,String> equivIds;
 	
-	protected static Map<String,Annotation> annotationIdMap;
 
 	/**
 	 * Creates a <code>Document</code> object from a the text file associated with the standoff annotations.
@@ -248,7 +247,8 @@ public class StandoffAnnotationReader {
 	 */
 	public static Map<Class,List<Annotation>> parseAnnotations(String docId, Map<AnnotationType,List<String>> lines, List<String> ignoreArgTypes) {
 		Map<Class,List<Annotation>> annotations = new HashMap<>();
-		annotationIdMap = new HashMap<>();
+		// kept local, so that documents can be parsed concurrently
+		Map<String,Annotation> annotationIdMap = new HashMap<>();
 		List<String> termLines = lines.get(AnnotationType.Term);
 		if (termLines != null) {
 			for (String term: termLines) {
@@ -269,13 +269,13 @@ public class StandoffAnnotationReader {
 		List<String> refLines = lines.get(AnnotationType.Reference);
 		if (refLines != null) {
 			for (String ref : refLines) {
-				readReferenceLine(docId,ref);	
+				readReferenceLine(docId,ref,annotationIdMap);	
 			}
 		}
 		List<String> relLines = lines.get(AnnotationType.Relation);
 		if (relLines != null) {
 			for (String rel: relLines) {
-				RelationAnnotation r = readRelationLine(docId, rel, ignoreArgTypes);
+				RelationAnnotation r = readRelationLine(docId, rel, ignoreArgTypes, annotationIdMap);
 				// one of the arguments is invalid
 				if (r == null) {
 					log.log(Level.WARNING, "Unable to parse the relation annotation line: {0}.", rel);
@@ -293,7 +293,7 @@ public class StandoffAnnotationReader {
 		List<String> eventLines = lines.get(AnnotationType.Event);
 		if (eventLines != null) {
 			for (String ev: eventLines) {
-				EventAnnotation e = readEventLine(docId, ev, ignoreArgTypes);
+				EventAnnotation e = readEventLine(docId, ev, ignoreArgTypes, annotationIdMap);
 				if (e == null) {
 					log.log(Level.WARNING, "Unable to parse the event annotation line: {0}.", ev);
 					continue;
@@ -310,7 +310,7 @@ public class StandoffAnnotationReader {
 		List<String> modLines = lines.get(AnnotationType.Modification);
 		if (modLines != null) {
 			for (String mod: modLines) {
-				ModificationAnnotation e = readModificationLine(docId, mod, ignoreArgTypes);
+				ModificationAnnotation e = readModificationLine(docId, mod, ignoreArgTypes, annotationIdMap);
 				if (mod == null) {
 					log.log(Level.WARNING, "Unable to parse the modification annotation line: {0}.", mod);
 					continue;
@@ -363,10 +363,11 @@ public class StandoffAnnotationReader {
 	  * @param docId	the document id
 	  * @param line  	the relation annotation line
 	  * @param ignoreArgTypes  argument types to ignore
+	  * @param annotationIdMap  the annotations parsed so far, keyed by their ids
 	  * 
 	  * @return  a <code>RelationAnnotation</code> object, or null if there are unresolved or invalid arguments
 	  */
-	 protected static RelationAnnotation readRelationLine(String docId, String line, List<String> ignoreArgTypes) {
+	 protected static RelationAnnotation readRelationLine(String docId, String line, List<String> ignoreArgTypes, Map<String,Annotation> annotationIdMap) {
 		 log.log(Level.FINEST, "Reading relation line: {0}.", line);
 		 String[] tabbedStrs = line.split("[\t]");	
 		 String id = tabbedStrs[0];
@@ -401,10 +402,11 @@ public class StandoffAnnotationReader {
 	  * @param docId	the document id
 	  * @param line 	the event annotation line
 	  * @param ignoreArgTypes  argument types to ignore
+	  * @param annotationIdMap  the annotations parsed so far, keyed by their ids
 	  * 
 	  * @return the <code>EventAnnotation</code> object, or null if there are unresolved/invalid arguments
 	  */
-	 protected static EventAnnotation readEventLine(String docId, String line, List<String> ignoreArgTypes) {
+	 protected static EventAnnotation readEventLine(String docId, String line, List<String> ignoreArgTypes, Map<String,Annotation> annotationIdMap) {
 		 log.log(Level.FINEST, "Reading event line: {0}.", new Object[]{line});
 		 List<String> roleTerms = new ArrayList<>();
 		 String[] tabbedStrs = line.split("[\t]");	
@@ -452,11 +454,12 @@ public class StandoffAnnotationReader {
 	  * @param docId	the document id
 	  * @param line 	the event annotation line
 	  * @param ignoreArgTypes  argument types to ignore
+	  * @param annotationIdMap  the annotations parsed so far, keyed by their ids
 	  * 
 	  * @return the <code>PredicationArgument</code> object, or null if there are unresolved/invalid arguments
 	  */
 	 // TODO Unused, untested.
-	 protected static PredicationAnnotation readPredicationLine(String docId, String line, List<String> ignoreArgTypes) {
+	 protected static PredicationAnnotation readPredicationLine(String docId, String line, List<String> ignoreArgTypes, Map<String,Annotation> annotationIdMap) {
 		 log.log(Level.FINEST, "Reading predication line: {0}.", new Object[]{line});
 		 List<String> roleTerms = new ArrayList<>();
 		 String[] tabbedStrs = line.split("[\t]");	
@@ -510,10 +513,11 @@ public class StandoffAnnotationReader {
 	 * @param docId				the document id
 	 * @param line  			the line corresponding to the modification annotation
 	 * @param ignoreArgTypes	argument types to ignore if any
+	 * @param annotationIdMap  the annotations parsed so far, keyed by their ids
 	 * @return  a <code>EventModificationAnnotation</code> object, or null for a line with unexpected format
 	 */
 	// TODO Not thoroughly tested.
-	 protected static ModificationAnnotation readModificationLine(String docId, String line, List<String> ignoreArgTypes) {
+	 protected static ModificationAnnotation readModificationLine(String docId, String line, List<String> ignoreArgTypes, Map<String,Annotation> annotationIdMap) {
 		log.log(Level.FINEST, "Reading modification line: {0}.", new Object[]{line});
 		String[] tabbedStrs = line.split("[\t]");	
 	 	String id = tabbedStrs[0];
@@ -548,9 +552,10 @@ public class StandoffAnnotationReader {
 	 * 
 	 * @param docId	the document id
 	 * @param line  the line corresponding to the reference annotation
+	 * @param annotationIdMap  the annotations parsed so far, keyed by their ids
 	 */
 	 // TODO Not thoroughly tested.	 
-	 protected static void readReferenceLine(String docId, String line) {	
+	 protected static void readReferenceLine(String docId, String line, Map<String,Annotation> annotationIdMap) {	
 		 log.log(Level.FINEST, "Reading reference line: {0}.", new Object[]{line});
 		 String[] tabbedStrs = line.split("[\t]");	
 //		 String id = tabbedStrs[0];
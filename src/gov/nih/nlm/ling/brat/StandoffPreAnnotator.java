@@ -5,19 +5,24 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import gov.nih.nlm.ling.brat.StandoffAnnotationReader.AnnotationType;
 import gov.nih.nlm.ling.core.Document;
 import gov.nih.nlm.ling.core.Span;
-import gov.nih.nlm.ling.core.SpanList;
 import gov.nih.nlm.ling.util.FileUtils;
+import gov.nih.nlm.ling.util.MultiPatternMatcher;
 
 /**
  * A class with static methods to automatically annotate a text file with a pre-defined
@@ -68,45 +73,69 @@ public class StandoffPreAnnotator {
 		return max;
 	}
 	
-	private static Map<SpanList,String> createSpanMap(List<String> entityLines) {
-		Map<SpanList,String> spanMap = new HashMap<>();
+	// the characters covered by the existing annotations
+	private static BitSet createOccupancy(List<String> entityLines) {
+		BitSet occupied = new BitSet();
 		for (String t: entityLines) {
 			String[] tabbedStrs = t.split("[\t]");	
 			String semSpan = tabbedStrs[1];
 	    	String[] els = semSpan.split(StandoffAnnotationReader.FIELD_DELIMITER);
 	    	String sem = els[0];
 	    	String spStr = semSpan.substring(semSpan.indexOf(sem)+sem.length()+1);
-	    	List<Span> sps = new ArrayList<Span>();
 	    	// multiple spans
 	    	if (spStr.indexOf(';') > 0) {
 	    		String[] spss = spStr.split(";");
 	    		for (int i=0; i < spss.length; i++) {
-	    			Span si = new Span(spss[i],' ');
-	    			sps.add(si);
+	    			occupy(new Span(spss[i],' '),occupied);
 	    		}
 	    	} else  {
-	    		Span si = new Span(spStr,' ');
-				sps.add(si);
+	    		occupy(new Span(spStr,' '),occupied);
 	    	}
-	    	SpanList sp = new SpanList(sps);
-	    	spanMap.put(sp, t);
 		}
-		return spanMap;
+		return occupied;
 	}
 	
-	private static boolean overlappingSpan(Span span, Map<SpanList,String> spanMap ) {
-		for (SpanList sp: spanMap.keySet()) {
-			if (SpanList.overlap(sp, new SpanList(span))) return true;
-		}
-		return false;
+	private static void occupy(Span span, BitSet occupied) {
+		if (span.getEnd() <= 0) return;
+		occupied.set(Math.max(0, span.getBegin()), span.getEnd());
+	}
+	
+	private static boolean overlappingSpan(Span span, BitSet occupied) {
+		int next = occupied.nextSetBit(span.getBegin());
+		return (next >= 0 && next < span.getEnd());
 	}
 	
+	// sorts the pre-annotations by the number of tokens, and then by counts, in descending order
+	private static List<String> sortPreAnnotations(Map<String, String> preAnns, final Map<String,Integer> preAnnCounts) {
+		List<String> preAnnStrs = new ArrayList<String>(preAnns.keySet());
+		final Map<String,Integer> tokenCounts = new HashMap<>();
+		for (String pre: preAnnStrs) {
+			tokenCounts.put(pre, pre.split("[ ]+").length);
+		}
+		Collections.sort(preAnnStrs, new Comparator<String>() {
+			public int compare(String a, String b) {
+				int aTokNum = tokenCounts.get(a);
+				int bTokNum = tokenCounts.get(b);
+				if (bTokNum > aTokNum) return 1;
+				if (aTokNum == bTokNum) {
+					int aCnt = preAnnCounts.get(a);
+					int bCnt = preAnnCounts.get(b);
+					if (bCnt > aCnt) return 1;
+					if (bCnt == aCnt) return 0;
+				}
+				return -1;
+			}
+		});
+		return preAnnStrs;
+	}
 	
 	/**
 	 * Pre-annotates a text file with the annotations provided in <var>preAnns</var>.<p>
 	 * If multiple pre-annotations are available for a given string (i.e., ambiguity),
 	 * the most frequent pre-annotation will be used. This method currently only pre-annotates
-	 * with term annotations. 
+	 * with term annotations. <p>
+	 * All pre-annotation strings are located in a single pass over the text. A string is not annotated where it overlaps
+	 * with an existing annotation or a pre-annotation with more tokens or a higher count. 
 	 * 
 	 * @param id  		the file identifier
 	 * @param textFile  the text file to read
@@ -117,56 +146,50 @@ public class StandoffPreAnnotator {
 	 */
 	public static void preAnnotate(String id, String textFile, String annFile, 
 					final Map<String, String> preAnns, final Map<String,Integer> preAnnCounts, String outAnnFile) {
+		List<String> preAnnStrs = sortPreAnnotations(preAnns,preAnnCounts);
+		preAnnotate(id,textFile,annFile,preAnns,preAnnStrs,new MultiPatternMatcher(preAnnStrs),outAnnFile);
+	}
+	
+	// pre-annotates a text file with the sorted pre-annotations, all located with a single pass of the matcher.
+	// Occurrences are considered in the order of pre-annotations and then in text order.
+	private static void preAnnotate(String id, String textFile, String annFile, Map<String, String> preAnns, 
+					List<String> preAnnStrs, MultiPatternMatcher matcher, String outAnnFile) {
 		List<String> newLines = new ArrayList<>();
 		Document doc = StandoffAnnotationReader.readTextFile(id,textFile);
 		Map<StandoffAnnotationReader.AnnotationType,List<String>> annotationLines = StandoffAnnotationReader.readAnnotationFiles(Arrays.asList(annFile), null, null);
 		// Currently, we are only pre-annotating entities
 		int max = maxId(annotationLines.get(AnnotationType.Term));
-		Map<SpanList,String> spanMap = createSpanMap(annotationLines.get(AnnotationType.Term));
+		BitSet occupied = createOccupancy(annotationLines.get(AnnotationType.Term));
 		String docLowerCase = doc.getText().toLowerCase();
-		List<String> preAnnStrs = new ArrayList<String>(preAnns.keySet());
-		// sort by counts
-		Collections.sort(preAnnStrs, new Comparator<String>() {
-			public int compare(String a, String b) {
-				int aTokNum = a.split("[ ]+").length;
-				int bTokNum = b.split("[ ]+").length;
-				if (bTokNum > aTokNum) return 1;
-				if (aTokNum == bTokNum) {
-					int aCnt = preAnnCounts.get(a);
-					int bCnt = preAnnCounts.get(b);
-					if (bCnt > aCnt) return 1;
-					if (bCnt == aCnt) return 0;
-				}
-				return -1;
-			}
-		});
-		for (String pre: preAnnStrs) {
+		int[][] occurrences = matcher.match(docLowerCase);
+		for (int p=0; p < preAnnStrs.size(); p++) {
+			if (occurrences[p] == null) continue;
+			String pre = preAnnStrs.get(p);
 			log.log(Level.FINE,"Adding pre-annotation: {0}.", new Object[]{pre});
+			// occurrences that overlap with the previous occurrence of the same string are skipped
 			int lastIndex = 0;
-			while(lastIndex != -1){
-			       lastIndex =  docLowerCase.indexOf(pre,lastIndex);
-			       if( lastIndex != -1){
-			    	   Span span = new Span(lastIndex, lastIndex + pre.length());
-		    		   char firstChar = docLowerCase.charAt(lastIndex);
-		    		   char prevChar = '\n';
-		    		   if (lastIndex > 0) prevChar = docLowerCase.charAt(lastIndex-1);
-		    		   lastIndex = span.getEnd();
-		    		   char lastChar = '\n';
-		    		   if (lastIndex > 0) lastChar = docLowerCase.charAt(lastIndex-1);
-			    	   char nextChar = docLowerCase.charAt(lastIndex);
-			    	   if ((Character.isLetter(firstChar) && Character.isLetter(prevChar)) ||
-			    			(Character.isLetter(lastChar) && Character.isLetter(nextChar))) {
-			    			continue;
-			    	   }
-			    	   if (overlappingSpan(span,spanMap)) continue;
+			for (int begin: occurrences[p]) {
+				if (begin < lastIndex) continue;
+				Span span = new Span(begin, begin + pre.length());
+				char firstChar = docLowerCase.charAt(begin);
+				char prevChar = '\n';
+				if (begin > 0) prevChar = docLowerCase.charAt(begin-1);
+				lastIndex = span.getEnd();
+				char lastChar = docLowerCase.charAt(lastIndex-1);
+				char nextChar = '\n';
+				if (lastIndex < docLowerCase.length()) nextChar = docLowerCase.charAt(lastIndex);
+				if ((Character.isLetter(firstChar) && Character.isLetter(prevChar)) ||
+						(Character.isLetter(lastChar) && Character.isLetter(nextChar))) {
+					continue;
+				}
+				if (overlappingSpan(span,occupied)) continue;
 
-			    	   String nLine = "T"+ ++max + "\t" + preAnns.get(pre) + " " + 
-		    			   	    span.toStandoffAnnotation() + "\t" +
-		    			   	    doc.getText().substring(span.getBegin(), span.getEnd());
-			    	   log.log(Level.FINE,"Adding pre-annotation line: {0}.", new Object[]{nLine});
-			    	   newLines.add(nLine);
-			           spanMap.put(new SpanList(span), nLine);
-			      }
+				String nLine = "T"+ ++max + "\t" + preAnns.get(pre) + " " + 
+						span.toStandoffAnnotation() + "\t" +
+						doc.getText().substring(span.getBegin(), span.getEnd());
+				log.log(Level.FINE,"Adding pre-annotation line: {0}.", new Object[]{nLine});
+				newLines.add(nLine);
+				occupy(span,occupied);
 			}
 		}
 		PrintWriter pw = null;
@@ -190,7 +213,9 @@ public class StandoffPreAnnotator {
 	
 	/**
 	 * Pre-annotates all text files in a directory. 
-	 * It expects the text files have the extension 'txt'. 
+	 * It expects the text files have the extension 'txt'. <p>
+	 * The pre-annotations are compiled once and the files are processed in parallel. 
+	 * Each file is written to its own output file, which is the same as when files are processed one by one.
 	 * 
 	 * @param in		the input directory
 	 * @param preAnns  	the pre-annotation map
@@ -208,21 +233,42 @@ public class StandoffPreAnnotator {
 			log.log(Level.SEVERE,"Output should be a directory: {0}. Skipping..", new Object[]{out});
 			return;
 		}
+		final List<String> preAnnStrs = sortPreAnnotations(preAnns,preAnnCounts);
+		final MultiPatternMatcher matcher = new MultiPatternMatcher(preAnnStrs);
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
 		try {
 			int fileNum = 0;
 			List<String> files = FileUtils.listFiles(in, false, "txt");
+			List<Future<?>> results = new ArrayList<>();
 			for (String filename: files) {
-				String id = filename.replace(".txt", "");
-				log.info("Processing " + id + ":" + ++fileNum);
-				String txtFilename = inDir.getAbsolutePath() + File.separator + filename;
-				String annFilename = inDir.getAbsolutePath() + File.separator + id + ".ann";
-				String outFilename = outDir.getAbsolutePath() + File.separator + id + ".ann";
-				StandoffPreAnnotator.preAnnotate(id,txtFilename,annFilename,preAnns,preAnnCounts,outFilename);
+				final String id = filename.replace(".txt", "");
+				final int num = ++fileNum;
+				final String txtFilename = inDir.getAbsolutePath() + File.separator + filename;
+				final String annFilename = inDir.getAbsolutePath() + File.separator + id + ".ann";
+				final String outFilename = outDir.getAbsolutePath() + File.separator + id + ".ann";
+				results.add(executor.submit(new Runnable() {
+					public void run() {
+						log.info("Processing " + id + ":" + num);
+						StandoffPreAnnotator.preAnnotate(id,txtFilename,annFilename,preAnns,preAnnStrs,matcher,outFilename);
+					}
+				}));
+			}
+			for (Future<?> result: results) {
+				result.get();
 			}
 		} catch (IOException e) {
 			e.printStackTrace();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			log.log(Level.SEVERE,"Interrupted while pre-annotating directory: {0}.", new Object[]{in});
+		} catch (ExecutionException ee) {
+			Throwable cause = ee.getCause();
+			if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+			if (cause instanceof Error) throw (Error)cause;
+			throw new RuntimeException(cause);
+		} finally {
+			executor.shutdownNow();
 		}
-
 	}
 
 	public static void main(String[] args) throws IOException{
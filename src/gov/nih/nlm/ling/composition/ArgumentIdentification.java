@@ -64,6 +64,25 @@ public class ArgumentIdentification {
 	// TODO: Originally, this included coreference processing, but probably do this beforehand. 
 	public static void argumentIdentification(Node node, DocumentGraph docGraph, List<ArgumentRule> rules, 
 			SemanticGraph semGraph, LinkedHashSet<SemanticItem> allChildSemantics, boolean createGeneric, boolean createIfExists) {
+		argumentIdentification(node,docGraph,rules,semGraph,new ScopeGraph(),allChildSemantics,createGeneric,createIfExists);
+	}
+	
+	/**
+	 * Same as {@link #argumentIdentification(Node, DocumentGraph, List, SemanticGraph, LinkedHashSet, boolean, boolean)},
+	 * but shares the scope graph <var>scopes</var> across calls, so that the scopal arguments of a predication
+	 * are computed once during the composition of a document.
+	 * 
+	 * @param node				the current node in the <var>docGraph</var> to process
+	 * @param docGraph  		the embedding graph of the document
+	 * @param rules 			the argument identification rules
+	 * @param semGraph  		semantic graph of the document  
+	 * @param scopes			scope graph of the composition run
+	 * @param allChildSemantics all semantic objects associated with the children
+	 * @param createGeneric  	whether creating generic predicates are allowed at this step 
+	 * @param createIfExists  	whether new predications are allowed if there are existing ones associated with the node
+	 */
+	public static void argumentIdentification(Node node, DocumentGraph docGraph, List<ArgumentRule> rules, 
+			SemanticGraph semGraph, ScopeGraph scopes, LinkedHashSet<SemanticItem> allChildSemantics, boolean createGeneric, boolean createIfExists) {
 		log.log(Level.FINE, "Examining node for argument identification: {0}.", new Object[]{node.toString()});
 		if (GraphUtils.isLeaf(docGraph,node) ) {
 			LinkedHashSet<SemanticItem> sems = node.getSemantics();
@@ -111,7 +130,7 @@ public class ArgumentIdentification {
 				continue;
 			}
 			LinkedHashSet<SemanticItem> childSemantics = new LinkedHashSet<>();	
-			argumentIdentification(eChild,docGraph,rules,semGraph,childSemantics,createGeneric,createIfExists);
+			argumentIdentification(eChild,docGraph,rules,semGraph,scopes,childSemantics,createGeneric,createIfExists);
 			if (childSemantics == null || childSemantics.size() == 0) {
 				log.log(Level.FINE, "No semantics found via edge {0} from node {1}.", new Object[]{eChild.getId(),node.getId()});
 				continue;
@@ -124,7 +143,7 @@ public class ArgumentIdentification {
 		}
 		// return the most relevant, prominent semantic items from composition
 		LinkedHashSet<SemanticItem> composedItems = new LinkedHashSet<>();
-		compose(node,argStructure,rules,semGraph,composedItems,createGeneric,createIfExists);
+		compose(node,argStructure,rules,semGraph,scopes,composedItems,createGeneric,createIfExists);
 		for (SemanticItem c: composedItems) {
 			log.log(Level.FINE, "Composed semantic object from node {0}: {1}.", new Object[]{node.getId(),c.toString()});
 		}
@@ -132,7 +151,7 @@ public class ArgumentIdentification {
 	}
 		
 	private static void compose(Node node, Map<Edge,LinkedHashSet<SemanticItem>> argStructure, List<ArgumentRule> rules, SemanticGraph d, 
-			LinkedHashSet<SemanticItem> composedItems, boolean createGeneric, boolean createIfExists) {
+			ScopeGraph scopes, LinkedHashSet<SemanticItem> composedItems, boolean createGeneric, boolean createIfExists) {
 		if (node instanceof SurfaceElement == false) {
 			log.log(Level.FINEST, "Node {0} is not a textual unit. Skipping composition.", new Object[]{node.getId()});
 			return;
@@ -148,7 +167,7 @@ public class ArgumentIdentification {
 			if (createGeneric) {
 				if (argStructure.size() == 0) return;
 				Predicate pr = sif.newPredicate(doc, surf.getSpan(), surf.getHead().getSpan(), Predicate.GENERIC);
-				LinkedHashSet<Predication> preds = composePredications(surf,pr,sif,argStructure,applyRules,d);
+				LinkedHashSet<Predication> preds = composePredications(surf,pr,sif,argStructure,applyRules,d,scopes);
 				if (preds.size() == 0) return;
 				for (Predication pred: preds) {
 					d.addSemanticNode(null, pred,"");
@@ -165,7 +184,7 @@ public class ArgumentIdentification {
 					composedItems.add(r);
 					log.log(Level.FINEST, "Node {0} is associated with relation {1}, adding it to the semantic graph.", 
 							new Object[]{node.getId(),r.getId()});
-					LinkedHashSet<Predication> updated = handleNegatedArguments(r,argStructure);
+					LinkedHashSet<Predication> updated = handleNegatedArguments(r,argStructure,scopes);
 					for (Predication u: updated) {
 						log.log(Level.FINEST, "Node {0} is associated with predication {1}, adding it to the semantic graph.", 
 								new Object[]{node.getId(),u.getId()});
@@ -195,7 +214,7 @@ public class ArgumentIdentification {
 							new Object[]{pr.getId()});
 					continue;
 				}
-				LinkedHashSet<Predication> preds = composePredications(surf, pr,sif,argStructure,applyRules,d);
+				LinkedHashSet<Predication> preds = composePredications(surf, pr,sif,argStructure,applyRules,d,scopes);
 				// may want to add Span to semantic relation here. also may want to remove SR if it is not fulfilled with 
 				if (preds.size() == 0) continue;
 				for (Predication pred: preds) {
@@ -212,7 +231,7 @@ public class ArgumentIdentification {
 	
 	
 	private static LinkedHashSet<Predication> composePredications(SurfaceElement surf, Predicate pr, SemanticItemFactory sif, 
-			Map<Edge,LinkedHashSet<SemanticItem>> argStructure, List<ArgumentRule> rules, SemanticGraph d) {
+			Map<Edge,LinkedHashSet<SemanticItem>> argStructure, List<ArgumentRule> rules, SemanticGraph d, ScopeGraph scopes) {
 		Lexeme lex = surf.getHead().getLexeme();
 		String category = surf.getCategory();
 		LinkedHashSet<Predication> predications = new LinkedHashSet<>();
@@ -301,10 +320,10 @@ public class ArgumentIdentification {
 			if (Predication.coreArgsResolved(arguments,relDef)) {
 				Predication pred = sif.newPredication(doc, pr, arguments, null, null);
 				pred.setSource(true);
-				ScalarModalityValueComposition.propagateScalarModalityValues(pred);
+				ScalarModalityValueComposition.propagateScalarModalityValues(pred,scopes);
 				SourcePropagation.propagateSource(pred);
 				predications.add(pred);
-				predications.addAll(handleNegatedArguments(pred,argStructure));
+				predications.addAll(handleNegatedArguments(pred,argStructure,scopes));
 			}
 		}
 		else { 
@@ -325,12 +344,12 @@ public class ArgumentIdentification {
 					pred.setSource(true);					
 					// perm seemed to make more sense, but did not work as well.
 					if (org.apache.commons.collections15.CollectionUtils.containsAny(nperm,smvPropagated) ==false) {
-						ScalarModalityValueComposition.propagateScalarModalityValues(pred);
+						ScalarModalityValueComposition.propagateScalarModalityValues(pred,scopes);
 						smvPropagated.addAll(nperm);
 					}
 					SourcePropagation.propagateSource(pred);
 					predications.add(pred);
-					predications.addAll(handleNegatedArguments(pred,argStructure));
+					predications.addAll(handleNegatedArguments(pred,argStructure,scopes));
 				}
 			}
 		}
@@ -386,6 +405,21 @@ public class ArgumentIdentification {
 	 * @return	updated predications
 	 */
 	public static LinkedHashSet<Predication> handleNegatedArguments(SemanticItem rel, Map<Edge,LinkedHashSet<SemanticItem>> argStructure) {
+		return handleNegatedArguments(rel,argStructure,new ScopeGraph());
+	}
+	
+	/**
+	 * Same as {@link #handleNegatedArguments(SemanticItem, Map)}, but uses the scope graph <var>scopes</var>
+	 * of the composition run for scalar modality value propagation.
+	 * 
+	 * @param rel			the predication
+	 * @param argStructure	the argument structure of this predication
+	 * @param scopes		the scope graph of the composition run
+	 * 
+	 * @return	updated predications
+	 */
+	public static LinkedHashSet<Predication> handleNegatedArguments(SemanticItem rel, Map<Edge,LinkedHashSet<SemanticItem>> argStructure, 
+			ScopeGraph scopes) {
 		LinkedHashSet<Predication> negPreds = new LinkedHashSet<>();
 		if (rel instanceof Predication == false) return negPreds;
 		Document doc = rel.getDocument();
@@ -407,7 +441,7 @@ public class ArgumentIdentification {
 						newArgs.add(new Argument("COMP",rel));
 						Predication newPr = doc.getSemanticItemFactory().newPredication(doc, negating.get(0), newArgs, null, null);
 						newPr.setSource(true);					
-						ScalarModalityValueComposition.propagateScalarModalityValues(newPr);
+						ScalarModalityValueComposition.propagateScalarModalityValues(newPr,scopes);
 						SourcePropagation.propagateSource(newPr);
 						negPreds.add(newPr);
 					} 
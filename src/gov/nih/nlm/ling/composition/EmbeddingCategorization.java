@@ -1,8 +1,13 @@
 package gov.nih.nlm.ling.composition;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.jgrapht.graph.SimpleDirectedGraph;
@@ -12,7 +17,11 @@ import gov.nih.nlm.ling.graph.GraphUtils;
 import gov.nih.nlm.ling.sem.Predicate;
 
 /**
- * A static graph representation of the embedding categorization.
+ * A static graph representation of the embedding categorization. <p>
+ * 
+ * The hierarchy is compiled when the class is loaded: each category gets an integer identifier,
+ * and its descendants and ancestors are precomputed as bitsets over these identifiers,
+ * so that subsumption tests such as {@link #isModal(Predicate)} are single bit tests.
  * 
  * @author Halil Kilicoglu
  *
@@ -20,17 +29,43 @@ import gov.nih.nlm.ling.sem.Predicate;
 public class EmbeddingCategorization extends UnmodifiableDirectedGraph<String,String>{
 	private static final long serialVersionUID = -2037971105908391213L;
 	
-	private static EmbeddingCategorization senseHierarchy;
+	private static final EmbeddingCategorization senseHierarchy = new EmbeddingCategorization();
+	
+	private static final Map<String,Integer> categoryIds = new HashMap<>();
+	private static final List<List<String>> descendantLists = new ArrayList<>();
+	private static final List<BitSet> descendants = new ArrayList<>();
+	private static final List<BitSet> ancestors = new ArrayList<>();
+	
+	static {
+		for (String cat: senseHierarchy.vertexSet()) {
+			categoryIds.put(cat, categoryIds.size());
+			descendants.add(new BitSet());
+			ancestors.add(new BitSet());
+		}
+		for (String cat: senseHierarchy.vertexSet()) {
+			Set<String> descs = new LinkedHashSet<>();
+			GraphUtils.getAllDescendants(senseHierarchy, cat, descs);
+			descendantLists.add(new ArrayList<>(descs));
+			int id = categoryIds.get(cat);
+			for (String d: descs) {
+				int did = categoryIds.get(d);
+				descendants.get(id).set(did);
+				ancestors.get(did).set(id);
+			}
+		}
+	}
+	
+	private static final BitSet EPISTEMIC_SCALAR_CATEGORIES = getIds(Arrays.asList("EPISTEMIC","EVIDENTIAL","SUCCESS"));
+	private static final int MODAL = getId("MODAL");
+	private static final int RELATIONAL = getId("RELATIONAL");
+	private static final int SCALE_SHIFTER = getId("SCALE_SHIFTER");
 
 	/**
-	 * Creates an embedding categorization instance, or returns one if it already exists.
+	 * Returns the embedding categorization instance.
 	 * 
 	 * @return  the static embedding categorization instance
 	 */
 	public static EmbeddingCategorization getInstance() {
-		if (senseHierarchy == null) {
-			senseHierarchy = new EmbeddingCategorization();
-		}
 		return senseHierarchy;
 	}
 			
@@ -169,6 +204,62 @@ public class EmbeddingCategorization extends UnmodifiableDirectedGraph<String,St
 	}
 	
 	
+	/**
+	 * 
+	 * @param cat  an embedding category
+	 * @return  the identifier of the category, -1 if it is not in the embedding categorization
+	 */
+	public static int getId(String cat) {
+		if (cat == null) return -1;
+		Integer id = categoryIds.get(cat);
+		return (id == null ? -1 : id);
+	}
+	
+	/**
+	 * Gets the bitset representation of a collection of embedding categories, ignoring those that are
+	 * not in the embedding categorization.
+	 * 
+	 * @param cats  the embedding categories
+	 * @return  a new bitset with the identifiers of <var>cats</var> set
+	 */
+	public static BitSet getIds(Collection<String> cats) {
+		BitSet bits = new BitSet();
+		for (String c: cats) {
+			int id = getId(c);
+			if (id >= 0) bits.set(id);
+		}
+		return bits;
+	}
+	
+	/**
+	 * Determines whether a category is an embedding category or one of its subclasses.
+	 * 
+	 * @param type  a category
+	 * @param cat  an embedding category
+	 * @return  true if <var>type</var> is <var>cat</var> or one of its subclasses
+	 */
+	public static boolean isA(String type, String cat) {
+		return isA(getId(type), getId(cat));
+	}
+	
+	private static boolean isA(int typeId, int catId) {
+		if (typeId < 0 || catId < 0) return false;
+		return ancestors.get(typeId).get(catId);
+	}
+	
+	/**
+	 * Similar to {@link #isA(String, String)}, but checks against several categories.
+	 * 
+	 * @param type  a category
+	 * @param cats  a bitset of embedding category identifiers (see {@link #getIds(Collection)})
+	 * @return  true if <var>type</var> is one of <var>cats</var> or one of their subclasses
+	 */
+	public static boolean isA(String type, BitSet cats) {
+		int typeId = getId(type);
+		if (typeId < 0) return false;
+		return ancestors.get(typeId).intersects(cats);
+	}
+	
 	/** 
 	 * Finds all subclasses of an embedding category (including itself, as well).
 	 * 
@@ -176,9 +267,9 @@ public class EmbeddingCategorization extends UnmodifiableDirectedGraph<String,St
 	 * @return  the set of subclasses
 	 */
 	public static Set<String> getAllDescendants(String cat) {
-		Set<String> descs = new LinkedHashSet<>();
-		GraphUtils.getAllDescendants(senseHierarchy, cat, descs);
-		return descs;
+		int id = getId(cat);
+		if (id < 0) return new LinkedHashSet<>();
+		return new LinkedHashSet<>(descendantLists.get(id));
 	}
 	
 	/** 
@@ -189,10 +280,28 @@ public class EmbeddingCategorization extends UnmodifiableDirectedGraph<String,St
 	 */
 	public static Set<String> getAllDescendants(List<String> types) {
 		Set<String> descs = new LinkedHashSet<>();
-		GraphUtils.getAllDescendants(senseHierarchy, types, descs);
+		for (String t: types) {
+			int id = getId(t);
+			if (id >= 0) descs.addAll(descendantLists.get(id));
+		}
 		return descs;
 	}
 	
+	/**
+	 * 
+	 * @param cat  an embedding category
+	 * @return  the set of superclasses of the category (including itself)
+	 */
+	public static Set<String> getAllAncestors(String cat) {
+		Set<String> ancs = new LinkedHashSet<>();
+		int id = getId(cat);
+		if (id < 0) return ancs;
+		for (String c: senseHierarchy.vertexSet()) {
+			if (ancestors.get(id).get(categoryIds.get(c))) ancs.add(c);
+		}
+		return ancs;
+	}
+	
 	/**
 	 * Determines whether a predicate is modal.
 	 * 
@@ -200,7 +309,7 @@ public class EmbeddingCategorization extends UnmodifiableDirectedGraph<String,St
 	 * @return  true if the predicate type is a subclass of MODAL category.
 	 */
 	public static boolean isModal(Predicate pr) {
-		return (getAllDescendants("MODAL").contains(pr.getType()));
+		return isA(getId(pr.getType()), MODAL);
 	}
 	
 	/**
@@ -210,7 +319,7 @@ public class EmbeddingCategorization extends UnmodifiableDirectedGraph<String,St
 	 * @return  true if the predicate introduces epistemic scale
 	 */
 	public static boolean isEpistemicScalar(Predicate pr) {
-		return (getAllDescendants(Arrays.asList("EPISTEMIC","EVIDENTIAL","SUCCESS")).contains(pr.getType()));
+		return isA(pr.getType(), EPISTEMIC_SCALAR_CATEGORIES);
 	}
 	
 	/**
@@ -230,7 +339,7 @@ public class EmbeddingCategorization extends UnmodifiableDirectedGraph<String,St
 	 * @return  true if the predicate is relational
 	 */
 	public static boolean isRelational(Predicate pr) {
-		return (getAllDescendants("RELATIONAL").contains(pr.getType()));
+		return isA(getId(pr.getType()), RELATIONAL);
 	}
 	
 	/**
@@ -240,6 +349,6 @@ public class EmbeddingCategorization extends UnmodifiableDirectedGraph<String,St
 	 * @return  true if the predicate is a scale shifter
 	 */
 	public static boolean isScaleShifter(Predicate pr) {
-		return (getAllDescendants("SCALE_SHIFTER").contains(pr.getType()));
+		return isA(getId(pr.getType()), SCALE_SHIFTER);
 	}
 }
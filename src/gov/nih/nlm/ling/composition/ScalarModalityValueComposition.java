@@ -46,7 +46,7 @@ public class ScalarModalityValueComposition {
 			log.log(Level.WARNING, "Predication {0} has no valid predicate. Unable to determine its modal scale.", new Object[]{pred.getId()});
 		else {
 			if (EmbeddingCategorization.isEpistemicScalar(pr)) scaleType = ScaleType.EPISTEMIC;
-			else if (EmbeddingCategorization.getAllDescendants(ScaleType.DEONTIC.toString()).contains(pr.getType())) scaleType = ScaleType.DEONTIC;
+			else if (EmbeddingCategorization.isA(pr.getType(),ScaleType.DEONTIC.toString())) scaleType = ScaleType.DEONTIC;
 			else scaleType = ScaleType.valueOf(pr.getType());
 		} 
 		return scaleType;
@@ -54,13 +54,26 @@ public class ScalarModalityValueComposition {
 
 	/**
 	 * Propagates the scalar modality value for the predications in the scope
-	 * of the <var>pred</var> predication.
+	 * of the <var>pred</var> predication. A new scope graph is used for the call; 
+	 * composition runs share one with {@link #propagateScalarModalityValues(Predication, ScopeGraph)}.
 	 * 
 	 * @param pred  the predication whose scale/value to propagate
 	 */
 	// Some examples to look at where this does not work well:
 	// 10064103 - determine whether .. activation is evident in .. : I think generated predication is correct, though.
 	public static void propagateScalarModalityValues(Predication pred) {
+		propagateScalarModalityValues(pred,new ScopeGraph());
+	}
+	
+	/**
+	 * Same as {@link #propagateScalarModalityValues(Predication)}, but reads the scopal arguments and 
+	 * the embedding categories of the predications from <var>graph</var>, which is shared by the calls
+	 * of a composition run.
+	 * 
+	 * @param pred  the predication whose scale/value to propagate
+	 * @param graph the scope graph of the composition run
+	 */
+	public static void propagateScalarModalityValues(Predication pred, ScopeGraph graph) {
 		if (pred.getArguments() == null || pred.getArguments().size() == 0) {
 			log.log(Level.WARNING, "Predication {0} has no valid arguments. Skipping scalar modality value propagation.", new Object[]{pred.getId()});
 			return;
@@ -74,8 +87,9 @@ public class ScalarModalityValueComposition {
 			log.log(Level.FINE, "Predication {0} is not embedding. Skipping scalar modality value propagation.", new Object[]{pred.getId()});
 			return;
 		}
-		boolean scaleShifter = EmbeddingCategorization.isScaleShifter(pr);
-		boolean modal = EmbeddingCategorization.isModal(pr);
+		ScopeGraph.Node node = graph.getNode(pred);
+		boolean scaleShifter = node.isScaleShifter();
+		boolean modal = node.isModal();
 		if (!modal && !scaleShifter) {
 			log.log(Level.FINE, "Predication {0} is not modal or scale shifter. Skipping scalar modality value propagation.", new Object[]{pred.getId()});
 			return;
@@ -84,18 +98,22 @@ public class ScalarModalityValueComposition {
 		List<SemanticItem> sources = new ArrayList<>();
 		sources.addAll(pred.getSources());
 //		sources = new ArrayList<>(new HashSet<SemanticItem>(sources));
-		getScopalInfluence(pred,pred,0,sources,scopalInfluence);
+		getScopalInfluence(graph,pred,node,node,0,sources,scopalInfluence);
 		if (scopalInfluence.size() == 0) {
 			log.log(Level.FINE, "Predication {0} has no predication in scope. Skipping scalar modality value propagation.", new Object[]{pred.getId()});
 			return;
 		}
 		log.log(Level.FINE,"Predication {0} has {1} predications in its scope.", new Object[]{pred.getId(),scopalInfluence.size()});
+		ScaleType predicateScale = null;
+		double predicateScaleValue = 0.0;
+		if (modal) {
+			predicateScale = getModalScale(pred);
+			predicateScaleValue = pr.getSense().getPriorScalarValue();
+		}
 		Iterator<SemanticItem> effectIter = scopalInfluence.iterator();
 		while (effectIter.hasNext()) {
 			SemanticItem so = effectIter.next();
 			if (modal)  {	
-				ScaleType predicateScale = getModalScale(pred);
-				double predicateScaleValue = pr.getSense().getPriorScalarValue();
 				log.log(Level.FINEST,"Modal predication {0} has scale {1} and value {2}.", new Object[]{pred.getId(),predicateScale.toString(),predicateScaleValue});
 				if (so instanceof Predication) {
 					Predication child = (Predication)so;
@@ -118,109 +136,98 @@ public class ScalarModalityValueComposition {
 	}
 	
 	// Gets the semantic objects in the scope of an embedding predication recursively.
-	private static void getScopalInfluence(Predication embedding, Predication current, int intervening, 
-			List<SemanticItem> sources, LinkedHashSet<SemanticItem> out ) {
-		List<SemanticItem> scopalArgs = getScopalArguments(current);
-		if (scopalArgs == null || scopalArgs.size() == 0) {
+	// The scopal arguments and the embedding categories of the predications come from the scope graph.
+	private static void getScopalInfluence(ScopeGraph graph, Predication embedding, ScopeGraph.Node embeddingNode, 
+			ScopeGraph.Node current, int intervening, List<SemanticItem> sources, LinkedHashSet<SemanticItem> out ) {
+		List<Predication> scopalArgs = current.getScope();
+		if (scopalArgs.size() == 0) {
 			log.log(Level.FINEST,"Predication {0} has no scopal arguments.", new Object[]{embedding.getId()});
 			return;
 		}
-		Predicate pr = embedding.getPredicate();
-		boolean scaleShifter = EmbeddingCategorization.isScaleShifter(pr);
-		boolean modal = EmbeddingCategorization.isModal(pr);
-		if (scaleShifter) {
+		if (embeddingNode.isScaleShifter()) {
 			for (int i=0; i < scopalArgs.size(); i++) {
-				SemanticItem so = scopalArgs.get(i);
-				if (so instanceof Predication) {
-					Predication child = (Predication)so;
-					Predicate childPr = child.getPredicate();
-					// TODO Not sure this is right.
-					if (childPr == null) {
-						log.log(Level.WARNING,"Scale shifting predication {0} has child predication {1} with invalid predicate. Skipping.", new Object[]{embedding.getId(),child.getId()});
+				Predication child = scopalArgs.get(i);
+				ScopeGraph.Node childNode = graph.getNode(child);
+				// TODO Not sure this is right.
+				if (childNode.getPredicate() == null) {
+					log.log(Level.WARNING,"Scale shifting predication {0} has child predication {1} with invalid predicate. Skipping.", new Object[]{embedding.getId(),child.getId()});
+					continue;
+				}
+				if (sources.size() >= 2 && CollectionUtils.containsAny(sources, child.getSources()))
+//				if (!sources.contains(child.getSource()) && sources.size() >= 2)
+					continue;
+			
+				// This gives slightly better results than the following commented out loop on GENIA factuality
+//				sources.addAll(child.getSources());
+				// this is more correct, though, but reduces the results just a slight bit, so keeping this
+				for (SemanticItem source: child.getSources()) {
+					if (sources.contains(source)) continue;
+					sources.add(source);
+				} 
+				if (childNode.isScaleShifter())  {
+					out.add(child);
+					getScopalInfluence(graph,embedding,embeddingNode,childNode,intervening,sources,out);
+				} else if (childNode.isModal() && intervening <= 1) {
+					out.add(child);
+					getScopalInfluence(graph,embedding,embeddingNode,childNode,intervening,sources,out);
+				} else {
+					if (intervening < 1) {
+						out.add(child);
+					}
+				}
+			}
+		} else if (embeddingNode.isModal()) {
+			if (embeddingNode.isEpistemicScalar()) {
+				for (int i=0; i < scopalArgs.size(); i++) {
+					Predication child = scopalArgs.get(i);
+					ScopeGraph.Node childNode = graph.getNode(child);
+					// TODO: Not sure this is right.
+					if (childNode.getPredicate() == null) {
+						log.log(Level.WARNING,"Epistemic scalar predication {0} has child predication {1} with invalid predicate. Skipping.", new Object[]{embedding.getId(),child.getId()});
 						continue;
 					}
 					if (sources.size() >= 2 && CollectionUtils.containsAny(sources, child.getSources()))
 //					if (!sources.contains(child.getSource()) && sources.size() >= 2)
 						continue;
-				
-					// This gives slightly better results than the following commented out loop on GENIA factuality
 //					sources.addAll(child.getSources());
-					// this is more correct, though, but reduces the results just a slight bit, so keeping this
 					for (SemanticItem source: child.getSources()) {
 						if (sources.contains(source)) continue;
-						sources.add(source);
-					} 
-					if (EmbeddingCategorization.isScaleShifter(childPr))  {
-						out.add(child);
-						getScopalInfluence(embedding,child,intervening,sources,out);
-					} else if (EmbeddingCategorization.isModal(childPr) && intervening <= 1) {
+						if (childNode.isSuccess() == false) sources.add(source);
+					}
+					if (childNode.isEpistemicScalar() || childNode.isScaleShifter()) {
 						out.add(child);
-						getScopalInfluence(embedding,child,intervening,sources,out);
-					} else {
+						getScopalInfluence(graph,embedding,embeddingNode,childNode,intervening,sources,out);
+					}  else {
 						if (intervening < 1) {
 							out.add(child);
-						}
-					}
-				}
-			}
-		} else if (modal) {
-			if (EmbeddingCategorization.isEpistemicScalar(pr)) {
-				for (int i=0; i < scopalArgs.size(); i++) {
-					SemanticItem so = scopalArgs.get(i);
-					if (so instanceof Predication) {
-						Predication child = (Predication)so;
-						Predicate childPr = child.getPredicate();
-						// TODO: Not sure this is right.
-						if (childPr == null) {
-							log.log(Level.WARNING,"Epistemic scalar predication {0} has child predication {1} with invalid predicate. Skipping.", new Object[]{embedding.getId(),child.getId()});
-							continue;
-						}
-						if (sources.size() >= 2 && CollectionUtils.containsAny(sources, child.getSources()))
-//						if (!sources.contains(child.getSource()) && sources.size() >= 2)
-							continue;
-//						sources.addAll(child.getSources());
-						for (SemanticItem source: child.getSources()) {
-							if (sources.contains(source)) continue;
-							if (EmbeddingCategorization.isSuccess(childPr) == false) sources.add(source);
-						}
-						if (EmbeddingCategorization.isEpistemicScalar(childPr) || EmbeddingCategorization.isScaleShifter(childPr)) {
-							out.add(child);
-							getScopalInfluence(embedding,child,intervening,sources,out);
-						}  else {
-							if (intervening < 1) {
-								out.add(child);
-//								intervening++;
-							}
+//							intervening++;
 						}
 					}
 				}
 			} else {
 				for (int i=0; i < scopalArgs.size(); i++) {
-					SemanticItem so = scopalArgs.get(i);
-					if (so instanceof Predication) {
-						Predication child = (Predication)so;
-						Predicate childPr = child.getPredicate();
-						// TODO: Not sure this is right.
-						if (childPr == null) {
-							log.log(Level.WARNING,"Predication {0} has child predication {1} with invalid predicate. Skipping.", new Object[]{embedding.getId(),child.getId()});
-							continue;
-						}
-						if (sources.size() >= 2 && CollectionUtils.containsAny(sources, child.getSources()))						
-//						if (!sources.contains(child.getSource()) && sources.size() >= 2)
-							continue;
-//						sources.addAll(child.getSources());
-						for (SemanticItem source: child.getSources()) {
-							if (sources.contains(source)) continue;
-							if (EmbeddingCategorization.isSuccess(childPr) == false) sources.add(source);
-						}
-						if (EmbeddingCategorization.isScaleShifter(childPr)) {
-							out.add(child);
-							getScopalInfluence(embedding,child,intervening,sources,out);
-						}
-						else if (intervening < 1) {
-							out.add(child);
-							getScopalInfluence(embedding,child,intervening+1,sources,out);
-						}
+					Predication child = scopalArgs.get(i);
+					ScopeGraph.Node childNode = graph.getNode(child);
+					// TODO: Not sure this is right.
+					if (childNode.getPredicate() == null) {
+						log.log(Level.WARNING,"Predication {0} has child predication {1} with invalid predicate. Skipping.", new Object[]{embedding.getId(),child.getId()});
+						continue;
+					}
+					if (sources.size() >= 2 && CollectionUtils.containsAny(sources, child.getSources()))						
+//					if (!sources.contains(child.getSource()) && sources.size() >= 2)
+						continue;
+//					sources.addAll(child.getSources());
+					for (SemanticItem source: child.getSources()) {
+						if (sources.contains(source)) continue;
+						if (childNode.isSuccess() == false) sources.add(source);
+					}
+					if (childNode.isScaleShifter()) {
+						out.add(child);
+						getScopalInfluence(graph,embedding,embeddingNode,childNode,intervening,sources,out);
+					}
+					else if (intervening < 1) {
+						out.add(child);
+						getScopalInfluence(graph,embedding,embeddingNode,childNode,intervening+1,sources,out);
 					}
 				}
 			}	
@@ -0,0 +1,116 @@
+package gov.nih.nlm.ling.composition;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import gov.nih.nlm.ling.sem.Argument;
+import gov.nih.nlm.ling.sem.Predicate;
+import gov.nih.nlm.ling.sem.Predication;
+import gov.nih.nlm.ling.sem.SemanticItem;
+
+/**
+ * A memo table of the scopal arguments of predications, used in scalar modality value composition.
+ * Each node holds the predications in the scope of a predication
+ * (see {@link ScalarModalityValueComposition#getScopalArguments(Predication)}) and the embedding categories
+ * of its predicate, so that they are computed once per predication rather than once for every embedding predication
+ * whose scope reaches it. The propagation itself is not changed: it is still driven per predication
+ * by the callers and walks the scope recursively. <p>
+ *
+ * Predications are added to the graph as they are reached. A node is rebuilt if the arguments or the predicate
+ * of its predication change. Sources are not part of the graph, since they are updated during composition. <p>
+ *
+ * A graph is meant to last a single composition run over a document: it is created by the caller of 
+ * argument identification and passed down to scalar modality value composition, and it is discarded with the run.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+public class ScopeGraph {
+
+	private final Map<Predication,Node> nodes = new IdentityHashMap<>();
+
+	/**
+	 *
+	 * @param pred	a predication
+	 * @return  the node of the predication in the graph
+	 */
+	synchronized Node getNode(Predication pred) {
+		Node node = nodes.get(pred);
+		if (node == null || node.isCurrent(pred) == false) {
+			node = new Node(pred);
+			nodes.put(pred, node);
+		}
+		return node;
+	}
+
+	/**
+	 * A predication in the scope graph.
+	 */
+	static class Node {
+		private final List<Argument> arguments;
+		private final int argumentCount;
+		private final Predicate predicate;
+		private final String predicateType;
+		private final List<Predication> scope;
+		private final boolean scaleShifter;
+		private final boolean modal;
+		private final boolean epistemicScalar;
+		private final boolean success;
+
+		private Node(Predication pred) {
+			this.arguments = pred.getArguments();
+			this.argumentCount = (arguments == null ? -1 : arguments.size());
+			this.predicate = pred.getPredicate();
+			this.predicateType = (predicate == null ? null : predicate.getType());
+			List<SemanticItem> scopalArgs = ScalarModalityValueComposition.getScopalArguments(pred);
+			this.scope = new ArrayList<>(scopalArgs.size());
+			for (SemanticItem so: scopalArgs)
+				scope.add((Predication)so);
+			this.scaleShifter = (predicate != null && EmbeddingCategorization.isScaleShifter(predicate));
+			this.modal = (predicate != null && EmbeddingCategorization.isModal(predicate));
+			this.epistemicScalar = (predicate != null && EmbeddingCategorization.isEpistemicScalar(predicate));
+			this.success = (predicate != null && EmbeddingCategorization.isSuccess(predicate));
+		}
+
+		private boolean isCurrent(Predication pred) {
+			List<Argument> args = pred.getArguments();
+			Predicate pr = pred.getPredicate();
+			return (args == arguments && (args == null ? -1 : args.size()) == argumentCount &&
+					pr == predicate && (pr == null ? null : pr.getType()) == predicateType);
+		}
+
+		/**
+		 *
+		 * @return  the predications in the scope of the predication, in argument order
+		 */
+		List<Predication> getScope() {
+			return scope;
+		}
+
+		/**
+		 *
+		 * @return  the predicate of the predication, null if it has none
+		 */
+		Predicate getPredicate() {
+			return predicate;
+		}
+
+		boolean isScaleShifter() {
+			return scaleShifter;
+		}
+
+		boolean isModal() {
+			return modal;
+		}
+
+		boolean isEpistemicScalar() {
+			return epistemicScalar;
+		}
+
+		boolean isSuccess() {
+			return success;
+		}
+	}
+}
@@ -1,9 +1,11 @@
 package gov.nih.nlm.ling.core;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -36,6 +38,11 @@ public abstract class AbstractSurfaceElement implements SurfaceElement {
 	protected Sentence sentence;
 	protected Chunk chunk;
 	protected char chunkRole;
+	// incremented when the semantics change, so that the derived views are recomputed
+	protected int semanticsStamp;
+	private DerivedViews views;
+	// data derived from the text of this textual unit by other components, by class
+	private Map<Class<?>,TextCache> textCaches;
 	
 	public AbstractSurfaceElement() {}
 	
@@ -76,6 +83,7 @@ public abstract class AbstractSurfaceElement implements SurfaceElement {
 	}
 	public void setSentence(Sentence sentence) {
 		this.sentence = sentence;
+		semanticsStamp++;
 	}
 	public String getText() {
 		return text;
@@ -99,6 +107,7 @@ public abstract class AbstractSurfaceElement implements SurfaceElement {
 	
 	public void setSemantics(LinkedHashSet<SemanticItem> semantics) {
 		this.semantics = semantics;
+		semanticsStamp++;
 	}
 	
 	public char getChunkRole() {
@@ -120,11 +129,13 @@ public abstract class AbstractSurfaceElement implements SurfaceElement {
 	public void addSemantics(SemanticItem so) {
 		if (semantics == null) semantics = new LinkedHashSet<>();
 		semantics.add(so);
+		semanticsStamp++;
 	}
 	
 	public void addSemantics(LinkedHashSet<SemanticItem> sos) {
 		if (semantics == null) semantics = new LinkedHashSet<>();
 		semantics.addAll(sos);
+		semanticsStamp++;
 	}
 	
 	public void removeSemantics(SemanticItem so) {
@@ -134,6 +145,51 @@ public abstract class AbstractSurfaceElement implements SurfaceElement {
 		HashSet<SemanticItem> sems = new HashSet<>(semantics);
 		sems.remove(so);
 		semantics = new LinkedHashSet<>(sems);
+		semanticsStamp++;
+	}
+	
+	/**
+	 * Notifies this textual unit that one of its semantic items has changed (e.g., its span), 
+	 * so that the derived semantic views are recomputed.
+	 */
+	public void semanticsChanged() {
+		semanticsStamp++;
+	}
+	
+	// the derived views are discarded if the semantics have been modified, including directly through getSemantics()
+	private DerivedViews getViews() {
+		int size = (semantics == null ? 0 : semantics.size());
+		if (views == null || views.stamp != semanticsStamp || views.size != size || views.semantics != semantics)
+			views = new DerivedViews(semanticsStamp,size,semantics);
+		return views;
+	}
+	
+	/**
+	 * Gets the data derived from the text of this textual unit by another component, such as its stems. 
+	 * These are stored with the textual unit itself, so that they are not shared with equal textual units 
+	 * of other documents and are discarded with the textual unit. Data stored for an earlier text is not returned.
+	 * 
+	 * @param clazz	the class of the data
+	 * @return the data of the class, or null if none has been stored for the current text
+	 */
+	public synchronized <T> T getTextCache(Class<T> clazz) {
+		if (textCaches == null) return null;
+		TextCache cache = textCaches.get(clazz);
+		if (cache == null) return null;
+		String t = getText();
+		if (t == null ? cache.text != null : t.equals(cache.text) == false) return null;
+		return clazz.cast(cache.data);
+	}
+	
+	/**
+	 * Stores data derived from the current text of this textual unit, replacing any earlier data of the same class.
+	 * 
+	 * @param clazz	the class of the data
+	 * @param cache	the data
+	 */
+	public synchronized <T> void setTextCache(Class<T> clazz, T cache) {
+		if (textCaches == null) textCaches = new HashMap<>();
+		textCaches.put(clazz, new TextCache(getText(),cache));
 	}
 	
 	public boolean hasSemantics() {
@@ -167,8 +223,42 @@ public abstract class AbstractSurfaceElement implements SurfaceElement {
 		return (getPos().length() == 1 ? getPos(): getPos().substring(0,2));
 	}
 	
+	/**
+	 * Gets the semantic items of this textual unit of a given class. The result is computed once
+	 * until the semantics change and should not be modified.
+	 * 
+	 * @param clazz  the semantic class to consider
+	 * @return a set of semantic items of the given class
+	 */
 	public LinkedHashSet<SemanticItem> filterSemanticsByClass(Class<? extends SemanticItem> clazz) {
-		return filterSemanticsByClass(semantics,clazz);
+		DerivedViews v = getViews();
+		if (v.byClass == null) v.byClass = new HashMap<>();
+		LinkedHashSet<SemanticItem> out = v.byClass.get(clazz);
+		if (out == null) {
+			out = filterSemanticsByClass(semantics,clazz);
+			v.byClass.put(clazz, out);
+		}
+		return out;
+	}
+	
+	/**
+	 * Gets the semantic items of this textual unit that are not of a given class. The result is computed once
+	 * until the semantics change and should not be modified.
+	 * 
+	 * @param clazz  the semantic class to exclude
+	 * @return a set of semantic items not of the given class
+	 */
+	public LinkedHashSet<SemanticItem> filterSemanticsExcludingClass(Class<? extends SemanticItem> clazz) {
+		DerivedViews v = getViews();
+		if (v.excludingClass == null) v.excludingClass = new HashMap<>();
+		LinkedHashSet<SemanticItem> out = v.excludingClass.get(clazz);
+		if (out == null) {
+			out = new LinkedHashSet<>();
+			if (semantics != null) out.addAll(semantics);
+			out.removeAll(filterSemanticsByClass(clazz));
+			v.excludingClass.put(clazz, out);
+		}
+		return out;
 	}
 	
 	/**
@@ -206,6 +296,8 @@ public abstract class AbstractSurfaceElement implements SurfaceElement {
 	 * Gets all <code>Relation</code> objects anchored by this textual unit;
 	 * i.e., the predicate is associated with this textual unit.
 	 * 
+	 * The result is reused until the semantics of this textual unit or of the document change, and should not be modified.
+	 * 
 	 * @return a set of <code>Relation</code> objects anchored by this textual unit, or empty set if none
 	 * @throws IllegalStateException if it is an orphan textual unit (no sentence)
 	 * 
@@ -213,25 +305,67 @@ public abstract class AbstractSurfaceElement implements SurfaceElement {
 	public LinkedHashSet<SemanticItem> filterByRelations() {
 		if (sentence == null) 
 			throw new IllegalStateException("Null sentence for surface element " + this.toString());
+		Document doc = getDocument();
+		DerivedViews v = getViews();
+		if (v.relations != null && v.relationsDocument == doc && v.relationsDocStamp == doc.getSemanticsStamp() && 
+				v.relationsDocSize == doc.getSemanticItemCount()) return v.relations;
 		LinkedHashSet<SemanticItem> rels = new LinkedHashSet<>();
 		LinkedHashSet<SemanticItem> preds = filterByPredicates();
-		if (preds == null || preds.size() == 0) return rels;
-		for (SemanticItem pred: preds) {
-			Set<Relation> relations = Document.getRelationsWithPredicate(getDocument(), (Predicate)pred);
-			if (relations != null)
-				rels.addAll(relations);
+		if (preds != null) {
+			for (SemanticItem pred: preds) {
+				Set<Relation> relations = Document.getRelationsWithPredicate(doc, (Predicate)pred);
+				if (relations != null)
+					rels.addAll(relations);
+			}
 		}
+		v.relations = rels;
+		v.relationsDocument = doc;
+		v.relationsDocStamp = doc.getSemanticsStamp();
+		v.relationsDocSize = doc.getSemanticItemCount();
 		return rels;
 	}
 	
+	/**
+	 * Gets the <code>Relation</code> objects of a given class anchored by this textual unit.
+	 * The result is reused as long as {@link #filterByRelations()} is, and should not be modified.
+	 * 
+	 * @param clazz	the relation class to consider
+	 * @return a set of relations of the given class anchored by this textual unit, or empty set if none
+	 */
+	public LinkedHashSet<SemanticItem> filterRelationsByClass(Class<? extends Relation> clazz) {
+		LinkedHashSet<SemanticItem> rels = filterByRelations();
+		DerivedViews v = getViews();
+		if (v.relationsByClass == null || v.relationsByClassFrom != rels) {
+			v.relationsByClass = new HashMap<>();
+			v.relationsByClassFrom = rels;
+		}
+		LinkedHashSet<SemanticItem> out = v.relationsByClass.get(clazz);
+		if (out == null) {
+			out = filterSemanticsByClass(rels,clazz);
+			v.relationsByClass.put(clazz, out);
+		}
+		return out;
+	}
+	
+	/**
+	 * Gets the semantic items of this textual unit that overlap with its head. The result is 
+	 * computed once until the semantics change and should not be modified.
+	 * 
+	 * @return the semantic items associated with the head, empty set if none
+	 */
 	public LinkedHashSet<SemanticItem> getHeadSemantics() {
-		LinkedHashSet<SemanticItem> allHeads = new LinkedHashSet<>();
-		if (hasSemantics() == false) return allHeads;
+		if (hasSemantics() == false) return new LinkedHashSet<>();
 		Word head = getHead();
+		DerivedViews v = getViews();
+		if (v.headSemantics != null && v.head == head) return v.headSemantics;
+		LinkedHashSet<SemanticItem> allHeads = new LinkedHashSet<>();
 		for (SemanticItem si: semantics) {
 			SpanList sp = si.getSpan();
 			if (SpanList.overlap(sp, head.getSpan())) allHeads.add(si);
 		}
+		v.headSemantics = allHeads;
+		v.head = head;
+		v.mostProminentComputed = false;
 		return allHeads;
 	}
 	
@@ -246,9 +380,15 @@ public abstract class AbstractSurfaceElement implements SurfaceElement {
 		if (hasSemantics() == false) return null;
 		if (semantics.size() == 1) return semantics.iterator().next();
 		Set<SemanticItem> allHeads = getHeadSemantics();
-		if (allHeads.size() == 1) return allHeads.iterator().next();
-		if (allHeads.size() == 0) return getSemanticItemWithMaxSpan(semantics);
-		return getSemanticItemWithMaxSpan(allHeads);
+		DerivedViews v = getViews();
+		if (v.mostProminentComputed) return v.mostProminent;
+		SemanticItem prominent = null;
+		if (allHeads.size() == 1) prominent = allHeads.iterator().next();
+		else if (allHeads.size() == 0) prominent = getSemanticItemWithMaxSpan(semantics);
+		else prominent = getSemanticItemWithMaxSpan(allHeads);
+		v.mostProminent = prominent;
+		v.mostProminentComputed = true;
+		return prominent;
 	}
 	
 	private SemanticItem getSemanticItemWithMaxSpan(Collection<SemanticItem> sems) {
@@ -341,13 +481,26 @@ public abstract class AbstractSurfaceElement implements SurfaceElement {
 	public boolean isNominal() {
 		boolean headNominal = getHead().isNominal();
 		if (headNominal) return true;
+		// the dependency scan is reused as long as the sentence dependencies remain the same
+		List<SynDependency> deps = (sentence == null ? null : sentence.getDependencyList());
+		int depCount = (deps == null ? -1 : deps.size());
+		DerivedViews v = getViews();
+		if (v.nominal != null && v.nominalDependencies == deps && v.nominalDependencyCount == depCount) 
+			return v.nominal;
+		boolean nominal = false;
 		if (toWordList().size() > 0) {
 			for (Word w: toWordList()) {
-				if (w.isNominal() || w.isDeterminer()) return true;
-				if (SynDependency.outDependenciesWithTypes(w, sentence.getDependencyList(), SynDependency.NP_INTERNAL_DEPENDENCIES, true).size() > 0) return true;
+				if (w.isNominal() || w.isDeterminer() ||
+					SynDependency.outDependenciesWithCategory(w, sentence.getDependencyList(), DependencyTypeRegistry.NP_INTERNAL).size() > 0) {
+					nominal = true; 
+					break;
+				}
 			}
 		}
-		return false;
+		v.nominal = nominal;
+		v.nominalDependencies = deps;
+		v.nominalDependencyCount = depCount;
+		return nominal;
 	}
 	
 	/** 
@@ -458,6 +611,45 @@ public abstract class AbstractSurfaceElement implements SurfaceElement {
 		return false;
 	}
 		
+	// views derived from the semantics of a textual unit, valid for a given semantics stamp
+	private static class DerivedViews {
+		private final int stamp;
+		private final int size;
+		private final LinkedHashSet<SemanticItem> semantics;
+		private Map<Class<? extends SemanticItem>,LinkedHashSet<SemanticItem>> byClass;
+		private Map<Class<? extends SemanticItem>,LinkedHashSet<SemanticItem>> excludingClass;
+		private Word head;
+		private LinkedHashSet<SemanticItem> headSemantics;
+		private SemanticItem mostProminent;
+		private boolean mostProminentComputed;
+		private LinkedHashSet<SemanticItem> relations;
+		private Document relationsDocument;
+		private int relationsDocStamp;
+		private int relationsDocSize;
+		private Map<Class<? extends Relation>,LinkedHashSet<SemanticItem>> relationsByClass;
+		private LinkedHashSet<SemanticItem> relationsByClassFrom;
+		private Boolean nominal;
+		private List<SynDependency> nominalDependencies;
+		private int nominalDependencyCount;
+		
+		private DerivedViews(int stamp, int size, LinkedHashSet<SemanticItem> semantics) {
+			this.stamp = stamp;
+			this.size = size;
+			this.semantics = semantics;
+		}
+	}
+		
+	// data derived from the text of a textual unit, valid for that text
+	private static class TextCache {
+		private final String text;
+		private final Object data;
+		
+		private TextCache(String text, Object data) {
+			this.text = text;
+			this.data = data;
+		}
+	}
+		
 	abstract public Word getHead();
 	abstract public List<Word> toWordList();
 	abstract public List<Word> toWordList(String cat);
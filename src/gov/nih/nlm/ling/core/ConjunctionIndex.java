@@ -0,0 +1,213 @@
+package gov.nih.nlm.ling.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import gov.nih.nlm.ling.sem.Conjunction;
+import gov.nih.nlm.ling.sem.Relation;
+import gov.nih.nlm.ling.sem.SemanticItem;
+
+/**
+ * An index of the conjunction relations of a document by the identifiers of their predicates and arguments,
+ * used to find the conjunction relation a semantic item is involved in without examining all conjunction relations. <p>
+ *
+ * Semantic items are only equal if their identifiers are equal, so the conjunction relations indexed under
+ * the identifier of a semantic item are the only ones that can include it. The conjunction relations are numbered
+ * in document order, so that the first one can be found among them. <p>
+ *
+ * The index is maintained by {@link Document}, which extends it as semantic items are added,
+ * updates it as they are removed, and is notified when the identifier of a semantic item or
+ * the arguments of a relation change.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+class ConjunctionIndex {
+
+	private final Map<String,List<Entry>> byId = new HashMap<>();
+	private final Map<Conjunction,Entry> entries = new IdentityHashMap<>();
+	// the conjunction relations by their predicate and argument objects
+	private final Map<SemanticItem,List<Entry>> byMember = new IdentityHashMap<>();
+	private int next;
+	private int stamp;
+	private int size;
+
+	/**
+	 * A conjunction relation, with its position in the document and its predicate and arguments when it was last indexed.
+	 */
+	private static class Entry {
+		private final Conjunction conj;
+		private final int order;
+		private SemanticItem[] members;
+		private String[] ids;
+
+		private Entry(Conjunction conj, int order) {
+			this.conj = conj;
+			this.order = order;
+			recordMembers();
+		}
+
+		private void recordMembers() {
+			List<SemanticItem> args = conj.getArgItems();
+			members = new SemanticItem[(args == null ? 0 : args.size()) + 1];
+			members[0] = conj.getPredicate();
+			for (int i=1; i < members.length; i++)
+				members[i] = args.get(i-1);
+			ids = new String[members.length];
+			for (int i=0; i < members.length; i++)
+				if (members[i] != null) ids[i] = members[i].getId();
+		}
+	}
+
+	/**
+	 * Builds the index from the semantic items of a document.
+	 *
+	 * @param semanticItems	the semantic items of the document
+	 * @param stamp			the modification stamp of the document's semantic items
+	 */
+	ConjunctionIndex(Map<Class<? extends SemanticItem>,LinkedHashSet<SemanticItem>> semanticItems, int stamp) {
+		this.stamp = stamp;
+		if (semanticItems == null) return;
+		for (Class<? extends SemanticItem> s: semanticItems.keySet()) {
+			for (SemanticItem si: semanticItems.get(s))
+				add(si);
+			size += semanticItems.get(s).size();
+		}
+	}
+
+	/**
+	 * Checks whether the index reflects the semantic items of the document. The size
+	 * check catches changes that bypass the document, such as direct modification of the semantic item sets.
+	 *
+	 * @param docStamp	the current modification stamp of the document
+	 * @param docSize	the current number of semantic items in the document
+	 * @return  true if the index is up to date
+	 */
+	boolean isCurrent(int docStamp, int docSize) {
+		return (stamp == docStamp && size == docSize);
+	}
+
+	/**
+	 * Adds a semantic item that has just been added to the document.
+	 *
+	 * @param si		the semantic item
+	 * @param docStamp	the modification stamp of the document after the addition
+	 */
+	void addNew(SemanticItem si, int docStamp) {
+		add(si);
+		size++;
+		stamp = docStamp;
+	}
+
+	private void add(SemanticItem si) {
+		if (si instanceof Conjunction == false || entries.containsKey(si)) return;
+		Entry e = new Entry((Conjunction)si, next++);
+		entries.put(e.conj, e);
+		addMembers(e);
+	}
+
+	private void addMembers(Entry e) {
+		for (int i=0; i < e.members.length; i++) {
+			if (e.members[i] == null) continue;
+			addLast(byMember,e.members[i],e);
+			if (e.ids[i] != null) addLast(byId,e.ids[i],e);
+		}
+	}
+
+	private void removeMembers(Entry e) {
+		for (int i=0; i < e.members.length; i++) {
+			if (e.members[i] == null) continue;
+			removeFrom(byMember,e.members[i],e);
+			if (e.ids[i] != null) removeFrom(byId,e.ids[i],e);
+		}
+	}
+
+	private void update(Entry e) {
+		removeMembers(e);
+		e.recordMembers();
+		addMembers(e);
+	}
+
+	// an entry with several members with the same identifier is only added once
+	private static <K> void addLast(Map<K,List<Entry>> map, K key, Entry e) {
+		List<Entry> list = map.get(key);
+		if (list == null) {
+			list = new ArrayList<>(1);
+			map.put(key, list);
+		}
+		if (list.size() == 0 || list.get(list.size()-1) != e) list.add(e);
+	}
+
+	private static <K> void removeFrom(Map<K,List<Entry>> map, K key, Entry e) {
+		List<Entry> list = map.get(key);
+		if (list == null) return;
+		list.remove(e);
+		if (list.size() == 0) map.remove(key);
+	}
+
+	/**
+	 * Removes a semantic item that has been removed from the document.
+	 *
+	 * @param si	the semantic item
+	 */
+	void remove(SemanticItem si) {
+		size--;
+		Entry e = entries.remove(si);
+		if (e != null) removeMembers(e);
+	}
+
+	/**
+	 * Updates the modification stamp of the index after the document has removed semantic items.
+	 *
+	 * @param docStamp	the modification stamp of the document after the removal
+	 */
+	void removed(int docStamp) {
+		stamp = docStamp;
+	}
+
+	/**
+	 * Updates the index after the arguments of a relation have changed.
+	 * Relations that are not in the index are ignored.
+	 *
+	 * @param rel	the relation
+	 */
+	void argumentsChanged(Relation rel) {
+		Entry e = entries.get(rel);
+		if (e != null) update(e);
+	}
+
+	/**
+	 * Updates the index after the identifier of a semantic item has changed.
+	 *
+	 * @param si	the semantic item
+	 */
+	void identifierChanged(SemanticItem si) {
+		List<Entry> list = byMember.get(si);
+		if (list == null) return;
+		for (Entry e: new ArrayList<>(list))
+			update(e);
+	}
+
+	/**
+	 * Finds the first conjunction relation in the document that has a semantic item as its predicate or as an argument.
+	 *
+	 * @param sem	the semantic item
+	 * @return  the first conjunction relation with <var>sem</var>, null if there is none
+	 */
+	Conjunction getConjunction(SemanticItem sem) {
+		List<Entry> list = byId.get(sem.getId());
+		if (list == null) return null;
+		Entry first = null;
+		for (Entry e: list) {
+			if (first != null && first.order < e.order) continue;
+			if (e.members[0] != null && e.members[0].equals(sem)) first = e;
+			for (int i=1; i < e.members.length && first != e; i++) 
+				if (sem.equals(e.members[i])) first = e;
+		}
+		return (first == null ? null : first.conj);
+	}
+}
@@ -0,0 +1,128 @@
+package gov.nih.nlm.ling.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A global registry that maps syntactic dependency types to small integer codes and precomputes,
+ * for each type, a bitmask of the categories it belongs to (subject, object, prepositional, NP-internal, etc.),
+ * so that dependency type tests can be done with bit operations instead of string comparisons. <p>
+ *
+ * Types are registered as they are encountered. The registered type strings are shared by all
+ * <code>SynDependency</code> objects of the same type. The registry is safe for concurrent use.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+public class DependencyTypeRegistry {
+
+	/** types that contain <i>subj</i> (nsubj, nsubjpass, csubj, etc.) */
+	public static final int SUBJECT = 1;
+	/** types that contain <i>obj</i> (dobj, iobj, pobj) */
+	public static final int OBJECT = 1 << 1;
+	/** types that start with <i>prep</i> (prep, prep_*, prepc_*) */
+	public static final int PREPOSITIONAL = 1 << 2;
+	/** collapsed coordination types, those that start with <i>conj_</i> */
+	public static final int CONJUNCTION = 1 << 3;
+	/** types in {@link SynDependency#NP_INTERNAL_DEPENDENCIES} */
+	public static final int NP_INTERNAL = 1 << 4;
+	/** types in {@link SynDependency#APPOS_DEPENDENCIES} */
+	public static final int APPOSITIVE = 1 << 5;
+	/** types in {@link SynDependency#EXEMPLIFY_DEPENDENCIES} */
+	public static final int EXEMPLIFY = 1 << 6;
+	/** types in {@link SynDependency#THEME_DEPS} */
+	public static final int THEME = 1 << 7;
+	/** types in {@link SynDependency#DEPENDENT_DOMINATED_DEPENDENCIES} */
+	public static final int DEPENDENT_DOMINATED = 1 << 8;
+	/** types in {@link SynDependency#NON_DOMINATING_DEPENDENCIES} */
+	public static final int NON_DOMINATING = 1 << 9;
+
+	private static final Map<String,Integer> codes = new ConcurrentHashMap<>();
+	private static final List<String> types = new ArrayList<>();
+	private static volatile int[] categories = new int[0];
+
+	/**
+	 * Gets the code of a dependency type, registering the type if it has not been seen before.
+	 *
+	 * @param type	the dependency type
+	 * @return  the code of the dependency type, -1 if the type is null
+	 */
+	public static int getCode(String type) {
+		if (type == null) return -1;
+		Integer code = codes.get(type);
+		if (code != null) return code;
+		synchronized (types) {
+			code = codes.get(type);
+			if (code != null) return code;
+			code = types.size();
+			types.add(type);
+			int[] cats = new int[code+1];
+			System.arraycopy(categories, 0, cats, 0, code);
+			cats[code] = computeCategories(type);
+			categories = cats;
+			codes.put(type, code);
+			return code;
+		}
+	}
+
+	/**
+	 * Gets the code of a dependency type without registering it.
+	 *
+	 * @param type	the dependency type
+	 * @return  the code of the dependency type, -1 if the type has not been registered
+	 */
+	public static int findCode(String type) {
+		if (type == null) return -1;
+		Integer code = codes.get(type);
+		return (code == null ? -1 : code);
+	}
+
+	/**
+	 *
+	 * @param code	a dependency type code
+	 * @return  the shared string of the dependency type with the code, null if no such type has been registered
+	 */
+	public static String getType(int code) {
+		synchronized (types) {
+			if (code < 0 || code >= types.size()) return null;
+			return types.get(code);
+		}
+	}
+
+	/**
+	 *
+	 * @param code	a dependency type code
+	 * @return  the category bitmask of the dependency type, 0 if the code is unknown
+	 */
+	public static int getCategories(int code) {
+		int[] cats = categories;
+		if (code < 0 || code >= cats.length) return 0;
+		return cats[code];
+	}
+
+	/**
+	 *
+	 * @param type	a dependency type
+	 * @return  the category bitmask of the dependency type
+	 */
+	public static int getCategories(String type) {
+		return getCategories(getCode(type));
+	}
+
+	private static int computeCategories(String type) {
+		int cats = 0;
+		if (type.contains("subj")) cats |= SUBJECT;
+		if (type.contains("obj")) cats |= OBJECT;
+		if (type.startsWith("prep")) cats |= PREPOSITIONAL;
+		if (type.startsWith("conj_")) cats |= CONJUNCTION;
+		if (SynDependency.NP_INTERNAL_DEPENDENCIES.contains(type)) cats |= NP_INTERNAL;
+		if (SynDependency.APPOS_DEPENDENCIES.contains(type)) cats |= APPOSITIVE;
+		if (SynDependency.EXEMPLIFY_DEPENDENCIES.contains(type)) cats |= EXEMPLIFY;
+		if (SynDependency.THEME_DEPS.contains(type)) cats |= THEME;
+		if (SynDependency.DEPENDENT_DOMINATED_DEPENDENCIES.contains(type)) cats |= DEPENDENT_DOMINATED;
+		if (SynDependency.NON_DOMINATING_DEPENDENCIES.contains(type)) cats |= NON_DOMINATING;
+		return cats;
+	}
+}
@@ -1,12 +1,18 @@
 package gov.nih.nlm.ling.core;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -15,12 +21,14 @@ import edu.stanford.nlp.trees.LabeledScoredTreeFactory;
 import edu.stanford.nlp.trees.Tree;
 import edu.stanford.nlp.trees.TreeFactory;
 import gov.nih.nlm.ling.sem.Argument;
+import gov.nih.nlm.ling.sem.Conjunction;
 import gov.nih.nlm.ling.sem.HasPredicate;
 import gov.nih.nlm.ling.sem.Ontology;
 import gov.nih.nlm.ling.sem.Predicate;
 import gov.nih.nlm.ling.sem.Relation;
 import gov.nih.nlm.ling.sem.SemanticItem;
 import gov.nih.nlm.ling.sem.SemanticItemFactory;
+import gov.nih.nlm.ling.sem.SemtypeRegistry;
 import gov.nih.nlm.ling.sem.Term;
 import gov.nih.nlm.ling.util.SemUtils;
 import nu.xom.Attribute;
@@ -52,6 +60,26 @@ public class Document {
 	// TODO A generic metadata/feature map could be more appropriate
 	protected List<Object> topics;
 //	protected List<SpanList> quotationSpans;
+	// incremented when semantic items are added or removed
+	private int semanticsStamp;
+	private OntologyIndex ontologyIndex;
+	private ReferenceIndex referenceIndex;
+	private IdentifierIndex identifierIndex;
+	private ConjunctionIndex conjunctionIndex;
+	// derived data kept for this document by other components, by class
+	private Map<Class<?>,Object> caches;
+	// semantic items of superclasses/interfaces, valid for viewsStamp/viewsSize 
+	private Map<Class<? extends SemanticItem>,LinkedHashSet<SemanticItem>> classViews = new HashMap<>();
+	private int viewsStamp;
+	private int viewsSize;
+	// incremented when the sentences or sections change, sentence ordinals and sections
+	// are valid for indexedStamp and the sentence/section lists below
+	private int discourseStamp;
+	private int indexedStamp = -1;
+	private List<Sentence> indexedSentences;
+	private int indexedSentenceCount;
+	private List<Section> indexedSections;
+	private int indexedSectionCount;
 	
 	/**
 	 * Creates a <code>Document</code> object from a piece of text.
@@ -196,8 +224,9 @@ public class Document {
 		return semanticItems;
 	}
 	
-	public void setSemanticItems(Map<Class<? extends SemanticItem>, LinkedHashSet<SemanticItem>> semanticItems) {
+	public synchronized void setSemanticItems(Map<Class<? extends SemanticItem>, LinkedHashSet<SemanticItem>> semanticItems) {
 		this.semanticItems = semanticItems;
+		semanticsStamp++;
 	}
 	
 	public List<Sentence> getSentences() {
@@ -206,11 +235,13 @@ public class Document {
 
 	public void setSentences(List<Sentence> sentences) {
 		this.sentences = sentences;
+		discourseChanged();
 	}
 	
 	public void addSentence(Sentence sentence) {
 		if (sentences == null) sentences = new ArrayList<>();
 		sentences.add(sentence);
+		discourseChanged();
 	}
 
 	public String getText() {
@@ -223,11 +254,63 @@ public class Document {
 
 	public void setSections(List<Section> sections) {
 		this.sections = sections;
+		discourseChanged();
 	}
 	
 	public void addSection(Section section) {
 		if (sections == null) sections = new ArrayList<>();
 		sections.add(section);
+		discourseChanged();
+	}
+	
+	/**
+	 * Indicates that the sentences or the sections of the document have been modified, 
+	 * so that the sentence ordinals and sections are reassigned when they are next needed.
+	 * This is called by the methods that set sentences, sections and subsections.
+	 */
+	public synchronized void discourseChanged() {
+		discourseStamp++;
+	}
+	
+	// assigns ordinals and sections to sentences, if the sentences or sections have changed
+	private synchronized void indexDiscourse() {
+		int sentenceCount = (sentences == null ? -1 : sentences.size());
+		int sectionCount = (sections == null ? -1 : sections.size());
+		if (indexedStamp == discourseStamp && indexedSentences == sentences && indexedSentenceCount == sentenceCount &&
+				indexedSections == sections && indexedSectionCount == sectionCount) return;
+		if (sentences != null) {
+			// the first occurrence determines the ordinal
+			for (int i=sentences.size()-1; i >= 0; i--) {
+				Sentence sent = sentences.get(i);
+				sent.setOrdinal(i);
+				sent.setSection(findSection(sent));
+				sent.setTextSections(findTextSections(sent));
+			}
+		}
+		indexedStamp = discourseStamp;
+		indexedSentences = sentences;
+		indexedSentenceCount = sentenceCount;
+		indexedSections = sections;
+		indexedSectionCount = sectionCount;
+	}
+	
+	// whether the ordinal and sections assigned to the sentence are reliable
+	private boolean isIndexed(Sentence sentence) {
+		indexDiscourse();
+		int i = sentence.getAssignedOrdinal();
+		return (sentences != null && i >= 0 && i < sentences.size() && sentences.get(i) == sentence);
+	}
+	
+	/**
+	 * Gets the position of a sentence in the document. 
+	 * 
+	 * @param sentence	the sentence
+	 * @return the index of the sentence in the sentence list, -1 if it is not a sentence of the document
+	 */
+	public int getSentenceIndex(Sentence sentence) {
+		if (sentences == null) return -1;
+		if (isIndexed(sentence)) return sentence.getAssignedOrdinal();
+		return sentences.indexOf(sentence);
 	}
 	
 	public List<? extends Object> getTopics() {
@@ -243,6 +326,30 @@ public class Document {
 		topics.add(topic);
 	}
 	
+	/**
+	 * Gets the derived data kept for this document by another component, such as a memo table. 
+	 * These are stored with the document, so that they are not shared with other documents 
+	 * and are discarded with the document.
+	 * 
+	 * @param clazz	the class of the data
+	 * @return the data of the class, or null if none has been stored
+	 */
+	public synchronized <T> T getCache(Class<T> clazz) {
+		if (caches == null) return null;
+		return clazz.cast(caches.get(clazz));
+	}
+	
+	/**
+	 * Stores derived data for this document, replacing any earlier data of the same class.
+	 * 
+	 * @param clazz	the class of the data
+	 * @param cache	the data
+	 */
+	public synchronized <T> void setCache(Class<T> clazz, T cache) {
+		if (caches == null) caches = new HashMap<>();
+		caches.put(clazz, cache);
+	}
+	
 	/**
 	 * Gets the <code>SurfaceElementFactory</code> associated with this document, 
 	 * or creates one if it does not exist.
@@ -319,20 +426,74 @@ public class Document {
 		 return out;
 	}
 	
+	/**
+	 * Gets an unmodifiable view of all the semantic items of this document, in the same order as 
+	 * {@link #getAllSemanticItems()}, without copying them. The view reflects later changes to the
+	 * semantic items, so semantic items should not be added or removed while iterating over it.
+	 * 
+	 * @return a view of all semantic items of this document
+	 */
+	public Set<SemanticItem> getAllSemanticItemsView() {
+		return allSemanticItemsView;
+	}
+	
+	private final Set<SemanticItem> allSemanticItemsView = new AbstractSet<SemanticItem>() {
+		@Override
+		public Iterator<SemanticItem> iterator() {
+			if (semanticItems == null) return Collections.<SemanticItem>emptyIterator();
+			final Iterator<LinkedHashSet<SemanticItem>> classIter = semanticItems.values().iterator();
+			return new Iterator<SemanticItem>() {
+				private Iterator<SemanticItem> current = Collections.<SemanticItem>emptyIterator();
+				
+				public boolean hasNext() {
+					while (current.hasNext() == false) {
+						if (classIter.hasNext() == false) return false;
+						current = classIter.next().iterator();
+					}
+					return true;
+				}
+				
+				public SemanticItem next() {
+					if (hasNext() == false) throw new NoSuchElementException();
+					return current.next();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return getSemanticItemCount();
+		}
+	};
+	
 	/**
 	 * Adds a single semantic item to this document.
 	 * 
 	 * @param semanticItem  the semantic item to add.
 	 */
-	public void addSemanticItem(SemanticItem semanticItem){
+	public synchronized void addSemanticItem(SemanticItem semanticItem){
 		if (semanticItems == null) { semanticItems = new HashMap<>();}
 		Class<? extends SemanticItem> s = semanticItem.getClass();
 		LinkedHashSet<SemanticItem> objs = this.semanticItems.get(s);
 		if (objs == null) {
 			objs = new LinkedHashSet<>();
 		}
-		objs.add(semanticItem);
+		int count = getSemanticItemCount();
+		boolean current = (ontologyIndex != null && ontologyIndex.isCurrent(semanticsStamp, count));
+		boolean referencesCurrent = (referenceIndex != null && 
+				referenceIndex.isCurrent(semanticsStamp, count));
+		boolean identifiersCurrent = (identifierIndex != null && 
+				identifierIndex.isCurrent(semanticsStamp, count));
+		boolean conjunctionsCurrent = (conjunctionIndex != null && 
+				conjunctionIndex.isCurrent(semanticsStamp, count));
+		boolean added = objs.add(semanticItem);
 		this.semanticItems.put(s,objs);
+		if (added == false) return;
+		semanticsStamp++;
+		if (current) ontologyIndex.addNew(semanticItem, semanticsStamp);
+		if (referencesCurrent) referenceIndex.addNew(s, semanticItem, semanticsStamp);
+		if (identifiersCurrent) identifierIndex.addNew(s, semanticItem, semanticsStamp);
+		if (conjunctionsCurrent) conjunctionIndex.addNew(semanticItem, semanticsStamp);
 	}
 	
 	/**
@@ -352,9 +513,7 @@ public class Document {
 	 * 
 	 */
 	public synchronized void removeAllSemantics() {
-		for (SemanticItem sem: getAllSemanticItems()) {
-			removeSemanticItem(sem);
-		}
+		removeSemanticItems(getAllSemanticItems());
 		setSemanticItems(new HashMap<Class<? extends SemanticItem>,LinkedHashSet<SemanticItem>>());
 		for (Sentence s: sentences) {
 			s.reset();
@@ -369,88 +528,115 @@ public class Document {
 	 * 
 	 * @param semanticItem  the semantic item to remove from this document
 	 */
-	public synchronized void removeSemanticItem(SemanticItem semanticItem) {
-		if (semanticItems == null || semanticItems.size() == 0) return;
-		Map<Class<? extends SemanticItem>,LinkedHashSet<SemanticItem>> toRemove = new HashMap<>();
-		for (Class<? extends SemanticItem> s: semanticItems.keySet()) {
-			if (s.isInstance(semanticItem) == false) continue;
-			if (semanticItem instanceof Term) {
-				// TODO LinkedHashSet.contains() stopped working in Java 1.8??
-				Set<SemanticItem> set = new HashSet<>(semanticItems.get(s));
-				if (set.contains(semanticItem)) {
-					LinkedHashSet<SemanticItem> removeType = toRemove.get(s);
-					if (removeType == null) removeType = new LinkedHashSet<>();
-					removeType.add(semanticItem);
-					toRemove.put(s, removeType);
-				}
-			}
-			else {
-				Set<SemanticItem> set = semanticItems.get(s);
-				for (SemanticItem se: set) {
-					// Add the predicate to removeList
-					if (se instanceof HasPredicate) {
-						Predicate p = ((HasPredicate)se).getPredicate();
-						if (p.equals(semanticItem)) {
-							LinkedHashSet<SemanticItem> removeType = toRemove.get(s);
-							if (removeType == null) removeType = new LinkedHashSet<>();
-							removeType.add(se);
-							toRemove.put(s,removeType);
-							LinkedHashSet<SemanticItem> removePred = toRemove.get(Predicate.class);
-							if (removePred == null) removePred = new LinkedHashSet<>();
-							removePred.add(p);
-							toRemove.put(Predicate.class,removePred);
-						} 
-					}
-					// If the semantic item to remove is an argument of a relation, add the relation to removeList
-					if (se instanceof Relation) {
-						Relation rel = (Relation)se;
-						Argument removeArg = null;
-						for (int i=0; i< rel.getArguments().size(); i++) {
-							Argument arg = rel.getArguments().get(i);
-							SemanticItem argSe = arg.getArg();
-							if (argSe.equals(semanticItem)) {
-								removeArg = arg;
-								break;
-							}
-						}
-						if (removeArg != null) rel.removeArg(removeArg);
-						if (rel.equals(semanticItem)) {
-							LinkedHashSet<SemanticItem> alreadyRemove = toRemove.get(s);
-							if (alreadyRemove == null) alreadyRemove = new LinkedHashSet<>();
-							alreadyRemove.add(rel);
-							toRemove.put(s,alreadyRemove);
+	public void removeSemanticItem(SemanticItem semanticItem) {
+		removeSemanticItems(Collections.singletonList(semanticItem));
+	}
+	
+	/**
+	 * Removes multiple semantic items as well as the associated semantic items from this document.<p>
+	 * This is equivalent to removing them one by one with {@link #removeSemanticItem(SemanticItem)}
+	 * in iteration order, but the semantic item sets are only updated once. The relations that 
+	 * have a removed semantic item as argument are found through an index of relation arguments, 
+	 * rather than by examining all relations.
+	 * 
+	 * @param semanticItems  the semantic items to remove from this document
+	 */
+	public synchronized void removeSemanticItems(Collection<? extends SemanticItem> semanticItems) {
+		if (this.semanticItems == null || this.semanticItems.size() == 0 || semanticItems.size() == 0) return;
+		ReferenceIndex index = getReferenceIndex();
+		boolean identifiersCurrent = (identifierIndex != null && 
+				identifierIndex.isCurrent(semanticsStamp, getSemanticItemCount()));
+		boolean conjunctionsCurrent = (conjunctionIndex != null && 
+				conjunctionIndex.isCurrent(semanticsStamp, getSemanticItemCount()));
+		Map<Class<? extends SemanticItem>,Set<SemanticItem>> toRemove = new HashMap<>();
+		for (SemanticItem semanticItem: semanticItems) {
+			if (semanticItem instanceof Term == false) {
+				// If the semantic item to remove is an argument of a relation, remove the argument
+				for (ReferenceIndex.Entry e: index.getReferrers(semanticItem.getId())) {
+					if (e.getKey().isInstance(semanticItem) == false) continue;
+					Relation rel = (Relation)e.getItem();
+					if (rel.getArguments() == null) continue;
+					Argument removeArg = null;
+					for (Argument arg: rel.getArguments()) {
+						SemanticItem argSe = arg.getArg();
+						if (argSe != null && argSe.equals(semanticItem)) {
+							removeArg = arg;
+							break;
 						}
 					}
+					if (removeArg == null) continue;
+					// the relation notifies the document, which updates the index
+					rel.removeArg(removeArg);
 				}
 			}
-		}
-		if (semanticItem instanceof Term) {
-			AbstractSurfaceElement surf = (AbstractSurfaceElement)((Term)semanticItem).getSurfaceElement();
-			surf.removeSemantics(semanticItem);
-//			surf.getSemantics().remove(semanticItem);
-		}
-		if (semanticItem instanceof HasPredicate) {
-			Predicate p = ((HasPredicate)semanticItem).getPredicate();
-			AbstractSurfaceElement surf = (AbstractSurfaceElement)p.getSurfaceElement();
-			surf.removeSemantics(p);
-			surf.removeSemantics(semanticItem);
-//			surf.getSemantics().remove(p);
-//			surf.getSemantics().remove(semanticItem);
-		}
-		Map<Class<? extends SemanticItem>,LinkedHashSet<SemanticItem>> updatedMap = 
-				new HashMap<Class<? extends SemanticItem>,LinkedHashSet<SemanticItem>>();
-		for (Class<? extends SemanticItem> s: semanticItems.keySet()) {
-			LinkedHashSet<SemanticItem> removeSet = toRemove.get(s);
-			LinkedHashSet<SemanticItem> set = new LinkedHashSet<SemanticItem>(semanticItems.get(s));
-			if (removeSet == null)  {
-				updatedMap.put(s, set);
+			for (ReferenceIndex.Entry e: index.getItems(semanticItem.getId())) {
+				if (e.getKey().isInstance(semanticItem) == false) continue;
+				SemanticItem se = e.getItem();
+				if (semanticItem instanceof Term) {
+					if (semanticItem.equals(se) == false) continue;
+				} 
+				else if (se instanceof Relation == false || se.equals(semanticItem) == false) continue;
+				Set<SemanticItem> removeType = toRemove.get(e.getKey());
+				if (removeType == null) {
+					removeType = Collections.newSetFromMap(new IdentityHashMap<SemanticItem,Boolean>());
+					toRemove.put(e.getKey(), removeType);
+				}
+				removeType.add(se);
+				index.remove(e);
+				if (identifiersCurrent) identifierIndex.remove(e.getKey(), se);
+				if (conjunctionsCurrent) conjunctionIndex.remove(se);
 			}
-			else {
-				set.removeAll(removeSet);
-				updatedMap.put(s, set);
+			if (semanticItem instanceof Term) {
+				AbstractSurfaceElement surf = (AbstractSurfaceElement)((Term)semanticItem).getSurfaceElement();
+				surf.removeSemantics(semanticItem);
+			}
+			if (semanticItem instanceof HasPredicate) {
+				Predicate p = ((HasPredicate)semanticItem).getPredicate();
+				AbstractSurfaceElement surf = (AbstractSurfaceElement)p.getSurfaceElement();
+				surf.removeSemantics(p);
+				surf.removeSemantics(semanticItem);
 			}
 		}
-		this.semanticItems = updatedMap;
+		// the sets are replaced rather than modified, so that callers iterating over them are not affected
+		for (Class<? extends SemanticItem> s: toRemove.keySet()) {
+			Set<SemanticItem> removeSet = toRemove.get(s);
+			LinkedHashSet<SemanticItem> set = new LinkedHashSet<>();
+			for (SemanticItem si: this.semanticItems.get(s)) {
+				if (removeSet.contains(si) == false) set.add(si);
+			}
+			this.semanticItems.put(s, set);
+		}
+		semanticsStamp++;
+		index.removed(semanticsStamp);
+		if (identifiersCurrent) identifierIndex.removed(semanticsStamp);
+		if (conjunctionsCurrent) conjunctionIndex.removed(semanticsStamp);
+	}
+	
+	/**
+	 * Gets the index of semantic items by identifier and of relations by argument, 
+	 * rebuilding it if the semantic items have changed since it was built without going through the document.
+	 * 
+	 * @return the reference index
+	 */
+	private synchronized ReferenceIndex getReferenceIndex() {
+		if (referenceIndex == null || referenceIndex.isCurrent(semanticsStamp, getSemanticItemCount()) == false) 
+			referenceIndex = new ReferenceIndex(semanticItems,semanticsStamp);
+		return referenceIndex;
+	}
+	
+	/**
+	 * Finds the first conjunction relation in this document that has a semantic item as its predicate 
+	 * or as an argument. The conjunction relations are found through an index of their predicates and arguments, 
+	 * rather than by examining all of them.
+	 * 
+	 * @param semanticItem	the semantic item
+	 * @return the first conjunction relation with the semantic item, or null if there is none
+	 */
+	public synchronized Conjunction getConjunction(SemanticItem semanticItem) {
+		if (semanticItems == null) return null;
+		if (conjunctionIndex == null || conjunctionIndex.isCurrent(semanticsStamp, getSemanticItemCount()) == false) 
+			conjunctionIndex = new ConjunctionIndex(semanticItems,semanticsStamp);
+		return conjunctionIndex.getConjunction(semanticItem);
 	}
 	
 	/**
@@ -465,7 +651,10 @@ public class Document {
 	 */
 	public int getMaxId(Class<? extends SemanticItem> clazz) {
 		if (semanticItems == null) return 0;
-		LinkedHashSet<SemanticItem> semObjects = getSemanticItemsByClass(this,clazz);
+		Integer indexed = getIdentifierIndex().getMaxNumber(getSemanticItemClasses(clazz));
+		if (indexed != null) return indexed;
+		// some identifiers do not have the expected format
+		LinkedHashSet<SemanticItem> semObjects = getClassItems(this,clazz);
 		if (semObjects.size() == 0) return 0;
 		int max = 0;
 		for (SemanticItem sem: semObjects) {
@@ -476,6 +665,19 @@ public class Document {
 		return max;
 	}
 	
+	// the classes whose semantic items getSemanticItemsByClass() returns for a given class
+	private List<Class<? extends SemanticItem>> getSemanticItemClasses(Class<? extends SemanticItem> clazz) {
+		List<Class<? extends SemanticItem>> classes = new ArrayList<>();
+		if (semanticItems.get(clazz) != null) {
+			classes.add(clazz);
+			return classes;
+		}
+		for (Class<? extends SemanticItem> k: semanticItems.keySet()) {
+			if (SemUtils.getGeneralizations(k).contains(clazz)) classes.add(k);
+		}
+		return classes;
+	}
+	
 	/**
 	 * Gets the semantic object with the given id. 
 	 * Returns null if no semantic item with the given id is found. 
@@ -485,14 +687,54 @@ public class Document {
 	 */
 	public SemanticItem getSemanticItemById(String semId) {
 		if (semanticItems == null) return null;
-		for (Class<? extends SemanticItem> key: semanticItems.keySet()){
-			SemanticItem obj = getSemanticItemByTypeId(key,semId);
-			if (obj != null) return obj;
+		List<SemanticItem> indexed = getIdentifierIndex().getItems(semId);
+		if (indexed != null && indexed.size() == 1) return indexed.get(0);
+		if (indexed != null) {
+			// several semantic items share the identifier, return the first one in document order
+			for (Class<? extends SemanticItem> key: semanticItems.keySet()){
+				SemanticItem obj = getSemanticItemByTypeId(key,semId);
+				if (obj != null) return obj;
+			}
 		}
 		log.log(Level.WARNING,"Cannot find semantic item {0} in document {1}", new Object[]{semId,id});
 		return null;
 	}
 	
+	/**
+	 * Gets the index of semantic items by identifier, rebuilding it if the semantic items have changed
+	 * since it was built.
+	 * 
+	 * @return the identifier index
+	 */
+	private synchronized IdentifierIndex getIdentifierIndex() {
+		if (identifierIndex == null || identifierIndex.isCurrent(semanticsStamp, getSemanticItemCount()) == false) 
+			identifierIndex = new IdentifierIndex(semanticItems,semanticsStamp);
+		return identifierIndex;
+	}
+	
+	/**
+	 * Notifies the document that the identifier of one of its semantic items has changed, 
+	 * so that the semantic item can still be found by its identifier.
+	 * 
+	 * @param semanticItem  the semantic item whose identifier has changed
+	 */
+	public synchronized void identifierChanged(SemanticItem semanticItem) {
+		if (identifierIndex != null) identifierIndex.identifierChanged(semanticItem);
+		if (referenceIndex != null) referenceIndex.identifierChanged(semanticItem);
+		if (conjunctionIndex != null) conjunctionIndex.identifierChanged(semanticItem);
+	}
+	
+	/**
+	 * Notifies the document that the arguments of one of its relations have changed, 
+	 * so that the relation can still be found by its arguments.
+	 * 
+	 * @param relation  the relation whose arguments have changed
+	 */
+	public synchronized void argumentsChanged(Relation relation) {
+		if (referenceIndex != null) referenceIndex.argumentsChanged(relation);
+		if (conjunctionIndex != null) conjunctionIndex.argumentsChanged(relation);
+	}
+	
 	private SemanticItem getSemanticItemByTypeId(Class<? extends SemanticItem> type, String semId) {
 		LinkedHashSet<SemanticItem> objs = semanticItems.get(type);
 		for (SemanticItem o: objs){
@@ -518,12 +760,44 @@ public class Document {
 		if (doc.getSemanticItems() == null) return new LinkedHashSet<>();
 		LinkedHashSet<SemanticItem> sems = doc.getSemanticItems().get(clazz);
 		if (sems != null) return sems;
+		// a copy of the cached view, so that callers modifying the result do not affect later callers
+		return new LinkedHashSet<>(doc.getClassView(clazz));
+	}
+	
+	// same as getSemanticItemsByClass(), but returns the cached view of a superclass/interface without copying it,
+	// for the methods of this class that only read the result
+	private static LinkedHashSet<SemanticItem> getClassItems(Document doc, Class<? extends SemanticItem> clazz) {
+		if (doc.getSemanticItems() == null) return new LinkedHashSet<>();
+		LinkedHashSet<SemanticItem> sems = doc.getSemanticItems().get(clazz);
+		if (sems != null) return sems;
+		return doc.getClassView(clazz);
+	}
+	
+	/**
+	 * Gets the semantic items whose classes extend/implement a given class or interface. <p>
+	 * The result is cached until the semantic items of the document change, and is replaced rather than updated
+	 * then, so that callers can continue iterating over a set they obtained earlier while adding or removing semantic items.
+	 * The returned set is shared and is not to be modified, it is only returned to external callers as a copy.
+	 * 
+	 * @param clazz  the semantic superclass or interface
+	 * @return  the set of semantic items of the subclasses of <var>clazz</var>
+	 */
+	private synchronized LinkedHashSet<SemanticItem> getClassView(Class<? extends SemanticItem> clazz) {
+		int size = getSemanticItemCount();
+		if (viewsStamp != semanticsStamp || viewsSize != size) {
+			classViews = new HashMap<>();
+			viewsStamp = semanticsStamp;
+			viewsSize = size;
+		}
+		LinkedHashSet<SemanticItem> sems = classViews.get(clazz);
+		if (sems != null) return sems;
 		sems = new LinkedHashSet<>();
-		for (Class<? extends SemanticItem> k: doc.getSemanticItems().keySet()) {
+		for (Class<? extends SemanticItem> k: semanticItems.keySet()) {
 			if (SemUtils.getGeneralizations(k).contains(clazz)) {
-				sems.addAll(doc.getSemanticItems().get(k));
+				sems.addAll(semanticItems.get(k));
 			}
 		}
+		classViews.put(clazz, sems);
 		return sems;
 	}
 
@@ -543,14 +817,16 @@ public class Document {
 	 */
 	public static LinkedHashSet<SemanticItem> getSemanticItemsByClassSpan(Document doc, Class<? extends SemanticItem> clazz, 
 			SpanList sp, boolean allowOverlap) {
-		LinkedHashSet<SemanticItem> cl = getSemanticItemsByClass(doc,clazz);
+		LinkedHashSet<SemanticItem> cl = getClassItems(doc,clazz);
 		LinkedHashSet<SemanticItem> spItems = new LinkedHashSet<>();
 		for (SemanticItem si: cl) {
 			SpanList sisp = si.getSpan();
 			if (si instanceof Relation) {
-				sisp = new SpanList(si.getSpan().asSingleSpan());
+				int begin = sisp.getBegin(); int end = sisp.getEnd();
+				if (SpanList.subsume(sp, begin, end) || (allowOverlap && SpanList.overlap(begin, end, sp))) spItems.add(si);
+				continue;
 			}
-			if (SpanList.subsume(sp, sisp)|| (allowOverlap && SpanList.overlap(sisp, sp))) spItems.add(si);
+			if (SpanList.subsume(sp, sisp) || (allowOverlap && SpanList.overlap(sisp, sp))) spItems.add(si);
 		}
 		return spItems;
 	}
@@ -566,10 +842,12 @@ public class Document {
 	 * @return  the semantic items of the given class and semantic types
 	 */
 	public static LinkedHashSet<SemanticItem> getSemanticItemsByClassType(Document doc, Class<? extends SemanticItem> key, List<String> types) {
-		LinkedHashSet<SemanticItem> cl = getSemanticItemsByClass(doc,key);
+		LinkedHashSet<SemanticItem> cl = getClassItems(doc,key);
 		LinkedHashSet<SemanticItem> out = new LinkedHashSet<>();
+		if (cl.size() == 0) return out;
+		BitSet typeBits = SemtypeRegistry.getBits(types);
 		for (SemanticItem c: cl) {
-			if (types.contains(c.getType())) out.add(c);
+			if (SemtypeRegistry.contains(typeBits, c.getType())) out.add(c);
 		}
 		return out;
 	}
@@ -595,7 +873,9 @@ public class Document {
 		for (SemanticItem si: classTypeItems) {
 			SpanList sisp = si.getSpan();
 			if (si instanceof Relation) {
-				sisp = new SpanList(si.getSpan().asSingleSpan());
+				int begin = sisp.getBegin(); int end = sisp.getEnd();
+				if (SpanList.subsume(sp, begin, end) || (allowOverlap && SpanList.overlap(begin, end, sp))) spItems.add(si);
+				continue;
 			}
 			if (SpanList.subsume(sp, sisp) || (allowOverlap && SpanList.overlap(sisp, sp))) spItems.add(si);
 		}
@@ -614,12 +894,14 @@ public class Document {
 	 * @return  all semantic items within a given span
 	 */
 	public static LinkedHashSet<SemanticItem> getSemanticItemsBySpan(Document doc, SpanList sp, boolean allowOverlap) {
-		LinkedHashSet<SemanticItem> allItems = doc.getAllSemanticItems();
+		Set<SemanticItem> allItems = doc.getAllSemanticItemsView();
 		LinkedHashSet<SemanticItem> spItems = new LinkedHashSet<>();
 		for (SemanticItem si : allItems) {
 			SpanList sisp = si.getSpan();
 			if (si instanceof Relation) {
-				sisp = new SpanList(si.getSpan().asSingleSpan());
+				int begin = sisp.getBegin(); int end = sisp.getEnd();
+				if (SpanList.subsume(sp, begin, end) || (allowOverlap && SpanList.overlap(begin, end, sp))) spItems.add(si);
+				continue;
 			}
 			if (SpanList.subsume(sp, sisp) || (allowOverlap && SpanList.overlap(sisp, sp))) spItems.add(si);
 		}
@@ -635,7 +917,7 @@ public class Document {
 	 * @return  the set of <code>Relation</code>-implementing semantic items with the given predicate
 	 */
 	public static LinkedHashSet<Relation> getRelationsWithPredicate(Document doc, Predicate predicate) {
-		LinkedHashSet<SemanticItem> rels = getSemanticItemsByClass(doc,Relation.class);
+		LinkedHashSet<SemanticItem> rels = getClassItems(doc,Relation.class);
 		LinkedHashSet<Relation> out = new LinkedHashSet<>();
 		if (rels == null) return out;
 		for (SemanticItem rel: rels) {
@@ -654,7 +936,7 @@ public class Document {
 	 * @return the set of <code>Relation</code>-implementing items with the given argument
 	 */
 	public static LinkedHashSet<Relation> getRelationsWithArgument(Document doc, SemanticItem sem) {
-		LinkedHashSet<SemanticItem> rels = getSemanticItemsByClass(doc,Relation.class);
+		LinkedHashSet<SemanticItem> rels = getClassItems(doc,Relation.class);
 		LinkedHashSet<Relation> out = new LinkedHashSet<>();
 		if (rels == null) return out;
 		for (SemanticItem s: rels) {
@@ -671,16 +953,58 @@ public class Document {
 	}
 
 	/**
-	 * Returns all concepts and their counts from this document
 	 * 
-	 * @return  a map of concept/count key/value pairs
+	 * @return a counter that is incremented when semantic items are added or removed
 	 */
-	public Map<Ontology,Integer> getOntologyCounts() {
+	public int getSemanticsStamp() {
+		return semanticsStamp;
+	}
+	
+	int getSemanticItemCount() {
+		if (semanticItems == null) return 0;
+		int count = 0;
+		for (LinkedHashSet<SemanticItem> sems: semanticItems.values()) 
+			count += sems.size();
+		return count;
+	}
+	
+	/**
+	 * Gets the index of ontologically equivalent semantic items of this document, 
+	 * rebuilding it if the semantic items have changed since it was built.
+	 * 
+	 * @return the ontology index
+	 */
+	synchronized OntologyIndex getOntologyIndex() {
+		if (ontologyIndex == null || ontologyIndex.isCurrent(semanticsStamp, getSemanticItemCount()) == false) 
+			ontologyIndex = new OntologyIndex(semanticItems,semanticsStamp);
+		return ontologyIndex;
+	}
+	
+	/**
+	 * Notifies the document that the ontological information (sense or text) of one of its 
+	 * semantic items has changed, so that the ontology index is rebuilt when needed.
+	 */
+	public synchronized void ontologyChanged() {
+		ontologyIndex = null;
+	}
+	
+	/**
+	 * Returns all concepts and their counts from this document. The counts are 
+	 * computed once and reused until the semantic items of the document change.
+	 * 
+	 * @return  an unmodifiable map of concept/count key/value pairs
+	 */
+	public synchronized Map<Ontology,Integer> getOntologyCounts() {
+		OntologyIndex index = getOntologyIndex();
+		if (index.getCounts() != null) return index.getCounts();
 		Map<Ontology,Integer> counts = new HashMap<>();
-		for (Class<? extends SemanticItem> s: semanticItems.keySet()) {
-			counts.putAll(getOntologyCounts(s));
+		if (semanticItems != null) {
+			for (Class<? extends SemanticItem> s: semanticItems.keySet()) {
+				counts.putAll(getOntologyCounts(s));
+			}
 		}
-		return counts;
+		index.setCounts(Collections.unmodifiableMap(counts));
+		return index.getCounts();
 	}
 
 	/**
@@ -690,18 +1014,16 @@ public class Document {
 	 * @return  a map of concept/count key/value pairs
 	 */
 	public Map<Ontology,Integer> getOntologyCounts(Class<? extends SemanticItem> type) {
-		LinkedHashSet<SemanticItem> typed = getSemanticItemsByClass(this,type);
-		List<SemanticItem> seen = new ArrayList<>();
+		LinkedHashSet<SemanticItem> typed = getClassItems(this,type);
+		OntologyIndex index = getOntologyIndex();
+		Set<SemanticItem> seen = new HashSet<>();
 		Map<Ontology,Integer> counts = new HashMap<>();
 		for (SemanticItem si: typed) {
 			if (seen.contains(si)) continue;
 			int cnt = 0;
-			for (SemanticItem ssi: typed) {
-				if (ssi.equals(si)) continue;
-				if (ssi.ontologyEquals(si)) {
-					cnt++;
-					seen.add(ssi);
-				}
+			for (SemanticItem ssi: index.getMatches(si)) {
+				cnt++;
+				seen.add(ssi);
 			}
 			counts.put(si.getOntology(), ++cnt);
 			seen.add(si);
@@ -716,6 +1038,7 @@ public class Document {
 	 */
 	public Map<Ontology,LinkedHashSet<SurfaceElement>> getOntologyTerms() {
 		Map<Ontology,LinkedHashSet<SurfaceElement>> map = new HashMap<>();
+		if (semanticItems == null) return map;
 		for (Class<? extends SemanticItem> s: semanticItems.keySet()) {
 			map.putAll(getOntologyTerms(s));
 		}
@@ -731,21 +1054,19 @@ public class Document {
 	 */
 	// TODO May consider making it private
 	public Map<Ontology,LinkedHashSet<SurfaceElement>> getOntologyTerms(Class<? extends SemanticItem> clazz) {
-		LinkedHashSet<SemanticItem> typed = getSemanticItemsByClass(this,clazz);
-		List<SemanticItem> seen = new ArrayList<>();
+		LinkedHashSet<SemanticItem> typed = getClassItems(this,clazz);
+		OntologyIndex index = getOntologyIndex();
+		Set<SemanticItem> seen = new HashSet<>();
 		Map<Ontology,LinkedHashSet<SurfaceElement>> terms = new HashMap<>();
 		for (SemanticItem si: typed) {
 			if (seen.contains(si)) continue;
 			LinkedHashSet<SurfaceElement> surfs = new LinkedHashSet<SurfaceElement>();
-			for (SemanticItem ssi: typed) {
-				if (ssi.equals(si)) continue;
-				if (ssi.ontologyEquals(si)) {
-					if (ssi instanceof Term) {
-						Term tssi = (Term)ssi;
-						surfs.add(tssi.getSurfaceElement());
-					}
-					seen.add(ssi);
+			for (SemanticItem ssi: index.getMatches(si)) {
+				if (ssi instanceof Term) {
+					Term tssi = (Term)ssi;
+					surfs.add(tssi.getSurfaceElement());
 				}
+				seen.add(ssi);
 			}
 			terms.put(si.getOntology(), surfs);
 			seen.add(si);
@@ -784,15 +1105,7 @@ public class Document {
 	 * @return  the semantic items within the document that are normalized to the same concept
 	 */
 	public static LinkedHashSet<SemanticItem> getOntologyMatches(Document doc, SemanticItem sem) {
-		LinkedHashSet<SemanticItem> allSems = doc.getAllSemanticItems();
-		LinkedHashSet<SemanticItem> out = new LinkedHashSet<>();
-		for (SemanticItem a: allSems) {
-			if (a.equals(sem)) continue;
-			if (a.ontologyEquals(sem)) {
-				out.add(a);
-			}
-		}
-		return out;
+		return doc.getOntologyIndex().getMatches(sem);
 	}
 	
 	/**
@@ -1053,6 +1366,13 @@ public class Document {
 	 * 
 	 */
 	public Section getSection(Sentence sentence) {
+		if (sections == null) 			
+			return null;
+		if (isIndexed(sentence)) return sentence.getAssignedSection();
+		return findSection(sentence);
+	}
+	
+	private Section findSection(Sentence sentence) {
 		if (sections == null) 			
 			return null;
 		for (Section sect: sections) {
@@ -1062,6 +1382,27 @@ public class Document {
 		return null;
 	}
 	
+	/**
+	 * Finds the top-level sections whose text subsumes a sentence.
+	 * 
+	 * @param sentence	the sentence in question
+	 * @return the top-level sections with the sentence in their text, empty list if there is none
+	 */
+	List<Section> getTextSections(Sentence sentence) {
+		if (sections == null) return new ArrayList<>();
+		if (isIndexed(sentence)) return sentence.getAssignedTextSections();
+		return findTextSections(sentence);
+	}
+	
+	private List<Section> findTextSections(Sentence sentence) {
+		List<Section> out = new ArrayList<>(1);
+		if (sections == null) return out;
+		for (Section sect: sections) {
+			if (Span.subsume(sect.getTextSpan(), sentence.getSpan())) out.add(sect);
+		}
+		return out;
+	}
+	
 	private Section getLowestSubsumingSection(Section section, Span sp) {
 		if (section.getSubSections().size() == 0) {
 			if ((section.getTitleSpan() != null && Span.subsume(section.getTitleSpan(), sp)) ||
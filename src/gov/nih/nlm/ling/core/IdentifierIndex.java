@@ -0,0 +1,236 @@
+package gov.nih.nlm.ling.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import gov.nih.nlm.ling.sem.SemanticItem;
+
+/**
+ * An index of the semantic items of a document by their identifiers, which also keeps track of
+ * the numeric parts of the identifiers of each semantic class, so that semantic items can be looked up
+ * by identifier and the next available identifier can be found without scanning the whole document. <p>
+ *
+ * Identifiers are assumed to have the format [A-Z][0-9]+, as in {@link Document#getMaxId(Class)}.
+ * The index records the semantic classes with identifiers that do not have this format, so that the document
+ * can handle them as it did before. <p>
+ *
+ * The index is maintained by {@link Document}, which extends it as semantic items are added,
+ * updates it as they are removed, and is notified when the identifier of one of its semantic items changes.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+class IdentifierIndex {
+
+	private final Map<String,List<SemanticItem>> items = new HashMap<>();
+	// the identifiers of the semantic items when they were indexed, and the classes they are stored under
+	private final Map<SemanticItem,String> ids = new IdentityHashMap<>();
+	private final Map<SemanticItem,List<Class<? extends SemanticItem>>> keys = new IdentityHashMap<>();
+	// counts of the numeric parts of the identifiers of each class
+	private final Map<Class<? extends SemanticItem>,TreeMap<Integer,Integer>> numbers = new HashMap<>();
+	// counts of the identifiers without a numeric part for each class
+	private final Map<Class<? extends SemanticItem>,Integer> invalid = new HashMap<>();
+	private int stamp;
+	private int size;
+
+	/**
+	 * Builds the index from the semantic items of a document.
+	 *
+	 * @param semanticItems	the semantic items of the document
+	 * @param stamp			the modification stamp of the document's semantic items
+	 */
+	IdentifierIndex(Map<Class<? extends SemanticItem>,LinkedHashSet<SemanticItem>> semanticItems, int stamp) {
+		this.stamp = stamp;
+		if (semanticItems == null) return;
+		for (Class<? extends SemanticItem> s: semanticItems.keySet()) {
+			for (SemanticItem si: semanticItems.get(s))
+				add(s,si);
+			size += semanticItems.get(s).size();
+		}
+	}
+
+	/**
+	 * Checks whether the index reflects the semantic items of the document. The size
+	 * check catches changes that bypass the document, such as direct modification of the semantic item sets.
+	 *
+	 * @param docStamp	the current modification stamp of the document
+	 * @param docSize	the current number of semantic items in the document
+	 * @return  true if the index is up to date
+	 */
+	boolean isCurrent(int docStamp, int docSize) {
+		return (stamp == docStamp && size == docSize);
+	}
+
+	/**
+	 * Adds a semantic item that has just been added to the document.
+	 *
+	 * @param key		the class the semantic item is stored under
+	 * @param si		the semantic item
+	 * @param docStamp	the modification stamp of the document after the addition
+	 */
+	void addNew(Class<? extends SemanticItem> key, SemanticItem si, int docStamp) {
+		add(key,si);
+		size++;
+		stamp = docStamp;
+	}
+
+	private void add(Class<? extends SemanticItem> key, SemanticItem si) {
+		String id = si.getId();
+		List<Class<? extends SemanticItem>> siKeys = keys.get(si);
+		if (siKeys == null) {
+			siKeys = new ArrayList<>(1);
+			keys.put(si, siKeys);
+			ids.put(si, id);
+			addItem(id,si);
+		}
+		siKeys.add(key);
+		addNumber(key,id);
+	}
+
+	private void addItem(String id, SemanticItem si) {
+		List<SemanticItem> list = items.get(id);
+		if (list == null) {
+			list = new ArrayList<>(1);
+			items.put(id, list);
+		}
+		list.add(si);
+	}
+
+	private void removeItem(String id, SemanticItem si) {
+		List<SemanticItem> list = items.get(id);
+		if (list == null) return;
+		for (int i=0; i < list.size(); i++) {
+			if (list.get(i) == si) {
+				list.remove(i);
+				break;
+			}
+		}
+		if (list.size() == 0) items.remove(id);
+	}
+
+	private void addNumber(Class<? extends SemanticItem> key, String id) {
+		Integer n = getNumber(id);
+		if (n == null) {
+			Integer count = invalid.get(key);
+			invalid.put(key, count == null ? 1 : count + 1);
+			return;
+		}
+		TreeMap<Integer,Integer> counts = numbers.get(key);
+		if (counts == null) {
+			counts = new TreeMap<>();
+			numbers.put(key, counts);
+		}
+		Integer count = counts.get(n);
+		counts.put(n, count == null ? 1 : count + 1);
+	}
+
+	private void removeNumber(Class<? extends SemanticItem> key, String id) {
+		Integer n = getNumber(id);
+		if (n == null) {
+			Integer count = invalid.get(key);
+			if (count == null) return;
+			if (count == 1) invalid.remove(key);
+			else invalid.put(key, count - 1);
+			return;
+		}
+		TreeMap<Integer,Integer> counts = numbers.get(key);
+		if (counts == null) return;
+		Integer count = counts.get(n);
+		if (count == null) return;
+		if (count == 1) counts.remove(n);
+		else counts.put(n, count - 1);
+	}
+
+	// the numeric part of an identifier, null if the identifier does not have one
+	private static Integer getNumber(String id) {
+		if (id == null || id.length() < 2) return null;
+		try {
+			return Integer.parseInt(id.substring(1));
+		} catch (NumberFormatException nfe) {
+			return null;
+		}
+	}
+
+	/**
+	 * Removes a semantic item that has been removed from the document.
+	 *
+	 * @param key	the class the semantic item was stored under
+	 * @param si	the semantic item
+	 */
+	void remove(Class<? extends SemanticItem> key, SemanticItem si) {
+		List<Class<? extends SemanticItem>> siKeys = keys.get(si);
+		if (siKeys == null || siKeys.remove(key) == false) return;
+		String id = ids.get(si);
+		removeNumber(key,id);
+		if (siKeys.size() == 0) {
+			keys.remove(si);
+			ids.remove(si);
+			removeItem(id,si);
+		}
+		size--;
+	}
+
+	/**
+	 * Updates the modification stamp of the index after the document has removed semantic items.
+	 *
+	 * @param docStamp	the modification stamp of the document after the removal
+	 */
+	void removed(int docStamp) {
+		stamp = docStamp;
+	}
+
+	/**
+	 * Updates the index after the identifier of a semantic item has changed.
+	 * Semantic items that are not in the index are ignored.
+	 *
+	 * @param si	the semantic item
+	 */
+	void identifierChanged(SemanticItem si) {
+		List<Class<? extends SemanticItem>> siKeys = keys.get(si);
+		if (siKeys == null) return;
+		String old = ids.get(si);
+		String id = si.getId();
+		if (old == null ? id == null : old.equals(id)) return;
+		removeItem(old,si);
+		addItem(id,si);
+		ids.put(si, id);
+		for (Class<? extends SemanticItem> key: siKeys) {
+			removeNumber(key,old);
+			addNumber(key,id);
+		}
+	}
+
+	/**
+	 *
+	 * @param id	a semantic item identifier
+	 * @return  the semantic items in the document with the identifier, null if there are none
+	 */
+	List<SemanticItem> getItems(String id) {
+		return items.get(id);
+	}
+
+	/**
+	 * Finds the largest numeric part of the identifiers of the semantic items stored under a number of classes.
+	 *
+	 * @param classes	the classes
+	 * @return  the largest numeric part, 0 if there are no semantic items, or null if one of the identifiers
+	 * 			does not have a numeric part
+	 */
+	Integer getMaxNumber(Collection<Class<? extends SemanticItem>> classes) {
+		int max = 0;
+		for (Class<? extends SemanticItem> key: classes) {
+			if (invalid.containsKey(key)) return null;
+			TreeMap<Integer,Integer> counts = numbers.get(key);
+			if (counts == null || counts.size() == 0) continue;
+			int n = counts.lastKey();
+			if (n > max) max = n;
+		}
+		return max;
+	}
+}
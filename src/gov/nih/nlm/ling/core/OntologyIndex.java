@@ -0,0 +1,150 @@
+package gov.nih.nlm.ling.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import gov.nih.nlm.ling.sem.Concept;
+import gov.nih.nlm.ling.sem.Entity;
+import gov.nih.nlm.ling.sem.Ontology;
+import gov.nih.nlm.ling.sem.Predicate;
+import gov.nih.nlm.ling.sem.SemanticItem;
+
+/**
+ * An index that groups the semantic items of a document into classes of ontologically
+ * equivalent items, so that the items that an item is <code>ontologyEquals</code> to can be found
+ * without scanning the whole document. <p>
+ *
+ * Only <code>Entity</code> and <code>Predicate</code> objects can be ontologically equivalent
+ * to other semantic items. Entities are grouped by their semantic class and concept identifier, or by their text,
+ * ignoring case, if they are not mapped to a concept. Predicates are grouped by their semantic class only,
+ * since indicator senses do not have a usable hash code. A group is therefore a superset of the equivalence class
+ * and is filtered with {@link SemanticItem#ontologyEquals(Object)}. The items of a group are in document order. <p>
+ *
+ * The index is maintained by {@link Document}, which extends it as semantic items are added
+ * and rebuilds it when they are removed or their senses change.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+class OntologyIndex {
+
+	private final Map<Class<? extends SemanticItem>,Map<String,List<SemanticItem>>> groups = new HashMap<>();
+	private int stamp;
+	private int size;
+	private Map<Ontology,Integer> counts;
+
+	/**
+	 * Builds the index from the semantic items of a document.
+	 *
+	 * @param semanticItems	the semantic items of the document
+	 * @param stamp			the modification stamp of the document's semantic items
+	 */
+	OntologyIndex(Map<Class<? extends SemanticItem>,LinkedHashSet<SemanticItem>> semanticItems, int stamp) {
+		this.stamp = stamp;
+		if (semanticItems == null) return;
+		for (Class<? extends SemanticItem> s: semanticItems.keySet()) {
+			for (SemanticItem si: semanticItems.get(s))
+				add(si);
+			size += semanticItems.get(s).size();
+		}
+	}
+
+	/**
+	 * Checks whether the index reflects the semantic items of the document. The size
+	 * check catches changes that bypass the document, such as direct modification of the semantic item sets.
+	 *
+	 * @param docStamp	the current modification stamp of the document
+	 * @param docSize	the current number of semantic items in the document
+	 * @return  true if the index is up to date
+	 */
+	boolean isCurrent(int docStamp, int docSize) {
+		return (stamp == docStamp && size == docSize);
+	}
+
+	/**
+	 * Adds a semantic item that has just been added to the document.
+	 *
+	 * @param si		the semantic item
+	 * @param docStamp	the modification stamp of the document after the addition
+	 */
+	void addNew(SemanticItem si, int docStamp) {
+		add(si);
+		size++;
+		stamp = docStamp;
+		counts = null;
+	}
+
+	private void add(SemanticItem si) {
+		String key = getKey(si);
+		if (key == null) return;
+		Map<String,List<SemanticItem>> classGroups = groups.get(si.getClass());
+		if (classGroups == null) {
+			classGroups = new HashMap<>();
+			groups.put(si.getClass(), classGroups);
+		}
+		List<SemanticItem> group = classGroups.get(key);
+		if (group == null) {
+			group = new ArrayList<>();
+			classGroups.put(key, group);
+		}
+		group.add(si);
+	}
+
+	/**
+	 * Finds the semantic items in the document that are ontologically equivalent to a semantic item,
+	 * excluding the item itself.
+	 *
+	 * @param sem	the semantic item, not necessarily in the document
+	 * @return  the ontologically equivalent semantic items, in document order
+	 */
+	LinkedHashSet<SemanticItem> getMatches(SemanticItem sem) {
+		LinkedHashSet<SemanticItem> out = new LinkedHashSet<>();
+		String key = getKey(sem);
+		if (key == null) return out;
+		Map<String,List<SemanticItem>> classGroups = groups.get(sem.getClass());
+		if (classGroups == null) return out;
+		List<SemanticItem> group = classGroups.get(key);
+		if (group == null) return out;
+		for (SemanticItem a: group) {
+			if (a.equals(sem)) continue;
+			if (a.ontologyEquals(sem)) out.add(a);
+		}
+		return out;
+	}
+
+	Map<Ontology,Integer> getCounts() {
+		return counts;
+	}
+
+	void setCounts(Map<Ontology,Integer> counts) {
+		this.counts = counts;
+	}
+
+	// null if the semantic item cannot be ontologically equivalent to another item
+	private static String getKey(SemanticItem si) {
+		if (si instanceof Entity) {
+			Concept sense = ((Entity)si).getSense();
+			if (sense == null) return "T" + foldCase(((Entity)si).getText());
+			return "C" + sense.getId();
+		}
+		if (si instanceof Predicate) {
+			if (((Predicate)si).getSense() == null) return null;
+			return "P";
+		}
+		return null;
+	}
+
+	// two strings are equalsIgnoreCase iff their folded forms are equal
+	private static String foldCase(String text) {
+		if (text == null) return "";
+		char[] chars = text.toCharArray();
+		for (int i=0; i < chars.length; i++) {
+			chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+		}
+		return new String(chars);
+	}
+
+}
@@ -0,0 +1,260 @@
+package gov.nih.nlm.ling.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import gov.nih.nlm.ling.sem.Argument;
+import gov.nih.nlm.ling.sem.Relation;
+import gov.nih.nlm.ling.sem.SemanticItem;
+
+/**
+ * An index of the semantic items of a document by their identifiers, and of the relations
+ * by the identifiers of their arguments, so that the semantic items affected by the removal of
+ * a semantic item can be found without scanning the whole document. <p>
+ *
+ * Semantic items are only equal if their identifiers are equal, so the entries indexed under
+ * the identifier of a semantic item are the only candidates, and they are filtered with <code>equals</code>.
+ * An entry records the class under which its semantic item is stored in the document. <p>
+ *
+ * The index is maintained by {@link Document}, which extends it as semantic items are added,
+ * updates it as they are removed, and is notified when the identifier of a semantic item or
+ * the arguments of a relation change.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+class ReferenceIndex {
+
+	private final Map<String,List<Entry>> items = new HashMap<>();
+	private final Map<String,List<Entry>> referrers = new HashMap<>();
+	private final Map<SemanticItem,List<Entry>> entries = new IdentityHashMap<>();
+	// the relations by their argument objects, to find them when the identifier of an argument changes
+	private final Map<SemanticItem,List<Entry>> argumentOf = new IdentityHashMap<>();
+	private int stamp;
+	private int size;
+
+	/**
+	 * A semantic item in the document, with the identifier and the arguments it had when it was last indexed.
+	 */
+	static class Entry {
+		private final Class<? extends SemanticItem> key;
+		private final SemanticItem item;
+		private String id;
+		private SemanticItem[] argItems;
+		private String[] argIds;
+		private boolean removed;
+
+		private Entry(Class<? extends SemanticItem> key, SemanticItem item) {
+			this.key = key;
+			this.item = item;
+			this.id = item.getId();
+			recordArguments();
+		}
+
+		private void recordArguments() {
+			if (item instanceof Relation == false) return;
+			List<Argument> arguments = ((Relation)item).getArguments();
+			argItems = new SemanticItem[arguments == null ? 0 : arguments.size()];
+			argIds = new String[argItems.length];
+			for (int i=0; i < argItems.length; i++) {
+				argItems[i] = arguments.get(i).getArg();
+				if (argItems[i] != null) argIds[i] = argItems[i].getId();
+			}
+		}
+
+		/**
+		 *
+		 * @return  the class of semantic items the item is stored under in the document
+		 */
+		Class<? extends SemanticItem> getKey() {
+			return key;
+		}
+
+		SemanticItem getItem() {
+			return item;
+		}
+	}
+
+	/**
+	 * Builds the index from the semantic items of a document.
+	 *
+	 * @param semanticItems	the semantic items of the document
+	 * @param stamp			the modification stamp of the document's semantic items
+	 */
+	ReferenceIndex(Map<Class<? extends SemanticItem>,LinkedHashSet<SemanticItem>> semanticItems, int stamp) {
+		this.stamp = stamp;
+		if (semanticItems == null) return;
+		for (Class<? extends SemanticItem> s: semanticItems.keySet()) {
+			for (SemanticItem si: semanticItems.get(s))
+				add(s,si);
+			size += semanticItems.get(s).size();
+		}
+	}
+
+	/**
+	 * Checks whether the index reflects the semantic items of the document. The size
+	 * check catches changes that bypass the document, such as direct modification of the semantic item sets.
+	 *
+	 * @param docStamp	the current modification stamp of the document
+	 * @param docSize	the current number of semantic items in the document
+	 * @return  true if the index is up to date
+	 */
+	boolean isCurrent(int docStamp, int docSize) {
+		return (stamp == docStamp && size == docSize);
+	}
+
+	/**
+	 * Adds a semantic item that has just been added to the document.
+	 *
+	 * @param key		the class the semantic item is stored under
+	 * @param si		the semantic item
+	 * @param docStamp	the modification stamp of the document after the addition
+	 */
+	void addNew(Class<? extends SemanticItem> key, SemanticItem si, int docStamp) {
+		add(key,si);
+		size++;
+		stamp = docStamp;
+	}
+
+	private void add(Class<? extends SemanticItem> key, SemanticItem si) {
+		Entry e = new Entry(key,si);
+		getList(entries,si).add(e);
+		getList(items,e.id).add(e);
+		addReferrers(e);
+	}
+
+	private void addReferrers(Entry e) {
+		if (e.argIds == null) return;
+		for (int i=0; i < e.argIds.length; i++) {
+			if (e.argItems[i] == null) continue;
+			addLast(argumentOf,e.argItems[i],e);
+			if (e.argIds[i] != null) addLast(referrers,e.argIds[i],e);
+		}
+	}
+
+	private void removeReferrers(Entry e) {
+		if (e.argIds == null) return;
+		for (int i=0; i < e.argIds.length; i++) {
+			if (e.argItems[i] == null) continue;
+			removeFrom(argumentOf,e.argItems[i],e);
+			if (e.argIds[i] != null) removeFrom(referrers,e.argIds[i],e);
+		}
+	}
+
+	// an entry with several arguments with the same identifier is only added once
+	private static <K> void addLast(Map<K,List<Entry>> map, K key, Entry e) {
+		List<Entry> list = getList(map,key);
+		if (list.size() == 0 || list.get(list.size()-1) != e) list.add(e);
+	}
+
+	private static <K> void removeFrom(Map<K,List<Entry>> map, K key, Entry e) {
+		List<Entry> list = map.get(key);
+		if (list == null) return;
+		list.remove(e);
+		if (list.size() == 0) map.remove(key);
+	}
+
+	private static <K> List<Entry> getList(Map<K,List<Entry>> map, K key) {
+		List<Entry> list = map.get(key);
+		if (list == null) {
+			list = new ArrayList<>();
+			map.put(key, list);
+		}
+		return list;
+	}
+
+	/**
+	 *
+	 * @param id	a semantic item identifier
+	 * @return  the semantic items in the document with the identifier
+	 */
+	List<Entry> getItems(String id) {
+		return current(items.get(id));
+	}
+
+	/**
+	 *
+	 * @param id	a semantic item identifier
+	 * @return  the relations in the document that have an argument with the identifier
+	 */
+	List<Entry> getReferrers(String id) {
+		return current(referrers.get(id));
+	}
+
+	// a copy without the removed entries, so that the index can be updated while the result is used
+	private static List<Entry> current(List<Entry> list) {
+		List<Entry> out = new ArrayList<>();
+		if (list == null) return out;
+		for (Entry e: list) {
+			if (e.removed == false) out.add(e);
+		}
+		return out;
+	}
+
+	/**
+	 * Updates the index after the arguments of a relation have changed.
+	 * Relations that are not in the index are ignored.
+	 *
+	 * @param rel	the relation
+	 */
+	void argumentsChanged(Relation rel) {
+		List<Entry> relEntries = entries.get(rel);
+		if (relEntries == null) return;
+		for (Entry e: relEntries) {
+			removeReferrers(e);
+			e.recordArguments();
+			addReferrers(e);
+		}
+	}
+
+	/**
+	 * Updates the index after the identifier of a semantic item has changed, both for the semantic item
+	 * and for the relations it is an argument of.
+	 *
+	 * @param si	the semantic item
+	 */
+	void identifierChanged(SemanticItem si) {
+		List<Entry> siEntries = entries.get(si);
+		if (siEntries != null) {
+			for (Entry e: siEntries) {
+				removeFrom(items,e.id,e);
+				e.id = si.getId();
+				getList(items,e.id).add(e);
+			}
+		}
+		List<Entry> refs = argumentOf.get(si);
+		if (refs == null) return;
+		for (Entry e: new ArrayList<>(refs)) {
+			removeReferrers(e);
+			e.recordArguments();
+			addReferrers(e);
+		}
+	}
+
+	/**
+	 * Removes a semantic item that has been removed from the document.
+	 *
+	 * @param e	the entry of the semantic item
+	 */
+	void remove(Entry e) {
+		if (e.removed) return;
+		e.removed = true;
+		removeFrom(items,e.id,e);
+		removeFrom(entries,e.item,e);
+		removeReferrers(e);
+		size--;
+	}
+
+	/**
+	 * Updates the modification stamp of the index after the document has removed semantic items.
+	 *
+	 * @param docStamp	the modification stamp of the document after the removal
+	 */
+	void removed(int docStamp) {
+		stamp = docStamp;
+	}
+}
@@ -73,6 +73,7 @@ public class Section {
 
 	public void setSubSections(List<Section> subSections) {
 		this.subSections = subSections;
+		if (document != null) document.discourseChanged();
 	}
 	
 	public void addSubsection(Section sub) {
@@ -80,7 +81,7 @@ public class Section {
 				(sub.getTitleSpan() != null && Span.subsume(textSpan,sub.getTitleSpan()) == false)) return;
 		if (subSections == null) subSections = new ArrayList<>();
 		subSections.add(sub);
-			
+		if (document != null) document.discourseChanged();
 	}
 	
 	/**
@@ -152,8 +153,13 @@ public class Section {
 		if (a.equals(b)) return true;
 		if (a.getDocument().equals(b.getDocument()) == false) return false;
 		Document doc = a.getDocument();
-		for (Section sect : doc.getSections()) {
-			if (Span.subsume(sect.getTextSpan(), a.getSpan()) && Span.subsume(sect.getTextSpan(),b.getSpan())) return true;
+		List<Section> aSects = doc.getTextSections(a);
+		if (aSects.size() == 0) return false;
+		List<Section> bSects = doc.getTextSections(b);
+		for (Section sect : aSects) {
+			for (Section bSect: bSects) {
+				if (sect == bSect) return true;
+			}
 		}
 		return false;
 	}
@@ -10,6 +10,7 @@ import java.util.logging.Logger;
 
 import edu.stanford.nlp.trees.Tree;
 import gov.nih.nlm.ling.transform.DependencyTransformation;
+import gov.nih.nlm.ling.util.ParseTreeIndex;
 import gov.nih.nlm.ling.util.XMLUtils;
 import gov.nih.nlm.ling.wrappers.CoreNLPWrapper;
 import nu.xom.Attribute;
@@ -44,6 +45,11 @@ public class Sentence {
 	private List<SynDependency> embeddings;
 	private List<SurfaceElement> surfaceElements;
 	private List<Class<? extends DependencyTransformation>> transformations = new ArrayList<>();
+	private ParseTreeIndex treeIndex;
+	// assigned by the document
+	private int ordinal = -1;
+	private Section section;
+	private List<Section> textSections;
 	
 	/**
 	 * Creates a <code>Sentence</code> object with an identifier, the sentence string and its character offsets.
@@ -188,6 +194,43 @@ public class Sentence {
 	public Span getSpan() {
 		return span;
 	}
+	
+	/**
+	 * 
+	 * @return the position of the sentence in its document, -1 if it is not in a document
+	 */
+	public int getOrdinal() {
+		if (document == null) return -1;
+		return document.getSentenceIndex(this);
+	}
+	
+	/**
+	 * 
+	 * @return the lowest section of the document that encloses the sentence, null if there is none
+	 */
+	public Section getSection() {
+		if (document == null) return null;
+		return document.getSection(this);
+	}
+	
+	int getAssignedOrdinal() {
+		return ordinal;
+	}
+	void setOrdinal(int ordinal) {
+		this.ordinal = ordinal;
+	}
+	Section getAssignedSection() {
+		return section;
+	}
+	void setSection(Section section) {
+		this.section = section;
+	}
+	List<Section> getAssignedTextSections() {
+		return textSections;
+	}
+	void setTextSections(List<Section> textSections) {
+		this.textSections = textSections;
+	}
 	public List<Word> getWords() {
 		return words;
 	}
@@ -200,6 +243,17 @@ public class Sentence {
 	public void setTree(Tree tree) {
 		this.tree = tree;
 	}
+	/**
+	 * Gets the index of the parse tree of this sentence, building it if the tree or the words have changed
+	 * since it was last built.
+	 * 
+	 * @return the parse tree index
+	 */
+	public synchronized ParseTreeIndex getTreeIndex() {
+		if (treeIndex == null || treeIndex.isCurrent(this) == false) 
+			treeIndex = new ParseTreeIndex(this);
+		return treeIndex;
+	}
 	public boolean hasTree() {
 		return hasTree;
 	}
@@ -254,7 +308,14 @@ public class Sentence {
 		if (surfaceElements == null || sp == null || 
 				Span.invalidSpan(sp) || Span.overlap(span, sp) == false) 
 			return new ArrayList<>();
-		return getSurfaceElementsFromSpan(new SpanList(sp));
+		int begin = sp.getBegin(); int end = sp.getEnd();
+		List<SurfaceElement> extentSurfaceEls = new ArrayList<SurfaceElement>();
+		for (SurfaceElement surf: surfaceElements) {
+			if (SpanList.overlap(begin, end, surf.getSpan())) {
+				extentSurfaceEls.add(surf);
+			}
+		}
+		return extentSurfaceEls;
 	}
 	
 	/**
@@ -265,7 +326,7 @@ public class Sentence {
 	 */
 	public List<SurfaceElement> getSurfaceElementsFromSpan(SpanList sp) {
 		if (surfaceElements == null || sp == null || 
-				SpanList.invalidSpan(sp) || SpanList.overlap(new SpanList(span), sp) == false) 
+				SpanList.invalidSpan(sp) || SpanList.overlap(span.getBegin(), span.getEnd(), sp) == false) 
 			return new ArrayList<>();
 		List<SurfaceElement> extentSurfaceEls = new ArrayList<SurfaceElement>();
 		for (SurfaceElement surf: surfaceElements) {
@@ -289,7 +350,14 @@ public class Sentence {
 		if (words == null || sp == null || 
 				Span.invalidSpan(sp) || Span.overlap(span, sp) == false)  
 			return new ArrayList<>();
-		return getWordsInSpan(new SpanList(sp));
+		int begin = sp.getBegin(); int end = sp.getEnd();
+		List<Word> wordList =  new ArrayList<>();
+		for (Word w: words) {
+			if (SpanList.overlap(begin, end, w.getSpan())) {
+				wordList.add(w);
+			}
+		}
+		return wordList;
 	}
 	
 	/**
@@ -301,7 +369,7 @@ public class Sentence {
 	 */
 	public List<Word> getWordsInSpan(SpanList sp) {
 		if (words == null || sp == null || 
-				SpanList.invalidSpan(sp) || SpanList.overlap(new SpanList(span), sp) == false)  
+				SpanList.invalidSpan(sp) || SpanList.overlap(span.getBegin(), span.getEnd(), sp) == false)  
 			return new ArrayList<>();
 		List<Word> wordList =  new ArrayList<>();
 		for (Word w: words) {
@@ -337,7 +405,7 @@ public class Sentence {
 	 * @return  the string in the span list, empty string if the sentence does not cover the span list
 	 */
 	public String getStringInSpan(SpanList sp) {
-		if (sp == null ||SpanList.invalidSpan(sp) || SpanList.overlap(new SpanList(span), sp) == false) return "";
+		if (sp == null ||SpanList.invalidSpan(sp) || SpanList.overlap(span.getBegin(), span.getEnd(), sp) == false) return "";
 		String out = "";
 		int size = sp.getSpans().size();
 		for (int i=0; i< size-1; i++) {
@@ -625,7 +693,7 @@ public class Sentence {
 	 */
 	// TODO may be buggy
 	public SpanList mergeSpansIfPossible(SpanList sp) {
-		if (sp == null || SpanList.invalidSpan(sp) || SpanList.overlap(new SpanList(span), sp) == false) 
+		if (sp == null || SpanList.invalidSpan(sp) || SpanList.overlap(span.getBegin(), span.getEnd(), sp) == false) 
 			return null;
 		if (sp.size() == 1) return sp;
 		List<Span> outSpans = new ArrayList<>();
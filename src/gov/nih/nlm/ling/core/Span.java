@@ -97,8 +97,19 @@ public class Span implements Comparable<Span> {
 	 * @return  true if the Span objects have overlap
 	 */
 	public static boolean overlap(Span s1, Span s2) {
-		int s1s = s1.getBegin(); int s1e = s1.getEnd();
-		int s2s = s2.getBegin(); int s2e = s2.getEnd();
+		return overlap(s1.getBegin(),s1.getEnd(),s2.getBegin(),s2.getEnd());
+	}
+	
+	/**
+	 * Similar to {@link #overlap(Span, Span)}, but takes the character offsets of the spans as input.
+	 * 
+	 * @param s1s  the begin offset of the first span
+	 * @param s1e  the end offset of the first span
+	 * @param s2s  the begin offset of the second span
+	 * @param s2e  the end offset of the second span
+	 * @return  true if the spans have overlap
+	 */
+	public static boolean overlap(int s1s, int s1e, int s2s, int s2e) {
 		int len1 = s1e - s1s; int len2 = s2e - s2s;
 		return (( (s2s <= s1s && s1s < s2e) ||
 				( s2s < s1e && s1e <= s2e)) || 
@@ -113,10 +124,21 @@ public class Span implements Comparable<Span> {
 	 * @return  true if s1 subsumes s2, or s1 and s2 cover the same span.
 	 */
 	public static boolean subsume(Span s1, Span s2) {
-		int s1s = s1.getBegin(); int s1e = s1.getEnd();
-		int s2s = s2.getBegin(); int s2e = s2.getEnd();
+		return subsume(s1.getBegin(),s1.getEnd(),s2.getBegin(),s2.getEnd());
+	}
+	
+	/**
+	 * Similar to {@link #subsume(Span, Span)}, but takes the character offsets of the spans as input.
+	 * 
+	 * @param s1s  the begin offset of the first span
+	 * @param s1e  the end offset of the first span
+	 * @param s2s  the begin offset of the second span
+	 * @param s2e  the end offset of the second span
+	 * @return  true if the first span subsumes the second, or they cover the same span.
+	 */
+	public static boolean subsume(int s1s, int s1e, int s2s, int s2e) {
 		int len1 = s1e - s1s; int len2 = s2e - s2s;
-		return (s1.equals(s2) || (len1 > len2 && s1s <= s2s && s2e <= s1e));
+		return ((s1s == s2s && s1e == s2e) || (len1 > len2 && s1s <= s2s && s2e <= s1e));
 	}
 	
 	/**
@@ -1,9 +1,7 @@
 package gov.nih.nlm.ling.core;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -67,12 +65,18 @@ public class SpanList implements Comparable<SpanList> {
 	 * @param spanSeparator  delimiter for begin/end offsets for each span  
 	 */
 	public SpanList(String charOffset, char separator, char spanSeparator) {
-		List<String> spanStr= Arrays.asList(charOffset.split("[" + separator + "]+"));
-		this.spans = new ArrayList<Span>();
-		for (String s :spanStr) {
-			spans.add(new Span(s,spanSeparator));
+		this.spans = new ArrayList<Span>(1);
+		int len = charOffset.length();
+		int start = 0;
+		// consecutive separators are treated as one
+		while (start < len) {
+			int end = charOffset.indexOf(separator, start);
+			if (end < 0) end = len;
+			if (end > start) 
+				spans.add(new Span(charOffset.substring(start, end),spanSeparator));
+			start = end + 1;
 		}
-		Collections.sort(spans);
+		if (spans.size() > 1) Collections.sort(spans);
 	}
 	
 	/**
@@ -277,16 +281,57 @@ public class SpanList implements Comparable<SpanList> {
 	 * @return  true if the SpanList objects have overlap
 	 */
 	public static boolean overlap(SpanList s1, SpanList s2) {
-		if (s1.getSpans() == null || s2.getSpans() == null) return false;
-		for (Iterator<Span> iter = s1.spans.iterator(); iter.hasNext();) {
-            Span s = iter.next();
-            Span s3 = null;
-        	for (Iterator<Span> iter2 = s2.spans.iterator(); iter2.hasNext();) {
-        		s3 = iter2.next();
-        		if (Span.overlap(s,s3)) return true;  
-            }
-        }       
-        return false;
+		List<Span> sp1 = s1.getSpans();
+		List<Span> sp2 = s2.getSpans();
+		if (sp1 == null || sp2 == null) return false;
+		int size1 = sp1.size(); int size2 = sp2.size();
+		for (int i=0; i < size1; i++) {
+			Span s = sp1.get(i);
+			int sb = s.getBegin(); int se = s.getEnd();
+			for (int j=0; j < size2; j++) {
+				Span s3 = sp2.get(j);
+				if (Span.overlap(sb,se,s3.getBegin(),s3.getEnd())) return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Similar to {@link #overlap(SpanList, SpanList)}, where the first span list consists of a single span, 
+	 * given by its character offsets. 
+	 * 
+	 * @param begin  the begin offset of the single span
+	 * @param end  the end offset of the single span
+	 * @param s2  the second SpanList object
+	 * @return  true if the span and the SpanList object have overlap
+	 */
+	public static boolean overlap(int begin, int end, SpanList s2) {
+		List<Span> sp2 = s2.getSpans();
+		if (sp2 == null) return false;
+		for (int j=0; j < sp2.size(); j++) {
+			Span s3 = sp2.get(j);
+			if (Span.overlap(begin,end,s3.getBegin(),s3.getEnd())) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Similar to {@link #overlap(SpanList, SpanList)}, where the second span list consists of a single span, 
+	 * given by its character offsets. 
+	 * 
+	 * @param s1  the first SpanList object
+	 * @param begin  the begin offset of the single span
+	 * @param end  the end offset of the single span
+	 * @return  true if the SpanList object and the span have overlap
+	 */
+	public static boolean overlap(SpanList s1, int begin, int end) {
+		List<Span> sp1 = s1.getSpans();
+		if (sp1 == null) return false;
+		for (int i=0; i < sp1.size(); i++) {
+			Span s = sp1.get(i);
+			if (Span.overlap(s.getBegin(),s.getEnd(),begin,end)) return true;
+		}
+		return false;
 	}
 	
 	/**
@@ -297,23 +342,35 @@ public class SpanList implements Comparable<SpanList> {
 	 * @return  true if s1 subsumes s2.
 	 */
 	public static boolean subsume(SpanList s1, SpanList s2) {
-		if (s1.getSpans() == null || s2.getSpans() == null) return false;
-		for (Iterator<Span> iter = s2.spans.iterator(); iter.hasNext();) {
-			Span s = iter.next();
-			Span s3 = null;
-            boolean subsumed = false;
-        	for (Iterator<Span> iter2 = s1.spans.iterator(); iter2.hasNext();) {
-        		s3 = iter2.next();
-        		if (Span.subsume(s3,s)) {
-        			subsumed = true; 
-        			break;
-        		}
-            }
-        	if (!subsumed) return false;
-        } 
+		List<Span> sp1 = s1.getSpans();
+		List<Span> sp2 = s2.getSpans();
+		if (sp1 == null || sp2 == null) return false;
+		for (int i=0; i < sp2.size(); i++) {
+			Span s = sp2.get(i);
+			if (subsume(s1,s.getBegin(),s.getEnd()) == false) return false;
+		}
 		return true;
 	}
 	
+	/**
+	 * Similar to {@link #subsume(SpanList, SpanList)}, where the second span list consists of a single span, 
+	 * given by its character offsets. 
+	 * 
+	 * @param s1  the first SpanList object
+	 * @param begin  the begin offset of the single span
+	 * @param end  the end offset of the single span
+	 * @return  true if s1 subsumes the span.
+	 */
+	public static boolean subsume(SpanList s1, int begin, int end) {
+		List<Span> sp1 = s1.getSpans();
+		if (sp1 == null) return false;
+		for (int i=0; i < sp1.size(); i++) {
+			Span s3 = sp1.get(i);
+			if (Span.subsume(s3.getBegin(),s3.getEnd(),begin,end)) return true;
+		}
+		return false;
+	}
+	
 	/**
 	 * Determines whether the first SpanList object is to the left of the second in its entirety.
 	 * 
@@ -1,6 +1,7 @@
 package gov.nih.nlm.ling.core;
 
 import gov.nih.nlm.ling.graph.Node;
+import gov.nih.nlm.ling.sem.Relation;
 import gov.nih.nlm.ling.sem.SemanticItem;
 
 import java.util.Comparator;
@@ -115,6 +116,14 @@ public interface SurfaceElement extends Node, Comparable<SurfaceElement> {
 	 */
 	public LinkedHashSet<SemanticItem> filterSemanticsByClass(Class<? extends SemanticItem> clazz);
 	
+	/**
+	 * Gets all semantic items associated with this textual unit that are not of a given class. 
+	 * 
+	 * @param clazz  the semantic object class to exclude
+	 * @return  all semantic items associated with the textual unit that are not of the given class
+	 */
+	public LinkedHashSet<SemanticItem> filterSemanticsExcludingClass(Class<? extends SemanticItem> clazz);
+	
 	/**
 	 * @return  only <code>Entity</code> objects associated with the textual unit 
 	 * 
@@ -135,6 +144,12 @@ public interface SurfaceElement extends Node, Comparable<SurfaceElement> {
 	 */
 	public LinkedHashSet<SemanticItem> filterByRelations();
 	
+	/**
+	 * @param clazz  the relation class (<code>Conjunction</code>, etc.)
+	 * @return  only <code>Relation</code> objects of the given class.
+	 */
+	public LinkedHashSet<SemanticItem> filterRelationsByClass(Class<? extends Relation> clazz);
+	
 	/**
 	 * Finds the semantic items associated specifically with the head of the textual unit.<p>
 	 * This is usually the most prominent semantic object associated with the textual unit.
@@ -100,6 +100,8 @@ public class SynDependency implements Edge, Comparable<SynDependency> {
 		
 	private String id;
 	private String type;
+	private int typeCode = -1;
+	private int typeCategories;
 	private SurfaceElement governor;
 	private SurfaceElement dependent;
 
@@ -115,7 +117,7 @@ public class SynDependency implements Edge, Comparable<SynDependency> {
 								SurfaceElement governor, 
 								SurfaceElement dependent) {
 		this.id = id;
-		this.type = type;
+		setType(type);
 		this.governor = governor;
 		this.dependent = dependent;
 	}
@@ -124,7 +126,7 @@ public class SynDependency implements Edge, Comparable<SynDependency> {
 			Word governor, 
 			Word dependent) {
 		this.id = id;
-		this.type = type;
+		setType(type);
 		this.governor = governor;
 		this.dependent = dependent;
 	}
@@ -166,7 +168,27 @@ public class SynDependency implements Edge, Comparable<SynDependency> {
 	}
 	
 	public void setType(String type) {
-		this.type = type;
+		this.typeCode = DependencyTypeRegistry.getCode(type);
+		this.typeCategories = DependencyTypeRegistry.getCategories(typeCode);
+		this.type = (type == null ? null : DependencyTypeRegistry.getType(typeCode));
+	}
+	
+	/**
+	 * 
+	 * @return  the integer code of the dependency type (see {@link DependencyTypeRegistry})
+	 */
+	public int getTypeCode() {
+		return typeCode;
+	}
+	
+	/**
+	 * Checks whether the dependency type belongs to any of the given categories.
+	 * 
+	 * @param categories  a bitmask of {@link DependencyTypeRegistry} categories
+	 * @return  true if the dependency type is in at least one of the categories
+	 */
+	public boolean hasCategory(int categories) {
+		return (typeCategories & categories) != 0;
 	}
 	
 	public SurfaceElement getGovernor() {
@@ -198,8 +220,8 @@ public class SynDependency implements Edge, Comparable<SynDependency> {
 		else if (sd.getType().equals("advcl")) return 1;
 		if (type.equals("cc")) return -1;
 		else if (sd.getType().equals("cc")) return 1;
-		if (type.startsWith("conj_")) return -1;
-		else if (sd.getType().startsWith("conj_")) return 1;
+		if (hasCategory(DependencyTypeRegistry.CONJUNCTION)) return -1;
+		else if (sd.hasCategory(DependencyTypeRegistry.CONJUNCTION)) return 1;
 		SurfaceElement gov = sd.getGovernor();
 		SurfaceElement dep = sd.getDependent();
 		if (governor.equals(gov)) 
@@ -244,10 +266,10 @@ public class SynDependency implements Edge, Comparable<SynDependency> {
  	     (dependent == null ? 59 : dependent.hashCode()));
 	}
 	
-	private static boolean typeMatch(String type, String cat, boolean exact) {
-		if (type.equals(cat)) return true;
-		if (!exact && type.startsWith(cat)) return true;
-		return false;
+	// exact matches compare type codes, catCode is the code of cat (-1 if it has not been registered)
+	private static boolean typeMatch(SynDependency dep, String cat, int catCode, boolean exact) {
+		if (exact) return (catCode >= 0 && dep.typeCode == catCode);
+		return dep.getType().startsWith(cat);
 	}
 	
 	/**
@@ -368,8 +390,9 @@ public class SynDependency implements Edge, Comparable<SynDependency> {
 	public static List<SynDependency> dependenciesWithType(List<SynDependency> dependencies, String type, boolean exactMatch) {
 		List<SynDependency> outDeps = new ArrayList<>();
 		if (dependencies == null) return outDeps;
+		int code = DependencyTypeRegistry.findCode(type);
 		for (SynDependency dep: dependencies) {
-			if (typeMatch(dep.getType(),type,exactMatch)) {
+			if (typeMatch(dep,type,code,exactMatch)) {
 				outDeps.add(dep);
 			}
 		}
@@ -408,8 +431,9 @@ public class SynDependency implements Edge, Comparable<SynDependency> {
 		List<SynDependency> outDeps = new ArrayList<>();
 		if (dependencies == null) return outDeps;
 		List<SynDependency> deps = outDependencies(se, dependencies);
+		int code = DependencyTypeRegistry.findCode(type);
 		for (SynDependency dep: deps) {
-			if (typeMatch(dep.getType(),type,exactMatch)) {
+			if (typeMatch(dep,type,code,exactMatch)) {
 				outDeps.add(dep);
 			}
 		}
@@ -451,8 +475,9 @@ public class SynDependency implements Edge, Comparable<SynDependency> {
 		List<SynDependency> outDeps = new ArrayList<>();
 		if (dependencies == null) return outDeps;
 		List<SynDependency> deps = inDependencies(se, dependencies);
+		int code = DependencyTypeRegistry.findCode(type);
 		for (SynDependency dep: deps) {
-			if (typeMatch(dep.getType(),type,exactMatch)) {
+			if (typeMatch(dep,type,code,exactMatch)) {
 				outDeps.add(dep);
 			}
 		}
@@ -480,6 +505,62 @@ public class SynDependency implements Edge, Comparable<SynDependency> {
 		return outDeps;
 	}
 			
+	/**
+	 * Finds all dependencies within a list whose type belongs to any of the given categories.
+	 * 
+	 * @param dependencies  the dependency list to search for
+	 * @param categories  a bitmask of {@link DependencyTypeRegistry} categories
+	 * @return  the list of dependencies meeting the criteria in the order they appear in the list, 
+	 * 			or empty list if no such dependency
+	 */
+	public static List<SynDependency> dependenciesWithCategory(List<SynDependency> dependencies, int categories) {
+		List<SynDependency> outDeps = new ArrayList<>();
+		if (dependencies == null) return outDeps;
+		for (SynDependency dep: dependencies) {
+			if (dep.hasCategory(categories)) outDeps.add(dep);
+		}
+		return outDeps;
+	}
+	
+	/**
+	 * Similar to {@link #dependencies(SurfaceElement, List)}, adds the categories of the dependency type as a search criterion.
+	 * 
+	 * @param se			the textual unit whose dependencies are being searched for
+	 * @param dependencies  the dependency list to search for
+	 * @param categories  	a bitmask of {@link DependencyTypeRegistry} categories
+	 * @return  the list of dependencies meeting the criteria, or empty list if no such dependency
+	 */
+	public static List<SynDependency> dependenciesWithCategory(SurfaceElement se, List<SynDependency> dependencies, int categories) {
+		if (dependencies == null) return new ArrayList<>();
+		return dependenciesWithCategory(dependencies(se, dependencies), categories);
+	}
+	
+	/**
+	 * Similar to {@link #outDependencies(SurfaceElement, List)}, adds the categories of the dependency type as a search criterion.
+	 * 
+	 * @param se			the textual unit whose dependencies are being searched for
+	 * @param dependencies  the dependency list to search for
+	 * @param categories  	a bitmask of {@link DependencyTypeRegistry} categories
+	 * @return  the list of dependencies meeting the criteria, or empty list if no such dependency
+	 */
+	public static List<SynDependency> outDependenciesWithCategory(SurfaceElement se, List<SynDependency> dependencies, int categories) {
+		if (dependencies == null) return new ArrayList<>();
+		return dependenciesWithCategory(outDependencies(se, dependencies), categories);
+	}
+	
+	/**
+	 * Similar to {@link #inDependencies(SurfaceElement, List)}, adds the categories of the dependency type as a search criterion.
+	 * 
+	 * @param se			the textual unit whose dependencies are being searched for
+	 * @param dependencies  the dependency list to search for
+	 * @param categories  	a bitmask of {@link DependencyTypeRegistry} categories
+	 * @return  the list of dependencies meeting the criteria, or empty list if no such dependency
+	 */
+	public static List<SynDependency> inDependenciesWithCategory(SurfaceElement se, List<SynDependency> dependencies, int categories) {
+		if (dependencies == null) return new ArrayList<>();
+		return dependenciesWithCategory(inDependencies(se, dependencies), categories);
+	}
+	
 	/**
 	 * Recursively finds the dependency path between two textual units. The chain can be one-directional 
 	 * or the direction may be ignored. 
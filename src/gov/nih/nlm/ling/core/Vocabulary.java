@@ -0,0 +1,70 @@
+package gov.nih.nlm.ling.core;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A process-wide vocabulary of token strings, part-of-speech tags and lexemes.
+ * Tokens with the same text, part-of-speech or lemma share a single <code>String</code>
+ * and a single <code>WordLexeme</code> object, instead of each <code>Word</code> holding its own copy. <p>
+ *
+ * The vocabulary only refers to its strings and lexemes weakly, so an entry is discarded once no word
+ * uses it anymore, and the vocabulary does not grow with every token seen over a long run.
+ * <code>WordLexeme</code> objects are immutable, so sharing them is safe.
+ * The vocabulary is safe for concurrent use.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+public class Vocabulary {
+
+	private static final Map<String,WeakReference<String>> strings = new WeakHashMap<>();
+	// lexemes by the category they were requested with, then by lemma
+	// the lemma keys are the lemmas of the lexemes, so an entry lives as long as its lexeme
+	private static final Map<String,Map<String,WeakReference<WordLexeme>>> lexemes = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the shared instance of a string.
+	 *
+	 * @param str	the string
+	 * @return  the shared string equal to <var>str</var>, null if <var>str</var> is null
+	 */
+	public static String intern(String str) {
+		if (str == null) return null;
+		synchronized (strings) {
+			WeakReference<String> ref = strings.get(str);
+			String shared = (ref == null ? null : ref.get());
+			if (shared != null) return shared;
+			strings.put(str, new WeakReference<>(str));
+			return str;
+		}
+	}
+
+	/**
+	 * Gets the shared lexeme with the given lemma and category, creating it if it does not exist.
+	 *
+	 * @param lemma		the lemma
+	 * @param category	the category (part-of-speech), truncated as in {@link WordLexeme#WordLexeme(String, String)}
+	 * @return  the shared lexeme
+	 */
+	public static WordLexeme getLexeme(String lemma, String category) {
+		if (lemma == null || category == null) return new WordLexeme(lemma,category);
+		Map<String,WeakReference<WordLexeme>> categoryLexemes = lexemes.get(category);
+		if (categoryLexemes == null) {
+			categoryLexemes = new WeakHashMap<>();
+			Map<String,WeakReference<WordLexeme>> existing = lexemes.putIfAbsent(intern(category), categoryLexemes);
+			if (existing != null) categoryLexemes = existing;
+		}
+		synchronized (categoryLexemes) {
+			WeakReference<WordLexeme> ref = categoryLexemes.get(lemma);
+			WordLexeme lex = (ref == null ? null : ref.get());
+			if (lex != null) return lex;
+			String cat = (category.length() <= 2 ? category : category.substring(0,2));
+			lex = new WordLexeme(intern(lemma),intern(cat));
+			categoryLexemes.put(lex.getLemma(), new WeakReference<>(lex));
+			return lex;
+		}
+	}
+}
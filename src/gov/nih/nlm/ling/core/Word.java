@@ -1,6 +1,7 @@
 package gov.nih.nlm.ling.core;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import nu.xom.Attribute;
@@ -16,6 +17,7 @@ import nu.xom.Element;
 public class Word extends AbstractSurfaceElement implements ContiguousSurfaceElement {
 
 	private WordLexeme lexeme;
+	private List<Word> wordList;
 	
 	/**
 	 * Constructs a <code>Word</code> object.
@@ -25,8 +27,8 @@ public class Word extends AbstractSurfaceElement implements ContiguousSurfaceEle
 	 * @param lex	the lemma 
 	 */
 	public Word(String text, String pos, WordLexeme lex) {
-		this.text = text;
-		this.pos = pos;
+		this.text = Vocabulary.intern(text);
+		this.pos = Vocabulary.intern(pos);
 		this.lexeme = lex;
 	}
 	
@@ -66,10 +68,9 @@ public class Word extends AbstractSurfaceElement implements ContiguousSurfaceEle
 	 */
 	public Word(Element el) {
 		this.id = el.getAttributeValue("id");
-		this.text = el.getAttributeValue("text");
-		this.pos = el.getAttributeValue("POS");
-		String cat = (pos.length() > 1 ? pos.substring(0, 2) : pos);
-		this.lexeme = new WordLexeme(el.getAttributeValue("lemma"),cat);
+		this.text = Vocabulary.intern(el.getAttributeValue("text"));
+		this.pos = Vocabulary.intern(el.getAttributeValue("POS"));
+		this.lexeme = Vocabulary.getLexeme(el.getAttributeValue("lemma"),pos);
 		this.index = Integer.parseInt(id.substring(id.indexOf("_")+1));
 		this.span = new SpanList(el.getAttributeValue("charOffset"));
 	}
@@ -78,10 +79,12 @@ public class Word extends AbstractSurfaceElement implements ContiguousSurfaceEle
 		return this;
 	}
 		
+	/**
+	 * @return  an unmodifiable single-element list of this word, shared between calls
+	 */
 	public List<Word> toWordList() {
-		List<Word> words = new ArrayList<Word>();
-		words.add(this);
-		return words;
+		if (wordList == null) wordList = Collections.singletonList(this);
+		return wordList;
 	}
 	
 	public List<Word> toWordList(String cat) {
@@ -44,6 +44,8 @@ public class IndicatorAnnotator implements TermAnnotator {
 	private boolean ignorePOS = false;
 	private boolean allowMultipleAnnotations = true;
 	private boolean postHyphenMatch = true;
+	// the indicators in annotation order, computed once for the current indicator set
+	private volatile SortedIndicators sortedIndicators;
 		
 	public IndicatorAnnotator() {}
 	
@@ -109,9 +111,8 @@ public class IndicatorAnnotator implements TermAnnotator {
 			Map<SpanList,LinkedHashSet<Ontology>> annotations) {
 		if (indicators == null)
 			throw new IllegalStateException("No indicators have been loaded for annotation.");
-		List<Indicator> indicatorList = new ArrayList<>(indicators);
 		// Annotate the larger indicators first
-		Collections.sort(indicatorList,Indicator.LENGTH_ORDER);
+		List<Indicator> indicatorList = getSortedIndicators();
 		LinkedHashSet<String> seenIndLemmas = new LinkedHashSet<>();
 		for (Indicator ind: indicatorList) {
 			if (ignorePOS && seenIndLemmas.contains(ind.getLexeme().getLemma())) {
@@ -131,6 +132,31 @@ public class IndicatorAnnotator implements TermAnnotator {
 		}
 	}
 
+	// the indicators sorted by length, recomputed if the indicator set has been replaced or resized
+	private List<Indicator> getSortedIndicators() {
+		LinkedHashSet<Indicator> inds = indicators;
+		SortedIndicators sorted = sortedIndicators;
+		if (sorted == null || sorted.indicators != inds || sorted.size != inds.size()) {
+			List<Indicator> indicatorList = new ArrayList<>(inds);
+			Collections.sort(indicatorList,Indicator.LENGTH_ORDER);
+			sorted = new SortedIndicators(inds,Collections.unmodifiableList(indicatorList));
+			sortedIndicators = sorted;
+		}
+		return sorted.list;
+	}
+	
+	private static class SortedIndicators {
+		private final LinkedHashSet<Indicator> indicators;
+		private final int size;
+		private final List<Indicator> list;
+		
+		private SortedIndicators(LinkedHashSet<Indicator> indicators, List<Indicator> list) {
+			this.indicators = indicators;
+			this.size = list.size();
+			this.list = list;
+		}
+	}
+
 	/**
 	 * Annotates a given <code>Document</code> with the loaded indicators and 
 	 * creates the corresponding <code>Predicate</code> objects for the mentions, as well.
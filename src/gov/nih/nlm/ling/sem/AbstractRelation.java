@@ -3,10 +3,14 @@ package gov.nih.nlm.ling.sem;
 import gov.nih.nlm.ling.composition.EmbeddingCategorization;
 import gov.nih.nlm.ling.core.Document;
 import gov.nih.nlm.ling.core.SpanList;
+import gov.nih.nlm.ling.core.SurfaceElement;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -75,12 +79,69 @@ public abstract class AbstractRelation implements Relation {
 	}
 
 	public void setId(String id) {
+		String old = this.id;
 		this.id = id;
+		if (old == null ? id != null : old.equals(id) == false) identifierChanged();
+	}
+	
+	/**
+	 * Notifies the document of the relation, found through its predicate or its arguments, that
+	 * the identifier of the relation has changed. If no document is found, the relation does not belong 
+	 * to one yet, and the document indexes it with its current identifier when it is added.
+	 */
+	protected void identifierChanged() {
+		Document doc = getKnownDocument();
+		if (doc != null) doc.identifierChanged(this);
+	}
+	
+	/**
+	 * Notifies the document of the relation, found through its predicate or its arguments, that
+	 * the arguments of the relation have changed. If no document is found, the relation does not belong 
+	 * to one yet, and the document indexes it with its current arguments when it is added.
+	 */
+	protected void argumentsChanged() {
+		Document doc = getKnownDocument();
+		if (doc != null) doc.argumentsChanged(this);
+	}
+	
+	// the document of the first term reached through the predicate or the arguments, 
+	// descending into relation arguments
+	private Document getKnownDocument() {
+		return getKnownDocument(this, Collections.newSetFromMap(new IdentityHashMap<SemanticItem,Boolean>()));
+	}
+	
+	private static Document getKnownDocument(AbstractRelation rel, Set<SemanticItem> visited) {
+		if (visited.add(rel) == false) return null;
+		Document doc = null;
+		if (rel instanceof HasPredicate) doc = getTermDocument(((HasPredicate)rel).getPredicate());
+		if (doc != null || rel.arguments == null) return doc;
+		for (Argument arg: rel.arguments) {
+			doc = getTermDocument(arg.getArg());
+			if (doc != null) return doc;
+		}
+		for (Argument arg: rel.arguments) {
+			SemanticItem si = arg.getArg();
+			if (si instanceof AbstractRelation == false) continue;
+			doc = getKnownDocument((AbstractRelation)si, visited);
+			if (doc != null) return doc;
+		}
+		return null;
+	}
+	
+	private static Document getTermDocument(SemanticItem si) {
+		if (si instanceof Term == false) return null;
+		SurfaceElement surf = ((Term)si).getSurfaceElement();
+		if (surf == null || surf.getSentence() == null) return null;
+		return surf.getSentence().getDocument();
 	}
 
 	public String getType() {
 		return type;
 	}
+	
+	public BitSet getSemtypeBits() {
+		return SemtypeRegistry.getBits(getAllSemtypes());
+	}
 
 	public void setType(String type) {
 		this.type = type;
@@ -161,6 +222,7 @@ public abstract class AbstractRelation implements Relation {
 	@Override
 	public void setArguments(List<Argument> arguments) {
 		this.arguments = arguments;
+		argumentsChanged();
 	}
 	
 	@Override
@@ -169,6 +231,7 @@ public abstract class AbstractRelation implements Relation {
 			this.arguments = arguments;
 		}
 		this.arguments.addAll(arguments);	
+		argumentsChanged();
 	}
 	
 	@Override
@@ -187,6 +250,7 @@ public abstract class AbstractRelation implements Relation {
 		int ind = arguments.indexOf(remove);
 		if (ind >= 0) {
 			arguments.remove(ind);
+			argumentsChanged();
 		}
 	}
 	
@@ -195,6 +259,7 @@ public abstract class AbstractRelation implements Relation {
 			arguments = new ArrayList<Argument>();
 		}
 		arguments.add(arg);	
+		argumentsChanged();
 	}
 	
 	/**
@@ -317,7 +382,7 @@ public abstract class AbstractRelation implements Relation {
 			if (ed.getType().equals(type) || ed.getFullName().equals(type)) return ed;
 		}
 		for (RelationDefinition ed: defs) {
-			if (EmbeddingCategorization.getAllDescendants(ed.getType()).contains(type)) return ed;
+			if (EmbeddingCategorization.isA(type,ed.getType())) return ed;
 		}
 		return null;
 	}
@@ -1,8 +1,10 @@
 package gov.nih.nlm.ling.sem;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 
+import gov.nih.nlm.ling.core.AbstractSurfaceElement;
 import gov.nih.nlm.ling.core.Document;
 import gov.nih.nlm.ling.core.Span;
 import gov.nih.nlm.ling.core.SpanList;
@@ -74,7 +76,9 @@ public abstract class AbstractTerm implements Term {
 
 	@Override
 	public void setId(String id) {
+		String old = this.id;
 		this.id = id;
+		if (old == null ? id != null : old.equals(id) == false) identifierChanged();
 	}
 
 	@Override
@@ -82,6 +86,10 @@ public abstract class AbstractTerm implements Term {
 		return type;
 	}
 	
+	public BitSet getSemtypeBits() {
+		return SemtypeRegistry.getBits(getAllSemtypes());
+	}
+	
 	@Override
 	public void setType(String type) {
 		this.type = type;
@@ -127,6 +135,9 @@ public abstract class AbstractTerm implements Term {
 
 	public void setSpan(SpanList span) {
 		this.span = span;
+		ontologyChanged();
+		if (surfaceElement instanceof AbstractSurfaceElement) 
+			((AbstractSurfaceElement)surfaceElement).semanticsChanged();
 	}
 
 	@Override
@@ -150,7 +161,29 @@ public abstract class AbstractTerm implements Term {
 
 	@Override
 	public void setSurfaceElement(SurfaceElement surfaceElement) {
+		ontologyChanged();
 		this.surfaceElement = surfaceElement;
+		ontologyChanged();
+	}
+	
+	/**
+	 * Notifies the document of the term, if known, that the text or the sense of the term has changed.
+	 */
+	protected void ontologyChanged() {
+		if (surfaceElement == null || surfaceElement.getSentence() == null) return;
+		Document doc = surfaceElement.getSentence().getDocument();
+		if (doc != null) doc.ontologyChanged();
+	}
+	
+	/**
+	 * Notifies the document of the term that the identifier of the term has changed. A term without
+	 * a document does not belong to one yet, and is indexed with its current identifier when it is added.
+	 */
+	protected void identifierChanged() {
+		Document doc = null;
+		if (surfaceElement != null && surfaceElement.getSentence() != null) 
+			doc = surfaceElement.getSentence().getDocument();
+		if (doc != null) doc.identifierChanged(this);
 	}
 	
 	@Override
@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Set;
 
 import edu.stanford.nlp.trees.Tree;
+import gov.nih.nlm.ling.core.DependencyTypeRegistry;
 import gov.nih.nlm.ling.core.Document;
 import gov.nih.nlm.ling.core.Sentence;
 import gov.nih.nlm.ling.core.Span;
@@ -70,8 +71,8 @@ public class AppositiveDetection {
 	 * @return		true if there is an appositive dependency involving the textual unit
 	 */
 	public static boolean hasSyntacticAppositives(SurfaceElement surf) {
-		return (SynDependency.dependenciesWithTypes(surf, surf.getSentence().getEmbeddings(), 
-				SynDependency.APPOS_DEPENDENCIES, true).size() > 0);
+		return (SynDependency.dependenciesWithCategory(surf, surf.getSentence().getEmbeddings(), 
+				DependencyTypeRegistry.APPOSITIVE).size() > 0);
 	}
 	
 	/**
@@ -81,8 +82,8 @@ public class AppositiveDetection {
 	 * @return		true if there is an exemplification dependency involving the textual unit
 	 */
 	public static boolean hasSyntacticExemplifications(SurfaceElement surf) {
-		return (SynDependency.dependenciesWithTypes(surf, surf.getSentence().getEmbeddings(), 
-				SynDependency.EXEMPLIFY_DEPENDENCIES, true).size() > 0);
+		return (SynDependency.dependenciesWithCategory(surf, surf.getSentence().getEmbeddings(), 
+				DependencyTypeRegistry.EXEMPLIFY).size() > 0);
 	}
 	
 	/**
@@ -5,6 +5,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.logging.Level;
@@ -47,6 +48,8 @@ public class Concept implements Ontology {
 	private String name;
 	private LinkedHashSet<String> semtypes;
 	private String source;
+	private BitSet semtypeBits;
+	private int semtypeBitsSize = -1;
 	
 	public static List<String> conceptHierarchy = null;
 	
@@ -99,6 +102,22 @@ public class Concept implements Ontology {
 	public LinkedHashSet<String> getSemtypes() {
 		return semtypes;
 	}
+	
+	/**
+	 * Gets the semantic types of the concept as a bitset, based on {@link SemtypeRegistry} identifiers.
+	 * The bitset is computed once and recomputed only if the number of semantic types changes.
+	 * It should not be modified.
+	 * 
+	 * @return  the semantic types as a bitset
+	 */
+	public synchronized BitSet getSemtypeBits() {
+		int size = (semtypes == null ? 0 : semtypes.size());
+		if (semtypeBits == null || semtypeBitsSize != size) {
+			semtypeBits = SemtypeRegistry.getBits(semtypes);
+			semtypeBitsSize = size;
+		}
+		return semtypeBits;
+	}
 
 	public String getSource() {
 		return source;
@@ -3,8 +3,10 @@ package gov.nih.nlm.ling.sem;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -12,6 +14,7 @@ import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import gov.nih.nlm.ling.core.DependencyTypeRegistry;
 import gov.nih.nlm.ling.core.Document;
 import gov.nih.nlm.ling.core.Section;
 import gov.nih.nlm.ling.core.Sentence;
@@ -62,12 +65,12 @@ public class ConjunctionDetection {
 	 * 
 	 * @deprecated	{@code #identifyConjunctionRelationsFromTransformation(Sentence)}
 	 */
-	public static synchronized void identifyConjunctions(Sentence sent) {
+	public static void identifyConjunctions(Sentence sent) {
 		Document doc = sent.getDocument();
 		SemanticItemFactory sif = doc.getSemanticItemFactory();
 		List<SynDependency> embeddings = sent.getEmbeddings();
 		for (SynDependency e: embeddings) {
-			if (e.getType().startsWith("conj_")) {
+			if (e.hasCategory(DependencyTypeRegistry.CONJUNCTION)) {
 				SurfaceElement gov = e.getGovernor();
 				SurfaceElement dep = e.getDependent();
 				Set<SemanticItem> govSem = gov.getSemantics();
@@ -109,7 +112,7 @@ public class ConjunctionDetection {
 	 * 
 	 * @param sent	the sentence to annotate
 	 */
-	public static synchronized void identifyConjunctionRelationsFromTransformation(Sentence sent) {
+	public static void identifyConjunctionRelationsFromTransformation(Sentence sent) {
 		if (sent == null || sent.getSurfaceElements() == null) return;
 		List<Class<? extends DependencyTransformation>> applied = sent.getTransformations();
 		if (applied.contains(CoordinationTransformation.class) == false) {
@@ -157,7 +160,7 @@ public class ConjunctionDetection {
 	// If multiple conjunction relations only separated by punctuations or coordinators have been generated,
 	// this can consolidate them into a single conjunction, provided that the elements are semantically consonant.
 	// TODO may consider removal, as it had little positive influence on SPL training set (0.4839 vs. 0.4871 for anaphora)
-	private static synchronized void consolidateConjunctions(List<Conjunction> conjs) {
+	private static void consolidateConjunctions(List<Conjunction> conjs) {
 		if (conjs == null || conjs.size() ==0) return;
 		List<List<Conjunction>> consolidated = new ArrayList<List<Conjunction>>();
 		Document doc = conjs.get(0).getDocument();
@@ -206,8 +209,8 @@ public class ConjunctionDetection {
 			}
 			Predicate pr1 = doc.getSemanticItemFactory().newPredicate(doc, pr.getSpan(),pr.getHeadSpan(),pr.getText()); 
 			Conjunction nc = doc.getSemanticItemFactory().newConjunction(doc, type, pr1, allArgItems);
+			doc.removeSemanticItems(remove);
 			for (Conjunction rm: remove) {
-				doc.removeSemanticItem(rm);
 				log.log(Level.FINEST,"Consolidating existing conjunction relation {0} into new conjunction relation {1}.", new Object[]{rm.toShortString(),nc.toShortString()});
 			}
 		}
@@ -221,7 +224,7 @@ public class ConjunctionDetection {
 	 * @param doc	the document to annotate
 	 */
 	// TODO Specific to SPL data, needs to be expanded to be generally useful
-	public static synchronized void identifyDiscourseLevelConjunctions(Document doc) {
+	public static void identifyDiscourseLevelConjunctions(Document doc) {
 		List<Section> sections = doc.getSections();
 		if (sections == null) return;
 		// for now, only entities
@@ -237,7 +240,7 @@ public class ConjunctionDetection {
 		}
 	}
 	
-/*	public static synchronized void identifyDiscourseLevelConjunctionsInSection(Document doc, Section section) {
+/*	public static void identifyDiscourseLevelConjunctionsInSection(Document doc, Section section) {
 		SemanticItemFactory sif = doc.getSemanticItemFactory();
 		Map<String,List<Entity>> entityGroups = new HashMap<String,List<Entity>>();
 		Span sectSpan = section.getSpan();
@@ -332,8 +335,8 @@ public class ConjunctionDetection {
 					log.debug("DISCOURSE LEVEL CONJUNCTION: " + discRel.toString());
 					for (SemanticItem rm: remove) {
 						log.debug("REPLACED, SO REMOVING: " + rm.toString());
-						doc.removeSemanticItem(rm);
 					}
+					doc.removeSemanticItems(remove);
 				}
 			}
 		}
@@ -350,7 +353,7 @@ public class ConjunctionDetection {
 	 */
 	// TODO Find a way perhaps of making sure semantic objects created here do not conflict with regular Conjunction objects.
 	// TODO Use ImplicitRelation
-	public static synchronized void identifyDiscourseLevelConjunctionsInSection(Document doc, Section section) {
+	public static void identifyDiscourseLevelConjunctionsInSection(Document doc, Section section) {
 		SemanticItemFactory sif = doc.getSemanticItemFactory();
 		Map<String,List<Entity>> entityGroups = new HashMap<String,List<Entity>>();
 		Span sectSpan = section.getTextSpan();
@@ -397,8 +400,8 @@ public class ConjunctionDetection {
 				log.log(Level.FINE,"Discourse-level conjunction generated: {0}.", new Object[]{discRel.toShortString()});
 				for (SemanticItem rm: remove) {
 					log.log(Level.FINER,"Replaced {0} with {1}.", new Object[]{rm.toShortString(),discRel.toShortString()});
-					doc.removeSemanticItem(rm);
 				}
+				doc.removeSemanticItems(remove);
 			}
 		}
 	}
@@ -422,18 +425,13 @@ public class ConjunctionDetection {
 	
 	/**
 	 * Finds <code>Conjunction</code> objects indicated by the textual unit <var>coord</var> (the coordinator).
+	 * The result is cached with the relations of the textual unit and should not be modified.
 	 * 
 	 * @param coord	a textual unit
 	 * @return		the set of <code>Conjunction</code> objects, or empty set if none
 	 */
 	public static LinkedHashSet<SemanticItem> filterByConjunctions(SurfaceElement coord) {
-		LinkedHashSet<SemanticItem> conjs = new LinkedHashSet<>();
-		LinkedHashSet<SemanticItem> rels = coord.filterByRelations();
-		if (rels == null || rels.size() ==0) return conjs;
-		for (SemanticItem rel: rels) {
-			if (rel instanceof Conjunction) conjs.add(rel); 
-		}
-		return conjs;
+		return coord.filterRelationsByClass(Conjunction.class);
 	}
 	
 	/**
@@ -466,9 +464,13 @@ public class ConjunctionDetection {
 		LinkedHashSet<SurfaceElement> conjoined = new LinkedHashSet<>();
 		LinkedHashSet<SemanticItem> conjs = Document.getSemanticItemsByClass(d, Conjunction.class);
 		if (conjs.size() == 0) return conjoined;
+		// conjunction relations indicated by the same coordinator have the same conjuncts
+		Set<SurfaceElement> coords = Collections.newSetFromMap(new IdentityHashMap<SurfaceElement,Boolean>());
 		for (SemanticItem c: conjs) {
 			Conjunction conj = (Conjunction)c;
-			conjoined = getConjunctSurfaceElements(conj.getPredicate().getSurfaceElement());
+			SurfaceElement coord = conj.getPredicate().getSurfaceElement();
+			if (coords.add(coord) == false) continue;
+			conjoined = getConjunctSurfaceElements(coord);
 			if (conjoined.contains(conjunct)) {
 				conjoined.remove(conjunct);
 				return conjoined;
@@ -488,12 +490,20 @@ public class ConjunctionDetection {
 	 */
 	public static boolean isConjunctionArgument(SurfaceElement coord, SurfaceElement surf) {
 		if (surf.hasSemantics() == false) return false;
-		LinkedHashSet<SemanticItem> args = getConjunctionArguments(coord);
-		if (args.size() == 0) return false;
-		for (SemanticItem arg: args) {
-			// Not sure why contains() did not work here. 
-			for (SemanticItem c: surf.getSemantics())
-				if (c.equals(arg)) return true;
+		LinkedHashSet<SemanticItem> conjs = filterByConjunctions(coord);
+		if (conjs.size() == 0) return false;
+		// hash-based lookups are not reliable, since the hash codes of relations change with their arguments.
+		// Semantic items are only equal if their identifiers are, so these are compared first.
+		LinkedHashSet<SemanticItem> sems = surf.getSemantics();
+		Set<String> ids = new HashSet<>();
+		for (SemanticItem c: sems) 
+			ids.add(c.getId());
+		for (SemanticItem conj: conjs) {
+			for (SemanticItem arg: ((Conjunction)conj).getArgItems()) {
+				if (ids.contains(arg.getId()) == false) continue;
+				for (SemanticItem c: sems)
+					if (c.equals(arg)) return true;
+			}
 		}
 		return false;
 	}
@@ -538,15 +548,7 @@ public class ConjunctionDetection {
 	 */
 	public static Conjunction getConjunctionsWithSemanticItem(Document doc, SemanticItem sem) {
 		if (doc.getSemanticItems() == null) return null;
-		LinkedHashSet<SemanticItem> conjs = Document.getSemanticItemsByClass(doc, Conjunction.class);
-		if (conjs.size() == 0) return null;
-		for (SemanticItem c: conjs) {
-			Conjunction conj = (Conjunction)c;
-			Predicate pred = conj.getPredicate();
-			if ( (pred != null && conj.getPredicate().equals(sem)) || conj.getArgItems().contains(sem) )
-				return conj;
-		}
-		return null;
+		return doc.getConjunction(sem);
 	}
 	
 	/**
@@ -580,7 +582,7 @@ public class ConjunctionDetection {
 	 * @return			the coordinator if any, null otherwise
 	 */
 	public static SurfaceElement conjSurfaceElement(Sentence sent, SynDependency synDep) {
-		if (synDep.getType().startsWith("conj_") == false) return null;
+		if (synDep.hasCategory(DependencyTypeRegistry.CONJUNCTION) == false) return null;
 		SurfaceElement gov = synDep.getGovernor();
 		SurfaceElement dep = synDep.getDependent();
 		SurfaceElement left = (SpanList.atLeft(gov.getSpan(),dep.getSpan()) ? gov : dep);
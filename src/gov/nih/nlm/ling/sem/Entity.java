@@ -1,6 +1,7 @@
 package gov.nih.nlm.ling.sem;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -80,6 +81,7 @@ public class Entity extends AbstractTerm {
 
 	public void setSense(Concept sense) {
 		this.sense = sense;
+		ontologyChanged();
 	}
 
 	/**
@@ -111,6 +113,24 @@ public class Entity extends AbstractTerm {
 		}
 		return semtypes;
 	}
+	
+	/**
+	 * Similar to {@link #getAllSemtypes()}, but uses the semantic type bitsets of the concepts.
+	 * 
+	 * @return  all semantic types, as a bitset
+	 */
+	public BitSet getSemtypeBits() {
+		if (concepts == null || concepts.size() == 0) {
+			if (sense == null) return SemtypeRegistry.getBits(type);
+			return sense.getSemtypeBits();
+		}
+		if (concepts.size() == 1) return concepts.iterator().next().getSemtypeBits();
+		BitSet bits = new BitSet();
+		for (Concept c: concepts) {
+			bits.or(c.getSemtypeBits());
+		}
+		return bits;
+	}
 		
 	public String toString() {
 		StringBuffer buf = new StringBuffer();
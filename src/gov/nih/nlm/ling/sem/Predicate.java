@@ -92,6 +92,7 @@ public class Predicate extends AbstractTerm {
 
 	public void setSense(Sense sense) {
 		this.sense = sense;
+		ontologyChanged();
 	}
 	
 	
@@ -14,6 +14,7 @@ import java.util.List;
 public interface Relation extends SemanticItem {
 	/**
 	 * Returns the arguments of the relation (a role-semantic item pair).
+	 * The arguments should be changed through the methods of the relation, so that its document is notified.
 	 * 
 	 * @return the list of arguments
 	 */
@@ -1,5 +1,6 @@
 package gov.nih.nlm.ling.sem;
 
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
 
@@ -42,6 +43,15 @@ public interface SemanticItem extends Comparable<SemanticItem> {
 	 */
 	public LinkedHashSet<String> getAllSemtypes();
 	
+	/**
+	 * Gets all semantic types associated with the semantic item as a bitset, using
+	 * the identifiers assigned by {@link SemtypeRegistry}. The returned bitset may be shared 
+	 * and should not be modified.
+	 * 
+	 * @return all semantic types associated with the semantic item, as a bitset
+	 */
+	public BitSet getSemtypeBits();
+	
 	/**
 	 * 
 	 * @return  the primary semantic type associated with the semantic item
@@ -0,0 +1,110 @@
+package gov.nih.nlm.ling.sem;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A global registry that interns semantic types into small integer identifiers, so that
+ * sets of semantic types can be represented as bitsets and compared with bit operations. <p>
+ *
+ * The semantic types defined in the domain properties (<i>domain.semtype.*</i>) are registered
+ * first, so they get the smallest identifiers. Other semantic types are registered as they are encountered.
+ * The registry is safe for concurrent use.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+public class SemtypeRegistry {
+
+	// null semantic types are registered as well, under this key
+	private static final String NULL_KEY = "\u0000";
+	
+	private static final Map<String,Integer> ids = new ConcurrentHashMap<>();
+	private static final List<String> semtypes = new ArrayList<>();
+	private static final List<BitSet> singletons = new ArrayList<>();
+
+	static {
+		Map<String,List<String>> domainSemtypes = DomainProperties.parse2("semtype");
+		for (String group: domainSemtypes.keySet()) {
+			for (String s: domainSemtypes.get(group))
+				getId(s);
+		}
+	}
+
+	/**
+	 * Gets the identifier of a semantic type, registering the semantic type if it has not been seen before.
+	 *
+	 * @param semtype	the semantic type
+	 * @return  the identifier of the semantic type
+	 */
+	public static int getId(String semtype) {
+		String key = (semtype == null ? NULL_KEY : semtype);
+		Integer id = ids.get(key);
+		if (id != null) return id;
+		synchronized (semtypes) {
+			id = ids.get(key);
+			if (id != null) return id;
+			id = semtypes.size();
+			semtypes.add(semtype);
+			BitSet bits = new BitSet(id+1);
+			bits.set(id);
+			singletons.add(bits);
+			ids.put(key, id);
+			return id;
+		}
+	}
+
+	/**
+	 *
+	 * @param id	a semantic type identifier
+	 * @return  the semantic type with the identifier, null if no such semantic type has been registered
+	 */
+	public static String getSemtype(int id) {
+		synchronized (semtypes) {
+			if (id < 0 || id >= semtypes.size()) return null;
+			return semtypes.get(id);
+		}
+	}
+
+	/**
+	 * Gets the bitset representation of a single semantic type. The returned bitset is shared and should not be modified.
+	 *
+	 * @param semtype	the semantic type
+	 * @return  the bitset with the bit of <var>semtype</var> set
+	 */
+	public static BitSet getBits(String semtype) {
+		int id = getId(semtype);
+		synchronized (semtypes) {
+			return singletons.get(id);
+		}
+	}
+
+	/**
+	 * Gets the bitset representation of a collection of semantic types.
+	 *
+	 * @param semtypes	the semantic types
+	 * @return  a new bitset with the bits of <var>semtypes</var> set
+	 */
+	public static BitSet getBits(Collection<String> semtypes) {
+		BitSet bits = new BitSet();
+		if (semtypes == null) return bits;
+		for (String s: semtypes)
+			bits.set(getId(s));
+		return bits;
+	}
+
+	/**
+	 *
+	 * @param bits	a bitset of semantic types
+	 * @param semtype	the semantic type to check
+	 * @return  true if <var>semtype</var> is in the bitset
+	 */
+	public static boolean contains(BitSet bits, String semtype) {
+		Integer id = ids.get(semtype == null ? NULL_KEY : semtype);
+		return (id != null && bits.get(id));
+	}
+}
@@ -165,7 +165,7 @@ public class Sense implements Ontology, Comparable<Sense> {
 	 * 		   in the embedding categorization
 	 */
 	public boolean isDiscourseConnective() {
-		return EmbeddingCategorization.getAllDescendants("RELATIONAL").contains(category);
+		return EmbeddingCategorization.isA(category,"RELATIONAL");
 	}
 	
 	/**
@@ -8,6 +8,7 @@ import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import gov.nih.nlm.ling.core.DependencyTypeRegistry;
 import gov.nih.nlm.ling.core.Sentence;
 import gov.nih.nlm.ling.core.SurfaceElement;
 import gov.nih.nlm.ling.core.SynDependency;
@@ -53,7 +54,7 @@ public class CoordinationTransformation implements DependencyTransformation {
 		List<SynDependency> markedForRemoval = new ArrayList<>();
 		List<SynDependency> markedForAddition = new ArrayList<>();
 		for (SynDependency e: embeddings) {
-			if (e.getType().startsWith("conj_")) {
+			if (e.hasCategory(DependencyTypeRegistry.CONJUNCTION)) {
 				SurfaceElement conj = ConjunctionDetection.conjSurfaceElement(sent, e);
 				if (conj == null) {
 					log.log(Level.FINE,"Skipping..Unable to find the conjunction token for the dependency: {0}. ", new Object[]{e.toString()});
@@ -7,6 +7,7 @@ import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import gov.nih.nlm.ling.core.DependencyTypeRegistry;
 import gov.nih.nlm.ling.core.Sentence;
 import gov.nih.nlm.ling.core.SurfaceElement;
 import gov.nih.nlm.ling.core.SynDependency;
@@ -70,7 +71,7 @@ public class ModifierCoordinationCorrection implements DependencyTransformation
 			// with conj dependencies, gov is the token on the left
 			SurfaceElement gov = sd.getGovernor();
 			SurfaceElement dep = sd.getDependent();
-			if (sd.getType().startsWith("conj_")) {
+			if (sd.hasCategory(DependencyTypeRegistry.CONJUNCTION)) {
 				Set<SemanticItem> govEntities= gov.filterByEntities();
 				Set<SemanticItem> depEntities = dep.filterByEntities();
 				Set<SemanticItem> govPreds= gov.filterByPredicates();
@@ -9,6 +9,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import gov.nih.nlm.ling.core.AbstractSurfaceElement;
+import gov.nih.nlm.ling.core.DependencyTypeRegistry;
 import gov.nih.nlm.ling.core.Sentence;
 import gov.nih.nlm.ling.core.Span;
 import gov.nih.nlm.ling.core.SpanList;
@@ -166,7 +167,7 @@ public class PPAttachmentCorrection implements DependencyTransformation {
 		
 		for (SynDependency em: embeddings) {
 			String type = em.getType();
-			if (type.startsWith("prep") || type.startsWith("prepc")) {
+			if (em.hasCategory(DependencyTypeRegistry.PREPOSITIONAL)) {
 				String prep = type.substring(type.indexOf("_")+1).replaceAll("_", " ");
 				SurfaceElement gov = em.getGovernor();
 				SurfaceElement dep = em.getDependent();
@@ -70,6 +70,7 @@ public class PolarityComposition implements DependencyTransformation {
 		List<SynDependency> embeddings = sent.getEmbeddings();
 		Document doc = sent.getDocument();
 		Predicate remove = null;
+		LinkedHashSet<SemanticItem> removed = new LinkedHashSet<>();
 		SpanList nsp = null;
 		for (SurfaceElement su: surfs) {
 			LinkedHashSet<SemanticItem> polarShifters= 
@@ -101,11 +102,11 @@ public class PolarityComposition implements DependencyTransformation {
 					pc.setType(ntype);
 				}
 			}
-			if (remove!=null) {
+			if (remove!=null && removed.add(remove)) {
 				log.log(Level.FINE,"Removing semantic item due to polarity composition: {0}.", new Object[]{remove.toString()});
-				doc.removeSemanticItem(remove);
 			}
 		}
+		doc.removeSemanticItems(removed);
 		sent.addTransformation(this.getClass());
 	}	
 	
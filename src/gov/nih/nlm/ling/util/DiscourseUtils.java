@@ -40,8 +40,8 @@ public class DiscourseUtils {
 		Document doc = a.getDocument();
 		if (!(b.getDocument().equals(doc))) return false;
 		if (n>=0 && a.equals(b)) return true;
-		int aind = doc.getSentences().indexOf(a);
-		int bind = doc.getSentences().indexOf(b);
+		int aind = doc.getSentenceIndex(a);
+		int bind = doc.getSentenceIndex(b);
 		return (Math.abs(aind-bind) <= n);
 	}
 
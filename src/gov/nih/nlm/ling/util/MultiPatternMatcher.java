@@ -0,0 +1,144 @@
+package gov.nih.nlm.ling.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An Aho-Corasick automaton that finds all occurrences of a list of strings in a text in a single pass. <p>
+ * Matching is exact and case-sensitive. Occurrences of a string may overlap with each other and with occurrences
+ * of other strings. Empty strings are never matched. The automaton is immutable once it is built,
+ * and can be shared across threads.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+public class MultiPatternMatcher {
+
+	private final int patternCount;
+	private final int[] patternLengths;
+	// transitions, keyed by the state and the character
+	private final Map<Long,Integer> transitions = new HashMap<>();
+	private final int[] failure;
+	// the pattern that ends at a state, -1 if none
+	private final int[] output;
+	// the nearest state on the failure path with a pattern, -1 if none
+	private final int[] outputLink;
+
+	/**
+	 * Builds the automaton for a list of strings.
+	 *
+	 * @param patterns	the strings to match, identified by their position in the list. If a string is repeated, 
+	 * 					only its first position is reported.
+	 */
+	public MultiPatternMatcher(List<String> patterns) {
+		this.patternCount = patterns.size();
+		this.patternLengths = new int[patternCount];
+		List<Integer> outputs = new ArrayList<>();
+		outputs.add(-1);
+		for (int i=0; i < patternCount; i++) {
+			String p = patterns.get(i);
+			patternLengths[i] = p.length();
+			if (p.length() == 0) continue;
+			int state = 0;
+			for (int j=0; j < p.length(); j++) {
+				long key = key(state,p.charAt(j));
+				Integer next = transitions.get(key);
+				if (next == null) {
+					next = outputs.size();
+					outputs.add(-1);
+					transitions.put(key, next);
+				}
+				state = next;
+			}
+			if (outputs.get(state) < 0) outputs.set(state, i);
+		}
+		int stateCount = outputs.size();
+		output = new int[stateCount];
+		for (int i=0; i < stateCount; i++)
+			output[i] = outputs.get(i);
+		failure = new int[stateCount];
+		outputLink = new int[stateCount];
+		outputLink[0] = -1;
+		computeFailures(stateCount);
+	}
+
+	private static long key(int state, char c) {
+		return ((long)state << 16) | c;
+	}
+
+	// breadth-first, so that the failure state of a state is computed before the state itself
+	private void computeFailures(int stateCount) {
+		List<List<long[]>> children = new ArrayList<>(stateCount);
+		for (int i=0; i < stateCount; i++)
+			children.add(null);
+		for (Map.Entry<Long,Integer> e: transitions.entrySet()) {
+			int from = (int)(e.getKey() >>> 16);
+			if (children.get(from) == null) children.set(from, new ArrayList<long[]>());
+			children.get(from).add(new long[]{e.getKey() & 0xFFFF, e.getValue()});
+		}
+		int[] queue = new int[stateCount];
+		int head = 0; int tail = 0;
+		queue[tail++] = 0;
+		while (head < tail) {
+			int state = queue[head++];
+			List<long[]> kids = children.get(state);
+			if (kids == null) continue;
+			for (long[] kid: kids) {
+				char c = (char)kid[0];
+				int next = (int)kid[1];
+				int f = 0;
+				if (state != 0) {
+					int s = failure[state];
+					while (true) {
+						Integer t = transitions.get(key(s,c));
+						if (t != null) { f = t; break; }
+						if (s == 0) break;
+						s = failure[s];
+					}
+				}
+				failure[next] = f;
+				outputLink[next] = (output[f] >= 0 ? f : outputLink[f]);
+				queue[tail++] = next;
+			}
+		}
+	}
+
+	/**
+	 * Finds all occurrences of the strings in a text.
+	 *
+	 * @param text	the text to search
+	 * @return  an array with the start offsets of the occurrences of each string in ascending order,
+	 * 			at the position of the string in the list, null if the string does not occur in the text
+	 */
+	public int[][] match(String text) {
+		List<List<Integer>> starts = new ArrayList<>(patternCount);
+		for (int i=0; i < patternCount; i++)
+			starts.add(null);
+		int state = 0;
+		for (int i=0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			Integer next = transitions.get(key(state,c));
+			while (next == null && state != 0) {
+				state = failure[state];
+				next = transitions.get(key(state,c));
+			}
+			state = (next == null ? 0 : next);
+			for (int s = (output[state] >= 0 ? state : outputLink[state]); s >= 0; s = outputLink[s]) {
+				int p = output[s];
+				if (starts.get(p) == null) starts.set(p, new ArrayList<Integer>());
+				starts.get(p).add(i - patternLengths[p] + 1);
+			}
+		}
+		int[][] out = new int[patternCount][];
+		for (int i=0; i < patternCount; i++) {
+			List<Integer> ps = starts.get(i);
+			if (ps == null) continue;
+			out[i] = new int[ps.size()];
+			for (int j=0; j < ps.size(); j++)
+				out[i][j] = ps.get(j);
+		}
+		return out;
+	}
+}
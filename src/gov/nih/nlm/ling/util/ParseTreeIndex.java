@@ -0,0 +1,269 @@
+package gov.nih.nlm.ling.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.stanford.nlp.trees.Tree;
+import gov.nih.nlm.ling.core.Sentence;
+import gov.nih.nlm.ling.core.Span;
+import gov.nih.nlm.ling.core.SpanList;
+import gov.nih.nlm.ling.core.Word;
+
+/**
+ * A precomputed index over the parse tree of a sentence that answers the tree geometry queries
+ * used in coreference resolution without walking the tree: the leaves aligned with the words of the sentence,
+ * parent pointers and depths of the nodes, and a lowest common ancestor structure
+ * (an Euler tour with a sparse table of minimum depths). <p>
+ *
+ * The results are the same as those of the corresponding <code>Tree</code> methods
+ * ({@link Tree#joinNode(Tree, Tree)}, {@link Tree#pathNodeToNode(Tree, Tree)}), which compare the paths from the root
+ * to the two nodes position by position, by identity, so that the join node is the lowest common ancestor. <p>
+ *
+ * The index is built lazily by {@link Sentence#getTreeIndex()} and is rebuilt if the tree or the words of the sentence are replaced.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+public class ParseTreeIndex {
+
+	private final Tree root;
+	private final List<Word> words;
+	private final int wordCount;
+	private final Map<Tree,Integer> nodeIds = new IdentityHashMap<>();
+	private final Tree[] nodes;
+	private final int[] parent;
+	private final int[] depth;
+	private final int[] size;
+	private final Tree[] leaves;
+	private final Map<Word,Integer> wordPositions = new IdentityHashMap<>();
+	// whether the words are ordered, non-empty, single spans that do not overlap
+	private final boolean wellFormed;
+	private final int[] euler;
+	private final int[] first;
+	private final int[][] sparse;
+
+	/**
+	 * Builds the index for the parse tree of a sentence.
+	 *
+	 * @param sentence	the sentence with the parse tree
+	 */
+	public ParseTreeIndex(Sentence sentence) {
+		this.root = sentence.getTree();
+		this.words = sentence.getWords();
+		this.wordCount = (words == null ? -1 : words.size());
+		List<Tree> preOrder = new ArrayList<>();
+		List<Integer> parents = new ArrayList<>();
+		List<Tree> leafList = new ArrayList<>();
+		if (root != null) collect(root,-1,preOrder,parents,leafList);
+		int n = preOrder.size();
+		nodes = preOrder.toArray(new Tree[n]);
+		leaves = leafList.toArray(new Tree[leafList.size()]);
+		parent = new int[n];
+		depth = new int[n];
+		size = new int[n];
+		for (int i=0; i < n; i++) {
+			nodeIds.put(nodes[i], i);
+			parent[i] = parents.get(i);
+			depth[i] = (parent[i] < 0 ? 0 : depth[parent[i]] + 1);
+			size[i] = 1;
+		}
+		for (int i=n-1; i > 0; i--)
+			size[parent[i]] += size[i];
+		// Euler tour
+		euler = new int[Math.max(0, 2*n-1)];
+		first = new int[n];
+		if (n > 0) tour();
+		sparse = buildSparseTable();
+		wellFormed = indexWords();
+	}
+
+	private static void collect(Tree t, int parentId, List<Tree> preOrder, List<Integer> parents, List<Tree> leafList) {
+		int id = preOrder.size();
+		preOrder.add(t);
+		parents.add(parentId);
+		if (t.isLeaf()) leafList.add(t);
+		for (Tree k: t.children())
+			collect(k,id,preOrder,parents,leafList);
+	}
+
+	private void tour() {
+		int[] childCursor = new int[nodes.length];
+		int[] stack = new int[nodes.length];
+		int top = 0;
+		int pos = 0;
+		stack[top++] = 0;
+		first[0] = pos;
+		euler[pos++] = 0;
+		while (top > 0) {
+			int v = stack[top-1];
+			Tree[] kids = nodes[v].children();
+			if (childCursor[v] < kids.length) {
+				int c = nodeIds.get(kids[childCursor[v]++]);
+				first[c] = pos;
+				euler[pos++] = c;
+				stack[top++] = c;
+			} else {
+				top--;
+				if (top > 0) euler[pos++] = stack[top-1];
+			}
+		}
+	}
+
+	private int[][] buildSparseTable() {
+		int m = euler.length;
+		if (m == 0) return new int[0][];
+		int levels = 32 - Integer.numberOfLeadingZeros(m);
+		int[][] table = new int[levels][];
+		table[0] = euler.clone();
+		for (int k=1; k < levels; k++) {
+			int len = m - (1 << k) + 1;
+			table[k] = new int[len];
+			for (int i=0; i < len; i++) {
+				int a = table[k-1][i];
+				int b = table[k-1][i + (1 << (k-1))];
+				table[k][i] = (depth[a] <= depth[b] ? a : b);
+			}
+		}
+		return table;
+	}
+
+	private boolean indexWords() {
+		if (words == null) return false;
+		boolean ordered = true;
+		int lastEnd = Integer.MIN_VALUE;
+		for (int i=0; i < words.size(); i++) {
+			Word w = words.get(i);
+			if (wordPositions.containsKey(w) == false) wordPositions.put(w, i);
+			SpanList sp = w.getSpan();
+			if (sp == null || sp.size() != 1) {
+				ordered = false;
+				continue;
+			}
+			Span s = sp.getSpans().get(0);
+			if (s.getBegin() >= s.getEnd() || s.getBegin() < lastEnd) ordered = false;
+			lastEnd = s.getEnd();
+		}
+		return ordered;
+	}
+
+	/**
+	 * Checks whether the index reflects the current parse tree and words of a sentence.
+	 *
+	 * @param sentence	the sentence
+	 * @return  true if the index is up to date
+	 */
+	public boolean isCurrent(Sentence sentence) {
+		List<Word> sentWords = sentence.getWords();
+		return (sentence.getTree() == root && sentWords == words &&
+				(sentWords == null ? -1 : sentWords.size()) == wordCount);
+	}
+
+	/**
+	 *
+	 * @return  the root of the indexed parse tree
+	 */
+	public Tree getRoot() {
+		return root;
+	}
+
+	/**
+	 * Finds the subtree that corresponds to a list of words in the sentence, the same way as
+	 * {@link ParseTreeUtils#getCorrespondingSubTree(Tree, gov.nih.nlm.ling.core.SurfaceElement)}.
+	 *
+	 * @param surfWords	the words, in order
+	 * @return  the corresponding subtree, or null if the words cannot be aligned with the leaves
+	 */
+	public Tree getCorrespondingSubTree(List<Word> surfWords) {
+		Word fW = surfWords.get(0);
+		Word lW = surfWords.get(surfWords.size()-1);
+		Sentence sent = fW.getSentence();
+		List<Word> sentWords = sent.getWords();
+		Integer start = null;
+		Integer end = null;
+		// in a well-formed sentence, the first/last word overlapping a word of the sentence is the word itself
+		if (wellFormed && sentWords == words) {
+			start = wordPositions.get(fW);
+			end = wordPositions.get(lW);
+		}
+		if (start == null || end == null) {
+			Word ffW = sent.getWordsInSpan(fW.getSpan()).get(0);
+			List<Word> lws = sent.getWordsInSpan(lW.getSpan());
+			Word llW = lws.get(lws.size()-1);
+			start = sentWords.indexOf(ffW);
+			end = sentWords.indexOf(llW);
+		}
+		if (leaves.length <= end || leaves.length <= start) return null;
+		List<Tree> surfLeaves = Arrays.asList(leaves).subList(start, end+1);
+		if (surfLeaves.size() == 0) return null;
+		Tree out = surfLeaves.get(0);
+		for (int i=1; i < surfLeaves.size(); i++) {
+			out = joinNode(out, surfLeaves.get(i));
+		}
+		return out;
+	}
+
+	/**
+	 * Equivalent to {@link Tree#joinNode(Tree, Tree)} on the root of the indexed tree.
+	 *
+	 * @param t1	the first node
+	 * @param t2	the second node
+	 * @return  the join node of <var>t1</var> and <var>t2</var>
+	 */
+	public Tree joinNode(Tree t1, Tree t2) {
+		Integer a = nodeIds.get(t1);
+		Integer b = nodeIds.get(t2);
+		if (a == null || b == null) return root.joinNode(t1, t2);
+		if (a == 0 || b == 0) return root;
+		return nodes[lca(a,b)];
+	}
+
+	/**
+	 * Computes the number of nodes on the path between two nodes, that is, the size of
+	 * the list returned by {@link Tree#pathNodeToNode(Tree, Tree)} on the root of the indexed tree.
+	 *
+	 * @param t1	the first node
+	 * @param t2	the second node
+	 * @return  the number of nodes on the path, or -1 if <code>pathNodeToNode</code> returns null
+	 */
+	public int pathLength(Tree t1, Tree t2) {
+		Integer a = nodeIds.get(t1);
+		Integer b = nodeIds.get(t2);
+		if (a == null || b == null) {
+			List<Tree> path = root.pathNodeToNode(t1, t2);
+			return (path == null ? -1 : path.size());
+		}
+		if (a.equals(b)) return 1;
+		if (isAncestor(a,b)) return depth[b] - depth[a] + 1;
+		if (isAncestor(b,a)) return depth[a] - depth[b] + 1;
+		int j = lca(a,b);
+		return depth[a] + depth[b] - 2 * depth[j] + 1;
+	}
+
+	/**
+	 *
+	 * @param t	a node in the tree
+	 * @return  the number of nodes on the path from the root to <var>t</var>, -1 if <var>t</var> is not in the tree
+	 */
+	public int pathLengthFromRoot(Tree t) {
+		Integer a = nodeIds.get(t);
+		if (a == null) return pathLength(root,t);
+		return depth[a] + 1;
+	}
+
+	// whether a dominates or is b
+	private boolean isAncestor(int a, int b) {
+		return (a <= b && b < a + size[a]);
+	}
+
+	private int lca(int a, int b) {
+		int l = Math.min(first[a], first[b]);
+		int r = Math.max(first[a], first[b]);
+		int k = 31 - Integer.numberOfLeadingZeros(r - l + 1);
+		int x = sparse[k][l];
+		int y = sparse[k][r - (1 << k) + 1];
+		return (depth[x] <= depth[y] ? x : y);
+	}
+}
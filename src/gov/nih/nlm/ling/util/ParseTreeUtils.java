@@ -237,6 +237,9 @@ public class ParseTreeUtils {
 	
 	private static Tree getCorrespondingSubTree(Tree root, List<Word> words) {
 		if (root == null || words == null || words.size() == 0) return null;
+		Sentence wordSent = words.get(0).getSentence();
+		if (wordSent != null && wordSent.getTree() == root) 
+			return wordSent.getTreeIndex().getCorrespondingSubTree(words);
 		List<Tree> leaves = root.getLeaves();
 		Word fW = words.get(0);
 		Word lW = words.get(words.size()-1);
@@ -1,8 +1,11 @@
 package gov.nih.nlm.ling.util;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -13,6 +16,7 @@ import gov.nih.nlm.ling.core.SpanList;
 import gov.nih.nlm.ling.core.SurfaceElement;
 import gov.nih.nlm.ling.sem.DomainProperties;
 import gov.nih.nlm.ling.sem.SemanticItem;
+import gov.nih.nlm.ling.sem.SemtypeRegistry;
 import gov.nih.nlm.ling.sem.Term;
 
 /**
@@ -26,27 +30,45 @@ import gov.nih.nlm.ling.sem.Term;
  */
 public class SemUtils {
 	private static Map<String,List<String>> semGroupTypeMap = DomainProperties.parse2("semtype");
+	private static Map<String,BitSet> semGroupTypeBits = new LinkedHashMap<>();
+	static {
+		for (String s: semGroupTypeMap.keySet()) 
+			semGroupTypeBits.put(s, SemtypeRegistry.getBits(semGroupTypeMap.get(s)));
+	}
+	
+	// class hierarchies do not change at runtime, so the generalizations are computed once per class
+	private static final ClassValue<Set<Class<?>>> generalizationCache = new ClassValue<Set<Class<?>>>() {
+		@Override
+		protected Set<Class<?>> computeValue(Class<?> clazz) {
+			return computeGeneralizations(clazz);
+		}
+	};
 	
 	/**
 	 * Finds all extended superclasses and implemented interfaces for a given class.
 	 * This is useful in querying the <code>semanticItems</code> of a <code>Document</code> by class.
+	 * The result is cached for each class.
 	 * 
 	 * @param clazz	the class for querying
 	 * 
-	 * @return  a set of classes/interfaces extended or implemented by <var>clazz</var>. 
+	 * @return  an unmodifiable set of classes/interfaces extended or implemented by <var>clazz</var>. 
 	 */
 	public static Set<Class> getGeneralizations(Class clazz) {
-	    Set<Class> generalizations = new HashSet<Class>();
-	    Class superClass = clazz.getSuperclass();
+		return Collections.<Class>unmodifiableSet(generalizationCache.get(clazz));
+	}
+	
+	private static Set<Class<?>> computeGeneralizations(Class<?> clazz) {
+	    Set<Class<?>> generalizations = new HashSet<>();
+	    Class<?> superClass = clazz.getSuperclass();
 	    if (superClass != null) {
 	    	generalizations.add(superClass);
-	        generalizations.addAll(getGeneralizations(superClass));
+	        generalizations.addAll(generalizationCache.get(superClass));
 	    }
-	    Class[] superInterfaces = clazz.getInterfaces();
+	    Class<?>[] superInterfaces = clazz.getInterfaces();
 	    for (int i = 0; i < superInterfaces.length; i++) {
-	        Class superInterface = superInterfaces[i];
+	        Class<?> superInterface = superInterfaces[i];
 	        generalizations.add(superInterface);
-	        generalizations.addAll(getGeneralizations(superInterface));
+	        generalizations.addAll(generalizationCache.get(superInterface));
 	    }
 	    return generalizations;
 	}
@@ -90,8 +112,9 @@ public class SemUtils {
 		LinkedHashSet<SemanticItem> as = getSalientSemantics(a,headOnly);
 		LinkedHashSet<SemanticItem> bs= getSalientSemantics(b,headOnly);
 		for (SemanticItem s1: as) {
+			BitSet s1Bits = s1.getSemtypeBits();
 			for (SemanticItem s2: bs) {
-				if (SemUtils.matchingSemType(s2, s1, false) != null ) return true;
+				if (s2.getSemtypeBits().intersects(s1Bits)) return true;
 			}
 		}
 		return false;
@@ -131,10 +154,11 @@ public class SemUtils {
 	 * @return  whether the textual unit has any semantic type that is in <code>semTypes</code>
 	 */
 	public static boolean semGroupEquality(SurfaceElement candidate, List<String> semTypes) {
-		LinkedHashSet<SemanticItem> candItems = candidate.filterByEntities();
-		if (candItems == null) return false;
+		LinkedHashSet<SemanticItem> entItems = candidate.filterByEntities();
+		if (entItems == null) return false;
+		LinkedHashSet<SemanticItem> candItems = new LinkedHashSet<>(entItems);
 		LinkedHashSet<SemanticItem> relItems = candidate.filterByRelations();
-		if (relItems != null) candItems.addAll(candidate.filterByRelations());
+		if (relItems != null) candItems.addAll(relItems);
 		for (SemanticItem a: candItems) {
 			if (SemUtils.semTypeInList(a, semTypes, true)) return true;
 		}
@@ -221,11 +245,9 @@ public class SemUtils {
 	 */
 	public static LinkedHashSet<String> getSemGroups(SemanticItem a) {
 		LinkedHashSet<String> groups = new LinkedHashSet<>();
-		LinkedHashSet<String> aSemTypes = a.getAllSemtypes();
-		for (String s: semGroupTypeMap.keySet()) {
-			List<String> types = new ArrayList<>(semGroupTypeMap.get(s));
-			types.retainAll(aSemTypes);
-			if (types.size() > 0) groups.add(s);
+		BitSet aSemTypes = a.getSemtypeBits();
+		for (String s: semGroupTypeBits.keySet()) {
+			if (semGroupTypeBits.get(s).intersects(aSemTypes)) groups.add(s);
 		}
 		return groups;
 	}
@@ -287,9 +309,7 @@ public class SemUtils {
 				}
 			}
 		}
-		for (SemanticItem rem: toRemove) {
-			doc.removeSemanticItem(rem);
-		}
+		doc.removeSemanticItems(toRemove);
 	}
 	
 	private static LinkedHashSet<SemanticItem> getSalientSemantics(SurfaceElement e, boolean headOnly) {
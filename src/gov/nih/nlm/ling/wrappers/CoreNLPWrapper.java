@@ -41,6 +41,7 @@ import gov.nih.nlm.ling.core.Span;
 import gov.nih.nlm.ling.core.SpanList;
 import gov.nih.nlm.ling.core.SurfaceElement;
 import gov.nih.nlm.ling.core.SynDependency;
+import gov.nih.nlm.ling.core.Vocabulary;
 import gov.nih.nlm.ling.core.Word;
 import gov.nih.nlm.ling.core.WordLexeme;
 import gov.nih.nlm.ling.util.FileUtils;
@@ -279,7 +280,7 @@ public class CoreNLPWrapper {
 	    String pos = token.get(PartOfSpeechAnnotation.class);
 	    String lemma = token.get(LemmaAnnotation.class);
 	    if (StringUtils.isPunct(str) && lemma.startsWith("-") && lemma.endsWith("-")) lemma = str.toLowerCase();
-		WordLexeme lex = new WordLexeme(lemma,pos);
+		WordLexeme lex = Vocabulary.getLexeme(lemma,pos);
 		Word w = new Word(str,pos,lex,++wi);
 		int begin = token.get(CharacterOffsetBeginAnnotation.class);
 		int end = token.get(CharacterOffsetEndAnnotation.class);
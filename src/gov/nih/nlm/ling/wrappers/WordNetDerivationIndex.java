@@ -0,0 +1,290 @@
+package gov.nih.nlm.ling.wrappers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An in-memory index of the noun-to-adjective/verb derivational links in WordNet. <p>
+ *
+ * The index maps a noun lemma to the word form that would be returned by walking its noun synsets
+ * (in the JAWS sense order: more frequently tagged senses first, then by sense number) and their 
+ * derivationally related forms through the JAWS file database, keeping the first adjective or verb form. 
+ * As in JAWS, the synsets of a lemma are found regardless of case, but a derivational link only applies to 
+ * the lemma if its source word form is the lemma with the same case, so that <i>Aberdeen</i> has 
+ * a denominal form and <i>aberdeen</i> does not. Only the final answers are retained, so the index is small
+ * and can be written to and read back from a compact binary file, which avoids parsing the
+ * dictionary files at each start-up. <p>
+ *
+ * It is built from the <i>index.sense</i>, <i>data.noun</i>, <i>data.adj</i>, and <i>data.verb</i> files
+ * of a full WordNet 3.0 dictionary directory. The dictionary in <i>resources/dict</i> does not include
+ * <i>index.sense</i> and <i>data.noun</i>, so these need to be copied from a WordNet 3.0 distribution 
+ * before the index can be built from it. Once constructed, the index is immutable and can be shared between threads.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+public class WordNetDerivationIndex {
+	private static Logger log = Logger.getLogger(WordNetDerivationIndex.class.getName());
+
+	private static final int MAGIC = 0x574e4432;
+	private static final String DERIVATION_POINTER = "+";
+	private static final String[] DICTIONARY_FILES = {"index.sense","data.noun","data.adj","data.verb"};
+
+	private final Map<String,String> denominals;
+
+	private WordNetDerivationIndex(Map<String,String> denominals) {
+		this.denominals = denominals;
+	}
+
+	/**
+	 * Finds the denominal form of a noun lemma.
+	 *
+	 * @param lemma	the noun lemma
+	 * @return  the adjective or verb form derivationally related to the lemma, null if there is none
+	 */
+	public String getDenominal(String lemma) {
+		if (lemma == null) return null;
+		return denominals.get(toExternalForm(lemma));
+	}
+
+	/**
+	 *
+	 * @return  the number of noun lemmas with a denominal form
+	 */
+	public int size() {
+		return denominals.size();
+	}
+
+	/**
+	 * Builds the index from the WordNet dictionary files in <var>dictDir</var>.
+	 *
+	 * @param dictDir	the WordNet dictionary directory
+	 * @return  the derivation index
+	 * @throws IOException	if the dictionary files are missing or cannot be read
+	 */
+	public static WordNetDerivationIndex build(File dictDir) throws IOException {
+		List<String> missing = new ArrayList<>();
+		for (String name: DICTIONARY_FILES) {
+			if (new File(dictDir,name).isFile() == false) missing.add(name);
+		}
+		if (missing.size() > 0) 
+			throw new IOException("Cannot build the WordNet derivation index, " + dictDir.getAbsolutePath() + " lacks " + missing + 
+					". Copy them from a full WordNet 3.0 dictionary.");
+		Map<Integer,SynsetEntry> nounSynsets = readSynsets(new File(dictDir,"data.noun"),true);
+		Map<Integer,SynsetEntry> adjSynsets = readSynsets(new File(dictDir,"data.adj"),false);
+		Map<Integer,SynsetEntry> verbSynsets = readSynsets(new File(dictDir,"data.verb"),false);
+		Map<String,List<SenseEntry>> nounSenses = readNounSenses(new File(dictDir,"index.sense"));
+		Map<String,String> denominals = new HashMap<>();
+		// only the source word forms of derivational links can have a denominal form
+		for (SynsetEntry synset: nounSynsets.values()) {
+			for (Pointer p: synset.derivations) {
+				if (p.source < 1 || p.source > synset.words.length) continue;
+				String lemma = synset.words[p.source-1];
+				if (denominals.containsKey(lemma)) continue;
+				List<SenseEntry> senses = nounSenses.get(toDatabaseForm(lemma));
+				if (senses == null) continue;
+				denominals.put(lemma, findDenominal(lemma,senses,nounSynsets,adjSynsets,verbSynsets));
+			}
+		}
+		denominals.values().removeAll(Collections.singleton(null));
+		log.log(Level.INFO, "Built WordNet derivation index with {0} entries from {1}.", new Object[]{denominals.size(),dictDir.getAbsolutePath()});
+		return new WordNetDerivationIndex(denominals);
+	}
+
+	/**
+	 * Reads a derivation index previously written with {@link #write(File)}.
+	 *
+	 * @param file	the binary index file
+	 * @return  the derivation index
+	 * @throws IOException	if the file cannot be read or is not a derivation index
+	 */
+	public static WordNetDerivationIndex read(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC)
+				throw new IOException("Not a WordNet derivation index: " + file.getAbsolutePath());
+			int size = in.readInt();
+			Map<String,String> denominals = new HashMap<>(size * 4 / 3 + 1);
+			for (int i=0; i < size; i++) {
+				String lemma = in.readUTF();
+				denominals.put(lemma, in.readUTF());
+			}
+			log.log(Level.INFO, "Read WordNet derivation index with {0} entries from {1}.", new Object[]{size,file.getAbsolutePath()});
+			return new WordNetDerivationIndex(denominals);
+		}
+	}
+
+	/**
+	 * Writes the index to <var>file</var> in binary form.
+	 *
+	 * @param file	the file to write to
+	 * @throws IOException	if the file cannot be written
+	 */
+	public void write(File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(denominals.size());
+			for (Map.Entry<String,String> e: denominals.entrySet()) {
+				out.writeUTF(e.getKey());
+				out.writeUTF(e.getValue());
+			}
+		}
+	}
+
+	// mirrors the JAWS lookup: noun synsets of the lemma, then their derivational pointers from the lemma in file order
+	private static String findDenominal(String lemma, List<SenseEntry> senses, Map<Integer,SynsetEntry> nounSynsets,
+			Map<Integer,SynsetEntry> adjSynsets, Map<Integer,SynsetEntry> verbSynsets) {
+		for (SenseEntry sense: senses) {
+			SynsetEntry synset = nounSynsets.get(sense.offset);
+			if (synset == null) continue;
+			for (Pointer p: synset.derivations) {
+				if (p.source < 1 || p.source > synset.words.length) continue;
+				if (synset.words[p.source-1].equals(lemma) == false) continue;
+				SynsetEntry target = null;
+				if (p.pos == 'a' || p.pos == 's') target = adjSynsets.get(p.offset);
+				else if (p.pos == 'v') target = verbSynsets.get(p.offset);
+				// adjective satellites are not adjectives as far as JAWS is concerned
+				if (target == null || target.type == 's') continue;
+				if (p.target < 1 || p.target > target.words.length) continue;
+				return target.words[p.target-1];
+			}
+		}
+		return null;
+	}
+
+	private static Map<Integer,SynsetEntry> readSynsets(File file, boolean withPointers) throws IOException {
+		Map<Integer,SynsetEntry> synsets = new HashMap<>();
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file),StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = br.readLine()) != null) {
+				// license header lines start with spaces
+				if (line.isEmpty() || line.charAt(0) == ' ') continue;
+				String[] tokens = line.split(" ");
+				int offset = Integer.parseInt(tokens[0]);
+				char type = tokens[2].charAt(0);
+				int wordCount = Integer.parseInt(tokens[3],16);
+				String[] words = new String[wordCount];
+				int ind = 4;
+				for (int i=0; i < wordCount; i++) {
+					words[i] = toExternalForm(stripMarker(tokens[ind]));
+					ind += 2;
+				}
+				List<Pointer> derivations = new ArrayList<>();
+				int pointerCount = Integer.parseInt(tokens[ind++]);
+				if (withPointers) {
+					for (int i=0; i < pointerCount; i++) {
+						if (tokens[ind].equals(DERIVATION_POINTER)) {
+							String sourceTarget = tokens[ind+3];
+							derivations.add(new Pointer(Integer.parseInt(tokens[ind+1]),tokens[ind+2].charAt(0),
+									Integer.parseInt(sourceTarget.substring(0,2),16),Integer.parseInt(sourceTarget.substring(2),16)));
+						}
+						ind += 4;
+					}
+				}
+				synsets.put(offset, new SynsetEntry(type,words,derivations));
+			}
+		}
+		return synsets;
+	}
+
+	// sense keys look like lemma%1:lexfile:lexid:head:headid, 1 being the noun synset type, with lowercase lemmas
+	private static Map<String,List<SenseEntry>> readNounSenses(File file) throws IOException {
+		Map<String,List<SenseEntry>> senses = new HashMap<>();
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file),StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = br.readLine()) != null) {
+				String[] tokens = line.split(" ");
+				if (tokens.length < 4) continue;
+				int pct = tokens[0].indexOf('%');
+				if (pct < 0 || tokens[0].charAt(pct+1) != '1') continue;
+				String lemma = tokens[0].substring(0,pct);
+				List<SenseEntry> entries = senses.get(lemma);
+				if (entries == null) {
+					entries = new ArrayList<>();
+					senses.put(lemma, entries);
+				}
+				entries.add(new SenseEntry(Integer.parseInt(tokens[1]),Integer.parseInt(tokens[2]),Integer.parseInt(tokens[3])));
+			}
+		}
+		// the order JAWS uses (SenseIndexEntry): more frequently tagged senses first, then by sense number
+		for (List<SenseEntry> entries: senses.values()) {
+			Collections.sort(entries, new Comparator<SenseEntry>() {
+				public int compare(SenseEntry a, SenseEntry b) {
+					if (a.tagCount != b.tagCount) return b.tagCount - a.tagCount;
+					return a.senseNumber - b.senseNumber;
+				}
+			});
+		}
+		return senses;
+	}
+
+	private static String stripMarker(String word) {
+		int paren = word.indexOf('(');
+		if (paren > 0 && word.endsWith(")")) return word.substring(0,paren);
+		return word;
+	}
+
+	// word forms as JAWS returns and compares them
+	private static String toExternalForm(String lemma) {
+		return lemma.replace('_', ' ');
+	}
+
+	// lemmas as JAWS looks them up in index.sense
+	private static String toDatabaseForm(String lemma) {
+		return lemma.toLowerCase().replace(' ', '_');
+	}
+
+	private static class SynsetEntry {
+		private final char type;
+		private final String[] words;
+		private final List<Pointer> derivations;
+
+		private SynsetEntry(char type, String[] words, List<Pointer> derivations) {
+			this.type = type;
+			this.words = words;
+			this.derivations = derivations;
+		}
+	}
+
+	private static class Pointer {
+		private final int offset;
+		private final char pos;
+		private final int source;
+		private final int target;
+
+		private Pointer(int offset, char pos, int source, int target) {
+			this.offset = offset;
+			this.pos = pos;
+			this.source = source;
+			this.target = target;
+		}
+	}
+
+	private static class SenseEntry {
+		private final int offset;
+		private final int senseNumber;
+		private final int tagCount;
+
+		private SenseEntry(int offset, int senseNumber, int tagCount) {
+			this.offset = offset;
+			this.senseNumber = senseNumber;
+			this.tagCount = tagCount;
+		}
+	}
+}
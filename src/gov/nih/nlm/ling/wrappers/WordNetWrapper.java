@@ -1,5 +1,10 @@
 package gov.nih.nlm.ling.wrappers;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -14,7 +19,15 @@ import gov.nih.nlm.ling.core.SurfaceElement;
 /**
  * A wrapper for access to WordNet features.<p>
  * 
- * This class currently has very limited functionality.
+ * This class currently has very limited functionality.<p>
+ * 
+ * Denominal lookups are cached in a bounded, least-recently-used cache (size set by the
+ * property <i>wordNetCacheSize</i>). If the property <i>wordNetPreloadDerivations</i> is true, 
+ * the derivational links are preloaded into a {@link WordNetDerivationIndex} and the dictionary files 
+ * are no longer consulted for denominal forms. Building the index requires the noun files of a full WordNet 3.0 
+ * dictionary (see {@link WordNetDerivationIndex}). If <i>wordNetDerivationIndex</i> is also set, the index is read from
+ * that file when it exists, and written to it after being built otherwise. 
+ * The static methods of this class can be used concurrently.
  * 
  * 
  * @author Halil Kilicoglu
@@ -23,13 +36,22 @@ import gov.nih.nlm.ling.core.SurfaceElement;
 public class WordNetWrapper {
 	private static Logger log = Logger.getLogger(WordNetWrapper.class.getName());	
 	
+	private static final int DEFAULT_CACHE_SIZE = 10000;
+	// cached value for lemmas without a denominal form
+	private static final String NO_DENOMINAL = "";
+	
 	private static WordNetWrapper wordNet = null;
 	private static WordNetDatabase database = null;
+	private static volatile WordNetDerivationIndex derivationIndex = null;
+	private static volatile Map<String,String> denominalCache = createCache(DEFAULT_CACHE_SIZE);
 	
 	private WordNetWrapper(Properties props)  {
-		System.setProperty("wordnet.database.dir", 
-				props.getProperty("wordNetDictionary","resources/dict"));
+		String dictDir = props.getProperty("wordNetDictionary","resources/dict");
+		System.setProperty("wordnet.database.dir", dictDir);
 		database = WordNetDatabase.getFileInstance();
+		denominalCache = createCache(Integer.parseInt(props.getProperty("wordNetCacheSize",String.valueOf(DEFAULT_CACHE_SIZE))));
+		if (Boolean.parseBoolean(props.getProperty("wordNetPreloadDerivations","false")))
+			derivationIndex = loadDerivationIndex(new File(dictDir),props.getProperty("wordNetDerivationIndex"));
 	}
 	
 	private WordNetWrapper() {
@@ -43,7 +65,7 @@ public class WordNetWrapper {
 	 * 
 	 * @return  the WordNetWrapper singleton
 	 */
-	public static WordNetWrapper getInstance() {
+	public static synchronized WordNetWrapper getInstance() {
 		if (wordNet == null) {	
 			log.info("Initializing a WordNetWrapper instance...");
 			wordNet = new WordNetWrapper();
@@ -59,7 +81,7 @@ public class WordNetWrapper {
 	 * @param props	properties to read
 	 * @return  the WordNetWrapper singleton
 	 */
-	public static WordNetWrapper getInstance(Properties props) {
+	public static synchronized WordNetWrapper getInstance(Properties props) {
 		if (wordNet == null) {	
 			log.info("Initializing a WordNetWrapper instance...");
 			wordNet = new WordNetWrapper(props);
@@ -72,10 +94,32 @@ public class WordNetWrapper {
 	 * 
 	 * @return  true if there is a CoreNLP instance
 	 */
-	public static boolean instantiated() {
+	public static synchronized boolean instantiated() {
 		return (wordNet != null);
 	}
 	
+	private static Map<String,String> createCache(final int size) {
+		return Collections.synchronizedMap(new LinkedHashMap<String,String>(16,0.75f,true) {
+			private static final long serialVersionUID = 1L;
+			protected boolean removeEldestEntry(Map.Entry<String,String> eldest) {
+				return size() > size;
+			}
+		});
+	}
+	
+	private static WordNetDerivationIndex loadDerivationIndex(File dictDir, String indexFileName) {
+		File indexFile = (indexFileName == null ? null : new File(indexFileName));
+		try {
+			if (indexFile != null && indexFile.exists()) return WordNetDerivationIndex.read(indexFile);
+			WordNetDerivationIndex index = WordNetDerivationIndex.build(dictDir);
+			if (indexFile != null) index.write(indexFile);
+			return index;
+		} catch (IOException ioe) {
+			log.log(Level.WARNING, "Unable to load the WordNet derivation index, will use the dictionary files instead: {0}", new Object[]{ioe.toString()});
+		}
+		return null;
+	}
+	
 	/**
 	 * Finds the denominalized form of the head of a textual unit.
 	 * It uses WordNet to get this information, assumes WordNet has already been initialized.
@@ -88,23 +132,41 @@ public class WordNetWrapper {
 	public static String getDenominal(SurfaceElement surf) {
 		if (surf.isNominal() == false) return null;
 		String lemma = surf.getHead().getLemma();
-		try {
-			Synset[] synsets = database.getSynsets(lemma,SynsetType.NOUN);
-			for (int i = 0; i < synsets.length; i++)
-			{
-				WordSense[] senses = synsets[i].getDerivationallyRelatedForms(lemma);
-				for (WordSense sense : senses) {
-					SynsetType  stype = sense.getSynset().getType();
-					if ((stype == SynsetType.ADJECTIVE || stype == SynsetType.VERB) ) {
-						log.log(Level.FINEST, "Denominal form of {0} is {1}.", new Object[]{surf.getText(),sense.getWordForm()});
-						return sense.getWordForm();
-					}
+		String cached = denominalCache.get(lemma);
+		if (cached != null) 
+			return (cached == NO_DENOMINAL ? null : cached);
+		String denominal = null;
+		WordNetDerivationIndex index = derivationIndex;
+		if (index != null) denominal = index.getDenominal(lemma);
+		else {
+			try {
+				denominal = lookupDenominal(lemma);
+			} catch (NullPointerException ne) {
+				log.log(Level.WARNING, ne.toString() + ": wordnet.database.dir system variable needs to be set for WordNet.");
+				return null;
+			} catch (RetrievalException e) {
+				log.log(Level.WARNING, e.toString() + ": wordnet.database.dir system variable needs to be set for WordNet.");
+				return null;
+			}
+		}
+		if (denominal != null)
+			log.log(Level.FINEST, "Denominal form of {0} is {1}.", new Object[]{surf.getText(),denominal});
+		denominalCache.put(lemma, (denominal == null ? NO_DENOMINAL : denominal));
+		return denominal;
+	}
+	
+	// the JAWS file database is not safe for concurrent use
+	static synchronized String lookupDenominal(String lemma) {
+		Synset[] synsets = database.getSynsets(lemma,SynsetType.NOUN);
+		for (int i = 0; i < synsets.length; i++)
+		{
+			WordSense[] senses = synsets[i].getDerivationallyRelatedForms(lemma);
+			for (WordSense sense : senses) {
+				SynsetType  stype = sense.getSynset().getType();
+				if ((stype == SynsetType.ADJECTIVE || stype == SynsetType.VERB) ) {
+					return sense.getWordForm();
 				}
 			}
-		} catch (NullPointerException ne) {
-			log.log(Level.WARNING, ne.toString() + ": wordnet.database.dir system variable needs to be set for WordNet.");
-		} catch (RetrievalException e) {
-			log.log(Level.WARNING, e.toString() + ": wordnet.database.dir system variable needs to be set for WordNet.");
 		}
 		return null;
 	}
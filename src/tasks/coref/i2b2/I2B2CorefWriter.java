@@ -210,7 +210,7 @@ public class I2B2CorefWriter {
 		SurfaceElement st = ts.getSurfaceElement();
 		Sentence sent = st.getSentence();
 		List<Word> stW = sent.getWordsInSpan(ts.getSpan());
-		int sentId = doc.getSentences().indexOf(sent) +1;
+		int sentId = doc.getSentenceIndex(sent) +1;
 		Word firstWt = stW.get(0);
 		Word lastWt = stW.get(stW.size()-1);
 		int firstIndex  = sent.getWords().indexOf(firstWt);
@@ -4,13 +4,16 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -462,60 +465,28 @@ public class I2B2CoreferencePipeline {
 	 * @param doc	the document to process
 	 */
 	public static void postProcessing(Document doc) {
+		List<Section> sections = doc.getSections();
 		LinkedHashSet<SemanticItem> chainsSoFar = new LinkedHashSet<>();
+		LinkedHashSet<SemanticItem> sectChains = null;
+		Map<Entity,String> entityKeys = new IdentityHashMap<>();
 		// merge the chains formed within the section with the previous chain if possible
-		for (Section sect: doc.getSections()) {
-			LinkedHashSet<SemanticItem> remove = new LinkedHashSet<>();
-			LinkedHashSet<SemanticItem> sectChains = Document.getSemanticItemsByClassSpan(doc, CoreferenceChain.class, new SpanList(sect.getTextSpan()), true);
-			sectChains.addAll(getSingletons(doc,sect.getTextSpan()));
+		for (int i=0; i < sections.size(); i++) {
+			Section sect = sections.get(i);
+			if (sectChains == null) {
+				sectChains = new LinkedHashSet<>();
+				collectChains(doc,null,sect.getTextSpan(),null,sectChains);
+			}
 			if (chainsSoFar.size() == 0)  {
 				chainsSoFar.addAll(sectChains); 
+				sectChains = null;
 				continue;
 			}
-			for (SemanticItem ch: chainsSoFar) {
-				for (SemanticItem sch: sectChains) {
-					if (chainsSoFar.contains(sch)) continue;
-					String schType = I2B2CorefWriter.getChainType(sch);
-					if (schType == null) {remove.add(sch); continue;}
-					// test chains are limited to sections
-					if (schType.equals("test")) continue;
-					if (compatibleMentions(ch,sch)) {
-						if (ch instanceof CoreferenceChain) {
-							CoreferenceChain chcc = (CoreferenceChain)ch;
-							if (sch instanceof CoreferenceChain) {
-								CoreferenceChain schcc = (CoreferenceChain)sch;
-								remove.add(sch);
-								chcc.addArguments(schcc.getArguments());
-							} else {
-								CoreferenceType.Role role = CoreferenceType.valueOf(chcc.getType()).getRefRole();
-								chcc.addArgument(new Argument(role.toString(),sch));
-							}
-						} else {
-							if (sch instanceof CoreferenceChain) {
-								CoreferenceChain schcc = (CoreferenceChain)sch;
-								CoreferenceType.Role role = CoreferenceType.valueOf(schcc.getType()).getRefRole();
-								schcc.addArgument(new Argument(role.toString(),ch));
-							} else {
-								SurfaceElement expSurf = ((Entity)sch).getSurfaceElement();
-								SurfaceElement refSurf = ((Entity)ch).getSurfaceElement();
-								LinkedHashSet<ExpressionType> types = ExpressionType.getTypes(expSurf);
-								ExpressionType type = (types.size() ==0 ? null: types.iterator().next());
-								if (type == null) {
-									log.log(Level.SEVERE,"Null cluster type: {0}.", expSurf.toString());
-								}
-								// we should probably not create a chain if the type is null - 01/23/16
-								SurfaceElementChain nch = new SurfaceElementChain(
-										config.getStrategy(CoreferenceType.Anaphora,type),
-										expSurf,Arrays.asList(refSurf));
-								generateCoreferenceChain(doc,nch);
-							}
-						}
-					}
-				}
-				for (SemanticItem rem: remove) doc.removeSemanticItem(rem);
-			}
-			chainsSoFar = Document.getSemanticItemsByClassSpan(doc, CoreferenceChain.class, new SpanList(0,sect.getTextSpan().getEnd()), false);
-			chainsSoFar.addAll(getSingletons(doc,new Span(0,sect.getTextSpan().getEnd())));
+			mergeSectionChains(doc,chainsSoFar,sectChains,entityKeys);
+			// the document does not change until the next section, so its chains are collected along with those so far
+			Span next = (i < sections.size()-1 ? sections.get(i+1).getTextSpan() : null);
+			chainsSoFar = new LinkedHashSet<>();
+			sectChains = (next == null ? null : new LinkedHashSet<SemanticItem>());
+			collectChains(doc,new Span(0,sect.getTextSpan().getEnd()),next,chainsSoFar,sectChains);
 		}	
 		postProcessForSingletonPatients(doc);
 		combinePatientChains(doc);
@@ -525,49 +496,234 @@ public class I2B2CoreferencePipeline {
 		}
 	}
 	
-	// get unclustered semantic items
-	private static LinkedHashSet<SemanticItem> getSingletons(Document doc, Span sp) {
-		LinkedHashSet<SemanticItem> singletons = new LinkedHashSet<>();
-		for (SemanticItem ent: Document.getSemanticItemsByClassSpan(doc, Entity.class, new SpanList(sp), false)) {
-			if (CoreferenceChain.getChainsWithArgument(((Entity)ent).getSurfaceElement()).size() == 0) singletons.add(ent);
+	// merge the chains and singletons of a section with the chains so far that have an exactly matching mention.
+	// Each chain so far is only compared with the section chains that share a mention key with it, in section order, 
+	// and the section chains that come to share a key with it as it grows are added as they are found.
+	// This visits the section chains in the same order as comparing each pair would. 
+	// The chains are not clustered transitively, since a section chain may be merged with several chains so far.
+	// Whether a section chain is among the chains so far is checked as it is visited, since the hash code of a chain 
+	// changes with its arguments.
+	private static void mergeSectionChains(Document doc, LinkedHashSet<SemanticItem> chainsSoFar, 
+			LinkedHashSet<SemanticItem> sectChains, Map<Entity,String> entityKeys) {
+		LinkedHashSet<SemanticItem> remove = new LinkedHashSet<>();
+		SectionChains index = new SectionChains(sectChains,entityKeys);
+		TreeSet<Integer> unvisited = index.getAll();
+		for (SemanticItem ch: chainsSoFar) {
+			Set<String> chKeys = mentionKeys(ch,entityKeys);
+			// the section chains not visited yet are visited as well, so that those with no chain type are removed
+			TreeSet<Integer> pending = index.getPositions(chKeys);
+			pending.addAll(unvisited);
+			while (pending.size() > 0) {
+				int p = pending.pollFirst();
+				SemanticItem sch = index.get(p);
+				if (chainsSoFar.contains(sch)) continue;
+				unvisited.remove(p);
+				String schType = index.getType(p);
+				if (schType == null) {remove.add(sch); continue;}
+				// test chains are limited to sections
+				if (schType.equals("test")) continue;
+				if (compatibleMentions(chKeys,sch,entityKeys) == false) continue;
+				if (ch instanceof CoreferenceChain) {
+					CoreferenceChain chcc = (CoreferenceChain)ch;
+					if (sch instanceof CoreferenceChain) {
+						CoreferenceChain schcc = (CoreferenceChain)sch;
+						remove.add(sch);
+						chcc.addArguments(schcc.getArguments());
+					} else {
+						CoreferenceType.Role role = CoreferenceType.valueOf(chcc.getType()).getRefRole();
+						chcc.addArgument(new Argument(role.toString(),sch));
+					}
+					// the chain now has the mentions of the section chain as well
+					for (String key: mentionKeys(sch,entityKeys)) {
+						if (chKeys.add(key)) pending.addAll(index.getPositions(key).tailSet(p,false));
+					}
+				} else {
+					if (sch instanceof CoreferenceChain) {
+						CoreferenceChain schcc = (CoreferenceChain)sch;
+						CoreferenceType.Role role = CoreferenceType.valueOf(schcc.getType()).getRefRole();
+						schcc.addArgument(new Argument(role.toString(),ch));
+					} else {
+						SurfaceElement expSurf = ((Entity)sch).getSurfaceElement();
+						SurfaceElement refSurf = ((Entity)ch).getSurfaceElement();
+						LinkedHashSet<ExpressionType> types = ExpressionType.getTypes(expSurf);
+						ExpressionType type = (types.size() ==0 ? null: types.iterator().next());
+						if (type == null) {
+							log.log(Level.SEVERE,"Null cluster type: {0}.", expSurf.toString());
+						}
+						// we should probably not create a chain if the type is null - 01/23/16
+						SurfaceElementChain nch = new SurfaceElementChain(
+								config.getStrategy(CoreferenceType.Anaphora,type),
+								expSurf,Arrays.asList(refSurf));
+						generateCoreferenceChain(doc,nch);
+					}
+				}
+				// the section chains that were extended, including the chain so far if it is also in the section
+				for (int q: index.refresh()) {
+					if (q > p && compatibleMentions(chKeys,index.get(q),entityKeys)) pending.add(q);
+				}
+			}
+			doc.removeSemanticItems(remove);
+		}
+	}
+	
+	// collect the chains and the unclustered semantic items within a prefix of the document and within a section
+	// in a single pass, chains first. Either span can be null, in which case the corresponding set is not filled.
+	// The textual units with a chain argument are found once, rather than examining all chains for each entity.
+	// As in CoreferenceChain#getChainsWithArgument(SurfaceElement), an argument counts only if it is found 
+	// in the semantics of its textual unit.
+	private static void collectChains(Document doc, Span prefix, Span sect, 
+			LinkedHashSet<SemanticItem> prefixChains, LinkedHashSet<SemanticItem> sectChains) {
+		SpanList prefixSp = (prefix == null ? null : new SpanList(prefix));
+		SpanList sectSp = (sect == null ? null : new SpanList(sect));
+		Set<SurfaceElement> chainSurfs = Collections.newSetFromMap(new IdentityHashMap<SurfaceElement,Boolean>());
+		for (SemanticItem cc: Document.getSemanticItemsByClass(doc, CoreferenceChain.class)) {
+			for (SemanticItem arg: ((CoreferenceChain)cc).getArgItems()) {
+				if (arg instanceof Term == false) continue;
+				SurfaceElement surf = ((Term)arg).getSurfaceElement();
+				if (surf.getSemantics() != null && surf.getSemantics().contains(arg)) chainSurfs.add(surf);
+			}
+			SpanList sp = cc.getSpan();
+			int begin = sp.getBegin(); int end = sp.getEnd();
+			if (prefixSp != null && SpanList.subsume(prefixSp, begin, end)) prefixChains.add(cc);
+			// chains that only overlap with the section are included
+			if (sectSp != null && (SpanList.subsume(sectSp, begin, end) || SpanList.overlap(begin, end, sectSp))) sectChains.add(cc);
+		}
+		for (SemanticItem ent: Document.getSemanticItemsByClass(doc, Entity.class)) {
+			SpanList sp = ent.getSpan();
+			boolean inPrefix = (prefixSp != null && SpanList.subsume(prefixSp, sp));
+			boolean inSect = (sectSp != null && SpanList.subsume(sectSp, sp));
+			if (inPrefix == false && inSect == false) continue;
+			if (chainSurfs.contains(((Entity)ent).getSurfaceElement())) continue;
+			if (inPrefix) prefixChains.add(ent);
+			if (inSect) sectChains.add(ent);
 		}
-		return singletons;
 	}
 	
-	//determine whether two semantic items are compatible with respect to coreference
-	// exact match is required for the terms involved.
-	private static boolean compatibleMentions(SemanticItem a, SemanticItem b) {
-		CoreferenceChain ach = null;
-		CoreferenceChain bch = null;
-		Entity aent = null;
-		Entity bent = null;
-		if (a instanceof CoreferenceChain) ach = (CoreferenceChain)a;
-		if (b instanceof CoreferenceChain) bch = (CoreferenceChain)b;
-		if (a instanceof Entity) aent = (Entity)a;
-		if (b instanceof Entity) bent = (Entity)b;
-		Document doc = a.getDocument();
-		if (ach == null && bch == null) {
-			if (aent.getType().equals("pronoun") || bent.getType().equals("pronoun")) return false;
-			if (aent.getSpan().length() != bent.getSpan().length()) return false;
-			String asp = doc.getStringInSpan(aent.getSpan());
-			String bsp = doc.getStringInSpan(bent.getSpan());
-			return (asp.equalsIgnoreCase(bsp));
-		} else if (ach == null) {
-			for (SemanticItem arg: bch.getArgItems()) 
-				if (compatibleMentions(a,arg)) return true;
-			return false;
-		} else if (bch == null) {
-			for (SemanticItem arg: ach.getArgItems()) 
-				if (compatibleMentions(arg,b)) return true;
+	// determine whether a semantic item has a mention that is compatible with the given mention keys 
+	// with respect to coreference (see mentionKey). Exact match is required for the terms involved: the mentions must not be pronouns, 
+	// and must have the same span length and the same text, ignoring case.
+	private static boolean compatibleMentions(Set<String> keys, SemanticItem b, Map<Entity,String> entityKeys) {
+		if (keys.size() == 0) return false;
+		if (b instanceof CoreferenceChain) {
+			for (SemanticItem arg: ((CoreferenceChain)b).getArgItems()) 
+				if (compatibleMentions(keys,arg,entityKeys)) return true;
 			return false;
-		} else {
-			for (SemanticItem aarg: ach.getArgItems()) {
-				for (SemanticItem barg: bch.getArgItems()) {
-					if (compatibleMentions(aarg,barg)) return true;
+		}
+		if (b instanceof Entity == false) return false;
+		String key = mentionKey((Entity)b,entityKeys);
+		return (key != null && keys.contains(key));
+	}
+	
+	// the normalized mentions of a semantic item, or of the arguments of a coreference chain
+	private static Set<String> mentionKeys(SemanticItem sem, Map<Entity,String> entityKeys) {
+		Set<String> keys = new HashSet<>();
+		addMentionKeys(sem,entityKeys,keys);
+		return keys;
+	}
+	
+	private static void addMentionKeys(SemanticItem sem, Map<Entity,String> entityKeys, Set<String> keys) {
+		if (sem instanceof CoreferenceChain) {
+			for (SemanticItem arg: ((CoreferenceChain)sem).getArgItems()) 
+				addMentionKeys(arg,entityKeys,keys);
+		} else if (sem instanceof Entity) {
+			String key = mentionKey((Entity)sem,entityKeys);
+			if (key != null) keys.add(key);
+		}
+	}
+	
+	// span length and case-folded text of a mention, null for pronouns
+	// two strings are equalsIgnoreCase iff their folded forms are equal
+	private static String mentionKey(Entity ent, Map<Entity,String> entityKeys) {
+		if (entityKeys.containsKey(ent)) return entityKeys.get(ent);
+		String key = null;
+		if (ent.getType().equals("pronoun") == false) {
+			char[] chars = ent.getDocument().getStringInSpan(ent.getSpan()).toCharArray();
+			for (int i=0; i < chars.length; i++) {
+				chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+			}
+			key = ent.getSpan().length() + ":" + new String(chars);
+		}
+		entityKeys.put(ent, key);
+		return key;
+	}
+	
+	// the chains and singletons of a section in section order, indexed by their mention keys (see mentionKey). 
+	// The arguments of the chains only grow during post-processing, so the keys and the chain type of a chain 
+	// are updated when the number of its arguments changes.
+	private static class SectionChains {
+		private final List<SemanticItem> items = new ArrayList<>();
+		private final List<Integer> chainPositions = new ArrayList<>();
+		private final Map<String,TreeSet<Integer>> positions = new HashMap<>();
+		private final Map<Integer,Integer> argCounts = new HashMap<>();
+		private final Map<Integer,String> types = new HashMap<>();
+		private final Map<Entity,String> entityKeys;
+		
+		private SectionChains(LinkedHashSet<SemanticItem> sectChains, Map<Entity,String> entityKeys) {
+			this.entityKeys = entityKeys;
+			for (SemanticItem sch: sectChains) {
+				items.add(sch);
+				if (sch instanceof CoreferenceChain) chainPositions.add(items.size()-1);
+				update(items.size()-1);
+			}
+		}
+		
+		private SemanticItem get(int p) {
+			return items.get(p);
+		}
+		
+		private String getType(int p) {
+			if (types.containsKey(p)) return types.get(p);
+			String type = I2B2CorefWriter.getChainType(items.get(p));
+			types.put(p, type);
+			return type;
+		}
+		
+		private TreeSet<Integer> getAll() {
+			TreeSet<Integer> all = new TreeSet<>();
+			for (int p=0; p < items.size(); p++) all.add(p);
+			return all;
+		}
+		
+		private TreeSet<Integer> getPositions(String key) {
+			TreeSet<Integer> keyPositions = positions.get(key);
+			return (keyPositions == null ? new TreeSet<Integer>() : keyPositions);
+		}
+		
+		private TreeSet<Integer> getPositions(Set<String> keys) {
+			TreeSet<Integer> out = new TreeSet<>();
+			for (String key: keys) out.addAll(getPositions(key));
+			return out;
+		}
+		
+		// re-index a semantic item after its arguments have changed
+		private void update(int p) {
+			SemanticItem sem = items.get(p);
+			if (sem instanceof CoreferenceChain) argCounts.put(p, argCount((CoreferenceChain)sem));
+			types.remove(p);
+			for (String key: mentionKeys(sem,entityKeys)) {
+				TreeSet<Integer> keyPositions = positions.get(key);
+				if (keyPositions == null) {
+					keyPositions = new TreeSet<>();
+					positions.put(key, keyPositions);
 				}
+				keyPositions.add(p);
+			}
+		}
+		
+		// re-index the chains whose arguments have changed, and return their positions
+		private List<Integer> refresh() {
+			List<Integer> changed = new ArrayList<>();
+			for (int p: chainPositions) {
+				if (argCount((CoreferenceChain)items.get(p)) == argCounts.get(p)) continue;
+				update(p);
+				changed.add(p);
 			}
+			return changed;
+		}
+		
+		private static int argCount(CoreferenceChain cc) {
+			return (cc.getArguments() == null ? 0 : cc.getArguments().size());
 		}
-		return false;
 	}
 		
 	// tries to find the patient chain and adds all mentions that contain the word 'patient' to that chain.
@@ -575,6 +731,7 @@ public class I2B2CoreferencePipeline {
 	private static synchronized void postProcessForSingletonPatients(Document doc) {
 		CoreferenceChain patientChain = getPatientChain(doc);
 		if( patientChain == null) return;
+		Set<SemanticItem> patientArgs = new HashSet<>(patientChain.getArgItems());
 //		LinkedHashSet<SemanticItem> corefs = Document.getSemanticItemsByClass(doc, CoreferenceChain.class);
 		for (Sentence sent: doc.getSentences()) {
 			for (SurfaceElement surf: sent.getSurfaceElements()) {
@@ -583,10 +740,11 @@ public class I2B2CoreferencePipeline {
 					if (sems == null) continue;
 					for (SemanticItem sem: sems) {
 						if (sem instanceof Entity) {
-							if (patientChain.getArgItems().contains(sem)) continue;
+							if (patientArgs.contains(sem)) continue;
 							Entity ent = (Entity)sem;
 							if (ent.getAllSemtypes().contains("person") && ent.getText().toLowerCase().contains("patient")) {
 								patientChain.addArgument(new Argument("Equiv",ent));
+								patientArgs.add(ent);
 							}
 						}
 					}
@@ -615,8 +773,7 @@ public class I2B2CoreferencePipeline {
 				}
 			}
 		}
-		for (SemanticItem rem: remove)
-			doc.removeSemanticItem(rem);
+		doc.removeSemanticItems(remove);
 	}
 	
 	private static CoreferenceChain getPatientChain(Document doc) {
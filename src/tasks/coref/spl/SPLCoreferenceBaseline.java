@@ -100,7 +100,7 @@ public class SPLCoreferenceBaseline {
 		}
 		// previous sentences
 		Document doc = sent.getDocument();
-		int ind = doc.getSentences().indexOf(sent);	
+		int ind = doc.getSentenceIndex(sent);	
 		for (int i=ind-1; i >=Math.max(0,ind-3); i--) {
 			Sentence se = doc.getSentences().get(i);
 			List<SurfaceElement> surfs = se.getSurfaceElements();
@@ -128,7 +128,7 @@ public class SPLCoreferenceBaseline {
 			}
 		}
 		Document doc = sent.getDocument();
-		int ind = doc.getSentences().indexOf(sent);	
+		int ind = doc.getSentenceIndex(sent);	
 		for (int i=ind+1; i <Math.min(doc.getSentences().size(),ind+3); i++) {
 			Sentence se = doc.getSentences().get(i);
 			List<SurfaceElement> surfs = se.getSurfaceElements();
@@ -275,11 +275,17 @@ public class SPLCoreferencePipeline {
 	 */
 	public static void setTopics(Document doc) {
 		List<String> termTypes =  new ArrayList<String>(DomainProperties.parse2("semtype").get("DRUG"));
+		// the drug terms are looked up once, and then by sentence span 
+		LinkedHashSet<SemanticItem> drugSem = Document.getSemanticItemsByClassType(doc, Entity.class, termTypes);
+		if (drugSem.size() == 0) {
+			doc.setTopics(new ArrayList<Object>());
+			return;
+		}
 		for (Sentence sent: doc.getSentences()) {
 			List<Object> topics = new ArrayList<Object>();
-			LinkedHashSet<SemanticItem> sentSem = Document.getSemanticItemsByClassTypeSpan(doc, Entity.class, termTypes, 
-					new SpanList(sent.getSpan()),false);
-			for (SemanticItem si: sentSem) {
+			SpanList sentSpan = new SpanList(sent.getSpan());
+			for (SemanticItem si: drugSem) {
+				if (SpanList.subsume(sentSpan, si.getSpan()) == false) continue;
 				Entity ent = (Entity)si;
 				if (ent.getText().toLowerCase().contains("drug") || ent.getText().toLowerCase().contains("section")) continue;
 				if (ent.getConcepts() == null) {
@@ -396,8 +402,8 @@ public class SPLCoreferencePipeline {
 		}
 		for (SemanticItem pr: prune) {
 			log.log(Level.FINE,"Pruning coreference chain: {0}.", pr.toString());
-			doc.removeSemanticItem(pr);
 		}
+		doc.removeSemanticItems(prune);
 	}
 	
 	/**
@@ -15,7 +15,6 @@ import java.util.logging.Logger;
 import gov.nih.nlm.ling.brat.Annotation;
 import gov.nih.nlm.ling.brat.RelationAnnotation;
 import gov.nih.nlm.ling.brat.StandoffAnnotationEvaluator;
-import gov.nih.nlm.ling.brat.StandoffAnnotationFileComparator;
 import gov.nih.nlm.ling.brat.TermAnnotation;
 import gov.nih.nlm.ling.sem.DomainProperties;
 import gov.nih.nlm.ling.util.FileUtils;
@@ -74,8 +73,6 @@ public class SPLEvaluator {
 			printCorrect = Boolean.parseBoolean(args[6]);
 		}
 		
-		int fileNum = 0;
-		List<String> files = FileUtils.listFiles(goldDirName, false, "ann");
 		Map<String, List<Annotation>> annoTP = new TreeMap<>();
 		Map<String, List<Annotation>> annoFP = new TreeMap<>();
 		Map<String, List<Annotation>> annoFN = new TreeMap<>();
@@ -105,15 +102,8 @@ public class SPLEvaluator {
 		parseTypes.addAll(map.get(TermAnnotation.class));
 		parseTypes.addAll(map.get(RelationAnnotation.class));
 		
-		for (String filename: files) {
-			String id = filename.replace(".ann", "");
-			id = id.substring(id.lastIndexOf(File.separator)+1);
-			log.info("Processing " + id + ":" + ++fileNum);
-			String annFilename = annDir.getAbsolutePath() + File.separator + id + ".ann";
-			String goldFilename = goldDir.getAbsolutePath() + File.separator + id + ".ann";
-			StandoffAnnotationFileComparator.compare(id, annFilename, goldFilename, null, parseTypes, null, 
-					approximateMatch, true, usedTermMatchOnly, false, annoTP, annoFP, annoFN);
-		}
+		StandoffAnnotationEvaluator.compareDirectories(annDir, goldDir, null, parseTypes, null,
+				approximateMatch, true, usedTermMatchOnly, false, annoTP, annoFP, annoFN);
 		PrintWriter pw = new PrintWriter(System.out);
 		if (printErrors) StandoffAnnotationEvaluator.printDiffs(pw,map,annoFP,annoFN);
 		if (printCorrect) StandoffAnnotationEvaluator.printCorrect(pw,map,annoTP);
@@ -0,0 +1,131 @@
+package tasks.factuality.semrep;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+
+import gov.nih.nlm.ling.composition.ArgumentRule;
+import gov.nih.nlm.ling.process.ComponentLoader;
+import gov.nih.nlm.ling.process.IndicatorAnnotator;
+import gov.nih.nlm.ling.process.TermAnnotator;
+import gov.nih.nlm.ling.sem.Indicator;
+import gov.nih.nlm.ling.transform.AdverbialTransformation;
+import gov.nih.nlm.ling.transform.CoordinationTransformation;
+import gov.nih.nlm.ling.transform.DependencyDirectionReversal;
+import gov.nih.nlm.ling.transform.DependencyTransformation;
+import gov.nih.nlm.ling.transform.DiscourseConnectiveTransformation;
+import gov.nih.nlm.ling.transform.HyphenatedAdjectiveTransformation;
+import gov.nih.nlm.ling.transform.ModifierCoordinationCorrection;
+import gov.nih.nlm.ling.transform.NPInternalTransformation;
+import gov.nih.nlm.ling.transform.PPAttachmentCorrection;
+import gov.nih.nlm.ling.transform.PhrasalVerbTransformation;
+import gov.nih.nlm.ling.transform.PolarityComposition;
+import gov.nih.nlm.ling.transform.ScopeTransformation;
+import gov.nih.nlm.ling.transform.VerbComplexTransformation;
+
+/**
+ * The components of the SemRep factuality pipeline that do not depend on the document being processed:
+ * the term annotators configured with the factuality triggers, the argument identification rules, and
+ * the sentence transformations, in the order they are applied. <p>
+ *
+ * A context is created once and reused for all documents. The components are configured when the context
+ * is created and are not modified afterwards, so a context can be shared by threads processing different documents.
+ * The transformations only modify the sentence they are given: most of them serialize their <code>transform</code> methods, 
+ * and the others (<code>DiscourseConnectiveTransformation</code>, <code>PolarityComposition</code>) have no instance state.
+ * The triggers and the rules passed to the context should not be modified after it is created.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+public class FactualityProcessingContext {
+
+	private final Properties properties;
+	private final LinkedHashSet<Indicator> indicators;
+	private final List<ArgumentRule> rules;
+	private final List<TermAnnotator> termAnnotators;
+	private final List<DependencyTransformation> transformations;
+	private final List<String> transformationNames;
+
+	/**
+	 * Creates a context, loading the term annotators defined in <var>properties</var>.
+	 *
+	 * @param properties	the pipeline properties
+	 * @param indicators	the factuality triggers
+	 * @param rules			the argument identification rules, may be null if only trigger annotation is needed
+	 *
+	 * @throws ClassNotFoundException	if a term annotator class is not found
+	 * @throws InstantiationException	if a term annotator class cannot be instantiated
+	 * @throws IllegalAccessException	if there is a problem with access to a term annotator class
+	 */
+	public FactualityProcessingContext(Properties properties, LinkedHashSet<Indicator> indicators, List<ArgumentRule> rules)
+			throws ClassNotFoundException, InstantiationException, IllegalAccessException {
+		this.properties = properties;
+		this.indicators = indicators;
+		this.rules = (rules == null ? null : Collections.unmodifiableList(new ArrayList<>(rules)));
+		List<TermAnnotator> annotators = ComponentLoader.getTermAnnotators(properties);
+		String ignore = properties.getProperty("ignorePOSforIndicators");
+		boolean ignorePOS = Boolean.parseBoolean(ignore == null ? "false" : ignore);
+		for (TermAnnotator annotator : annotators) {
+			if (annotator instanceof IndicatorAnnotator) {
+				((IndicatorAnnotator)annotator).setIndicators(indicators);
+				((IndicatorAnnotator)annotator).setIgnorePOS(ignorePOS);
+			}
+		}
+		this.termAnnotators = Collections.unmodifiableList(annotators);
+		this.transformations = Collections.unmodifiableList(Arrays.asList(
+				new DependencyDirectionReversal(),
+				new DiscourseConnectiveTransformation(),
+				new PPAttachmentCorrection(),
+				new VerbComplexTransformation(),
+				new PhrasalVerbTransformation(),
+				new ModifierCoordinationCorrection(),
+				new CoordinationTransformation(),
+				new AdverbialTransformation(),
+				new NPInternalTransformation(),
+				new HyphenatedAdjectiveTransformation(),
+				new ScopeTransformation(),
+				new PolarityComposition()));
+		this.transformationNames = Collections.unmodifiableList(Arrays.asList(
+				"DependencyReversal","DiscourseConnective","PPAttachment","VerbComplex","PhrasalVerb","ModifierCoord",
+				"Coordination","Adverbial","NPInternal","HyphenatedAdjective","Scope","PolarityComp"));
+	}
+
+	public Properties getProperties() {
+		return properties;
+	}
+
+	public LinkedHashSet<Indicator> getIndicators() {
+		return indicators;
+	}
+
+	public List<ArgumentRule> getRules() {
+		return rules;
+	}
+
+	/**
+	 *
+	 * @return the term annotators, with the factuality triggers loaded
+	 */
+	public List<TermAnnotator> getTermAnnotators() {
+		return termAnnotators;
+	}
+
+	/**
+	 *
+	 * @return the sentence transformations, in the order they are applied
+	 */
+	public List<DependencyTransformation> getTransformations() {
+		return transformations;
+	}
+
+	/**
+	 *
+	 * @return the names of the sentence transformations used in logging, in the same order as the transformations
+	 */
+	public List<String> getTransformationNames() {
+		return transformationNames;
+	}
+}
@@ -14,9 +14,7 @@ import gov.nih.nlm.ling.brat.Annotation;
 import gov.nih.nlm.ling.brat.EventAnnotation;
 import gov.nih.nlm.ling.brat.ModificationAnnotation;
 import gov.nih.nlm.ling.brat.StandoffAnnotationEvaluator;
-import gov.nih.nlm.ling.brat.StandoffAnnotationFileComparator;
 import gov.nih.nlm.ling.brat.TermAnnotation;
-import gov.nih.nlm.ling.util.FileUtils;
 
 /**
  * The class to compare/evaluate a directory of SemRep/factuality standoff annotation files against 
@@ -145,8 +143,6 @@ public class SemRepFactualityEvaluator {
 				System.exit(1);
 			}
 			System.setProperty("java.util.Arrays.useLegacyMergeSort", "true");
-			int fileNum = 0;
-			List<String> files = FileUtils.listFiles(goldDirName, false, "ann");
 			Map<String, List<Annotation>> annoTP = new TreeMap<>();
 			Map<String, List<Annotation>> annoFP = new TreeMap<>();
 			Map<String, List<Annotation>> annoFN = new TreeMap<>();
@@ -161,15 +157,8 @@ public class SemRepFactualityEvaluator {
 			parseTypes.addAll(map.get(TermAnnotation.class));
 			parseTypes.addAll(map.get(EventAnnotation.class));
 			parseTypes.addAll(map.get(ModificationAnnotation.class));
-			for (String filename: files) {
-				String id = filename.replace(".ann", "");
-				id = id.substring(id.lastIndexOf(File.separator)+1);
-				log.info("Processing " + id + ":" + ++fileNum);
-				String annFilename = annDir.getAbsolutePath() + File.separator + id + ".ann";
-				String goldFilename = goldDir.getAbsolutePath() + File.separator + id + ".ann";
-				StandoffAnnotationFileComparator.compare(id, annFilename, goldFilename, null, parseTypes, ignoreArgTypes,
-						approximateMatch, false,usedTermMatchOnly, false,annoTP, annoFP, annoFN);
-			}
+			StandoffAnnotationEvaluator.compareDirectories(annDir, goldDir, null, parseTypes, ignoreArgTypes,
+					approximateMatch, false,usedTermMatchOnly, false,annoTP, annoFP, annoFN);
 			PrintWriter pw = null;
 			if (outFile.equals(""))
 				pw = new PrintWriter(System.out);
@@ -4,6 +4,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -15,7 +17,6 @@ import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import edu.stanford.nlp.util.CollectionUtils;
 import edu.stanford.nlp.util.StringUtils;
 import gov.nih.nlm.ling.brat.StandoffAnnotationWriter;
 import gov.nih.nlm.ling.composition.ArgumentIdentification;
@@ -23,6 +24,7 @@ import gov.nih.nlm.ling.composition.ArgumentRule;
 import gov.nih.nlm.ling.composition.EmbeddingCategorization;
 import gov.nih.nlm.ling.composition.ScalarModalityValueComposition;
 import gov.nih.nlm.ling.composition.ScalarModalityValueComposition.ScaleShift;
+import gov.nih.nlm.ling.composition.ScopeGraph;
 import gov.nih.nlm.ling.core.Document;
 import gov.nih.nlm.ling.core.MultiWord;
 import gov.nih.nlm.ling.core.Sentence;
@@ -38,8 +40,6 @@ import gov.nih.nlm.ling.io.XMLEntityReader;
 import gov.nih.nlm.ling.io.XMLPredicateReader;
 import gov.nih.nlm.ling.io.XMLPredicationReader;
 import gov.nih.nlm.ling.io.XMLReader;
-import gov.nih.nlm.ling.process.ComponentLoader;
-import gov.nih.nlm.ling.process.IndicatorAnnotator;
 import gov.nih.nlm.ling.process.TermAnnotator;
 import gov.nih.nlm.ling.sem.AbstractRelation;
 import gov.nih.nlm.ling.sem.AbstractTerm;
@@ -60,18 +60,7 @@ import gov.nih.nlm.ling.sem.ScalarModalityValue.ScaleType;
 import gov.nih.nlm.ling.sem.SemanticItem;
 import gov.nih.nlm.ling.sem.SemanticItemFactory;
 import gov.nih.nlm.ling.sem.Sense;
-import gov.nih.nlm.ling.transform.AdverbialTransformation;
-import gov.nih.nlm.ling.transform.CoordinationTransformation;
-import gov.nih.nlm.ling.transform.DependencyDirectionReversal;
-import gov.nih.nlm.ling.transform.DiscourseConnectiveTransformation;
-import gov.nih.nlm.ling.transform.HyphenatedAdjectiveTransformation;
-import gov.nih.nlm.ling.transform.ModifierCoordinationCorrection;
-import gov.nih.nlm.ling.transform.NPInternalTransformation;
-import gov.nih.nlm.ling.transform.PPAttachmentCorrection;
-import gov.nih.nlm.ling.transform.PhrasalVerbTransformation;
-import gov.nih.nlm.ling.transform.PolarityComposition;
-import gov.nih.nlm.ling.transform.ScopeTransformation;
-import gov.nih.nlm.ling.transform.VerbComplexTransformation;
+import gov.nih.nlm.ling.transform.DependencyTransformation;
 import gov.nih.nlm.ling.util.FileUtils;
 import gov.nih.nlm.ling.wrappers.WordNetWrapper;
 import nu.xom.ParsingException;
@@ -87,7 +76,14 @@ public class SemRepFactualityPipeline {
 
 	private static Logger log = Logger.getLogger(SemRepFactualityPipeline.class.getName());	
 	
-	private static int aMaxId = 0;
+	// identifiers of factuality modifications are assigned per document
+	private static final ThreadLocal<Integer> aMaxId = new ThreadLocal<Integer>() {
+		@Override
+		protected Integer initialValue() {
+			return 0;
+		}
+	};
+	private static final BitSet MODAL_OR_VALENCE_SHIFTER = EmbeddingCategorization.getIds(Arrays.asList("MODAL","VALENCE_SHIFTER"));
 	private static Interval l3Interval = new Interval(1.0,1.0);
 	private static Interval l2Interval = new Interval(0.65,0.99);
 	private static Interval l1Interval = new Interval(0.26,0.64);
@@ -99,6 +95,8 @@ public class SemRepFactualityPipeline {
 	private static List<ArgumentRule> argumentRules = null;
 	private static XMLReader reader = null;
 	private static Map<Class<? extends SemanticItem>,List<String>> annotationTypes = null;
+	// the context for the most recently used properties, triggers and rules
+	private static volatile FactualityProcessingContext context = null;
 	
 	
 	/**
@@ -111,7 +109,9 @@ public class SemRepFactualityPipeline {
 		String value = convertScalarModalityValueToFactualityValue(predication);
 		List<Argument> args = new ArrayList<Argument>();
 		args.add(new Argument("SemanticItem",predication));
-		return new Modification("A" + ++aMaxId,"Factuality",args,value);
+		int id = aMaxId.get() + 1;
+		aMaxId.set(id);
+		return new Modification("A" + id,"Factuality",args,value);
 	}
 	
 	/**
@@ -174,22 +174,49 @@ public class SemRepFactualityPipeline {
 		return value;
 	}
 	
-	private static Predication inferenceFrom(Predication pr) {
+	private static Predication inferenceFrom(Predication pr, List<Predication> predications, 
+			Map<String,Map<SemanticItem,BitSet>> argIndex) {
 		// if a predication is an INFER predication, get the base predication for it.
-		Document doc = pr.getDocument();
-		List<SemanticItem> args = pr.getArgItems();
-		LinkedHashSet<SemanticItem> all = Document.getSemanticItemsByClass(doc,Predication.class);
-		for (SemanticItem prss : all) {
-			Predication cc = (Predication)prss;
+		// the candidates are the predications of the same type that share an argument with it, in document order
+		Map<SemanticItem,BitSet> typeIndex = argIndex.get(pr.getType());
+		if (typeIndex == null) return null;
+		BitSet candidates = new BitSet(predications.size());
+		for (SemanticItem arg: pr.getArgItems()) {
+			BitSet argPositions = typeIndex.get(arg);
+			if (argPositions != null) candidates.or(argPositions);
+		}
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i+1)) {
+			Predication cc = predications.get(i);
 			if (cc.equals(pr)) continue;
-			if (cc.getType().equals(pr.getType()) == false) continue;
-			if (CollectionUtils.containsAny(args, cc.getArgItems()) && cc.getFeatures().get("specInfer") == null) {
+			if (cc.getFeatures().get("specInfer") == null) {
 				return cc;
 			}
 		}
 		return null;
 	}
 	
+	// indexes predications by type and argument, with their positions in the list
+	private static Map<String,Map<SemanticItem,BitSet>> indexByTypeArgument(List<Predication> predications) {
+		Map<String,Map<SemanticItem,BitSet>> argIndex = new HashMap<>();
+		for (int i=0; i < predications.size(); i++) {
+			Predication pr = predications.get(i);
+			Map<SemanticItem,BitSet> typeIndex = argIndex.get(pr.getType());
+			if (typeIndex == null) {
+				typeIndex = new HashMap<>();
+				argIndex.put(pr.getType(), typeIndex);
+			}
+			for (SemanticItem arg: pr.getArgItems()) {
+				BitSet positions = typeIndex.get(arg);
+				if (positions == null) {
+					positions = new BitSet();
+					typeIndex.put(arg, positions);
+				}
+				positions.set(i);
+			}
+		}
+		return argIndex;
+	}
+	
 	private static boolean updateForNon(Predication pr) {
 		// special treatment for lexical negation
 		Predicate p = pr.getPredicate();
@@ -385,17 +412,20 @@ public class SemRepFactualityPipeline {
 	 */
 	public static void annotateIndicators(Document document, LinkedHashSet<Indicator> indicators) 
 			throws ClassNotFoundException, InstantiationException, IllegalAccessException{
+		annotateIndicators(document,getIndicatorContext(indicators));
+	}
+	
+	/**
+	 * Annotates factuality triggers in a document, using the term annotators of a processing context.
+	 * 
+	 * @param document	the document to annotate
+	 * @param context	the processing context
+	 */
+	public static void annotateIndicators(Document document, FactualityProcessingContext context) {
 		SemanticItemFactory sif = document.getSemanticItemFactory();
-		List<TermAnnotator> termAnnotators = ComponentLoader.getTermAnnotators(properties);
 		Map<SpanList,LinkedHashSet<Ontology>> annotations = new HashMap<>();
-		for (TermAnnotator annotator : termAnnotators) {
-			if (annotator instanceof IndicatorAnnotator) {
-				((IndicatorAnnotator)annotator).setIndicators(indicators);
-				String ignore = properties.getProperty("ignorePOSforIndicators");
-				boolean ignorePOS = Boolean.parseBoolean(ignore == null ? "false" : ignore);
-				((IndicatorAnnotator)annotator).setIgnorePOS(ignorePOS);
-			}
-			annotator.annotate(document, properties, annotations);
+		for (TermAnnotator annotator : context.getTermAnnotators()) {
+			annotator.annotate(document, context.getProperties(), annotations);
 		}
 		// subsumed by an entity
 		for (SpanList sp: annotations.keySet()) {
@@ -415,31 +445,33 @@ public class SemRepFactualityPipeline {
 			sif.newPredicate(document, sp, head.getSpan(), ind, sense);
 		}
 		// subsumed by another predicate
-		removeSubsumedPredicates(document, indicators);
+		removeSubsumedPredicates(document, context.getIndicators());
 	}
 	
 	private static void removeSubsumedPredicates(Document doc, LinkedHashSet<Indicator> indicators) {
 		// remove factuality triggers subsumed by other factuality triggers ('not' vs. 'may not' for example)
 		List<SemanticItem> toRemove = new ArrayList<>();
+		Set<SemanticItem> removed = new HashSet<>();
 		LinkedHashSet<SemanticItem> terms = Document.getSemanticItemsByClass(doc, Predicate.class);
 		for (SemanticItem term : terms) {
 			Predicate t = (Predicate)term;
 			Indicator ind = t.getIndicator();
+			if (indicators.contains(ind) == false) continue;
 			SurfaceElement su = t.getSurfaceElement();
 			LinkedHashSet<SemanticItem> suTerms = su.filterByPredicates();
 			for (SemanticItem suT: suTerms) {
-				if (suT.equals(t) || toRemove.contains(suT)) continue;
-				if (indicators.contains(ind) == false) continue;
+				if (suT.equals(t) || removed.contains(suT)) continue;
 				if (SpanList.subsume(suT.getSpan(), t.getSpan()) && suT.getSpan().length() > t.getSpan().length()) {
 					toRemove.add(t);
+					removed.add(t);
 					break;
 				}
 			}
 		}
 		for (SemanticItem rem: toRemove) {
 			log.log(Level.FINEST, "Removing subsumed factuality trigger: {0}.", rem.toShortString());
-			doc.removeSemanticItem(rem);
 		}
+		doc.removeSemanticItems(toRemove);
 	}
 	
 	
@@ -450,47 +482,28 @@ public class SemRepFactualityPipeline {
 		}
 	}
 	
-	private static void transformSentence(Sentence sent) {
+	private static void transformSentence(Sentence sent, FactualityProcessingContext context) {
 		// transform the sentence using transformation rules
 		writeTransformation(sent,"INPUT");
-		new DependencyDirectionReversal().transform(sent);
-		writeTransformation(sent,"DependencyReversal");
-
-		new DiscourseConnectiveTransformation().transform(sent);
-		writeTransformation(sent,"DiscourseConnective");
-		new PPAttachmentCorrection().transform(sent);
-		writeTransformation(sent,"PPAttachment");
-
-		new VerbComplexTransformation().transform(sent);
-		writeTransformation(sent,"VerbComplex");
-		new PhrasalVerbTransformation().transform(sent);
-		writeTransformation(sent,"PhrasalVerb");
-		new ModifierCoordinationCorrection().transform(sent);
-		writeTransformation(sent,"ModifierCoord");
-		new CoordinationTransformation().transform(sent);
-		writeTransformation(sent,"Coordination");
-
-		new AdverbialTransformation().transform(sent);
-		writeTransformation(sent,"Adverbial");
-		
-		new NPInternalTransformation().transform(sent);
-		writeTransformation(sent,"NPInternal");
-		new HyphenatedAdjectiveTransformation().transform(sent);
-		writeTransformation(sent,"HyphenatedAdjective");
-		new ScopeTransformation().transform(sent);
-		writeTransformation(sent,"Scope");
-		new PolarityComposition().transform(sent);
-		writeTransformation(sent,"PolarityComp");
+		List<DependencyTransformation> transformations = context.getTransformations();
+		List<String> names = context.getTransformationNames();
+		for (int i=0; i < transformations.size(); i++) {
+			transformations.get(i).transform(sent);
+			writeTransformation(sent,names.get(i));
+		}
 	}
 	
 	private static void updateInferPredications(Document doc) {
 		// if it is a INFER predication, get the scalar value and source from the base predication.
-		for (SemanticItem si: Document.getSemanticItemsByClass(doc, Predication.class)) {
-			Predication pr = (Predication)si;
+		List<Predication> predications = new ArrayList<>();
+		for (SemanticItem si: Document.getSemanticItemsByClass(doc, Predication.class)) 
+			predications.add((Predication)si);
+		Map<String,Map<SemanticItem,BitSet>> argIndex = indexByTypeArgument(predications);
+		for (Predication pr: predications) {
 			String infer= "";
 			if (pr.getFeatures() != null && pr.getFeatures().get("specInfer") != null) infer = pr.getFeatures().get("specInfer").toString();
 			if (infer.equals("") == false) {
-				Predication fromInfer = inferenceFrom(pr);
+				Predication fromInfer = inferenceFrom(pr,predications,argIndex);
 				if (fromInfer != null) {
 					pr.setScalarValues(fromInfer.getScalarValues());
 					pr.setSources(fromInfer.getSources());
@@ -513,28 +526,73 @@ public class SemRepFactualityPipeline {
 	 */
 	public static void process(Document document, LinkedHashSet<Indicator> indicators, List<ArgumentRule> rules) 
 			throws ClassNotFoundException, IllegalAccessException, InstantiationException {
+		process(document,getContext(indicators,rules));
+	}
+	
+	/**
+	 * Processes a single <code>Document</code> with the Embedding Framework, using the components of a processing context.
+	 * Only the document-specific structures (document and semantic graphs) are created for the document.
+	 * 
+	 * @param document	the document to process
+	 * @param context	the processing context
+	 */
+	public static void process(Document document, FactualityProcessingContext context) {
 		if (document == null) {
 			log.severe("Invalid document.");
 			return;
 		}
-		aMaxId = 0;
-		annotateIndicators(document,indicators);
+		aMaxId.set(0);
+		annotateIndicators(document,context);
 		for (Sentence sent: document.getSentences()) {
-			transformSentence(sent);
+			transformSentence(sent,context);
 		}
 		DocumentGraph docGraph = new DocumentGraph(document);
 		List<Node> roots = GraphUtils.getRoots(docGraph);
 		SemanticGraph semGraph = new SemanticGraph(document);
+		ScopeGraph scopes = new ScopeGraph();
 		LinkedHashSet<SemanticItem> childSems = new LinkedHashSet<>();
 		for (Node root: roots) {
-			ArgumentIdentification.argumentIdentification(root, docGraph, rules, semGraph, childSems, false, false);
+			ArgumentIdentification.argumentIdentification(root, docGraph, context.getRules(), semGraph, scopes, childSems, false, false);
 		}
 		updateInferPredications(document);
-		for (SemanticItem si: document.getAllSemanticItems()) {
+		for (SemanticItem si: document.getAllSemanticItemsView()) {
 			log.log(Level.FINEST,"Document semantic item: {0}.", new Object[]{si.toShortString()});
 		}
 	}
 	
+	/**
+	 * Gets the processing context for the current properties and the given triggers and rules.
+	 * The context is created once and reused as long as the same properties, triggers and rules are used.
+	 * 
+	 * @param indicators	the factuality triggers
+	 * @param rules			the argument identification rules, null if no rules are used
+	 * @return	the processing context
+	 * 
+	 * @throws ClassNotFoundException 	if there is a problem with indicator annotator class
+	 * @throws IllegalAccessException	if there is a problem with indicator annotation
+	 * @throws InstantiationException	if there is a problem with indicator annotation
+	 */
+	public static FactualityProcessingContext getContext(LinkedHashSet<Indicator> indicators, List<ArgumentRule> rules) 
+			throws ClassNotFoundException, IllegalAccessException, InstantiationException {
+		FactualityProcessingContext current = context;
+		if (current != null && current.getProperties() == properties && current.getIndicators() == indicators &&
+				(rules == null ? current.getRules() == null : rules.equals(current.getRules())))
+			return current;
+		current = new FactualityProcessingContext(properties,indicators,rules);
+		context = current;
+		return current;
+	}
+	
+	// the processing context for trigger annotation only, which does not use the rules, 
+	// so the current context is reused whatever its rules are
+	private static FactualityProcessingContext getIndicatorContext(LinkedHashSet<Indicator> indicators) 
+			throws ClassNotFoundException, IllegalAccessException, InstantiationException {
+		FactualityProcessingContext current = context;
+		if (current != null && current.getProperties() == properties && current.getIndicators() == indicators)
+			return current;
+		return getContext(indicators,null);
+	}
+	
 	/**
 	 * Processes a directory of XML files and writes the output of the pipeline
 	 * as standoff annotation and as human-readable output. 
@@ -581,6 +639,7 @@ public class SemRepFactualityPipeline {
 			readableOutDir.mkdir();
 		}
 		
+		FactualityProcessingContext context = getContext(indicators,rules);
 		int fileNum = 0;
 		List<String> files = FileUtils.listFiles(inDirName, false, "xml");
 		for (String filename: files) {
@@ -599,7 +658,7 @@ public class SemRepFactualityPipeline {
 				log.log(Level.SEVERE,"Invalid document: {0}.", id);
 				continue;
 			}
-			process(doc, indicators, rules);
+			process(doc, context);
 			writeStandoff(doc,annFilename);
 			writeReadable(doc,readableFilename);
 		}
@@ -731,8 +790,7 @@ public class SemRepFactualityPipeline {
 		Predicate other = null;
 		for (SemanticItem spanP: spanPs) {
 			if (spanP.equals(p)) continue;
-			if (EmbeddingCategorization.getAllDescendants(Arrays.asList("MODAL","VALENCE_SHIFTER")).
-					contains(spanP.getType())) {
+			if (EmbeddingCategorization.isA(spanP.getType(),MODAL_OR_VALENCE_SHIFTER)) {
 				other = (Predicate)spanP;
 	//			LinkedHashSet<Relation> allPreds = Document.getRelationsWithPredicate(doc, p);
 	//			for (Relation pred: allPreds) {
@@ -0,0 +1,108 @@
+package gov.nih.nlm.ling.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.stanford.nlp.trees.Tree;
+import gov.nih.nlm.ling.core.Document;
+import gov.nih.nlm.ling.core.Sentence;
+import gov.nih.nlm.ling.core.SurfaceElement;
+import gov.nih.nlm.ling.core.Word;
+import gov.nih.nlm.ling.io.XMLReader;
+
+/**
+ * Compares the results of {@link ParseTreeIndex} with those of the corresponding CoreNLP <code>Tree</code> methods
+ * ({@link Tree#joinNode(Tree, Tree)}, {@link Tree#pathNodeToNode(Tree, Tree)}) on the parse trees of
+ * a directory of XML documents. All pairs of internal nodes of each tree are compared, as well as the subtrees
+ * corresponding to the textual units. <p>
+ *
+ * Usage: <code>ParseTreeIndexTest [xmlDirectory]</code>. The default directory is <code>DATA/SPL/TEST/XML</code>.
+ * The number of mismatches is printed, and the exit status is non-zero if there are any.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+public class ParseTreeIndexTest {
+
+	private static int pairs = 0;
+	private static int mismatches = 0;
+
+	public static void main(String[] args) {
+		String dir = (args.length > 0 ? args[0] : "DATA/SPL/TEST/XML");
+		File[] files = new File(dir).listFiles();
+		if (files == null) {
+			System.err.println("Cannot read directory " + dir);
+			System.exit(2);
+		}
+		XMLReader reader = new XMLReader();
+		int sentences = 0;
+		for (File file: files) {
+			if (file.getName().endsWith(".xml") == false) continue;
+			Document doc = reader.load(file.getAbsolutePath());
+			if (doc == null || doc.getSentences() == null) continue;
+			for (Sentence sent: doc.getSentences()) {
+				if (sent.getTree() == null) continue;
+				compareNodePairs(sent);
+				compareSubTrees(sent);
+				sentences++;
+			}
+		}
+		System.out.println("Sentences: " + sentences + " Comparisons: " + pairs + " Mismatches: " + mismatches);
+		System.exit(mismatches == 0 ? 0 : 1);
+	}
+
+	private static void compareNodePairs(Sentence sent) {
+		Tree root = sent.getTree();
+		ParseTreeIndex index = sent.getTreeIndex();
+		List<Tree> internal = new ArrayList<>();
+		for (Tree t: root.preOrderNodeList()) {
+			if (t.isLeaf() == false) internal.add(t);
+		}
+		for (Tree t1: internal) {
+			List<Tree> fromRoot = root.pathNodeToNode(root, t1);
+			check(fromRoot == null ? -1 : fromRoot.size(), index.pathLengthFromRoot(t1), root, t1, root);
+			for (Tree t2: internal) {
+				pairs++;
+				Tree join = root.joinNode(t1, t2);
+				if (join != index.joinNode(t1, t2)) {
+					mismatch("joinNode", root, t1, t2);
+					continue;
+				}
+				List<Tree> path = root.pathNodeToNode(t1, t2);
+				check(path == null ? -1 : path.size(), index.pathLength(t1, t2), root, t1, t2);
+			}
+		}
+	}
+
+	// the subtree found by joining the leaves of the words with Tree#joinNode
+	private static void compareSubTrees(Sentence sent) {
+		Tree root = sent.getTree();
+		List<Tree> leaves = root.getLeaves();
+		List<Word> sentWords = sent.getWords();
+		if (sent.getSurfaceElements() == null) return;
+		for (SurfaceElement surf: sent.getSurfaceElements()) {
+			List<Word> words = surf.toWordList();
+			if (words == null || words.size() == 0) continue;
+			int start = sentWords.indexOf(words.get(0));
+			int end = sentWords.indexOf(words.get(words.size()-1));
+			if (start < 0 || end < 0 || leaves.size() <= end || leaves.size() <= start || end < start) continue;
+			Tree expected = leaves.get(start);
+			for (int i=start+1; i <= end; i++)
+				expected = root.joinNode(expected, leaves.get(i));
+			pairs++;
+			if (expected != sent.getTreeIndex().getCorrespondingSubTree(words))
+				mismatch("getCorrespondingSubTree", root, leaves.get(start), leaves.get(end));
+		}
+	}
+
+	private static void check(int expected, int actual, Tree root, Tree t1, Tree t2) {
+		if (expected != actual)
+			mismatch("pathNodeToNode (" + expected + " vs. " + actual + ")", root, t1, t2);
+	}
+
+	private static void mismatch(String method, Tree root, Tree t1, Tree t2) {
+		if (mismatches++ < 10)
+			System.err.println("Mismatch in " + method + ": " + t1 + " | " + t2 + " | " + root);
+	}
+}
@@ -0,0 +1,73 @@
+package gov.nih.nlm.ling.wrappers;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Compares the denominal forms found by {@link WordNetDerivationIndex} with those found by the JAWS lookup
+ * in {@link WordNetWrapper} on a WordNet dictionary. Each lemma in <i>index.noun</i> is looked up as it appears
+ * there (lowercase, with underscores) and with spaces, as well as each noun word form in <i>data.noun</i>, with its case. <p>
+ *
+ * Usage: <code>WordNetDerivationIndexTest dictDirectory</code>. The directory needs to be a full WordNet 3.0 dictionary,
+ * including <i>index.noun</i>, <i>index.sense</i> and <i>data.noun</i>.
+ * The number of mismatches is printed, and the exit status is non-zero if there are any.
+ *
+ * @author Halil Kilicoglu
+ *
+ */
+public class WordNetDerivationIndexTest {
+
+	private static int mismatches = 0;
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: WordNetDerivationIndexTest dictDirectory");
+			System.exit(2);
+		}
+		File dictDir = new File(args[0]);
+		System.setProperty("wordnet.database.dir", dictDir.getAbsolutePath());
+		WordNetWrapper.getInstance();
+		WordNetDerivationIndex index = WordNetDerivationIndex.build(dictDir);
+		Set<String> lemmas = new LinkedHashSet<>();
+		readLemmas(new File(dictDir,"index.noun"),lemmas,false);
+		readLemmas(new File(dictDir,"data.noun"),lemmas,true);
+		int found = 0;
+		for (String lemma: lemmas) {
+			String expected = WordNetWrapper.lookupDenominal(lemma);
+			String actual = index.getDenominal(lemma);
+			if (expected != null) found++;
+			if (expected == null ? actual != null : expected.equals(actual) == false) {
+				if (mismatches++ < 10)
+					System.err.println("Mismatch for " + lemma + ": " + expected + " vs. " + actual);
+			}
+		}
+		System.out.println("Lemmas: " + lemmas.size() + " With denominal: " + found + " Index size: " + index.size() + " Mismatches: " + mismatches);
+		System.exit(mismatches == 0 ? 0 : 1);
+	}
+
+	// the lemmas of index.noun, or the word forms of data.noun
+	private static void readLemmas(File file, Set<String> lemmas, boolean synsets) throws IOException {
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file),StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = br.readLine()) != null) {
+				// license header lines start with spaces
+				if (line.isEmpty() || line.charAt(0) == ' ') continue;
+				String[] tokens = line.split(" ");
+				if (synsets == false) {
+					lemmas.add(tokens[0]);
+					lemmas.add(tokens[0].replace('_', ' '));
+					continue;
+				}
+				int wordCount = Integer.parseInt(tokens[3],16);
+				for (int i=0; i < wordCount; i++)
+					lemmas.add(tokens[4+2*i].replace('_', ' '));
+			}
+		}
+	}
+}